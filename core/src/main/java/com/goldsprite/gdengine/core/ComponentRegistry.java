@@ -2,6 +2,7 @@ package com.goldsprite.gdengine.core;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.goldsprite.gdengine.ecs.ComponentManager;
 import com.goldsprite.gdengine.ecs.component.Component;
 import com.goldsprite.gdengine.log.Debug;
 
@@ -52,6 +53,8 @@ public class ComponentRegistry {
 		// 1. 清理旧的用户组件 (保留 com.goldsprite.gdengine 开头的内置组件)
 		// 这一步很重要，防止重编译后旧的 Class 引用还留在这里
 		components.removeIf(c -> !c.getName().startsWith("com.goldsprite.gdengine"));
+		// 旧 ClassLoader 的类描述符一并失效
+		ComponentManager.invalidateScriptDescriptors();
 
 		if (projectIndexFile != null && projectIndexFile.exists()) {
 			Debug.logT("Registry", "🔄 Loading User Index: " + projectIndexFile.path());
@@ -111,6 +114,8 @@ public class ComponentRegistry {
 
 			Class<? extends Component> compClz = (Class<? extends Component>) clazz;
 			components.add(compClz);
+			// 预构建描述符 (类型 ID / 父类链 / 编辑模式标记)，避免首帧再反射
+			ComponentManager.getDescriptor(compClz);
 			return true;
 		}
 		return false;
@@ -132,6 +137,7 @@ public class ComponentRegistry {
 	// --- 兼容旧 API (虽然不再推荐使用，但为了防止报错保留空实现) ---
 	public static void clearUserComponents() {
 		components.removeIf(c -> !c.getName().startsWith("com.goldsprite.gdengine"));
+		ComponentManager.invalidateScriptDescriptors();
 	}
 
 	public static void scanBuiltInPackages(String pkg) { /* Deprecated, use engine.index */ }
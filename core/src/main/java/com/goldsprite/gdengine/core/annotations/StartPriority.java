@@ -0,0 +1,17 @@
+package com.goldsprite.gdengine.core.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 组件 Start 的优先级 (数值越小越先执行，默认 0)。
+ * 开启 Start 时间预算后 (见 SceneSystem.setStartBudgetMs)，积压的组件按此顺序分帧启动，
+ * 玩家控制、相机等关键组件可以标成负数，保证第一时间就绪。
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface StartPriority {
+	int value();
+}
@@ -0,0 +1,174 @@
+package com.goldsprite.gdengine.core.platform;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 无窗口运行环境 (服务器 / CI / 批量模拟)
+ * <p>
+ * 没有 LWJGL/Android 后端时，为 Gdx.app / Gdx.graphics / Gdx.gl / Gdx.files 装上最小桩实现，
+ * 让只依赖逻辑的代码 (GameWorld、组件、场景加载、日志) 能在纯 JVM 下运行：
+ * <ul>
+ *     <li>app: 日志打印到标准输出，Preferences 存在内存里，postRunnable 立即执行</li>
+ *     <li>graphics: getDeltaTime 返回 {@link #setDeltaTime} 设定的固定值，其余返回默认值</li>
+ *     <li>gl: 所有调用空转</li>
+ *     <li>files: 直接映射到本地文件系统 (相对路径基于工作目录)</li>
+ * </ul>
+ * 已有后端 (Gdx.app 非空) 的字段不会被覆盖，此时 {@link #isInstalled()} 仍为 false：
+ * 在有窗口的进程里旁路跑一个 HeadlessRunner 不会影响主世界。
+ * 纹理的处理见 ScriptResourceTracker：没有真实 GL 上下文 ({@link #hasGlContext()}) 时不创建 GL 纹理。
+ * </p>
+ */
+public class HeadlessEnvironment {
+
+	/** install 是否已执行过 (防重入) */
+	private static boolean attempted = false;
+	/** 是否真的装上了桩实现 (已有后端时为 false) */
+	private static volatile boolean installed = false;
+	/** 装上的空转 GL (用于区分真实上下文) */
+	private static volatile GL20 stubGl;
+	private static volatile float deltaTime = 1f / 60f;
+	private static volatile long frameId = 0;
+
+	/** 安装桩实现 (重复调用无副作用) */
+	public static synchronized void install() {
+		if (attempted) return;
+		attempted = true;
+
+		if (Gdx.app == null) {
+			installed = true;
+			Gdx.app = (Application) Proxy.newProxyInstance(
+				Application.class.getClassLoader(),
+				new Class<?>[]{Application.class},
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "getType": return Application.ApplicationType.HeadlessDesktop;
+						case "getPreferences": return new MemoryPreferences();
+						case "getJavaHeap": return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+						case "postRunnable":
+							((Runnable) args[0]).run();
+							return null;
+						case "log":
+						case "error":
+						case "debug":
+							System.out.println("[" + args[0] + "] " + args[1]);
+							return null;
+						default:
+							return defaultValue(method.getReturnType());
+					}
+				}
+			);
+		}
+
+		if (Gdx.graphics == null) {
+			Gdx.graphics = (Graphics) Proxy.newProxyInstance(
+				Graphics.class.getClassLoader(),
+				new Class<?>[]{Graphics.class},
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+						case "getDeltaTime":
+						case "getRawDeltaTime": return deltaTime;
+						case "getFrameId": return frameId;
+						case "getFramesPerSecond": return deltaTime > 0f ? Math.round(1f / deltaTime) : 0;
+						default: return defaultValue(method.getReturnType());
+					}
+				}
+			);
+		}
+
+		if (Gdx.gl == null) {
+			stubGl = (GL20) Proxy.newProxyInstance(
+				GL20.class.getClassLoader(),
+				new Class<?>[]{GL20.class},
+				(proxy, method, args) -> defaultValue(method.getReturnType())
+			);
+			Gdx.gl = stubGl;
+			Gdx.gl20 = stubGl;
+		}
+
+		if (Gdx.files == null) {
+			Gdx.files = new LocalFiles();
+		}
+	}
+
+	/** 是否处于无窗口模式 (install 装上了桩实现才为 true；已有后端时仍为 false) */
+	public static boolean isInstalled() {
+		return installed;
+	}
+
+	/** 当前是否有可用的 GL 上下文 (Gdx.gl 为空或是本类装的空转桩时为 false) */
+	public static boolean hasGlContext() {
+		GL20 gl = Gdx.gl;
+		return gl != null && gl != stubGl;
+	}
+
+	/** Gdx.graphics.getDeltaTime() 的返回值 (由 HeadlessRunner 设为模拟步长) */
+	public static void setDeltaTime(float delta) {
+		deltaTime = delta;
+	}
+
+	/** 推进 Gdx.graphics.getFrameId() */
+	public static void nextFrame() {
+		frameId++;
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (type == boolean.class) return false;
+		if (type == int.class) return 0;
+		if (type == float.class) return 0f;
+		if (type == long.class) return 0L;
+		if (type == double.class) return 0.0;
+		return null;
+	}
+
+	/** 直接映射到本地文件系统的 Files */
+	private static class LocalFiles implements Files {
+		@Override public FileHandle getFileHandle(String path, FileType type) { return new FileHandle(new File(path)); }
+		@Override public FileHandle classpath(String path) { return new FileHandle(new File(path)); }
+		@Override public FileHandle internal(String path) { return new FileHandle(new File(path)); }
+		@Override public FileHandle external(String path) { return new FileHandle(new File(path)); }
+		@Override public FileHandle absolute(String path) { return new FileHandle(new File(path)); }
+		@Override public FileHandle local(String path) { return new FileHandle(new File(path)); }
+		@Override public String getExternalStoragePath() { return ""; }
+		@Override public boolean isExternalStorageAvailable() { return true; }
+		@Override public String getLocalStoragePath() { return ""; }
+		@Override public boolean isLocalStorageAvailable() { return true; }
+	}
+
+	/** 内存版 Preferences (进程结束即丢弃) */
+	private static class MemoryPreferences implements Preferences {
+		private final Map<String, Object> values = new HashMap<>();
+
+		@Override public Preferences putBoolean(String key, boolean val) { values.put(key, val); return this; }
+		@Override public Preferences putInteger(String key, int val) { values.put(key, val); return this; }
+		@Override public Preferences putLong(String key, long val) { values.put(key, val); return this; }
+		@Override public Preferences putFloat(String key, float val) { values.put(key, val); return this; }
+		@Override public Preferences putString(String key, String val) { values.put(key, val); return this; }
+		@Override public Preferences put(Map<String, ?> vals) { values.putAll(vals); return this; }
+		@Override public boolean getBoolean(String key) { return getBoolean(key, false); }
+		@Override public int getInteger(String key) { return getInteger(key, 0); }
+		@Override public long getLong(String key) { return getLong(key, 0); }
+		@Override public float getFloat(String key) { return getFloat(key, 0); }
+		@Override public String getString(String key) { return getString(key, ""); }
+		@Override public boolean getBoolean(String key, boolean defValue) { Object v = values.get(key); return v instanceof Boolean ? (Boolean) v : defValue; }
+		@Override public int getInteger(String key, int defValue) { Object v = values.get(key); return v instanceof Integer ? (Integer) v : defValue; }
+		@Override public long getLong(String key, long defValue) { Object v = values.get(key); return v instanceof Long ? (Long) v : defValue; }
+		@Override public float getFloat(String key, float defValue) { Object v = values.get(key); return v instanceof Float ? (Float) v : defValue; }
+		@Override public String getString(String key, String defValue) { Object v = values.get(key); return v instanceof String ? (String) v : defValue; }
+		@Override public Map<String, ?> get() { return values; }
+		@Override public boolean contains(String key) { return values.containsKey(key); }
+		@Override public void clear() { values.clear(); }
+		@Override public void remove(String key) { values.remove(key); }
+		@Override public void flush() {}
+	}
+}
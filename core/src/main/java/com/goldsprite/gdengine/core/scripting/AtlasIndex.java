@@ -0,0 +1,132 @@
+package com.goldsprite.gdengine.core.scripting;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 运行时图集的磁盘索引 (atlas.json，每个资源目录一份)
+ * <p>
+ * 记录一个目录的打包结果：每页的 PNG 文件名，以及每个源图 (相对 assets 的路径) 落在哪一页的哪个矩形。
+ * signature 由所有源图的路径、大小、修改时间和打包参数算出，任何一项变化都会让缓存失效、重新打包。
+ * </p>
+ */
+public class AtlasIndex {
+
+	/** 索引格式版本，格式变化时递增让旧缓存失效 */
+	public static final int FORMAT_VERSION = 2;
+
+	public static class Entry {
+		public String path;
+		public int page, x, y, width, height;
+
+		public Entry() {}
+
+		public Entry(String path, int page, int x, int y, int width, int height) {
+			this.path = path;
+			this.page = page;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+	}
+
+	public int version = FORMAT_VERSION;
+	public String signature = "";
+	public int pageSize;
+	public List<String> pages = new ArrayList<>();
+	public List<Entry> entries = new ArrayList<>();
+
+	private static final Json json = new Json();
+
+	static {
+		json.setOutputType(JsonWriter.OutputType.json);
+		json.setIgnoreUnknownFields(true);
+	}
+
+	/** 读取索引，文件不存在或损坏时返回 null */
+	public static AtlasIndex load(FileHandle file) {
+		if (file == null || !file.exists()) return null;
+		try {
+			AtlasIndex index = json.fromJson(AtlasIndex.class, file);
+			return index != null && index.version == FORMAT_VERSION ? index : null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	public void save(FileHandle file) {
+		file.writeString(json.prettyPrint(this), false, "UTF-8");
+	}
+
+	// ==========================================
+	// 工具
+	// ==========================================
+
+	/**
+	 * 源图集合的签名 (路径 + 大小 + 修改时间 + 打包参数)
+	 * @param sprites 源图 (顺序无关，调用方应先按路径排序以保证稳定)
+	 */
+	public static String computeSignature(FileHandle root, List<FileHandle> sprites, int pageSize, int maxSpriteSize, int padding) {
+		long hash = 1125899906842597L;
+		hash = mix(hash, FORMAT_VERSION);
+		hash = mix(hash, pageSize);
+		hash = mix(hash, maxSpriteSize);
+		hash = mix(hash, padding);
+		for (FileHandle f : sprites) {
+			String rel = relativePath(root, f);
+			for (int i = 0; i < rel.length(); i++) hash = mix(hash, rel.charAt(i));
+			hash = mix(hash, f.length());
+			hash = mix(hash, f.lastModified());
+		}
+		return sprites.size() + "-" + Long.toHexString(hash);
+	}
+
+	private static long mix(long hash, long value) {
+		return hash * 31 + (value ^ (value >>> 32));
+	}
+
+	/** 相对 root 的路径 (统一用 /)，即 ScriptResourceTracker 里使用的资源路径 */
+	public static String relativePath(FileHandle root, FileHandle file) {
+		String rootPath = root.path().replace('\\', '/');
+		String path = file.path().replace('\\', '/');
+		if (path.startsWith(rootPath)) {
+			path = path.substring(rootPath.length());
+			while (path.startsWith("/")) path = path.substring(1);
+		}
+		return path;
+	}
+
+	/** 资源路径所在的目录 ("sprites/hero.png" -> "sprites"，根目录下的图返回 "") */
+	public static String folderOf(String path) {
+		int slash = path.lastIndexOf('/');
+		return slash < 0 ? "" : path.substring(0, slash);
+	}
+
+	/**
+	 * 只读 PNG 文件头 (IHDR) 取宽高，不解码像素
+	 * @param out 写入 [宽, 高]
+	 * @return 不是合法 PNG 时返回 false
+	 */
+	public static boolean readPngSize(FileHandle file, int[] out) {
+		try (InputStream in = file.read(); DataInputStream data = new DataInputStream(in)) {
+			byte[] header = new byte[16];
+			data.readFully(header);
+			// 8 字节签名 + IHDR 块长度 (4) + "IHDR"
+			if ((header[0] & 0xFF) != 0x89 || header[1] != 'P' || header[2] != 'N' || header[3] != 'G') return false;
+			if (header[12] != 'I' || header[13] != 'H' || header[14] != 'D' || header[15] != 'R') return false;
+			out[0] = data.readInt();
+			out[1] = data.readInt();
+			return out[0] > 0 && out[1] > 0;
+		} catch (IOException | RuntimeException e) {
+			return false;
+		}
+	}
+}
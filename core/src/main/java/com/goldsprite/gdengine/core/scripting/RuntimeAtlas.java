@@ -0,0 +1,406 @@
+package com.goldsprite.gdengine.core.scripting;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.log.Debug;
+import com.goldsprite.gdengine.log.TraceRecorder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 运行时图集 (项目散图按目录自动打包)
+ * <p>
+ * 第一次向它要某张图时，只把这张图所在目录 (不含子目录) 下不超过 {@link #getMaxSpriteSize()} 的 PNG
+ * 打成一组页，并把页图和索引 ({@link AtlasIndex}) 写到 <code>项目/build/atlas/目录/</code>；
+ * 下次启动签名一致时直接读页图，跳过解码和打包。没用到的目录不会被解码。
+ * </p>
+ * <p>
+ * 页只保留 GPU 纹理：打包后把页裁到实际用到的大小，上传完立即释放 Pixmap。
+ * 目录打包之后才出现的图、或打包后在磁盘上被修改的图 (修改时间变化)，会让该目录从源图重新打包一次；调用方可能还持有旧页上的区域副本，
+ * 所以换下的旧页留到 {@link #dispose()} 时一起释放。
+ * </p>
+ * <p>
+ * 每组第一页都带一块纯白区域，最先打包那组的白块由 {@link #getWhiteRegion()} 借给 NeonBatch 画图形，
+ * 图形与同页精灵交错绘制时不再换纹理。太大或解析失败的图不打包，由调用方退回独立纹理。
+ * </p>
+ * 只在渲染线程上使用；通过 {@link ScriptResourceTracker#loadRegion} 间接调用。
+ */
+public class RuntimeAtlas {
+
+	public static final String CACHE_DIR = "build/atlas";
+	public static final String INDEX_FILE = "atlas.json";
+	/** 白块在图集中的名字 */
+	public static final String WHITE_NAME = "__white";
+
+	/** 打包参数，只能在打包前通过 {@link #configure} 修改 */
+	private static int pageSize = 2048;
+	private static int maxSpriteSize = 512;
+	private static int padding = 2;
+
+	private static boolean enabled = true;
+
+	/** 一个目录打出来的页 */
+	private static class Group {
+		final List<Texture> pages = new ArrayList<>();
+		/** 已打进本组的资源路径 */
+		final Set<String> paths = new HashSet<>();
+	}
+
+	/** 当前图集对应的 assets 根路径 ("" 表示没有项目上下文) */
+	private static String builtFor = null;
+	/** 目录 (相对 assets) -> 该目录的页 */
+	private static final Map<String, Group> groups = new HashMap<>();
+	private static final Map<String, TextureRegion> regions = new HashMap<>();
+	/** 路径 -> 打包时源图的修改时间 (取图时比对，编辑器里改过的图重新打包) */
+	private static final Map<String, Long> stamps = new HashMap<>();
+	/** 不适合打包的路径 (太大 / 不是 PNG / 解码失败)，不再重试 */
+	private static final Set<String> rejected = new HashSet<>();
+	/** 目录重新打包后换下的旧页 (可能仍被区域副本引用) */
+	private static final List<Texture> retiredPages = new ArrayList<>();
+	private static TextureRegion whiteRegion;
+
+	private static final int[] sizeBuffer = new int[2];
+
+	public static boolean isEnabled() { return enabled; }
+
+	public static void setEnabled(boolean value) {
+		if (!value) dispose();
+		enabled = value;
+	}
+
+	/** 页尺寸上限 */
+	public static int getPageSize() { return pageSize; }
+	/** 宽或高超过该值的图不打包 */
+	public static int getMaxSpriteSize() { return maxSpriteSize; }
+	/** 图与图之间的间距 (防止采样串色) */
+	public static int getPadding() { return padding; }
+
+	/**
+	 * 修改打包参数
+	 * @throws IllegalStateException 已经有目录打过包 (需先 {@link #dispose()})
+	 */
+	public static void configure(int pageSize, int maxSpriteSize, int padding) {
+		if (!groups.isEmpty()) {
+			throw new IllegalStateException("图集已构建，修改打包参数前需先调用 RuntimeAtlas.dispose()");
+		}
+		RuntimeAtlas.pageSize = pageSize;
+		RuntimeAtlas.maxSpriteSize = Math.min(maxSpriteSize, pageSize - padding * 2);
+		RuntimeAtlas.padding = padding;
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	/**
+	 * 取某个资源路径在图集中的区域 (首次用到某个目录时打包 / 读取该目录的图集)
+	 * @return 不适合打包时返回 null (调用方应退回独立纹理)
+	 */
+	public static TextureRegion getRegion(String path) {
+		if (!enabled || path == null) return null;
+		checkContext();
+		FileHandle file = GameWorld.getAsset(path);
+		TextureRegion region = regions.get(path);
+		Long stamp = stamps.get(path);
+		if (region != null && stamp != null && stamp == file.lastModified()) return region;
+		if (region == null && rejected.contains(path)) return null;
+		if (!isPackable(file)) {
+			rejected.add(path);
+			return null;
+		}
+
+		try {
+			buildGroup(AtlasIndex.folderOf(path), path);
+		} catch (LinkageError e) {
+			// 没有 native 库 (单元测试等)：整体关闭，走独立纹理
+			dispose();
+			enabled = false;
+			return null;
+		}
+		region = regions.get(path);
+		if (region == null) rejected.add(path);
+		return region;
+	}
+
+	/** 图集里的纯白区域 (还没有图集时为 null) */
+	public static TextureRegion getWhiteRegion() {
+		return whiteRegion;
+	}
+
+	/** 已登记的区域数 (不含白块) */
+	public static int getRegionCount() { return regions.size(); }
+
+	/** 已打包的目录数 */
+	public static int getGroupCount() { return groups.size(); }
+
+	/** 当前页数 (不含换下的旧页) */
+	public static int getPageCount() {
+		int count = 0;
+		for (Group g : groups.values()) count += g.pages.size();
+		return count;
+	}
+
+	// ==========================================
+	// 构建
+	// ==========================================
+
+	/** 切换项目时丢掉旧项目的图集 */
+	private static void checkContext() {
+		FileHandle root = GameWorld.projectAssetsRoot;
+		boolean hasProject = root != null && root.exists() && root.isDirectory();
+		String key = hasProject ? root.path() : "";
+		if (key.equals(builtFor)) return;
+
+		dispose();
+		builtFor = key;
+	}
+
+	/**
+	 * 打包 (或读缓存) 一个目录；目录已打过包时从源图重新打包
+	 * @param requested 本次请求的路径 (目录无法列举时也保证把它带上)
+	 */
+	private static void buildGroup(String folder, String requested) {
+		long traceStart = TraceRecorder.now();
+		FileHandle root = GameWorld.projectAssetsRoot;
+		boolean hasProject = !builtFor.isEmpty();
+		Group old = groups.get(folder);
+
+		// 路径 -> 源图 (按路径排序，签名稳定)
+		TreeMap<String, FileHandle> sources = new TreeMap<>();
+		FileHandle dir = hasProject ? (folder.isEmpty() ? root : root.child(folder)) : GameWorld.getAsset(folder);
+		if (dir.isDirectory()) {
+			for (FileHandle f : dir.list()) {
+				if (f.isDirectory() || f.name().startsWith(".") || !f.extension().equalsIgnoreCase("png")) continue;
+				String path = folder.isEmpty() ? f.name() : folder + "/" + f.name();
+				if (isPackable(f)) sources.put(path, f);
+				else rejected.add(path);
+			}
+		}
+		if (old != null) {
+			for (String path : old.paths) {
+				if (!sources.containsKey(path)) addIfPackable(sources, path);
+			}
+		}
+		if (!sources.containsKey(requested)) addIfPackable(sources, requested);
+
+		FileHandle cacheDir = hasProject ? root.parent().child(CACHE_DIR).child(folder) : null;
+		String signature = hasProject
+			? AtlasIndex.computeSignature(root, new ArrayList<>(sources.values()), pageSize, maxSpriteSize, padding) : null;
+
+		Group group = new Group();
+		AtlasIndex cached = cacheDir != null ? AtlasIndex.load(cacheDir.child(INDEX_FILE)) : null;
+		if (cached != null && signature.equals(cached.signature) && loadCache(cached, cacheDir, group)) {
+			Debug.logT("Asset", "图集缓存命中: [%s] %d 张图, %d 页", folder, group.paths.size(), group.pages.size());
+			TraceRecorder.end("Asset", "LoadAtlasCache", traceStart, folder);
+		} else {
+			pack(folder, sources, group, cacheDir, signature);
+			TraceRecorder.end("Asset", "BuildAtlas", traceStart, folder);
+		}
+
+		if (old != null) {
+			for (String path : old.paths) {
+				if (!group.paths.contains(path)) {
+					regions.remove(path);
+					stamps.remove(path);
+				}
+			}
+			retiredPages.addAll(old.pages);
+		}
+		for (String path : group.paths) {
+			FileHandle f = sources.get(path);
+			stamps.put(path, f != null ? f.lastModified() : 0L);
+		}
+		groups.put(folder, group);
+	}
+
+	private static void addIfPackable(Map<String, FileHandle> sources, String path) {
+		FileHandle f = GameWorld.getAsset(path);
+		if (isPackable(f)) sources.put(path, f);
+		else rejected.add(path);
+	}
+
+	/** 只读文件头判断：存在、是 PNG、尺寸不超限 */
+	private static boolean isPackable(FileHandle file) {
+		return file.exists() && AtlasIndex.readPngSize(file, sizeBuffer)
+			&& sizeBuffer[0] <= maxSpriteSize && sizeBuffer[1] <= maxSpriteSize;
+	}
+
+	/** 解码并打包一组源图；每页裁剪、上传后即释放 Pixmap，有缓存目录时顺带写缓存 */
+	private static void pack(String folder, Map<String, FileHandle> sources, Group group, FileHandle cacheDir, String signature) {
+		PixmapPacker packer = new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, padding, false, new PixmapPacker.SkylineStrategy());
+		try {
+			// 4x4 白块：UV 取中心，线性过滤也只采到白色
+			Pixmap white = new Pixmap(4, 4, Pixmap.Format.RGBA8888);
+			white.setColor(Color.WHITE);
+			white.fill();
+			packer.pack(WHITE_NAME, white);
+			white.dispose();
+
+			for (Map.Entry<String, FileHandle> e : sources.entrySet()) {
+				Pixmap pixmap = null;
+				try {
+					pixmap = new Pixmap(e.getValue());
+					packer.pack(e.getKey(), pixmap);
+				} catch (RuntimeException ex) {
+					rejected.add(e.getKey());
+				} finally {
+					if (pixmap != null) pixmap.dispose();
+				}
+			}
+
+			AtlasIndex index = null;
+			if (cacheDir != null && tryMkdirs(cacheDir)) {
+				index = new AtlasIndex();
+				index.signature = signature;
+				index.pageSize = pageSize;
+			}
+			Array<PixmapPacker.Page> pages = packer.getPages();
+			for (int p = 0; p < pages.size; p++) {
+				PixmapPacker.Page page = pages.get(p);
+				String name = "page" + p + ".png";
+				Pixmap trimmed = trim(page);
+				Texture texture;
+				try {
+					if (index != null && tryWritePng(cacheDir.child(name), trimmed)) {
+						// 由文件支撑的纹理：GL 上下文丢失后能自行重载，不必留着 Pixmap
+						texture = new Texture(cacheDir.child(name));
+						index.pages.add(name);
+					} else {
+						texture = new Texture(trimmed);
+						index = null;
+					}
+				} finally {
+					trimmed.dispose();
+				}
+				texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+				group.pages.add(texture);
+				for (ObjectMap.Entry<String, PixmapPacker.PixmapPackerRectangle> e : page.getRects()) {
+					Rectangle r = e.value;
+					putRegion(group, e.key, texture, (int) r.x, (int) r.y, (int) r.width, (int) r.height);
+					if (index != null) index.entries.add(new AtlasIndex.Entry(e.key, p, (int) r.x, (int) r.y, (int) r.width, (int) r.height));
+				}
+			}
+			Debug.logT("Asset", "图集打包完成: [%s] %d 张图, %d 页", folder, group.paths.size(), pages.size);
+
+			if (index != null) {
+				try {
+					index.save(cacheDir.child(INDEX_FILE));
+				} catch (RuntimeException e) {
+					Debug.logT("Asset", "⚠️ 图集缓存写入失败 (不影响运行): %s", e.getMessage());
+				}
+			}
+		} finally {
+			// 页都没有生成纹理，dispose 会释放所有页的 Pixmap
+			packer.dispose();
+		}
+	}
+
+	/** 把页裁到实际用到的区域 (取 2 的幂)；区域坐标以左上角为原点，裁剪后不变 */
+	private static Pixmap trim(PixmapPacker.Page page) {
+		int w = 1, h = 1;
+		for (ObjectMap.Entry<String, PixmapPacker.PixmapPackerRectangle> e : page.getRects()) {
+			Rectangle r = e.value;
+			w = Math.max(w, (int) (r.x + r.width) + padding);
+			h = Math.max(h, (int) (r.y + r.height) + padding);
+		}
+		w = Math.min(MathUtils.nextPowerOfTwo(w), pageSize);
+		h = Math.min(MathUtils.nextPowerOfTwo(h), pageSize);
+		Pixmap trimmed = new Pixmap(w, h, Pixmap.Format.RGBA8888);
+		trimmed.setBlending(Pixmap.Blending.None);
+		trimmed.drawPixmap(page.getPixmap(), 0, 0, 0, 0, w, h);
+		return trimmed;
+	}
+
+	private static boolean tryMkdirs(FileHandle dir) {
+		try {
+			dir.mkdirs();
+			return true;
+		} catch (RuntimeException e) {
+			Debug.logT("Asset", "⚠️ 图集缓存目录不可用 (不影响运行): %s", e.getMessage());
+			return false;
+		}
+	}
+
+	private static boolean tryWritePng(FileHandle file, Pixmap pixmap) {
+		try {
+			PixmapIO.writePNG(file, pixmap);
+			return true;
+		} catch (RuntimeException e) {
+			Debug.logT("Asset", "⚠️ 图集缓存写入失败 (不影响运行): %s", e.getMessage());
+			return false;
+		}
+	}
+
+	private static boolean loadCache(AtlasIndex index, FileHandle cacheDir, Group group) {
+		try {
+			for (String name : index.pages) {
+				Texture tex = new Texture(cacheDir.child(name));
+				tex.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+				group.pages.add(tex);
+			}
+			for (AtlasIndex.Entry e : index.entries) {
+				putRegion(group, e.path, group.pages.get(e.page), e.x, e.y, e.width, e.height);
+			}
+			return true;
+		} catch (RuntimeException e) {
+			// 页图缺失或损坏：丢掉缓存重新打包
+			Debug.logT("Asset", "⚠️ 图集缓存不可用, 重新打包: %s", e.getMessage());
+			if (whiteRegion != null && group.pages.contains(whiteRegion.getTexture())) whiteRegion = null;
+			for (Texture t : group.pages) t.dispose();
+			for (String path : group.paths) regions.remove(path);
+			group.pages.clear();
+			group.paths.clear();
+			return false;
+		}
+	}
+
+	private static void putRegion(Group group, String path, Texture texture, int x, int y, int width, int height) {
+		TextureRegion region = new TextureRegion(texture, x, y, width, height);
+		if (WHITE_NAME.equals(path)) {
+			// 只借出第一组的白块 (换下的旧页留到 dispose 才释放，借出的白块一直有效)
+			if (whiteRegion == null) whiteRegion = region;
+			return;
+		}
+		regions.put(path, region);
+		group.paths.add(path);
+	}
+
+	// ==========================================
+	// 释放
+	// ==========================================
+
+	/** 释放所有页 (退出游戏 / 切换项目时)；之后 getRegion 会按目录重新打包或读取缓存 */
+	public static void dispose() {
+		for (Group g : groups.values()) {
+			for (Texture t : g.pages) {
+				try { t.dispose(); } catch (Exception ignored) {}
+			}
+		}
+		for (Texture t : retiredPages) {
+			try { t.dispose(); } catch (Exception ignored) {}
+		}
+		groups.clear();
+		retiredPages.clear();
+		regions.clear();
+		stamps.clear();
+		rejected.clear();
+		whiteRegion = null;
+		builtFor = null;
+	}
+}
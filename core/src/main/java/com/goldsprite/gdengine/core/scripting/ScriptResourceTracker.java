@@ -4,11 +4,15 @@ import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Disposable;
+import com.goldsprite.gdengine.core.platform.HeadlessEnvironment;
 import com.goldsprite.gdengine.ecs.GameWorld;
 import com.goldsprite.gdengine.log.Debug;
+import com.goldsprite.gdengine.log.TraceRecorder;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 脚本资源追踪器
@@ -16,19 +20,30 @@ import java.util.List;
  * 1. 代理资源加载 (自动去 projectAssetsRoot 找)
  * 2. 记录所有加载的资源 (Disposable)
  * 3. 提供一键清理功能 (在 GameRunner 退出时调用)
+ * 4. 同一路径只加载一次 (文件修改时间变化后重新加载)；loadRegion 优先从运行时图集 ({@link RuntimeAtlas}) 取，散图共用图集页
  */
 public class ScriptResourceTracker {
 
 	// 暂存所有由脚本请求加载的资源
 	private static final List<Disposable> trackedResources = new ArrayList<>();
+	// 路径 -> 已加载的纹理 (去重，同一张 PNG 不重复上传)
+	private static final Map<String, Texture> textureCache = new HashMap<>();
+	// 路径 -> 加载时的文件修改时间 (编辑器里改了图再 reload 时据此重新加载)
+	private static final Map<String, Long> textureStamps = new HashMap<>();
 
 	/**
 	 * 安全加载纹理
 	 * @param path 相对于项目 assets 目录的路径 (如 "player.png")
-	 * @return 加载好的 Texture，如果失败返回 null
+	 * @return 加载好的 Texture (同一路径、文件未修改时返回同一个实例)，如果失败返回 null
 	 */
 	public static Texture loadTexture(String path) {
 		FileHandle file = GameWorld.getAsset(path);
+		Texture cached = textureCache.get(path);
+		// 文件被改过：重新加载 (旧纹理可能仍在使用，留给 disposeAll 统一释放)
+		Long stamp = textureStamps.get(path);
+		if (cached != null && stamp != null && stamp == file.lastModified()) return cached;
+
+		long traceStart = TraceRecorder.now();
 		// 注意：在测试环境下，即使文件存在，new Texture 也会因为没有 GL 上下文而失败
 
 		try {
@@ -37,8 +52,14 @@ public class ScriptResourceTracker {
 				return null;
 			}
 
+			// 没有 GL 上下文 (无窗口模式)：只校验资源存在，不创建纹理 (渲染组件拿到 null 会跳过绘制)
+			if (!HeadlessEnvironment.hasGlContext()) return null;
+
 			Texture tex = new Texture(file);
 			trackedResources.add(tex);
+			textureCache.put(path, tex);
+			textureStamps.put(path, file.lastModified());
+			TraceRecorder.end("Asset", "LoadTexture", traceStart, path);
 			return tex;
 
 		} catch (Throwable e) { // [核心修改] Exception -> Throwable
@@ -51,8 +72,18 @@ public class ScriptResourceTracker {
 
 	/**
 	 * 安全加载并包装为 Region
+	 * <p>能打进运行时图集的图返回图集页上的区域；太大、解析失败或无窗口模式下退回独立纹理。</p>
 	 */
 	public static TextureRegion loadRegion(String path) {
+		if (RuntimeAtlas.isEnabled() && HeadlessEnvironment.hasGlContext()) {
+			try {
+				TextureRegion packed = RuntimeAtlas.getRegion(path);
+				// 返回副本：调用方可能翻转 / 改写区域，不影响图集里的原件
+				if (packed != null) return new TextureRegion(packed);
+			} catch (Throwable e) {
+				Debug.logT("Asset", "⚠️ 图集取图失败, 改用独立纹理: %s -> %s", path, e.getClass().getSimpleName());
+			}
+		}
 		Texture tex = loadTexture(path);
 		return tex != null ? new TextureRegion(tex) : null;
 	}
@@ -61,6 +92,9 @@ public class ScriptResourceTracker {
 	 * 销毁所有追踪的资源 (重置游戏或退出时调用)
 	 */
 	public static void disposeAll() {
+		textureCache.clear();
+		textureStamps.clear();
+		RuntimeAtlas.dispose();
 		if (trackedResources.isEmpty()) return;
 
 		Debug.logT("Asset", "正在清理脚本资源: %d 个...", trackedResources.size());
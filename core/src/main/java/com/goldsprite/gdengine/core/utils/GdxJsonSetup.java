@@ -9,7 +9,6 @@ import com.goldsprite.gdengine.ecs.component.TransformComponent;
 import com.goldsprite.gdengine.ecs.entity.GObject;
 import com.goldsprite.gdengine.log.Debug;
 
-import java.util.List;
 
 /**
  * 引擎专用的 JSON 配置中心
@@ -84,18 +83,16 @@ public class GdxJsonSetup {
 
 				// --- Components ---
 				json.writeArrayStart("components");
-				for (List<Component> list : object.getComponentsMap().values()) {
-					for (Component c : list) {
-						// [核心修复] 过滤匿名内部类
-						// 匿名类通常包含 logic 代码，无法被正确反序列化，且不应作为数据资产保存
-						if (c.getClass().isAnonymousClass()) {
-							Debug.log("Json: Skipping anonymous component on " + object.getName());
-							continue;
-						}
-
-						// 写入组件，包含 class 信息以便反序列化
-						json.writeValue(c, null);
+				for (Component c : object.getAllComponents()) {
+					// [核心修复] 过滤匿名内部类
+					// 匿名类通常包含 logic 代码，无法被正确反序列化，且不应作为数据资产保存
+					if (c.getClass().isAnonymousClass()) {
+						Debug.log("Json: Skipping anonymous component on " + object.getName());
+						continue;
 					}
+
+					// 写入组件，包含 class 信息以便反序列化
+					json.writeValue(c, null);
 				}
 				json.writeArrayEnd();
 
@@ -6,6 +6,7 @@ import com.goldsprite.gdengine.core.Gd;
 import com.goldsprite.gdengine.ecs.GameWorld;
 import com.goldsprite.gdengine.ecs.entity.GObject;
 import com.goldsprite.gdengine.log.Debug;
+import com.goldsprite.gdengine.log.TraceRecorder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +32,7 @@ public class SceneLoader {
 			return;
 		}
 
+		long traceStart = TraceRecorder.now();
 		try {
 			// 1. 清理 (如果需要)
 			if (clearWorld) {
@@ -55,6 +57,8 @@ public class SceneLoader {
 		} catch (Exception e) {
 			Debug.logT("SceneLoader", "❌ 加载异常: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			TraceRecorder.end("Scene", "LoadScene", traceStart, file.path());
 		}
 	}
 
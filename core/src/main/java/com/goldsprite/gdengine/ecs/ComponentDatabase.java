@@ -0,0 +1,524 @@
+package com.goldsprite.gdengine.ecs;
+
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.storage.Archetype;
+import com.goldsprite.gdengine.ecs.storage.ArchetypeQuery;
+import com.goldsprite.gdengine.ecs.storage.ComponentMask;
+import com.goldsprite.gdengine.ecs.storage.EntitySet;
+import com.goldsprite.gdengine.log.Debug;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 组件数据库 (每个 GameWorld 一份)
+ * <p>
+ * 保存一个世界内的实体档案 (掩码)、组件池、查询缓存、原型存储与批处理状态。
+ * 类型 ID / 描述符是类级别的元数据，仍由 {@link ComponentManager} 全局维护、各世界共享。
+ * </p>
+ * <p>
+ * 业务代码一般通过 {@link ComponentManager} 的静态方法访问：涉及具体实体的操作路由到实体所属世界，
+ * 其余操作路由到当前线程绑定的世界 ({@link GameWorld#inst()})。
+ * 需要跨世界查询时，也可以直接调用 {@link GameWorld#getComponentDatabase()} 上的同名方法。
+ * </p>
+ * <p>单个数据库只允许一个线程同时修改；不同世界的数据库互不共享，可在不同线程上各自步进。</p>
+ */
+public final class ComponentDatabase {
+
+	/** 实体下标所属的实体表 (批处理结束时回收下标) */
+	private final EntityTable entityTable;
+
+	// ==========================================
+	// 1. 数据存储 (Database)
+	// ==========================================
+
+	/**
+	 * 组件池: Class -> [所有该类型的组件实例]
+	 * 作用: 方便进行全量类型查询 (例如获取世界上所有的 Collider)
+	 * 按对象身份去重的集合，登记 / 注销都是 O(1)，不再每次复制整个数组
+	 */
+	private final Map<Class<? extends Component>, Set<Component>> componentPools = new ConcurrentHashMap<>();
+
+	/**
+	 * 实体档案表: 实体下标 ({@link GObject#getEntityIndex()}) -> ComponentMask
+	 * 作用: 记录每个实体拥有哪些组件。按下标直接寻址，无需哈希。
+	 * Value: 位掩码 (如 {0, 2, 5} 表示拥有 ID为0,2,5 的组件)，null 表示未登记
+	 */
+	private ComponentMask[] entityMasks = new ComponentMask[1024];
+
+	/** 当前有档案的实体 (用于全量遍历) */
+	private final EntitySet trackedEntities = new EntitySet(1024);
+
+	// ==========================================
+	// 2. 查询缓存 (Cache)
+	// ==========================================
+
+	/**
+	 * 查询缓存: QueryMask -> EntitySet
+	 * <p>
+	 * Key: 查询条件的掩码 (例如 "需要组件 0 和 1")
+	 * Value: 符合该条件的所有实体集合 ({@link EntitySet}，按实体下标索引，增删查 O(1))
+	 * </p>
+	 * 优化策略: 使用<b>增量更新 (Incremental Update)</b>。
+	 * 当实体组件变动时，不清除整个缓存，而是遍历所有 Key，检查该实体是否应加入或移除。
+	 */
+	private final Map<ComponentMask, EntitySet> entityCache = new ConcurrentHashMap<>();
+
+	/** 与 entityCache 同步的平铺数组，增量更新时按下标遍历，避免每次创建 Map 迭代器 */
+	private final List<ComponentMask> cachedQueryMasks = new ArrayList<>();
+	private final List<EntitySet> cachedQuerySets = new ArrayList<>();
+
+	// ==========================================
+	// 3. 原型存储 (Archetype, 可选)
+	// ==========================================
+
+	private ComponentManager.StorageMode storageMode = ComponentManager.StorageMode.SPARSE;
+
+	/** 组件签名 -> 原型 */
+	private final Map<ComponentMask, Archetype> archetypes = new HashMap<>();
+
+	/** 实体下标 -> 所在原型及行号 */
+	private ArchetypeSlot[] archetypeSlots = new ArchetypeSlot[0];
+	private int archetypeSlotCount = 0;
+
+	/** 按块查询缓存: QueryMask -> 匹配的原型集合 */
+	private final Map<ComponentMask, ArchetypeQuery> chunkQueries = new HashMap<>();
+
+	// ==========================================
+	// 4. 批处理状态
+	// ==========================================
+
+	private int batchDepth = 0;
+
+	/** 批处理期间发生过结构变更的实体 (按实体下标去重) */
+	private final EntitySet dirtyEntities = new EntitySet();
+
+	private static final class ArchetypeSlot {
+		Archetype archetype;
+		int index;
+	}
+
+	/** 线程内复用的临时掩码，只用于查表，绝不作为 Key 存入 Map */
+	private static final ThreadLocal<ComponentMask> SCRATCH_MASK = ThreadLocal.withInitial(ComponentMask::new);
+
+	public ComponentDatabase(EntityTable entityTable) {
+		this.entityTable = entityTable;
+	}
+
+	// ==========================================
+	// 存储模式
+	// ==========================================
+
+	public ComponentManager.StorageMode getStorageMode() {
+		return storageMode;
+	}
+
+	/**
+	 * 切换存储模式
+	 * <p>切换到 ARCHETYPE 时会按现有实体档案一次性重建所有原型；切回 SPARSE 时丢弃原型数据。</p>
+	 */
+	public void setStorageMode(ComponentManager.StorageMode mode) {
+		if (mode == null || mode == storageMode) return;
+		storageMode = mode;
+		clearArchetypes();
+		if (mode == ComponentManager.StorageMode.ARCHETYPE) {
+			GObject[] items = trackedEntities.items();
+			for (int i = 0, n = trackedEntities.size(); i < n; i++) {
+				syncArchetype(items[i], entityMasks[items[i].getEntityIndex()]);
+			}
+		}
+	}
+
+	// ==========================================
+	// 注册 / 注销
+	// ==========================================
+
+	/** @see ComponentManager#registerComponent */
+	public void registerComponent(GObject entity, Class<? extends Component> componentType, Component component) {
+		SystemScheduler.checkStructuralChange("registerComponent");
+		// 1. 加入全量组件池 (方便 getComponents(Type) 查询)，身份集合自带 O(1) 去重
+		componentPools.computeIfAbsent(componentType, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(component);
+
+		// [批处理] 结构变更缓冲期间只登记脏实体，掩码和缓存在 endBatch 时统一计算一次
+		if (batchDepth > 0) {
+			dirtyEntities.add(entity);
+			return;
+		}
+
+		// 2. 更新该实体的“档案”(Mask)
+		// 如果是新实体，创建一个新的掩码
+		ComponentMask mask = getOrCreateMask(entity);
+		// 在对应 ID 的位置打勾 (含父类，支持多态查询；父类链已缓存在描述符里)
+		setTypeBits(mask, component != null ? component.getDescriptor() : ComponentManager.getDescriptor(componentType));
+
+		// 3. [核心优化] 增量更新缓存
+		// 告诉缓存系统：这个人的档案变了，请检查他是否符合各个查询条件
+		updateCacheForEntity(entity, mask);
+		syncArchetype(entity, mask);
+	}
+
+	/** @see ComponentManager#unregisterComponent */
+	public void unregisterComponent(GObject entity, Class<? extends Component> componentType, Component component) {
+		SystemScheduler.checkStructuralChange("unregisterComponent");
+		// 1. 从全量组件池移除
+		Set<Component> pool = componentPools.get(componentType);
+		if (pool != null) {
+			pool.remove(component);
+		}
+
+		// 2. 更新实体档案 (批处理期间延迟到 endBatch)
+		if (batchDepth > 0) {
+			dirtyEntities.add(entity);
+			return;
+		}
+		recomputeEntityMask(entity);
+	}
+
+	/**
+	 * [核心优化算法] 仅更新特定实体的缓存归属
+	 * <p>
+	 * 复杂度: O(M)，其中 M 为<b>当前活跃的查询条件数量</b> (即 System 的数量)。
+	 * 相比全量重建缓存 O(N * M) (N为实体总数)，性能有数量级提升。
+	 * </p>
+	 */
+	private void updateCacheForEntity(GObject entity, ComponentMask entityMask) {
+		// 遍历缓存中的每一个查询条件 (Query Mask)
+		for (int i = 0, n = cachedQueryMasks.size(); i < n; i++) {
+			ComponentMask queryMask = cachedQueryMasks.get(i);
+			EntitySet resultSet = cachedQuerySets.get(i);
+
+			// 逻辑: (Entity 和 Query) == Query，逐字比较，不分配临时对象
+			if (entityMask.containsAll(queryMask)) {
+				// 满足条件 -> 加进去 (EntitySet 自带 O(1) 去重)
+				resultSet.add(entity);
+			} else {
+				// 不满足条件，但集合里有它 -> 踢出去 (O(1) Swap-Remove)
+				resultSet.remove(entity);
+			}
+		}
+	}
+
+	/** [辅助] 当实体彻底销毁时，从所有缓存列表里移除它 */
+	private void removeFromAllCaches(GObject entity) {
+		for (int i = 0, n = cachedQuerySets.size(); i < n; i++) {
+			cachedQuerySets.get(i).remove(entity);
+		}
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	/** @see ComponentManager#getEntitiesWithComponents */
+	@SafeVarargs
+	public final EntitySet getEntitiesWithComponents(Class<? extends Component>... componentTypes) {
+		// 如果没传参数，返回所有有组件的实体
+		if (componentTypes.length == 0) {
+			EntitySet all = new EntitySet(trackedEntities.size());
+			GObject[] items = trackedEntities.items();
+			for (int i = 0, n = trackedEntities.size(); i < n; i++) all.add(items[i]);
+			return all;
+		}
+
+		// 1. 构建查询掩码 (使用线程内复用的临时掩码，命中缓存时零分配)
+		ComponentMask lookup = fillComponentMask(SCRATCH_MASK.get(), componentTypes);
+
+		// 2. 查缓存 (O(1))
+		EntitySet cached = entityCache.get(lookup);
+		if (cached != null) {
+			return cached;
+		}
+		// 未命中时才复制一份作为缓存 Key (Key 不可再被修改)
+		ComponentMask queryMask = lookup.copy();
+
+		// 3. 缓存未命中 (这是一次新的查询类型)：全量扫描 (O(N))，并将结果存入缓存
+		EntitySet result = new EntitySet();
+		GObject[] items = trackedEntities.items();
+		for (int i = 0, n = trackedEntities.size(); i < n; i++) {
+			if (entityMasks[items[i].getEntityIndex()].containsAll(queryMask)) {
+				result.add(items[i]);
+			}
+		}
+
+		// 4. 存入缓存，下次就快了
+		entityCache.put(queryMask, result);
+		cachedQueryMasks.add(queryMask);
+		cachedQuerySets.add(result);
+		return result;
+	}
+
+	/** @see ComponentManager#getChunksWithComponents */
+	@SafeVarargs
+	public final ArchetypeQuery getChunksWithComponents(Class<? extends Component>... componentTypes) {
+		if (storageMode != ComponentManager.StorageMode.ARCHETYPE) {
+			throw new IllegalStateException("按块查询需要先切换到原型存储: ComponentManager.setStorageMode(StorageMode.ARCHETYPE)");
+		}
+
+		ComponentMask lookup = fillComponentMask(SCRATCH_MASK.get(), componentTypes);
+		ArchetypeQuery query = chunkQueries.get(lookup);
+		if (query != null) return query;
+
+		// 新的查询条件：扫描现有原型 (原型数量远小于实体数量)
+		query = new ArchetypeQuery(lookup);
+		for (Archetype archetype : archetypes.values()) {
+			if (archetype.getSignature().containsAll(lookup)) {
+				query.addArchetype(archetype);
+			}
+		}
+		chunkQueries.put(query.getQueryMask(), query);
+		return query;
+	}
+
+	/** 获取实体当前所在的原型 (非原型模式或未登记时返回 null) */
+	public Archetype getArchetype(GObject entity) {
+		ArchetypeSlot slot = slotOf(entity);
+		return slot != null ? slot.archetype : null;
+	}
+
+	/** 当前已创建的原型数量 */
+	public int getArchetypeCount() {
+		return archetypes.size();
+	}
+
+	/** 有档案的实体数量 */
+	public int getTrackedEntityCount() {
+		return trackedEntities.size();
+	}
+
+	// --- 内部辅助工具 ---
+
+	private static void setTypeBits(ComponentMask mask, ComponentDescriptor descriptor) {
+		int[] ids = descriptor.supertypeIds;
+		for (int i = 0; i < ids.length; i++) mask.set(ids[i]);
+	}
+
+	/** 实体当前的组件掩码 (只读，未登记时返回 null) */
+	public ComponentMask getEntityMask(GObject entity) {
+		int index = entity.getEntityIndex();
+		if (index < 0 || index >= entityMasks.length) return null;
+		ComponentMask mask = entityMasks[index];
+		// 下标复用防御：档案必须属于这个实体
+		return mask != null && trackedEntities.contains(entity) ? mask : null;
+	}
+
+	private ComponentMask getOrCreateMask(GObject entity) {
+		int index = entity.getEntityIndex();
+		if (index >= entityMasks.length) {
+			entityMasks = Arrays.copyOf(entityMasks, Math.max(index + 1, entityMasks.length * 2));
+		}
+		ComponentMask mask = entityMasks[index];
+		if (mask == null) {
+			mask = new ComponentMask();
+			entityMasks[index] = mask;
+		}
+		if (trackedEntities.add(entity)) mask.reset(); // 新实体 (或复用下标)：清掉上一任的残留
+		return mask;
+	}
+
+	/** 移除实体档案 (掩码对象留在数组里复用) */
+	private void removeMask(GObject entity) {
+		if (trackedEntities.remove(entity)) entityMasks[entity.getEntityIndex()].reset();
+	}
+
+	@SafeVarargs
+	private static ComponentMask fillComponentMask(ComponentMask mask, Class<? extends Component>... componentTypes) {
+		mask.reset();
+		for (Class<? extends Component> type : componentTypes) {
+			mask.set(ComponentManager.getComponentId(type));
+		}
+		return mask;
+	}
+
+	/** @see ComponentManager#updateEntityComponentMask */
+	public void updateEntityComponentMask(GObject entity) {
+		if (batchDepth > 0) {
+			dirtyEntities.add(entity);
+			return;
+		}
+		recomputeEntityMask(entity);
+	}
+
+	// ==========================================
+	// 结构变更批处理 (Batch)
+	// ==========================================
+
+	/** @see ComponentManager#beginBatch */
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	/** @see ComponentManager#endBatch */
+	public void endBatch() {
+		if (batchDepth == 0 || --batchDepth > 0) return;
+
+		if (!dirtyEntities.isEmpty()) {
+			GObject[] items = dirtyEntities.items();
+			for (int i = 0, n = dirtyEntities.size(); i < n; i++) {
+				recomputeEntityMask(items[i]);
+			}
+			dirtyEntities.clear();
+		}
+		// 批处理中销毁的实体下标此时已不再作为任何集合的键，可以安全复用
+		entityTable.recycleReleased();
+	}
+
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+
+	/** 全量重扫实体组件，写回掩码并更新缓存 */
+	private void recomputeEntityMask(GObject entity) {
+		// 先在临时掩码上计算，再写回实体自己的掩码对象 (避免每次 new)
+		ComponentMask mask = SCRATCH_MASK.get().reset();
+
+		// 遍历实体所有组件 (含父类标记，支持多态)
+		for (int i = 0, n = entity.getComponentCount(); i < n; i++) {
+			setTypeBits(mask, entity.getComponentAt(i).getDescriptor());
+		}
+
+		if (!mask.isEmpty()) {
+			mask = getOrCreateMask(entity).setTo(mask);
+			// [优化] 增量更新缓存
+			updateCacheForEntity(entity, mask);
+			syncArchetype(entity, mask);
+		} else {
+			removeMask(entity);
+			removeFromAllCaches(entity);
+			removeFromArchetype(entity);
+		}
+	}
+
+	/** @see ComponentManager#removeEntity */
+	public void removeEntity(GObject entity) {
+		// 1. 清理组件池中的引用 (O(C) C=组件数)
+		// 虽然组件 destroy 时会自己调 unregister，但这里作为最后一道保险
+		for (int i = 0, n = entity.getComponentCount(); i < n; i++) {
+			Component comp = entity.getComponentAt(i);
+			Set<Component> pool = componentPools.get(comp.getClass());
+			if (pool != null) pool.remove(comp);
+		}
+
+		// 2. 移除档案
+		removeMask(entity);
+		dirtyEntities.remove(entity);
+
+		// 3. 从所有缓存列表中剔除
+		removeFromAllCaches(entity);
+		removeFromArchetype(entity);
+	}
+
+	// ==========================================
+	// 原型存储内部实现
+	// ==========================================
+
+	/**
+	 * 让实体的原型归属与其最新掩码一致
+	 * <p>签名没变时只刷新该行的组件引用；签名变了则从旧原型 Swap-Remove，再追加到新原型。</p>
+	 */
+	private void syncArchetype(GObject entity, ComponentMask mask) {
+		if (storageMode != ComponentManager.StorageMode.ARCHETYPE) return;
+
+		int entityIndex = entity.getEntityIndex();
+		ArchetypeSlot slot = getSlot(entityIndex);
+		if (slot != null && slot.archetype.getSignature().equals(mask)) {
+			slot.archetype.refresh(slot.index, entity);
+			return;
+		}
+
+		if (slot != null) detachFromArchetype(slot);
+		else {
+			slot = new ArchetypeSlot();
+			if (entityIndex >= archetypeSlots.length) {
+				archetypeSlots = Arrays.copyOf(archetypeSlots, Math.max(entityIndex + 1, archetypeSlots.length * 2));
+			}
+			archetypeSlots[entityIndex] = slot;
+			archetypeSlotCount++;
+		}
+
+		Archetype target = archetypes.get(mask);
+		if (target == null) target = createArchetype(mask);
+		slot.archetype = target;
+		slot.index = target.add(entity);
+	}
+
+	private void removeFromArchetype(GObject entity) {
+		if (archetypeSlotCount == 0) return;
+		ArchetypeSlot slot = slotOf(entity);
+		if (slot == null) return;
+		archetypeSlots[entity.getEntityIndex()] = null;
+		archetypeSlotCount--;
+		detachFromArchetype(slot);
+	}
+
+	private ArchetypeSlot getSlot(int entityIndex) {
+		return entityIndex >= 0 && entityIndex < archetypeSlots.length ? archetypeSlots[entityIndex] : null;
+	}
+
+	/** 实体自己的槽位 (下标复用防御：槽位里登记的必须是这个实体，和 EntitySet 一样按引用比较) */
+	private ArchetypeSlot slotOf(GObject entity) {
+		ArchetypeSlot slot = getSlot(entity.getEntityIndex());
+		return slot != null && slot.index < slot.archetype.getEntityCount() && slot.archetype.getEntity(slot.index) == entity ? slot : null;
+	}
+
+	/** 从原型中移除，并修正被搬运实体的下标 */
+	private void detachFromArchetype(ArchetypeSlot slot) {
+		int index = slot.index;
+		GObject moved = slot.archetype.remove(index);
+		if (moved != null) {
+			ArchetypeSlot movedSlot = getSlot(moved.getEntityIndex());
+			if (movedSlot != null) movedSlot.index = index;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Archetype createArchetype(ComponentMask mask) {
+		Class<? extends Component>[] types = (Class<? extends Component>[]) new Class<?>[mask.cardinality()];
+		int col = 0;
+		for (int id = mask.nextSetBit(0); id >= 0; id = mask.nextSetBit(id + 1)) {
+			types[col++] = ComponentManager.getComponentType(id);
+		}
+		Archetype archetype = new Archetype(mask, types);
+		archetypes.put(archetype.getSignature(), archetype);
+
+		// 增量登记到已有的按块查询
+		for (ArchetypeQuery query : chunkQueries.values()) {
+			if (archetype.getSignature().containsAll(query.getQueryMask())) {
+				query.addArchetype(archetype);
+			}
+		}
+		return archetype;
+	}
+
+	private void clearArchetypes() {
+		for (Archetype archetype : archetypes.values()) archetype.clear();
+		archetypes.clear();
+		Arrays.fill(archetypeSlots, null);
+		archetypeSlotCount = 0;
+		chunkQueries.clear();
+	}
+
+	/** 清空本世界的实体档案、组件池、查询缓存与原型 */
+	public void clear() {
+		componentPools.clear();
+		Arrays.fill(entityMasks, null);
+		trackedEntities.clear();
+		entityCache.clear();
+		cachedQueryMasks.clear();
+		cachedQuerySets.clear();
+		clearArchetypes();
+		dirtyEntities.clear();
+		batchDepth = 0;
+		storageMode = ComponentManager.StorageMode.SPARSE;
+	}
+
+	public void debugInfo() {
+		Debug.log("Tracked Entities: %d", trackedEntities.size());
+		Debug.log("Cached Queries: %d", entityCache.size());
+		if (storageMode == ComponentManager.StorageMode.ARCHETYPE) {
+			Debug.log("Archetypes: %d", archetypes.size());
+			for (Archetype archetype : archetypes.values()) Debug.log("  %s", archetype);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.goldsprite.gdengine.ecs;
+
+import com.goldsprite.gdengine.core.annotations.ExecuteInEditMode;
+import com.goldsprite.gdengine.core.annotations.StartPriority;
+import com.goldsprite.gdengine.ecs.component.Component;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * 组件类描述符 (每个组件类一份，首次用到时构建)
+ * <p>
+ * 把原本每帧、每个组件都要重复做的反射结果缓存下来：
+ * <ul>
+ *     <li><b>typeId</b>: {@link ComponentManager#getComponentId} 分配的类型 ID</li>
+ *     <li><b>supertypeIds</b>: 自身 + 所有父类 (直到 Component) 的类型 ID，登记掩码时直接批量置位，不再逐级 getSuperclass</li>
+ *     <li><b>runsInEditMode</b>: 是否带 {@link ExecuteInEditMode}，编辑模式下据此过滤 Update</li>
+ *     <li><b>startPriority</b>: {@link StartPriority} 的值 (默认 0)，分帧 Start 时据此排序</li>
+ *     <li><b>overridesUpdate / overridesFixedUpdate</b>: 是否重写了对应钩子，没重写的组件不进分发列表</li>
+ *     <li><b>无参构造器</b>: addComponent(Class) 复用，不再每次 getDeclaredConstructor</li>
+ * </ul>
+ * 通过 {@link ComponentManager#getDescriptor} 获取；脚本 ClassLoader 切换时由 ComponentRegistry 触发失效。
+ * </p>
+ */
+public final class ComponentDescriptor {
+
+	public final Class<? extends Component> type;
+	public final int typeId;
+	/** 自身在前，依次为父类 */
+	public final int[] supertypeIds;
+	public final boolean runsInEditMode;
+	public final int startPriority;
+	public final boolean overridesUpdate;
+	public final boolean overridesFixedUpdate;
+
+	private Constructor<? extends Component> constructor;
+
+	@SuppressWarnings("unchecked")
+	ComponentDescriptor(Class<? extends Component> type) {
+		this.type = type;
+		this.typeId = ComponentManager.getComponentId(type);
+
+		int depth = 0;
+		for (Class<?> c = type; c != null && Component.class.isAssignableFrom(c); c = c.getSuperclass()) depth++;
+		this.supertypeIds = new int[depth];
+		int i = 0;
+		for (Class<?> c = type; c != null && Component.class.isAssignableFrom(c); c = c.getSuperclass()) {
+			supertypeIds[i++] = ComponentManager.getComponentId((Class<? extends Component>) c);
+		}
+
+		this.runsInEditMode = type.isAnnotationPresent(ExecuteInEditMode.class);
+		StartPriority priority = type.getAnnotation(StartPriority.class);
+		this.startPriority = priority != null ? priority.value() : 0;
+		this.overridesUpdate = overrides(type, "update");
+		this.overridesFixedUpdate = overrides(type, "fixedUpdate");
+	}
+
+	/** 钩子的最终实现是否来自 EcsObject/Component 之外 (即用户重写过) */
+	private static boolean overrides(Class<?> type, String hook) {
+		try {
+			Class<?> declaring = type.getMethod(hook, float.class).getDeclaringClass();
+			return declaring != EcsObject.class && declaring != Component.class;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/** 用缓存的无参构造器创建实例 (允许非 public 构造器) */
+	public Component newInstance() throws ReflectiveOperationException {
+		if (constructor == null) {
+			Constructor<? extends Component> ctor = type.getDeclaredConstructor();
+			ctor.setAccessible(true);
+			constructor = ctor;
+		}
+		return constructor.newInstance();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Descriptor[%s id=%d supers=%d editMode=%b update=%b fixed=%b]",
+			type.getSimpleName(), typeId, supertypeIds.length, runsInEditMode, overridesUpdate, overridesFixedUpdate);
+	}
+}
@@ -2,7 +2,13 @@ package com.goldsprite.gdengine.ecs;
 
 import com.goldsprite.gdengine.log.Debug;
 import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
 import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.storage.Archetype;
+import com.goldsprite.gdengine.ecs.storage.ArchetypeChunk;
+import com.goldsprite.gdengine.ecs.storage.ArchetypeQuery;
+import com.goldsprite.gdengine.ecs.storage.ComponentMask;
+import com.goldsprite.gdengine.ecs.storage.EntitySet;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -13,17 +19,32 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * <p>
  * 职责：
  * 1. <b>类型映射</b>: 为每种 Component 类分配唯一的整数 ID (0, 1, 2...)。
- * 2. <b>档案管理</b>: 维护每个实体拥有的组件列表 (BitSet 掩码)。
+ * 2. <b>档案管理</b>: 维护每个实体拥有的组件列表 ({@link ComponentMask} 掩码)。
  * 3. <b>查询加速</b>: 缓存 System 查询的结果，提供 O(1) 的查询性能。
+ * 4. <b>原型存储</b> (可选): {@link StorageMode#ARCHETYPE} 模式下，签名相同的实体连续存放在
+ *    {@link ArchetypeChunk} 中，System 可通过 {@link #getChunksWithComponents} 按块遍历。
+ * </p>
+ * <p>
+ * 类型 ID 与描述符是全局共享的类元数据；2~4 的数据按世界隔离，存放在各 GameWorld 的 {@link ComponentDatabase} 中。
+ * 本类的静态方法是门面：带实体参数的操作路由到实体所属世界，其余路由到当前线程绑定的世界
+ * (没有任何世界时使用一个游离数据库，保持旧用法可用)。
  * </p>
  */
 public class ComponentManager {
 
+	/** 组件存储模式 */
+	public enum StorageMode {
+		/** 稀疏模式 (默认)：仅维护实体掩码与查询缓存 */
+		SPARSE,
+		/** 原型模式：额外按组件签名把实体归档到连续的数据块中 */
+		ARCHETYPE
+	}
+
 	// ==========================================
 	// 1. 类型 ID 分配系统
 	// ==========================================
 
-	/** 全局组件类型计数器 */
+	/** 全局组件类型计数器 (分配时加锁，多个世界可能在不同线程上同时注册新类型) */
 	private static int nextComponentId = 0;
 
 	/**
@@ -32,38 +53,33 @@ public class ComponentManager {
 	 */
 	private static final Map<Class<? extends Component>, Integer> componentIds = new ConcurrentHashMap<>();
 
-	// ==========================================
-	// 2. 数据存储 (Database)
-	// ==========================================
+	/** 唯一整数ID -> 组件类 (反向映射，供原型按列建表；写少读多) */
+	private static final List<Class<? extends Component>> componentTypes = new CopyOnWriteArrayList<>();
 
-	/**
-	 * 组件池: Class -> [所有该类型的组件实例]
-	 * 作用: 方便进行全量类型查询 (例如获取世界上所有的 Collider)
-	 */
-	private static final Map<Class<? extends Component>, List<Component>> componentPools = new ConcurrentHashMap<>();
+	/** 组件类 -> 描述符 (类型 ID、父类链、编辑模式标记等反射结果的缓存) */
+	private static final Map<Class<? extends Component>, ComponentDescriptor> descriptors = new ConcurrentHashMap<>();
 
-	/**
-	 * 实体档案表: GObject -> ComponentMask (BitSet)
-	 * 作用: 记录每个实体拥有哪些组件。
-	 * Key: 实体对象
-	 * Value: 位掩码 (如 {0, 2, 5} 表示拥有 ID为0,2,5 的组件)
-	 */
-	private static final Map<GObject, BitSet> entityComponentMasks = new ConcurrentHashMap<>();
+	/** 描述符纪元：类型表重置 / 脚本类失效时 +1，组件实例上缓存的描述符据此判断是否过期 */
+	private static volatile int descriptorEpoch = 0;
 
 	// ==========================================
-	// 3. 查询缓存 (Cache)
+	// 2. 世界路由
 	// ==========================================
 
-	/**
-	 * 查询缓存: QueryMask -> EntityList
-	 * <p>
-	 * Key: 查询条件的掩码 (例如 "需要组件 0 和 1")
-	 * Value: 符合该条件的所有实体列表
-	 * </p>
-	 * 优化策略: 使用<b>增量更新 (Incremental Update)</b>。
-	 * 当实体组件变动时，不清除整个缓存，而是遍历所有 Key，检查该实体是否应加入或移除。
-	 */
-	private static final Map<BitSet, List<GObject>> entityCache = new ConcurrentHashMap<>();
+	/** 不属于任何世界时使用的数据库 (例如创建 GameWorld 之前构造的实体) */
+	private static final ComponentDatabase DETACHED = new ComponentDatabase(EntityTable.detached());
+
+	/** 当前线程绑定世界的数据库 */
+	public static ComponentDatabase current() {
+		GameWorld world = GameWorld.inst();
+		return world != null ? world.getComponentDatabase() : DETACHED;
+	}
+
+	/** 实体所属世界的数据库 (批处理要开在这里，而不是当前线程绑定的世界) */
+	public static ComponentDatabase of(GObject entity) {
+		GameWorld world = entity.getWorld();
+		return world != null ? world.getComponentDatabase() : DETACHED;
+	}
 
 	// ----------------------------------------------------------------
 
@@ -73,238 +89,194 @@ public class ComponentManager {
 	 * @return 0 到 N 的整数 ID
 	 */
 	public static int getComponentId(Class<? extends Component> componentType) {
-		return componentIds.computeIfAbsent(componentType, k -> nextComponentId++);
+		// 命中时只做一次 get，避免 computeIfAbsent 在部分 JDK 上的加锁开销 (GObject.getComponent 热路径)
+		Integer id = componentIds.get(componentType);
+		if (id != null) return id;
+		synchronized (componentIds) {
+			id = componentIds.get(componentType);
+			if (id != null) return id;
+			id = nextComponentId++;
+			componentTypes.add(componentType);
+			componentIds.put(componentType, id);
+			return id;
+		}
+	}
+
+	/** 类型 ID -> 组件类 (未分配时返回 null) */
+	public static Class<? extends Component> getComponentType(int id) {
+		return id >= 0 && id < componentTypes.size() ? componentTypes.get(id) : null;
 	}
 
 	/**
-	 * 注册组件到管理器
-	 * <p>通常在 {@link Component#awake()} 时调用。</p>
-	 *
-	 * @param entity 组件所属的实体
-	 * @param componentType 组件的类型 (通常是 getClass())
-	 * @param component 组件实例
+	 * 获取组件类的描述符 (首次调用时构建并缓存)
+	 * <p>热路径请优先用 {@link Component#getDescriptor()}，它在组件实例上再缓存一层，免去哈希查找。</p>
 	 */
-	public static void registerComponent(GObject entity, Class<? extends Component> componentType, Component component) {
-		// 1. 加入全量组件池 (方便 getComponents(Type) 查询)
-		// 使用 CopyOnWriteArrayList 保证迭代安全，虽写慢读快，但注册操作相对低频
-		List<Component> pool = componentPools.computeIfAbsent(componentType, k -> new CopyOnWriteArrayList<>());
-		if (!pool.contains(component)) {
-			pool.add(component);
+	public static ComponentDescriptor getDescriptor(Class<? extends Component> componentType) {
+		ComponentDescriptor descriptor = descriptors.get(componentType);
+		if (descriptor == null) {
+			descriptor = new ComponentDescriptor(componentType);
+			ComponentDescriptor existing = descriptors.putIfAbsent(componentType, descriptor);
+			if (existing != null) descriptor = existing;
 		}
+		return descriptor;
+	}
 
-		// 2. 更新该实体的“档案”(Mask)
-		// 如果是新实体，创建一个新的 BitSet
-		BitSet mask = entityComponentMasks.computeIfAbsent(entity, k -> new BitSet());
-		// 在对应 ID 的位置打勾
-		mask.set(getComponentId(componentType));
-
-		// 3. [核心优化] 增量更新缓存
-		// 告诉缓存系统：这个人的档案变了，请检查他是否符合各个查询条件
-		updateCacheForEntity(entity, mask);
+	public static int getDescriptorEpoch() {
+		return descriptorEpoch;
 	}
 
 	/**
-	 * 从管理器注销组件
-	 * <p>通常在 {@link Component#destroyImmediate()} 时调用。</p>
+	 * 丢弃脚本 (用户) 组件类的描述符
+	 * <p>脚本 ClassLoader 切换 (重新编译) 后由 ComponentRegistry 调用，引擎内置组件的描述符保留。</p>
 	 */
-	public static void unregisterComponent(GObject entity, Class<? extends Component> componentType, Component component) {
-		// 1. 从全量组件池移除
-		List<Component> pool = componentPools.get(componentType);
-		if (pool != null) {
-			pool.remove(component);
-		}
+	public static void invalidateScriptDescriptors() {
+		ClassLoader engineLoader = ComponentManager.class.getClassLoader();
+		descriptors.keySet().removeIf(type -> type.getClassLoader() != engineLoader);
+		descriptorEpoch++;
+	}
 
-		// 2. 更新实体档案
-		BitSet mask = entityComponentMasks.get(entity);
-		if (mask != null) {
-			// 清除对应位的勾
-			mask.clear(getComponentId(componentType));
-
-			// 如果实体身上一个组件都没了，从管理表中移除该实体
-			if (mask.isEmpty()) {
-				entityComponentMasks.remove(entity);
-			}
-
-			// 3. [核心优化] 增量更新缓存
-			updateCacheForEntity(entity, mask);
-		} else {
-			// 防御性编程：如果档案都没了，说明实体可能已经彻底移除了
-			// 确保它不在任何缓存列表里
-			removeFromAllCaches(entity);
-		}
+	// ==========================================
+	// 存储模式
+	// ==========================================
+
+	public static StorageMode getStorageMode() {
+		return current().getStorageMode();
+	}
+
+	/**
+	 * 切换当前世界的存储模式
+	 * <p>切换到 ARCHETYPE 时会按现有实体档案一次性重建所有原型；切回 SPARSE 时丢弃原型数据。</p>
+	 */
+	public static void setStorageMode(StorageMode mode) {
+		current().setStorageMode(mode);
 	}
 
 	/**
-	 * [核心优化算法] 仅更新特定实体的缓存归属
-	 * <p>
-	 * 复杂度: O(M)，其中 M 为<b>当前活跃的查询条件数量</b> (即 System 的数量)。
-	 * 相比全量重建缓存 O(N * M) (N为实体总数)，性能有数量级提升。
-	 * </p>
+	 * 注册组件到管理器
+	 * <p>通常在 {@link Component#awake()} 时调用。
+	 * 会同时为组件的所有父类 (直到 Component) 打上标记，因此无需再调用 {@link #updateEntityComponentMask}。</p>
 	 *
-	 * @param entity 发生变动的实体
-	 * @param entityMask 实体当前最新的组件掩码
+	 * @param entity 组件所属的实体
+	 * @param componentType 组件的类型 (通常是 getClass())
+	 * @param component 组件实例
 	 */
-	private static void updateCacheForEntity(GObject entity, BitSet entityMask) {
-		// 遍历缓存中的每一个查询条件 (Query Mask)
-		// 例如：SystemA 查 {0,1}, SystemB 查 {2}
-		for (Map.Entry<BitSet, List<GObject>> entry : entityCache.entrySet()) {
-			BitSet queryMask = entry.getKey();
-			List<GObject> resultList = entry.getValue();
-
-			// 判断：实体的当前配置(entityMask) 是否满足 查询条件(queryMask)
-			// 逻辑: (Entity 和 Query) == Query
-			boolean isMatch = containsAllBits(entityMask, queryMask);
-
-			if (isMatch) {
-				// 情况A: 满足条件，且列表里没有它 -> 加进去
-				// (CopyOnWriteArrayList.contains 是 O(N)，但结果列表通常是缓存的，读多写少)
-				if (!resultList.contains(entity)) {
-					resultList.add(entity);
-				}
-			} else {
-				// 情况B: 不满足条件，但列表里有它 -> 踢出去
-				// 比如以前有Collider现在移除了，就不该在 PhysicsSystem 的列表里了
-				resultList.remove(entity);
-			}
-		}
+	public static void registerComponent(GObject entity, Class<? extends Component> componentType, Component component) {
+		of(entity).registerComponent(entity, componentType, component);
 	}
 
 	/**
-	 * [辅助] 当实体彻底销毁时，从所有缓存列表里暴力移除它
+	 * 从管理器注销组件
+	 * <p>通常在 {@link GObject#removeComponent} 时调用。</p>
+	 * <p>由于父类标记可能被同一实体的其他组件共享，注销后会按实体剩余组件重新计算掩码。</p>
 	 */
-	private static void removeFromAllCaches(GObject entity) {
-		for (List<GObject> list : entityCache.values()) {
-			list.remove(entity);
-		}
+	public static void unregisterComponent(GObject entity, Class<? extends Component> componentType, Component component) {
+		of(entity).unregisterComponent(entity, componentType, component);
 	}
 
 	/**
-	 * <b>核心查询方法</b>：获取拥有特定组件集合的所有实体
+	 * <b>核心查询方法</b>：获取当前世界中拥有特定组件集合的所有实体
 	 * <p>System 主要调用此方法来筛选它关心的实体。</p>
 	 *
 	 * @param componentTypes 需要包含的组件类型列表
-	 * @return 符合条件的实体列表 (只读引用或副本)
+	 * @return 符合条件的实体集合 (缓存的只读引用，无参数时为副本)。
+	 *         for-each 遍历基于快照，遍历期间增删组件是安全的；
+	 *         可通过 {@link EntitySet#getGeneration()} 判断结果是否变化。
 	 */
 	@SafeVarargs
-	public static List<GObject> getEntitiesWithComponents(Class<? extends Component>... componentTypes) {
-		// 如果没传参数，返回所有有组件的实体
-		if (componentTypes.length == 0) {
-			return new ArrayList<>(entityComponentMasks.keySet());
-		}
-
-		// 1. 构建查询掩码 (我要找有 0号 和 5号 组件的人 -> Mask: ...00100001)
-		BitSet queryMask = createComponentMask(componentTypes);
-
-		// 2. 查缓存 (O(1))
-		// 如果这个查询条件之前有人查过，直接返回结果
-		if (entityCache.containsKey(queryMask)) {
-			return entityCache.get(queryMask);
-		}
+	public static EntitySet getEntitiesWithComponents(Class<? extends Component>... componentTypes) {
+		return current().getEntitiesWithComponents(componentTypes);
+	}
 
-		// 3. 缓存未命中 (这是一次新的查询类型)
-		// 执行全量扫描 (O(N))，并将结果存入缓存
-		List<GObject> result = new CopyOnWriteArrayList<>(); // 使用线程安全 List
+	/**
+	 * <b>按块查询</b>：获取所有签名包含指定组件的原型数据块
+	 * <p>仅在 {@link StorageMode#ARCHETYPE} 模式下可用。返回的查询对象会被缓存，
+	 * 新原型出现时自动追加，System 可以长期持有。</p>
+	 *
+	 * @param componentTypes 需要包含的组件类型列表
+	 * @return 可按 {@link ArchetypeChunk} 迭代的查询结果
+	 * @throws IllegalStateException 当前不是原型存储模式
+	 */
+	@SafeVarargs
+	public static ArchetypeQuery getChunksWithComponents(Class<? extends Component>... componentTypes) {
+		return current().getChunksWithComponents(componentTypes);
+	}
 
-		for (Map.Entry<GObject, BitSet> entry : entityComponentMasks.entrySet()) {
-			// 检查包含关系
-			if (containsAllBits(entry.getValue(), queryMask)) {
-				result.add(entry.getKey());
-			}
-		}
+	/** 获取实体当前所在的原型 (非原型模式或未登记时返回 null) */
+	public static Archetype getArchetype(GObject entity) {
+		return of(entity).getArchetype(entity);
+	}
 
-		// 4. 存入缓存，下次就快了
-		entityCache.put(queryMask, result);
-		return result;
+	/** 当前世界已创建的原型数量 */
+	public static int getArchetypeCount() {
+		return current().getArchetypeCount();
 	}
 
-	// --- 内部辅助工具 ---
+	/** 实体当前的组件掩码 (只读，未登记时返回 null) */
+	public static ComponentMask getEntityMask(GObject entity) {
+		return of(entity).getEntityMask(entity);
+	}
 
-	private static BitSet createComponentMask(Class<? extends Component>... componentTypes) {
-		BitSet mask = new BitSet();
-		for (Class<? extends Component> type : componentTypes) {
-			mask.set(getComponentId(type));
-		}
-		return mask;
+	/**
+	 * 强制刷新实体掩码 (当 addComponent 批量操作或初始化时调用)
+	 * 会重新扫描实体身上的所有组件并更新缓存。批处理期间只登记，endBatch 时统一计算。
+	 */
+	public static void updateEntityComponentMask(GObject entity) {
+		of(entity).updateEntityComponentMask(entity);
 	}
 
+	// ==========================================
+	// 结构变更批处理 (Batch)
+	// ==========================================
+
 	/**
-	 * 位运算判断：source 是否包含 target 的所有位
-	 * <br>逻辑: (source AND target) == target
+	 * 开始批处理：之后的组件注册/注销只记录 "脏实体"，不立即更新掩码和查询缓存。
+	 * <p>可嵌套，最外层 {@link #endBatch()} 时统一结算。用于命令缓冲回放、批量销毁等场景。</p>
 	 */
-	private static boolean containsAllBits(BitSet source, BitSet target) {
-		if (source == null || target == null) return false;
-		// 必须 clone，因为 BitSet.and 会修改自身
-		BitSet temp = (BitSet) target.clone();
-		temp.and(source); // 取交集
-		return temp.equals(target); // 如果交集等于目标，说明全包含
+	public static void beginBatch() {
+		current().beginBatch();
 	}
 
 	/**
-	 * 强制刷新实体掩码 (当 addComponent 批量操作或初始化时调用)
-	 * 会重新扫描实体身上的所有组件并更新缓存
+	 * 结束批处理：每个脏实体只重算一次掩码、只做一次缓存/原型更新
 	 */
-	public static void updateEntityComponentMask(GObject entity) {
-		BitSet mask = new BitSet();
-
-		// 遍历实体所有组件
-		for (List<Component> components : entity.getComponentsMap().values()) {
-			for (Component comp : components) {
-				// [修复核心] 支持多态：不仅注册当前类，还注册所有父类组件
-				Class<?> clazz = comp.getClass();
-				while (clazz != null && Component.class.isAssignableFrom(clazz)) {
-					// 只要是 Component 的子类（包括 RenderComponent），都打上标记
-					mask.set(getComponentId((Class<? extends Component>) clazz));
-					clazz = clazz.getSuperclass();
-				}
-			}
-		}
+	public static void endBatch() {
+		current().endBatch();
+	}
 
-		if (!mask.isEmpty()) {
-			entityComponentMasks.put(entity, mask);
-			// [优化] 增量更新缓存
-			updateCacheForEntity(entity, mask);
-		} else {
-			entityComponentMasks.remove(entity);
-			removeFromAllCaches(entity);
-		}
+	public static boolean isBatching() {
+		return current().isBatching();
 	}
 
 	/**
 	 * 彻底移除实体 (当 GObject.destroyImmediate 时调用)
 	 */
 	public static void removeEntity(GObject entity) {
-		// 1. 清理组件池中的引用 (O(C) C=组件数)
-		// 虽然组件 destroy 时会自己调 unregister，但这里作为最后一道保险
-		for (List<Component> components : entity.getComponentsMap().values()) {
-			for (Component comp : components) {
-				List<Component> pool = componentPools.get(comp.getClass());
-				if (pool != null) pool.remove(comp);
-			}
-		}
-
-		// 2. 移除档案
-		entityComponentMasks.remove(entity);
-
-		// 3. 从所有缓存列表中剔除
-		removeFromAllCaches(entity);
+		of(entity).removeEntity(entity);
 	}
 
 	/**
-	 * [修复] 彻底重置管理器状态 (用于测试环境或游戏完全重启)
-	 * 清除所有 ID 映射、实体档案、组件池和查询缓存。
+	 * [修复] 重置当前世界的组件数据 (用于测试环境或游戏完全重启)
+	 * <p>清除实体档案、组件池和查询缓存；没有其他存活世界时，连同类型 ID 映射一起重置 (保证测试确定性)。</p>
 	 */
 	public static void dispose() {
-		componentIds.clear();
-		componentPools.clear();
-		entityComponentMasks.clear();
-		entityCache.clear();
-		nextComponentId = 0; // ID 计数器归零，保证测试确定性
+		current().clear();
+		if (GameWorld.getLiveWorldCount() <= 1) resetTypeRegistry();
+	}
+
+	/** 清空全局类型表，ID 计数器归零 */
+	private static void resetTypeRegistry() {
+		synchronized (componentIds) {
+			componentIds.clear();
+			componentTypes.clear();
+			descriptors.clear();
+			descriptorEpoch++;
+			nextComponentId = 0;
+		}
 	}
 
 	public static void debugInfo() {
 		Debug.log("=== ComponentManager Debug ===");
 		Debug.log("Registered Types: %d", componentIds.size());
-		Debug.log("Tracked Entities: %d", entityComponentMasks.size());
-		Debug.log("Cached Queries: %d", entityCache.size());
+		current().debugInfo();
 	}
 }
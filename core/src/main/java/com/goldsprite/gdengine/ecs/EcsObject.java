@@ -14,9 +14,22 @@ public abstract class EcsObject {
 	// 全局 ID 种子 (线程安全)
 	private static final AtomicInteger GID_SEED = new AtomicInteger(0);
 
+	// --- 引擎内部队列标志位 (替代 List.contains 去重) ---
+	/** 期望处于 GameWorld 顶层列表中 (register 置位，unregister 清除) */
+	public static final int FLAG_ROOT_WANTED = 1;
+	/** 实际位于顶层列表中 (flush 时维护) */
+	public static final int FLAG_ROOT_LISTED = 1 << 1;
+	/** 已在 GameWorld 顶层变更队列中等待 flush */
+	public static final int FLAG_ROOT_QUEUED = 1 << 2;
+	/** 已在 SceneSystem 的 Start 队列中 */
+	public static final int FLAG_START_QUEUED = 1 << 3;
+	/** 已在 SceneSystem 的销毁队列中 */
+	public static final int FLAG_DESTROY_QUEUED = 1 << 4;
+
 	// 核心数据
 	private final int gid;
 	protected String name;
+	private transient int engineFlags;
 
 	public EcsObject() {
 		// 构造即分配 ID，永不重复
@@ -43,6 +56,19 @@ public abstract class EcsObject {
 		this.name = name;
 	}
 
+	/** [引擎内部] 队列标志位，入队前检查即可 O(1) 去重 */
+	public final boolean hasEngineFlag(int flag) {
+		return (engineFlags & flag) != 0;
+	}
+
+	public final void setEngineFlag(int flag) {
+		engineFlags |= flag;
+	}
+
+	public final void clearEngineFlag(int flag) {
+		engineFlags &= ~flag;
+	}
+
 	// --- 生命周期/循环接口 (默认为空，子类按需重写) ---
 
 	public void update(float delta) {
@@ -0,0 +1,185 @@
+package com.goldsprite.gdengine.ecs;
+
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.log.Debug;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 实体命令缓冲 (Entity Command Buffer)
+ * <p>
+ * System 更新期间直接 addComponent / setParent / new GObject 会立即改动
+ * ComponentManager 缓存和 GameWorld 列表。大批量生成 (比如一帧上千发子弹) 时，
+ * 这些零散的结构变更会造成帧尖峰。
+ * </p>
+ * <p>
+ * 命令缓冲只<b>记录</b>变更，由 GameWorld 每帧统一 {@link #playback()}：
+ * 回放处于 {@link ComponentManager#beginBatch()} 批处理中，每个实体只重算一次掩码、只做一次缓存更新。
+ * </p>
+ * <pre>
+ * EntityCommandBuffer cmd = world.getCommandBuffer();
+ * cmd.spawn("Bullet", b -&gt; b.addComponent(BulletComp.class));
+ * cmd.destroy(enemy);
+ * </pre>
+ * 记录操作是线程安全的 (可在并行 System 中调用)，回放只在主线程进行。
+ */
+public class EntityCommandBuffer {
+
+	private static final int SPAWN = 0;
+	private static final int ADD_COMPONENT = 1;
+	private static final int ADD_COMPONENT_TYPE = 2;
+	private static final int REMOVE_COMPONENT = 3;
+	private static final int DESTROY_COMPONENT = 4;
+	private static final int SET_PARENT = 5;
+	private static final int DESTROY = 6;
+
+	// 结构化数组存储命令，避免每条命令 new 一个对象
+	private int[] ops = new int[64];
+	private Object[] targets = new Object[64];
+	private Object[] args = new Object[64];
+	private int size;
+
+	// ==========================================
+	// 记录 API
+	// ==========================================
+
+	/**
+	 * 延迟生成实体
+	 * @param name 实体名
+	 * @param init 回放时在新实体上执行的初始化 (可为 null)，通常在这里 addComponent
+	 */
+	public void spawn(String name, Consumer<GObject> init) {
+		record(SPAWN, name, init);
+	}
+
+	public void addComponent(GObject entity, Component component) {
+		record(ADD_COMPONENT, entity, component);
+	}
+
+	public void addComponent(GObject entity, Class<? extends Component> type) {
+		record(ADD_COMPONENT_TYPE, entity, type);
+	}
+
+	/** 延迟剥离组件 (语义同 {@link GObject#removeComponent}，不触发 onDestroy) */
+	public void removeComponent(GObject entity, Component component) {
+		record(REMOVE_COMPONENT, entity, component);
+	}
+
+	/** 延迟销毁组件 (触发 onDisable / onDestroy) */
+	public void destroyComponent(Component component) {
+		record(DESTROY_COMPONENT, component, null);
+	}
+
+	/** 延迟改变父级 (parent 为 null 表示变回顶层实体) */
+	public void setParent(GObject entity, GObject parent) {
+		record(SET_PARENT, entity, parent);
+	}
+
+	/** 延迟销毁实体 (连同子物体) */
+	public void destroy(GObject entity) {
+		record(DESTROY, entity, null);
+	}
+
+	private synchronized void record(int op, Object target, Object arg) {
+		if (size == ops.length) {
+			int cap = size * 2;
+			ops = Arrays.copyOf(ops, cap);
+			targets = Arrays.copyOf(targets, cap);
+			args = Arrays.copyOf(args, cap);
+		}
+		ops[size] = op;
+		targets[size] = target;
+		args[size] = arg;
+		size++;
+	}
+
+	// ==========================================
+	// 回放
+	// ==========================================
+
+	public synchronized int size() { return size; }
+
+	public synchronized boolean isEmpty() { return size == 0; }
+
+	/**
+	 * 按记录顺序执行所有命令，并在单次批处理中结算掩码与查询缓存
+	 * <p>回放过程中新记录的命令 (比如 spawn 的 init 里又 spawn) 会在同一次回放中继续执行。</p>
+	 */
+	@SuppressWarnings("unchecked")
+	public void playback() {
+		if (isEmpty()) return;
+
+		ComponentManager.beginBatch();
+		try {
+			int i = 0;
+			while (true) {
+				int op;
+				Object target, arg;
+				synchronized (this) {
+					if (i >= size) {
+						// 判空与清零在同一把锁内：其他线程此后记录的命令落在下标 0，留给下一次回放
+						size = 0;
+						break;
+					}
+					op = ops[i];
+					target = targets[i];
+					arg = args[i];
+					targets[i] = null;
+					args[i] = null;
+				}
+				i++;
+				try {
+					execute(op, target, arg);
+				} catch (Exception e) {
+					Debug.logErrT("System", "CommandBuffer 回放失败: op=%d target=%s -> %s", op, target, e);
+				}
+			}
+		} finally {
+			ComponentManager.endBatch();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void execute(int op, Object target, Object arg) {
+		switch (op) {
+			case SPAWN: {
+				GObject obj = new GObject((String) target);
+				if (arg != null) ((Consumer<GObject>) arg).accept(obj);
+				break;
+			}
+			case ADD_COMPONENT: {
+				GObject entity = (GObject) target;
+				if (!entity.isDestroyed()) entity.addComponent((Component) arg);
+				break;
+			}
+			case ADD_COMPONENT_TYPE: {
+				GObject entity = (GObject) target;
+				if (!entity.isDestroyed()) entity.addComponent((Class<? extends Component>) arg);
+				break;
+			}
+			case REMOVE_COMPONENT:
+				((GObject) target).removeComponent((Component) arg);
+				break;
+			case DESTROY_COMPONENT:
+				((Component) target).destroyImmediate();
+				break;
+			case SET_PARENT: {
+				GObject entity = (GObject) target;
+				if (!entity.isDestroyed()) entity.setParent((GObject) arg);
+				break;
+			}
+			case DESTROY:
+				((GObject) target).destroyImmediate();
+				break;
+		}
+	}
+
+	/** 丢弃所有未回放的命令 */
+	public synchronized void clear() {
+		Arrays.fill(targets, 0, size, null);
+		Arrays.fill(args, 0, size, null);
+		size = 0;
+	}
+}
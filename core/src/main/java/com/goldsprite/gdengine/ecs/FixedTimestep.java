@@ -0,0 +1,205 @@
+package com.goldsprite.gdengine.ecs;
+
+/**
+ * 固定步长时钟 (每个 GameWorld 一份)
+ * <p>
+ * 负责把可变的帧时间切成固定的物理步：累加帧时间，算出本帧要跑几步，剩余的不足一步的时间
+ * 折算成插值系数 {@link #getAlpha()}，渲染时在 "上一步" 和 "当前步" 之间混合，高刷屏不再顿挫。
+ * </p>
+ * <p>
+ * 追赶保护有两层：单帧累加上限 ({@link #setMaxFrameTime}) 和单帧最大步数 ({@link #setMaxStepsPerFrame})，
+ * 超出部分直接丢弃 (记入 {@link #getDroppedTime()})。
+ * 开启自适应后 ({@link #setAdaptive})，连续多帧触发丢弃会把模拟频率减半 (不低于 {@link #setMinRate})，
+ * 持续空闲后再逐级恢复到设定频率，低端机上不再陷入 "越卡越追、越追越卡" 的螺旋。
+ * </p>
+ */
+public class FixedTimestep {
+
+	/** 默认物理频率 60Hz */
+	public static final float DEFAULT_STEP = 1f / 60f;
+
+	// --- 配置 ---
+	private float baseStep = DEFAULT_STEP;
+	private float maxFrameTime = 0.2f;
+	private int maxStepsPerFrame = 8;
+
+	// --- 自适应 ---
+	private boolean adaptive = false;
+	private float minRate = 20f;
+	/** 连续过载多少帧后降频 */
+	private int overloadFrames = 30;
+	/** 连续空闲多少帧后升频 */
+	private int recoverFrames = 240;
+	private int overloadStreak = 0;
+	private int idleStreak = 0;
+
+	// --- 运行状态 ---
+	private float step = DEFAULT_STEP;
+	private float accumulator = 0f;
+
+	// --- 统计 ---
+	private int lastSteps = 0;
+	private int maxStepsSeen = 0;
+	private long totalSteps = 0;
+	private long frames = 0;
+	private float droppedTime = 0f;
+	private int rateChanges = 0;
+
+	/**
+	 * 累加一帧的时间，返回本帧应执行的固定步数
+	 * <p>调用方随后以 {@link #getStep()} 为步长执行对应次数的 fixedUpdate。</p>
+	 */
+	public int advance(float delta) {
+		accumulator += delta;
+		boolean overloaded = false;
+
+		// 1. 单帧时间上限 (卡顿后不追赶整段)
+		if (accumulator > maxFrameTime) {
+			droppedTime += accumulator - maxFrameTime;
+			accumulator = maxFrameTime;
+			overloaded = true;
+		}
+
+		// 2. 单帧步数上限
+		int steps = (int) (accumulator / step);
+		if (steps > maxStepsPerFrame) {
+			droppedTime += (steps - maxStepsPerFrame) * step;
+			steps = maxStepsPerFrame;
+			accumulator = step * steps + (accumulator % step);
+			overloaded = true;
+		}
+		accumulator -= steps * step;
+		// 浮点误差兜底
+		if (accumulator < 0f) accumulator = 0f;
+
+		lastSteps = steps;
+		if (steps > maxStepsSeen) maxStepsSeen = steps;
+		totalSteps += steps;
+		frames++;
+
+		if (adaptive) adapt(overloaded, steps);
+		return steps;
+	}
+
+	private void adapt(boolean overloaded, int steps) {
+		if (overloaded) {
+			idleStreak = 0;
+			if (++overloadStreak >= overloadFrames) {
+				overloadStreak = 0;
+				float slower = Math.min(step * 2f, 1f / minRate);
+				if (slower != step) setCurrentStep(slower);
+			}
+		} else {
+			overloadStreak = 0;
+			// 只有降过频且每帧最多一步 (余量充足) 时才尝试恢复
+			if (step > baseStep && steps <= 1) {
+				if (++idleStreak >= recoverFrames) {
+					idleStreak = 0;
+					setCurrentStep(Math.max(step * 0.5f, baseStep));
+				}
+			} else {
+				idleStreak = 0;
+			}
+		}
+	}
+
+	private void setCurrentStep(float newStep) {
+		// 保持插值系数连续
+		accumulator = accumulator / step * newStep;
+		step = newStep;
+		rateChanges++;
+	}
+
+	// ==========================================
+	// 配置
+	// ==========================================
+
+	/** 设置物理步长 (秒)，同时重置自适应状态 */
+	public void setStep(float seconds) {
+		// 写成 !(x > 0) 以同时拒绝 NaN；无穷大的步长会让累加器永远凑不满一步
+		if (!(seconds > 0f) || Float.isInfinite(seconds)) throw new IllegalArgumentException("固定步长必须是正的有限值: " + seconds);
+		baseStep = seconds;
+		step = seconds;
+		accumulator = Math.min(accumulator, seconds);
+		overloadStreak = idleStreak = 0;
+	}
+
+	/** 设置物理频率 (Hz)，等价于 setStep(1 / hz) */
+	public void setRate(float hz) {
+		if (!(hz > 0f) || Float.isInfinite(hz)) throw new IllegalArgumentException("物理频率必须是正的有限值: " + hz);
+		setStep(1f / hz);
+	}
+
+	/** 单帧最多累加多少秒 (默认 0.2s) */
+	public void setMaxFrameTime(float seconds) { this.maxFrameTime = seconds; }
+
+	/** 单帧最多执行多少步 (默认 8) */
+	public void setMaxStepsPerFrame(int steps) { this.maxStepsPerFrame = Math.max(1, steps); }
+
+	/** 开关自适应降频 */
+	public void setAdaptive(boolean adaptive) {
+		this.adaptive = adaptive;
+		if (!adaptive && step != baseStep) setCurrentStep(baseStep);
+		overloadStreak = idleStreak = 0;
+	}
+
+	/** 自适应降频的下限 (Hz，默认 20) */
+	public void setMinRate(float hz) { this.minRate = hz; }
+
+	/** 自适应的触发阈值：连续过载 overload 帧降频，连续空闲 recover 帧升频 */
+	public void setAdaptiveThresholds(int overload, int recover) {
+		this.overloadFrames = Math.max(1, overload);
+		this.recoverFrames = Math.max(1, recover);
+	}
+
+	/** 清空累加器与统计 (世界重置时调用) */
+	public void reset() {
+		accumulator = 0f;
+		step = baseStep;
+		overloadStreak = idleStreak = 0;
+		resetStats();
+	}
+
+	public void resetStats() {
+		lastSteps = maxStepsSeen = rateChanges = 0;
+		totalSteps = frames = 0;
+		droppedTime = 0f;
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	/** 当前实际步长 (自适应降频后可能大于设定值) */
+	public float getStep() { return step; }
+	/** 设定的步长 */
+	public float getBaseStep() { return baseStep; }
+	public float getRate() { return 1f / step; }
+	public boolean isAdaptive() { return adaptive; }
+
+	/** 插值系数 (0~1)：剩余未模拟时间占一步的比例 */
+	public float getAlpha() {
+		float a = accumulator / step;
+		return a > 1f ? 1f : a;
+	}
+
+	public float getAccumulator() { return accumulator; }
+
+	/** 上一帧执行的步数 */
+	public int getLastSteps() { return lastSteps; }
+	/** 统计期内单帧最多步数 */
+	public int getMaxStepsSeen() { return maxStepsSeen; }
+	/** 统计期内平均每帧步数 */
+	public float getAverageSteps() { return frames == 0 ? 0f : (float) totalSteps / frames; }
+	public long getTotalSteps() { return totalSteps; }
+	/** 因追赶保护被丢弃的模拟时间 (秒) */
+	public float getDroppedTime() { return droppedTime; }
+	/** 自适应调整频率的次数 */
+	public int getRateChanges() { return rateChanges; }
+
+	@Override
+	public String toString() {
+		return String.format("Fixed[%.0fHz step=%d avg=%.2f max=%d dropped=%.3fs alpha=%.2f]",
+			getRate(), lastSteps, getAverageSteps(), maxStepsSeen, droppedTime, getAlpha());
+	}
+}
@@ -0,0 +1,348 @@
+package com.goldsprite.gdengine.ecs;
+
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+
+import java.util.Arrays;
+
+/**
+ * 帧性能分析器 (每个 GameWorld 一份)
+ * <p>
+ * 把每帧的阶段耗时 (Start / Fixed / Update / Command / Destroy / Flush / Render) 和每个系统的耗时
+ * 记入预分配的环形缓冲 (默认最近 120 帧)，按需统计 last / min / avg / max / p99。
+ * 帧内只做 nanoTime 和累加，不分配任何对象；统计在查询时惰性计算。
+ * </p>
+ * <p>
+ * 默认关闭 (关闭时每个埋点只有一次布尔判断)。开启：{@code world.profiler.setEnabled(true)}。
+ * 设置帧预算 ({@link #setBudgetMs}) 后，超预算的帧会记录当帧最慢的系统，
+ * 可用 {@link #getLastSpikeSection()} 在正式包里直接打日志定位卡顿。
+ * </p>
+ * <p>
+ * 每个统计项另有开启以来的累计耗时和次数 ({@link #getTotalNanos} / {@link #getTotalCalls})，
+ * HeadlessRunner 的逐系统报告就取自这里。
+ * </p>
+ * 帧边界：每次 GameWorld.update 开始时结算上一帧 (含上一帧的 render)。
+ */
+public class FrameProfiler {
+
+	public static final int DEFAULT_HISTORY = 120;
+
+	// --- 固定阶段 (下标即 section 编号) ---
+	public static final int FRAME = 0;
+	public static final int START = 1;
+	public static final int FIXED = 2;
+	public static final int UPDATE = 3;
+	public static final int COMMAND = 4;
+	public static final int DESTROY = 5;
+	public static final int FLUSH = 6;
+	public static final int RENDER = 7;
+	private static final String[] PHASE_NAMES = {"Frame", "Start", "Fixed", "Update", "Command", "Destroy", "Flush", "Render"};
+	/** 阶段之后的 section 都属于系统 */
+	public static final int FIRST_SYSTEM = PHASE_NAMES.length;
+
+	/** 单个统计项 (阶段或系统) */
+	public static final class Section {
+		public final String name;
+		final long[] ring;
+		/** 本帧累计 (纳秒) */
+		long current;
+		/** begin() 打点时间，0 表示未开始 */
+		long beganAt;
+		/** 开启以来的累计耗时 (纳秒) 与次数，不受环形缓冲长度限制 */
+		long totalNanos;
+		int totalCalls;
+
+		// 惰性统计缓存
+		private long statsFrame = -1;
+		private long last, min, max, p99;
+		private double avg;
+
+		Section(String name, int history) {
+			this.name = name;
+			this.ring = new long[history];
+		}
+	}
+
+	private final int history;
+	private Section[] sections = new Section[32];
+	private int sectionCount = 0;
+	/** 所有 section 共用的环形写指针 */
+	private int head = 0;
+	private int filled = 0;
+	private long frameCounter = 0;
+	private boolean frameOpen = false;
+	private boolean enabled = false;
+
+	/** 统计用的排序缓冲 (预分配) */
+	private final long[] scratch;
+
+	// --- 超预算记录 ---
+	private long budgetNanos = 0;
+	private int spikeCount = 0;
+	private int lastSpikeSection = -1;
+	private long lastSpikeSectionNanos = 0;
+	private long lastSpikeFrameNanos = 0;
+
+	public FrameProfiler() {
+		this(DEFAULT_HISTORY);
+	}
+
+	public FrameProfiler(int history) {
+		this.history = Math.max(1, history);
+		this.scratch = new long[this.history];
+		for (String name : PHASE_NAMES) addSection(name);
+	}
+
+	// ==========================================
+	// 配置
+	// ==========================================
+
+	public boolean isEnabled() { return enabled; }
+
+	public void setEnabled(boolean enabled) {
+		if (this.enabled == enabled) return;
+		this.enabled = enabled;
+		// 关闭时丢弃未结算的半帧，避免下次开启时混入旧数据
+		frameOpen = false;
+		for (int i = 0; i < sectionCount; i++) {
+			sections[i].current = 0;
+			sections[i].beganAt = 0;
+		}
+	}
+
+	/** 帧预算 (毫秒)，0 表示不检测 */
+	public void setBudgetMs(float ms) {
+		this.budgetNanos = (long) (ms * 1_000_000L);
+	}
+
+	public float getBudgetMs() { return budgetNanos / 1e6f; }
+
+	public int getHistory() { return history; }
+
+	/**
+	 * 登记一个统计项 (注册系统时调用，只在此处分配)
+	 * @return section 编号
+	 */
+	public int addSection(String name) {
+		if (sectionCount == sections.length) sections = Arrays.copyOf(sections, sectionCount * 2);
+		sections[sectionCount] = new Section(name, history);
+		return sectionCount++;
+	}
+
+	/** 移除所有系统统计项 (世界销毁时调用)，阶段统计保留 */
+	public void clearSystemSections() {
+		Arrays.fill(sections, FIRST_SYSTEM, sectionCount, null);
+		sectionCount = FIRST_SYSTEM;
+		reset();
+	}
+
+	/** 清空历史 */
+	public void reset() {
+		for (int i = 0; i < sectionCount; i++) {
+			Section s = sections[i];
+			Arrays.fill(s.ring, 0);
+			s.current = 0;
+			s.beganAt = 0;
+			s.totalNanos = 0;
+			s.totalCalls = 0;
+			s.statsFrame = -1;
+		}
+		head = filled = 0;
+		frameCounter = 0;
+		frameOpen = false;
+		spikeCount = 0;
+		lastSpikeSection = -1;
+		lastSpikeSectionNanos = lastSpikeFrameNanos = 0;
+	}
+
+	// ==========================================
+	// 埋点 (帧内调用，零分配)
+	// ==========================================
+
+	/** 结算上一帧并开始新的一帧 */
+	public void beginFrame() {
+		if (!enabled) return;
+		if (frameOpen) commitFrame();
+		frameOpen = true;
+		begin(FRAME);
+	}
+
+	public void begin(int section) {
+		if (!enabled) return;
+		sections[section].beganAt = System.nanoTime();
+	}
+
+	public void end(int section) {
+		if (!enabled) return;
+		Section s = sections[section];
+		if (s.beganAt == 0) return;
+		long nanos = System.nanoTime() - s.beganAt;
+		s.current += nanos;
+		s.totalNanos += nanos;
+		s.totalCalls++;
+		s.beganAt = 0;
+	}
+
+	/** 直接累加一段耗时 (调度器对每个系统计时后调用；并行层中各系统写各自的 section) */
+	public void add(int section, long nanos) {
+		if (section < 0 || section >= sectionCount) return;
+		Section s = sections[section];
+		s.current += nanos;
+		s.totalNanos += nanos;
+		s.totalCalls++;
+	}
+
+	/** 本帧的 update 部分结束 (渲染耗时仍会计入本帧，直到下次 beginFrame) */
+	public void endUpdate() {
+		end(FRAME);
+	}
+
+	private void commitFrame() {
+		Section frame = sections[FRAME];
+		// 帧总耗时 = 逻辑 + 渲染
+		frame.current += sections[RENDER].current;
+
+		if (budgetNanos > 0 && frame.current > budgetNanos) {
+			spikeCount++;
+			int worst = -1;
+			long worstNanos = 0;
+			for (int i = FIRST_SYSTEM; i < sectionCount; i++) {
+				if (sections[i].current > worstNanos) {
+					worstNanos = sections[i].current;
+					worst = i;
+				}
+			}
+			lastSpikeSection = worst;
+			lastSpikeSectionNanos = worstNanos;
+			lastSpikeFrameNanos = frame.current;
+		}
+
+		for (int i = 0; i < sectionCount; i++) {
+			Section s = sections[i];
+			s.ring[head] = s.current;
+			s.current = 0;
+		}
+		head = (head + 1) % history;
+		if (filled < history) filled++;
+		frameCounter++;
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	public int getSectionCount() { return sectionCount; }
+
+	public Section getSection(int index) { return sections[index]; }
+
+	/** 按名字查找 (阶段名或系统类名)，找不到返回 -1 */
+	public int indexOf(String name) {
+		for (int i = 0; i < sectionCount; i++) {
+			if (sections[i].name.equals(name)) return i;
+		}
+		return -1;
+	}
+
+	/** 系统对应的 section 编号 */
+	public int indexOf(BaseSystem system) {
+		return system.getProfileSection();
+	}
+
+	/** 已记录的帧数 (不超过 history) */
+	public int getSampleCount() { return filled; }
+	public long getFrameCount() { return frameCounter; }
+
+	public float getLastMs(int section) { return stats(section).last / 1e6f; }
+	public float getMinMs(int section) { return stats(section).min / 1e6f; }
+	public float getMaxMs(int section) { return stats(section).max / 1e6f; }
+	public float getAvgMs(int section) { return (float) (stats(section).avg / 1e6); }
+	public float getP99Ms(int section) { return stats(section).p99 / 1e6f; }
+
+	/** 开启以来 (或上次 reset 以来) 的累计耗时 (纳秒) */
+	public long getTotalNanos(int section) { return sections[section].totalNanos; }
+	/** 开启以来 (或上次 reset 以来) 的累计次数 */
+	public int getTotalCalls(int section) { return sections[section].totalCalls; }
+
+	/** 超预算帧数 */
+	public int getSpikeCount() { return spikeCount; }
+	/** 最近一次超预算帧中最慢的系统 (没有则 -1) */
+	public int getLastSpikeSection() { return lastSpikeSection; }
+	public float getLastSpikeSectionMs() { return lastSpikeSectionNanos / 1e6f; }
+	public float getLastSpikeFrameMs() { return lastSpikeFrameNanos / 1e6f; }
+
+	private Section stats(int index) {
+		Section s = sections[index];
+		if (s.statsFrame == frameCounter) return s;
+		s.statsFrame = frameCounter;
+		if (filled == 0) {
+			s.last = s.min = s.max = s.p99 = 0;
+			s.avg = 0;
+			return s;
+		}
+		s.last = s.ring[(head - 1 + history) % history];
+		// 未填满时有效样本在 [0, filled)，填满后整个数组都有效
+		System.arraycopy(s.ring, 0, scratch, 0, filled);
+		Arrays.sort(scratch, 0, filled);
+		long sum = 0;
+		for (int i = 0; i < filled; i++) sum += scratch[i];
+		s.min = scratch[0];
+		s.max = scratch[filled - 1];
+		s.avg = (double) sum / filled;
+		s.p99 = scratch[Math.min(filled - 1, (int) Math.ceil(filled * 0.99) - 1)];
+		return s;
+	}
+
+	/**
+	 * 输出统计表 (调试面板 / 日志用)
+	 * <p>系统只列出 avg 不为 0 的；传入的 StringBuilder 会被清空复用。</p>
+	 */
+	public StringBuilder appendTable(StringBuilder sb) {
+		sb.setLength(0);
+		sb.append("Profiler (").append(filled).append(" frames)");
+		if (!enabled) sb.append(" [OFF]");
+		sb.append("\nsection         last    avg     p99     max (ms)");
+		for (int i = 0; i < sectionCount; i++) {
+			Section s = stats(i);
+			if (i >= FIRST_SYSTEM && s.max == 0) continue;
+			if (i == FIRST_SYSTEM) sb.append("\n-- systems --");
+			sb.append('\n');
+			appendPadded(sb, s.name, 16);
+			appendMs(sb, s.last);
+			appendMs(sb, (long) s.avg);
+			appendMs(sb, s.p99);
+			appendMs(sb, s.max);
+		}
+		if (budgetNanos > 0) {
+			sb.append("\nbudget ").append(getBudgetMs()).append("ms, spikes ").append(spikeCount);
+			if (lastSpikeSection >= 0) {
+				sb.append(", last: ").append(sections[lastSpikeSection].name)
+					.append(' ').append(getLastSpikeSectionMs()).append(" / ").append(getLastSpikeFrameMs()).append("ms");
+			}
+		}
+		return sb;
+	}
+
+	/** 统计表字符串 (会分配，适合偶尔打日志) */
+	public String report() {
+		return appendTable(new StringBuilder(512)).toString();
+	}
+
+	private static void appendPadded(StringBuilder sb, String name, int width) {
+		if (name.length() > width) {
+			sb.append(name, 0, width);
+		} else {
+			sb.append(name);
+			for (int i = name.length(); i < width; i++) sb.append(' ');
+		}
+	}
+
+	/** 两位小数毫秒，固定宽度 (不走 String.format，避免分配) */
+	private static void appendMs(StringBuilder sb, long nanos) {
+		long hundredths = (nanos + 5_000) / 10_000;
+		int start = sb.length();
+		sb.append(hundredths / 100).append('.');
+		long frac = hundredths % 100;
+		if (frac < 10) sb.append('0');
+		sb.append(frac);
+		for (int i = sb.length() - start; i < 8; i++) sb.append(' ');
+	}
+}
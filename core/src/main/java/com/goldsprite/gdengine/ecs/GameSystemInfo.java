@@ -16,4 +16,13 @@ public @interface GameSystemInfo {
 	int type() default SystemType.UPDATE;
 	// 系统关心的组件列表 (用于自动筛选实体)
 	Class<? extends Component>[] interestComponents() default {};
+
+	/**
+	 * 只读访问的组件类型 (用于并行调度)
+	 * <p>reads 与 writes 都为空的系统被视为<b>独占</b>：它与任何系统都冲突，总是单独运行。</p>
+	 */
+	Class<? extends Component>[] reads() default {};
+
+	/** 会修改的组件类型 (用于并行调度，写-读 / 写-写 冲突的系统不会同时运行) */
+	Class<? extends Component>[] writes() default {};
 }
@@ -6,17 +6,22 @@ import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
 import com.goldsprite.gdengine.ecs.entity.GObject;
 import com.goldsprite.gdengine.ecs.system.BaseSystem;
 import com.goldsprite.gdengine.ecs.system.SceneSystem;
+import com.goldsprite.gdengine.ecs.system.SpatialIndexSystem;
+import com.goldsprite.gdengine.ecs.system.TransformSystem;
 import com.goldsprite.gdengine.ecs.system.WorldRenderSystem;
 import com.goldsprite.gdengine.input.Event;
 import com.goldsprite.gdengine.log.Debug;
+import com.goldsprite.gdengine.log.TraceRecorder;
 import com.goldsprite.gdengine.neonbatch.NeonBatch;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +34,12 @@ import java.util.stream.Collectors;
  *     <li><b>系统调度</b>: 驱动所有 System 的生命周期。</li>
  * </ol>
  * </p>
+ * <p>
+ * <b>多世界：</b>时间、实体表、组件数据库、系统表都属于世界实例，可以同时存在多个世界
+ * (例如渲染世界 + 无头模拟世界，或服务端的多个房间)。{@link #inst()} 返回当前线程绑定的世界，
+ * 未绑定时返回默认世界；update / render / dispose 期间自动绑定自身，因此不同世界可以在不同线程上同时步进。
+ * 同一个世界同一时刻只能由一个线程步进。
+ * </p>
  */
 public class GameWorld {
 	// [新增] 世界运行模式
@@ -38,7 +49,17 @@ public class GameWorld {
 		PAUSE   // 暂停态：逻辑暂停，渲染继续
 	}
 
-	private static GameWorld instance;
+	/**
+	 * 默认世界：没有显式绑定 ({@link #enter}) 的线程上 {@link #inst()} 返回它。
+	 * 第一个创建的世界成为默认世界；它销毁后由下一个存活的世界顶替。
+	 */
+	private static volatile GameWorld instance;
+
+	/** 当前线程绑定的世界 (update / render / dispose 期间自动绑定自身) */
+	private static final ThreadLocal<GameWorld> CURRENT = new ThreadLocal<>();
+
+	/** 所有存活的世界 */
+	private static final List<GameWorld> LIVE_WORLDS = new CopyOnWriteArrayList<>();
 
 	// [新增] 当前模式
 	private Mode currentMode = Mode.EDIT;
@@ -47,24 +68,45 @@ public class GameWorld {
 	// 1. 全局配置与时间状态
 	// ==========================================
 
-	/** 全局时间缩放 (1.0 = 正常, 0.5 = 慢动作, 0 = 暂停) */
-	public static float timeScale = 1.0f;
+	/** 时间缩放 (1.0 = 正常, 0.5 = 慢动作, 0 = 暂停) */
+	private float timeScale = 1.0f;
 
-	/** 物理模拟步长 (60Hz = 0.0166s)，保证物理逻辑的确定性 */
-	public static final float FIXED_DELTA_TIME = 1f / 60f;
+	/** 默认物理模拟步长 (60Hz = 0.0166s)，实际步长见 {@link #fixedTimestep} */
+	public static final float FIXED_DELTA_TIME = FixedTimestep.DEFAULT_STEP;
+
+	/**
+	 * 本世界的固定步长时钟：步长、追赶上限、自适应降频、插值系数与步数统计
+	 * <p>例：{@code world.fixedTimestep.setRate(30)}、{@code world.fixedTimestep.setAdaptive(true)}</p>
+	 */
+	public final FixedTimestep fixedTimestep = new FixedTimestep();
+
+	/**
+	 * 本世界的帧性能分析器：各阶段与各系统耗时的环形缓冲 (默认关闭)
+	 * <p>例：{@code world.profiler.setEnabled(true)}、{@code Debug.log(world.profiler.report())}</p>
+	 */
+	public final FrameProfiler profiler = new FrameProfiler();
 
-	/** 最大物理追赶时间 (0.2s)，防止卡顿后死循环追赶 */
-	private static final float MAX_FIXED_STEP_TIME = 0.2f;
+	/** 是否在每个物理步前记录变换快照，供渲染插值 (见 TransformComponent#getInterpolatedX) */
+	private boolean interpolation = false;
 
 	// 运行状态
 	private boolean paused = false;
 	private boolean awaked = false;
-	private float fixedUpdateAccumulator = 0f;
 
 	// 时间快照 (供 System 每一帧访问)
-	private static float deltaTime;      // 缩放后的帧时间
-	private static float unscaledDelta;  // 真实流逝时间
-	private static float totalTime;      // 游戏启动总时长
+	private float deltaTime;      // 缩放后的帧时间
+	private float unscaledDelta;  // 真实流逝时间
+	private float totalTime;      // 世界启动总时长
+
+	// ==========================================
+	// 1.5 世界数据 (每个世界独立)
+	// ==========================================
+
+	/** 实体表：本世界实体的下标与句柄 */
+	private final EntityTable entityTable = new EntityTable();
+
+	/** 组件数据库：本世界的实体档案、查询缓存、原型存储 */
+	private final ComponentDatabase componentDatabase = new ComponentDatabase(entityTable);
 
 	// ==========================================
 	// 2. 实体容器 (顶层物体管理)
@@ -80,11 +122,16 @@ public class GameWorld {
 	 */
 	private final List<GObject> rootEntities = new ArrayList<>(512);
 
-	/** 待添加缓冲队列：防止遍历 rootEntities 时添加新物体导致 Crash */
-	private final List<GObject> pendingAdds = new ArrayList<>(64);
+	/**
+	 * 顶层变更缓冲队列：防止遍历 rootEntities 时增删物体导致 Crash
+	 * <p>每个物体最多入队一次 (FLAG_ROOT_QUEUED)，增还是删由 FLAG_ROOT_WANTED 决定，flush 时统一结算。</p>
+	 */
+	private final List<GObject> pendingRootChanges = new ArrayList<>(64);
+
+	private static final int ROOT_FLAGS = EcsObject.FLAG_ROOT_WANTED | EcsObject.FLAG_ROOT_LISTED | EcsObject.FLAG_ROOT_QUEUED;
 
-	/** 待移除缓冲队列：防止遍历 rootEntities 时移除物体导致 Crash */
-	private final List<GObject> pendingRemoves = new ArrayList<>(64);
+	/** 层级结构版本号：顶层增删、setParent、销毁时 +1 (TransformSystem 据此重建扁平层级) */
+	private int hierarchyVersion = 0;
 
 	// ==========================================
 	// 3. 系统容器
@@ -98,17 +145,31 @@ public class GameWorld {
 	private final List<BaseSystem> fixedUpdateSystems = new ArrayList<>();
 	private final List<BaseSystem> renderSystems = new ArrayList<>();
 
+	// 逻辑系统调度器 (支持按读写声明并行执行，默认单线程)
+	private final SystemScheduler updateScheduler = new SystemScheduler("Update", this, updateSystems, (sys, dt) -> sys.update(dt));
+	private final SystemScheduler fixedScheduler = new SystemScheduler("Fixed", this, fixedUpdateSystems, (sys, dt) -> sys.fixedUpdate(dt));
+
+	// BaseSystem.forEachParallel 是否真正分发到工作线程
+	private boolean parallelEntityJobs = true;
+
+	/** 结构变更命令缓冲：System 更新期间记录，帧内统一回放 */
+	private final EntityCommandBuffer commandBuffer = new EntityCommandBuffer();
+
+	/** 核心系统：负责计算层级世界变换 (先于 SceneSystem) */
+	public TransformSystem transformSystem;
+	/** 核心系统：空间索引 (范围 / 半径 / 点查询，编辑器拾取) */
+	public SpatialIndexSystem spatialIndex;
 	/** 核心系统：负责驱动 GObject 的生命周期 (Unity 兼容层) */
 	public SceneSystem sceneSystem;
 	public WorldRenderSystem worldRenderSystem;
 
 	// ==========================================
-	// 4. 全局服务引用
+	// 4. 服务引用 (每个世界独立，无头世界可以为 null)
 	// ==========================================
 	// UI 视口 (用于 Input 处理: screen -> world)
-	public static Viewport uiViewport;
+	public Viewport uiViewport;
 	// 世界相机 (用于 System 获取位置: culling / physics)
-	public static OrthographicCamera worldCamera;
+	public OrthographicCamera worldCamera;
 
 
 	// ==========================================
@@ -167,17 +228,69 @@ public class GameWorld {
 	// 构造与初始化
 	// ==========================================
 
+	/**
+	 * 创建世界
+	 * <p>第一个世界成为默认世界；之后创建的世界彼此独立 (组件索引、实体表、时间、系统各自一份)，
+	 * 在它们上面创建实体前需要先 {@link #enter} 绑定，或在 {@link #runInWorld} 中执行。</p>
+	 */
 	public GameWorld() {
-		if (instance != null) throw new RuntimeException("GameWorld 实例已存在! 请确保单例唯一性。");
-		instance = this;
+		LIVE_WORLDS.add(this);
+		if (instance == null) instance = this;
+
+		// 核心系统构造时通过 inst() 找到所属世界
+		GameWorld prev = enter(this);
+		try {
+			initializeCoreSystems();
+		} finally {
+			exit(prev);
+		}
+	}
+
+	/** 当前线程绑定的世界，未绑定时返回默认世界 */
+	public static GameWorld inst() {
+		GameWorld bound = CURRENT.get();
+		return bound != null ? bound : instance;
+	}
+
+	/**
+	 * 把当前线程绑定到指定世界 (之后的 inst()、ComponentManager 查询、新建实体都指向它)
+	 * @return 之前绑定的世界，需传给 {@link #exit(GameWorld)} 恢复
+	 */
+	public static GameWorld enter(GameWorld world) {
+		GameWorld prev = CURRENT.get();
+		CURRENT.set(world);
+		return prev;
+	}
 
-		initializeCoreSystems();
+	public static void exit(GameWorld prev) {
+		if (prev == null) CURRENT.remove();
+		else CURRENT.set(prev);
 	}
 
-	public static GameWorld inst() { return instance; }
+	/** 在本世界上下文中执行 (例如向非默认世界生成实体) */
+	public void runInWorld(Runnable action) {
+		GameWorld prev = enter(this);
+		try {
+			action.run();
+		} finally {
+			exit(prev);
+		}
+	}
+
+	/** 存活的世界数量 */
+	public static int getLiveWorldCount() {
+		return LIVE_WORLDS.size();
+	}
+
+	public EntityTable getEntityTable() { return entityTable; }
+	public ComponentDatabase getComponentDatabase() { return componentDatabase; }
 
 	private void initializeCoreSystems() {
 		Debug.log("GameWorld: 正在初始化核心系统...");
+		// 变换系统先注册：组件 Update 之前算好本帧世界矩阵
+		transformSystem = new TransformSystem();
+		// 空间索引紧跟变换系统：读取本帧刚算好的世界变换
+		spatialIndex = new SpatialIndexSystem();
 		// 初始化场景系统，它会自动调用 registerSystem 把自己注册进来
 		sceneSystem = new SceneSystem();
 		// 初始化渲染系统
@@ -188,8 +301,8 @@ public class GameWorld {
 	 * 设置全局视口引用 (通常在 Screen.create 或 resize 中调用)
 	 */
 	public void setReferences(Viewport uiViewport, Camera worldCamera) {
-		GameWorld.uiViewport = uiViewport;
-		GameWorld.worldCamera = (OrthographicCamera)worldCamera;
+		this.uiViewport = uiViewport;
+		this.worldCamera = (OrthographicCamera)worldCamera;
 	}
 
 	// ==========================================
@@ -202,6 +315,20 @@ public class GameWorld {
 	 * @param rawDelta Gdx.graphics.getDeltaTime() 传入的原始时间
 	 */
 	public void update(float rawDelta) {
+		// 步进期间把当前线程绑定到本世界：多个世界可以各自在不同线程上步进
+		GameWorld prev = enter(this);
+		profiler.beginFrame();
+		long traceStart = TraceRecorder.now();
+		try {
+			step(rawDelta);
+		} finally {
+			profiler.endUpdate();
+			TraceRecorder.end("Frame", "Update", traceStart);
+			exit(prev);
+		}
+	}
+
+	private void step(float rawDelta) {
 		// 1. 时间计算
 		unscaledDelta = rawDelta;
 		deltaTime = rawDelta * timeScale;
@@ -210,7 +337,13 @@ public class GameWorld {
 		// 2. [Early Flush] 结构变更处理 (核心)
 		// 处理上一帧产生的 add/remove 请求。
 		// 确保本帧 Update 开始时，所有新出生的物体都在 rootEntities 列表中。
+		// 帧间 (输入回调等) 记录的命令也在这里回放
+		profiler.begin(FrameProfiler.COMMAND);
+		commandBuffer.playback();
+		profiler.end(FrameProfiler.COMMAND);
+		profiler.begin(FrameProfiler.FLUSH);
 		flushEntities();
+		profiler.end(FrameProfiler.FLUSH);
 
 		// 3. [Awake Phase] 世界首次启动检查
 		if (!awaked) {
@@ -238,44 +371,72 @@ public class GameWorld {
 
 		// 4. [Start Phase] 统一执行 Start
 		// 任何刚 Awake 但还没 Start 的组件，在这里统一初始化跨对象逻辑
+		profiler.begin(FrameProfiler.START);
 		sceneSystem.executeStartTask();
+		profiler.end(FrameProfiler.START);
 
 		// 5. [Fixed Update] 物理循环
-		fixedUpdateAccumulator += deltaTime;
-		// 螺旋死循环防护
-		if (fixedUpdateAccumulator > MAX_FIXED_STEP_TIME) fixedUpdateAccumulator = MAX_FIXED_STEP_TIME;
-
-		while (fixedUpdateAccumulator >= FIXED_DELTA_TIME) {
-			for (int i = 0; i < fixedUpdateSystems.size(); i++) {
-				BaseSystem sys = fixedUpdateSystems.get(i);
-				if (sys.isEnabled()) sys.fixedUpdate(FIXED_DELTA_TIME);
-			}
-			fixedUpdateAccumulator -= FIXED_DELTA_TIME;
+		// 步数由 FixedTimestep 决定 (含螺旋死循环防护)，剩余时间留作渲染插值
+		int steps = fixedTimestep.advance(deltaTime);
+		float step = fixedTimestep.getStep();
+		profiler.begin(FrameProfiler.FIXED);
+		for (int i = 0; i < steps; i++) {
+			// 记录本步之前的世界变换，渲染时在 "上一步" 与 "当前" 之间混合
+			if (interpolation) transformSystem.snapshotForInterpolation();
+			fixedScheduler.run(step);
 		}
+		profiler.end(FrameProfiler.FIXED);
 
-		// 6. [Update] 逻辑循环
-		for (int i = 0; i < updateSystems.size(); i++) {
-			BaseSystem sys = updateSystems.get(i);
-			if (sys.isEnabled()) sys.update(deltaTime);
-		}
+		// 6. [Update] 逻辑循环 (无冲突的系统可并行)
+		profiler.begin(FrameProfiler.UPDATE);
+		updateScheduler.run(deltaTime);
+		profiler.end(FrameProfiler.UPDATE);
+
+		// 7. [Command] 回放本帧 System 记录的结构变更 (一次批处理)
+		profiler.begin(FrameProfiler.COMMAND);
+		commandBuffer.playback();
+		profiler.end(FrameProfiler.COMMAND);
 
-		// 7. [Destroy] 帧末清理 (收尸)
+		// 8. [Destroy] 帧末清理 (收尸)
 		// 这一步会调用 GObject.destroyImmediate，触发 unregisterGObject
-		// 导致死亡物体进入 pendingRemoves 队列
+		// 导致死亡物体进入顶层变更队列
+		profiler.begin(FrameProfiler.DESTROY);
 		sceneSystem.executeDestroyTask();
+		profiler.end(FrameProfiler.DESTROY);
 
-		// 8. [Late Flush] 立即移除刚刚销毁的物体
+		// 9. [Late Flush] 立即移除刚刚销毁的物体
 		// 这样 rootEntities 列表在帧结束时就是干净的，引用断开，利于 GC 尽快回收
+		profiler.begin(FrameProfiler.FLUSH);
 		flushEntities();
+		profiler.end(FrameProfiler.FLUSH);
 	}
 
 	/** 渲染管线 */
 	public void render(NeonBatch batch, Camera camera) {
-		for (int i = 0; i < renderSystems.size(); i++) {
-			BaseSystem sys = renderSystems.get(i);
-			if (sys.isEnabled()) {
-				sys.render(batch, camera);
+		GameWorld prev = enter(this);
+		boolean profiling = profiler.isEnabled();
+		boolean tracing = TraceRecorder.isRecording();
+		long traceStart = TraceRecorder.now();
+		profiler.begin(FrameProfiler.RENDER);
+		try {
+			for (int i = 0; i < renderSystems.size(); i++) {
+				BaseSystem sys = renderSystems.get(i);
+				if (sys.isEnabled()) {
+					if (!profiling && !tracing) {
+						sys.render(batch, camera);
+						continue;
+					}
+					long begin = System.nanoTime();
+					sys.render(batch, camera);
+					long nanos = System.nanoTime() - begin;
+					if (profiling) profiler.add(sys.getProfileSection(), nanos);
+					if (tracing) TraceRecorder.complete("Render", sys.getSystemName(), begin, nanos);
+				}
 			}
+		} finally {
+			profiler.end(FrameProfiler.RENDER);
+			TraceRecorder.end("Frame", "Render", traceStart);
+			exit(prev);
 		}
 	}
 
@@ -288,6 +449,53 @@ public class GameWorld {
 		}
 	}
 
+	/**
+	 * 开关逻辑系统并行调度
+	 * <p>开启后，声明了 reads/writes 且互不冲突的系统会在 ForkJoin 线程池上同时运行；
+	 * 关闭时按注册顺序单线程执行 (确定性回退)。</p>
+	 */
+	public void setParallelSystems(boolean parallel) {
+		updateScheduler.setParallel(parallel);
+		fixedScheduler.setParallel(parallel);
+	}
+
+	public boolean isParallelSystems() {
+		return updateScheduler.isParallel();
+	}
+
+	/**
+	 * 开关 {@link BaseSystem#forEachParallel} 的多线程执行 (默认开启)
+	 * <p>关闭后所有实体任务在调用线程上按顺序执行，便于调试和复现问题。</p>
+	 */
+	public void setParallelEntityJobs(boolean parallel) {
+		this.parallelEntityJobs = parallel;
+	}
+
+	public boolean isParallelEntityJobs() {
+		return parallelEntityJobs;
+	}
+
+	/**
+	 * 开关渲染插值 (默认关闭)
+	 * <p>开启后每个物理步前记录一次世界变换快照，渲染组件可用 {@link #getFixedAlpha()}
+	 * 在快照与当前变换之间混合，消除物理频率低于刷新率时的顿挫。</p>
+	 */
+	public void setInterpolation(boolean enabled) {
+		this.interpolation = enabled;
+	}
+
+	public boolean isInterpolation() {
+		return interpolation;
+	}
+
+	/** 渲染插值系数 (0~1)：本帧剩余未模拟时间占一个物理步的比例 */
+	public float getFixedAlpha() {
+		return fixedTimestep.getAlpha();
+	}
+
+	public SystemScheduler getUpdateScheduler() { return updateScheduler; }
+	public SystemScheduler getFixedScheduler() { return fixedScheduler; }
+
 	public Mode getMode() {
 		return currentMode;
 	}
@@ -309,14 +517,38 @@ public class GameWorld {
 
 	/** 将缓冲队列应用到主列表 */
 	private void flushEntities() {
-		if (!pendingAdds.isEmpty()) {
-			rootEntities.addAll(pendingAdds);
-			pendingAdds.clear();
-		}
-		if (!pendingRemoves.isEmpty()) {
-			rootEntities.removeAll(pendingRemoves);
-			pendingRemoves.clear();
+		if (pendingRootChanges.isEmpty()) return;
+		int removed = 0, added = 0;
+		for (int i = 0, n = pendingRootChanges.size(); i < n; i++) {
+			GObject obj = pendingRootChanges.get(i);
+			obj.clearEngineFlag(EcsObject.FLAG_ROOT_QUEUED);
+			boolean wanted = obj.hasEngineFlag(EcsObject.FLAG_ROOT_WANTED);
+			boolean listed = obj.hasEngineFlag(EcsObject.FLAG_ROOT_LISTED);
+			if (wanted && !listed) {
+				obj.setEngineFlag(EcsObject.FLAG_ROOT_LISTED);
+				rootEntities.add(obj);
+				added++;
+			} else if (!wanted && listed) {
+				obj.clearEngineFlag(EcsObject.FLAG_ROOT_LISTED);
+				removed++;
+			}
 		}
+		pendingRootChanges.clear();
+		// 一次线性压实，代替 removeAll 的 O(N*M)
+		if (removed > 0) rootEntities.removeIf(GameWorld::isUnlisted);
+		// 登记时已经改过版本号，但那时顶层列表还没变：帧中按旧列表重建的扁平层级需要再建一次
+		if (added + removed > 0) hierarchyVersion++;
+	}
+
+	private static boolean isUnlisted(GObject obj) {
+		return !obj.hasEngineFlag(EcsObject.FLAG_ROOT_LISTED);
+	}
+
+	/** 登记一次顶层变更 (同一物体一帧内多次增删只入队一次) */
+	private void queueRootChange(GObject gobject) {
+		if (gobject.hasEngineFlag(EcsObject.FLAG_ROOT_QUEUED)) return;
+		gobject.setEngineFlag(EcsObject.FLAG_ROOT_QUEUED);
+		pendingRootChanges.add(gobject);
 	}
 
 	// ==========================================
@@ -328,12 +560,16 @@ public class GameWorld {
 	 * 意味着该物体没有父级，需要由 GameWorld 驱动
 	 */
 	public static void registerGObject(GObject gobject) {
-		if (instance == null) return;
-		// 防御性检查：不在列表中才添加，且如果正在待删除队列中则救回
-		if (!instance.pendingAdds.contains(gobject) && !instance.rootEntities.contains(gobject)) {
-			instance.pendingAdds.add(gobject);
-			instance.pendingRemoves.remove(gobject);
-			instance.onGObjectRegistered.invoke(gobject);
+		// 登记到物体所属的世界
+		GameWorld world = gobject.getWorld();
+		if (world == null) return;
+		SystemScheduler.checkStructuralChange("registerGObject");
+		// 防御性检查：已登记的不重复添加；如果正在待删除中则救回 (flush 时不会移除)
+		if (!gobject.hasEngineFlag(EcsObject.FLAG_ROOT_WANTED)) {
+			gobject.setEngineFlag(EcsObject.FLAG_ROOT_WANTED);
+			world.queueRootChange(gobject);
+			world.hierarchyVersion++;
+			world.onGObjectRegistered.invoke(gobject);
 		}
 	}
 
@@ -342,10 +578,15 @@ public class GameWorld {
 	 * 意味着该物体有了父级(由父级驱动)，或者被销毁了
 	 */
 	public static void unregisterGObject(GObject gobject) {
-		if (instance == null) return;
-		instance.pendingRemoves.add(gobject);
-		instance.pendingAdds.remove(gobject);
-		instance.onGObjectUnregistered.invoke(gobject);
+		GameWorld world = gobject.getWorld();
+		if (world == null) return;
+		SystemScheduler.checkStructuralChange("unregisterGObject");
+		if (gobject.hasEngineFlag(EcsObject.FLAG_ROOT_WANTED)) {
+			gobject.clearEngineFlag(EcsObject.FLAG_ROOT_WANTED);
+			world.queueRootChange(gobject);
+		}
+		world.hierarchyVersion++;
+		world.onGObjectUnregistered.invoke(gobject);
 	}
 
 	// --- 销毁请求转发 (代理给 SceneSystem) ---
@@ -357,6 +598,20 @@ public class GameWorld {
 		if (sceneSystem != null) sceneSystem.addDestroyComponent(component);
 	}
 
+	/** 获取结构变更命令缓冲 (System 更新期间请优先通过它生成/销毁实体) */
+	public EntityCommandBuffer getCommandBuffer() {
+		return commandBuffer;
+	}
+
+	/** 标记层级结构已变化 (由 GObject.setParent / 销毁通过物体所属的世界调用) */
+	public void markHierarchyChanged() {
+		hierarchyVersion++;
+	}
+
+	public int getHierarchyVersion() {
+		return hierarchyVersion;
+	}
+
 	/** 获取所有顶层实体 (供 SceneSystem 遍历) */
 	public List<GObject> getRootEntities() {
 		return rootEntities;
@@ -370,6 +625,7 @@ public class GameWorld {
 		if (!systemMap.containsKey(system.getClass())) {
 			systems.add(system);
 			systemMap.put(system.getClass(), system);
+			system.setProfileSection(profiler.addSection(system.getSystemName()));
 
 			int flags = system.getSystemType();
 
@@ -383,6 +639,8 @@ public class GameWorld {
 			if (SystemType.isRender(flags)) {
 				renderSystems.add(system);
 			}
+			updateScheduler.markDirty();
+			fixedScheduler.markDirty();
 		}
 	}
 
@@ -405,12 +663,21 @@ public class GameWorld {
 	}
 
 	// ==========================================
-	// 静态工具 (Time)
+	// 时间
 	// ==========================================
 
-	public static float getDeltaTime() { return deltaTime; }
-	public static float getUnscaledDeltaTime() { return unscaledDelta; }
-	public static float getTotalTime() { return totalTime; }
+	public float getTimeScale() { return timeScale; }
+	public void setTimeScale(float timeScale) { this.timeScale = timeScale; }
+
+	/** 本世界本帧的时间 (缩放后 / 未缩放 / 累计) */
+	public float deltaTime() { return deltaTime; }
+	public float unscaledDeltaTime() { return unscaledDelta; }
+	public float totalTime() { return totalTime; }
+
+	// 静态快捷方式：读取当前线程绑定世界的时间 (没有世界时为 0)
+	public static float getDeltaTime() { GameWorld w = inst(); return w != null ? w.deltaTime : 0f; }
+	public static float getUnscaledDeltaTime() { GameWorld w = inst(); return w != null ? w.unscaledDelta : 0f; }
+	public static float getTotalTime() { GameWorld w = inst(); return w != null ? w.totalTime : 0f; }
 
 	/**
 	 * 清理场景
@@ -418,6 +685,15 @@ public class GameWorld {
 	 * 通常在加载新场景前调用。
 	 */
 	public void clear() {
+		GameWorld prev = enter(this);
+		try {
+			clearScene();
+		} finally {
+			exit(prev);
+		}
+	}
+
+	private void clearScene() {
 		Debug.log("GameWorld: Clearing scene...");
 
 		// 必须创建副本进行遍历，因为 destroyImmediate 会修改 rootEntities 列表
@@ -441,27 +717,46 @@ public class GameWorld {
 	}
 	/** 资源释放与重置 */
 	public void dispose() {
+		GameWorld prev = enter(this);
+		try {
+			disposeInternal();
+		} finally {
+			exit(prev == this ? null : prev);
+		}
+		LIVE_WORLDS.remove(this);
+		// 默认世界销毁后由下一个存活世界顶替
+		if (instance == this) instance = LIVE_WORLDS.isEmpty() ? null : LIVE_WORLDS.get(0);
+	}
+
+	private void disposeInternal() {
 		Debug.log("GameWorld: Disposing...");
 
 		totalTime = 0f;
+		fixedTimestep.reset();
 
+		commandBuffer.clear();
+		// 清掉标志位，池中停放的物体下次登记时才不会被当成 "已在列表中"
+		for (int i = 0; i < rootEntities.size(); i++) rootEntities.get(i).clearEngineFlag(ROOT_FLAGS);
+		for (int i = 0; i < pendingRootChanges.size(); i++) pendingRootChanges.get(i).clearEngineFlag(ROOT_FLAGS);
 		rootEntities.clear();
-		pendingAdds.clear();
-		pendingRemoves.clear();
+		pendingRootChanges.clear();
 
 		systemMap.clear();
 		systems.clear();
 		updateSystems.clear();
 		fixedUpdateSystems.clear();
 		renderSystems.clear();
+		updateScheduler.markDirty();
+		fixedScheduler.markDirty();
+		profiler.clearSystemSections();
 
-		// [修复] 彻底销毁组件管理器状态，防止静态变量污染下一次运行
+		// [修复] 彻底销毁本世界的组件数据 (最后一个世界销毁时连同类型表一起重置)
 		ComponentManager.dispose();
+		// 旧世界所有实体句柄失效，下标回收
+		entityTable.reset();
 
 		// 注意：projectAssetsRoot 是静态的且跨声明周期（编辑器->游戏），
 		// 通常不需要在这里置空，除非切换项目。
 		// 但为了保险，可以在 Hub 打开新项目时覆盖它。
-
-		instance = null;
 	}
 }
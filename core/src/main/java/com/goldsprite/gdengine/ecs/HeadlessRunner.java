@@ -0,0 +1,210 @@
+package com.goldsprite.gdengine.ecs;
+
+import com.badlogic.gdx.Gdx;
+import com.goldsprite.gdengine.core.platform.HeadlessEnvironment;
+import com.goldsprite.gdengine.core.utils.SceneLoader;
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 无窗口模拟运行器
+ * <p>
+ * 以固定步长全速驱动 {@link GameWorld#update(float)}：不等待垂直同步、不调用 render (渲染系统完全不执行)，
+ * 用于服务器权威模拟、CI 回归测试、AI 训练等只关心逻辑结果的场景。
+ * 构造时自动安装 {@link HeadlessEnvironment}，不需要任何图形后端。
+ * </p>
+ * <pre>
+ * HeadlessRunner runner = new HeadlessRunner(world).setRate(60);
+ * HeadlessRunner.Report report = runner.runFor(600); // 模拟 10 分钟
+ * Debug.log(report.toString());
+ * </pre>
+ * 运行期间开启世界的 {@link FrameProfiler}，逐系统耗时取自它的累计值，结束后恢复原开关。
+ */
+public class HeadlessRunner {
+
+	private final GameWorld world;
+	private float delta = FixedTimestep.DEFAULT_STEP;
+	private BooleanSupplier stopCondition;
+	private Runnable onFrame;
+
+	public HeadlessRunner(GameWorld world) {
+		HeadlessEnvironment.install();
+		this.world = world;
+	}
+
+	/** 每帧喂给 update 的时间 (秒)，默认与物理步长相同，即每帧恰好一个 fixedUpdate */
+	public HeadlessRunner setDelta(float seconds) {
+		if (!(seconds > 0f) || Float.isInfinite(seconds)) throw new IllegalArgumentException("模拟步长必须是正的有限值: " + seconds);
+		this.delta = seconds;
+		return this;
+	}
+
+	/** 按频率设置模拟步长 (Hz) */
+	public HeadlessRunner setRate(float hz) {
+		if (!(hz > 0f) || Float.isInfinite(hz)) throw new IllegalArgumentException("模拟频率必须是正的有限值: " + hz);
+		return setDelta(1f / hz);
+	}
+
+	public float getDelta() { return delta; }
+
+	/** 提前结束条件：每帧结束后检查，返回 true 即停止 */
+	public HeadlessRunner setStopCondition(BooleanSupplier stopCondition) {
+		this.stopCondition = stopCondition;
+		return this;
+	}
+
+	/** 每帧 update 之后的回调 (在世界绑定的线程上执行，可用于采样或注入输入) */
+	public HeadlessRunner setOnFrame(Runnable onFrame) {
+		this.onFrame = onFrame;
+		return this;
+	}
+
+	/** 模拟指定的游戏内时长 (秒) */
+	public Report runFor(float simulatedSeconds) {
+		return runFrames((int) Math.ceil(simulatedSeconds / delta));
+	}
+
+	/** 全速执行 frames 帧 (或直到结束条件满足) */
+	public Report runFrames(int frames) {
+		if (world.getMode() != GameWorld.Mode.PLAY) world.setMode(GameWorld.Mode.PLAY);
+
+		// 记下起点的累计值，报告只算本次运行的部分 (不清空分析器已有的历史)
+		FrameProfiler profiler = world.profiler;
+		int sectionsBefore = profiler.getSectionCount();
+		long[] nanosBefore = new long[sectionsBefore];
+		int[] callsBefore = new int[sectionsBefore];
+		for (int i = 0; i < sectionsBefore; i++) {
+			nanosBefore[i] = profiler.getTotalNanos(i);
+			callsBefore[i] = profiler.getTotalCalls(i);
+		}
+		boolean prevProfiling = profiler.isEnabled();
+		profiler.setEnabled(true);
+		HeadlessEnvironment.setDeltaTime(delta);
+
+		int done = 0;
+		long begin = System.nanoTime();
+		try {
+			while (done < frames) {
+				world.update(delta);
+				HeadlessEnvironment.nextFrame();
+				done++;
+				if (onFrame != null) onFrame.run();
+				if (stopCondition != null && stopCondition.getAsBoolean()) break;
+			}
+		} finally {
+			profiler.setEnabled(prevProfiling);
+		}
+		long wall = System.nanoTime() - begin;
+
+		Report report = new Report(done, done * delta, wall);
+		// 统计期间可能有新系统注册，重新收集一次
+		for (BaseSystem sys : collectSystems()) {
+			int section = sys.getProfileSection();
+			if (section < 0) continue;
+			boolean existed = section < sectionsBefore;
+			int calls = profiler.getTotalCalls(section) - (existed ? callsBefore[section] : 0);
+			long nanos = profiler.getTotalNanos(section) - (existed ? nanosBefore[section] : 0);
+			if (calls > 0) report.systems.add(new SystemTiming(sys.getSystemName(), nanos, calls));
+		}
+		report.systems.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+		return report;
+	}
+
+	private List<BaseSystem> collectSystems() {
+		Set<BaseSystem> set = new LinkedHashSet<>(world.getFixedUpdateSystems());
+		set.addAll(world.getUpdateSystems());
+		return new ArrayList<>(set);
+	}
+
+	// ==========================================
+	// 结果
+	// ==========================================
+
+	/** 单个系统的耗时 */
+	public static class SystemTiming {
+		public final String name;
+		public final long nanos;
+		public final int calls;
+
+		SystemTiming(String name, long nanos, int calls) {
+			this.name = name;
+			this.nanos = nanos;
+			this.calls = calls;
+		}
+
+		public double getTotalMs() { return nanos / 1e6; }
+		public double getAverageUs() { return calls == 0 ? 0 : nanos / 1e3 / calls; }
+	}
+
+	/** 一次运行的统计 */
+	public static class Report {
+		public final int frames;
+		/** 模拟的游戏内时长 (秒) */
+		public final float simulatedSeconds;
+		/** 实际耗时 (纳秒) */
+		public final long wallNanos;
+		/** 逐系统耗时，按总耗时降序 */
+		public final List<SystemTiming> systems = new ArrayList<>();
+
+		Report(int frames, float simulatedSeconds, long wallNanos) {
+			this.frames = frames;
+			this.simulatedSeconds = simulatedSeconds;
+			this.wallNanos = wallNanos;
+		}
+
+		public double getWallSeconds() { return wallNanos / 1e9; }
+
+		/** 每秒实际跑了多少帧 */
+		public double getSimulatedFps() {
+			return wallNanos == 0 ? 0 : frames / getWallSeconds();
+		}
+
+		/** 相对实时的加速倍数 (模拟时长 / 实际耗时) */
+		public double getSpeedup() {
+			return wallNanos == 0 ? 0 : simulatedSeconds / getWallSeconds();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("Headless: %d 帧, 模拟 %.2fs, 耗时 %.3fs, %.0f FPS, %.1fx 实时",
+				frames, simulatedSeconds, getWallSeconds(), getSimulatedFps(), getSpeedup()));
+			for (SystemTiming t : systems) {
+				sb.append(String.format("\n  %-28s %10.2f ms  %8.2f us/次  x%d", t.name, t.getTotalMs(), t.getAverageUs(), t.calls));
+			}
+			return sb.toString();
+		}
+	}
+
+	// ==========================================
+	// 命令行入口
+	// ==========================================
+
+	/**
+	 * 用法: HeadlessRunner &lt;scene.json&gt; [帧数=3600] [频率Hz=60]
+	 * <p>加载场景，全速模拟后把统计打印到标准输出。</p>
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.out.println("用法: HeadlessRunner <scene.json> [frames=3600] [hz=60]");
+			return;
+		}
+		HeadlessEnvironment.install();
+		int frames = args.length > 1 ? Integer.parseInt(args[1]) : 3600;
+		float hz = args.length > 2 ? Float.parseFloat(args[2]) : 60f;
+
+		GameWorld world = new GameWorld();
+		try {
+			SceneLoader.load(Gdx.files.absolute(args[0]));
+			Report report = new HeadlessRunner(world).setRate(hz).runFrames(frames);
+			System.out.println(report);
+		} finally {
+			world.dispose();
+		}
+	}
+}
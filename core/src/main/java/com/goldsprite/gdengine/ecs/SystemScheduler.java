@@ -0,0 +1,235 @@
+package com.goldsprite.gdengine.ecs;
+
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+import com.goldsprite.gdengine.log.Debug;
+import com.goldsprite.gdengine.log.TraceRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 系统调度器 (并行执行逻辑系统)
+ * <p>
+ * 根据 {@link GameSystemInfo#reads()} / {@link GameSystemInfo#writes()} 的声明构建依赖图：
+ * 注册顺序靠后的系统，必须等待所有与它<b>冲突</b>且注册在前的系统执行完。
+ * 由此把系统分成若干层 (Stage)，同一层内的系统互不冲突，可以在 ForkJoin 线程池上同时运行，
+ * 层与层之间是屏障。
+ * </p>
+ * <p>
+ * 关闭并行 ({@link #setParallel(boolean)} = false，默认) 时，按注册顺序单线程依次执行，结果完全确定。
+ * 开启并行时，因冲突的系统仍保持注册顺序，组件数据结果同样确定；
+ * 但并行系统向命令缓冲记录命令的先后顺序不保证。
+ * </p>
+ * 注意：未声明读写范围的系统 (例如 SceneSystem) 被视为独占，会单独成层。
+ */
+public class SystemScheduler {
+
+	/** 系统执行回调 (update 或 fixedUpdate) */
+	public interface SystemCall {
+		void run(BaseSystem system, float delta);
+	}
+
+	private final String name;
+	/** 所属世界 (工作线程执行系统时绑定，保证 GameWorld.inst() 指向正确的世界) */
+	private final GameWorld world;
+	private final List<BaseSystem> systems;
+	private final SystemCall call;
+
+	private boolean parallel = false;
+	private boolean dirty = true;
+
+	// 分层结果：每层一个任务数组 (任务对象复用，避免每帧分配)
+	private final List<SystemTask[]> stages = new ArrayList<>();
+
+	private float currentDelta;
+
+	/**
+	 * @param name 调度器名 (日志用)
+	 * @param world 所属世界
+	 * @param systems 系统列表引用 (由 GameWorld 维护，变更后需调用 {@link #markDirty()})
+	 * @param call 对每个系统执行的调用
+	 */
+	public SystemScheduler(String name, GameWorld world, List<BaseSystem> systems, SystemCall call) {
+		this.name = name;
+		this.world = world;
+		this.systems = systems;
+		this.call = call;
+	}
+
+	public boolean isParallel() { return parallel; }
+
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/** 系统列表发生变化 (注册/清空) 时调用，下次执行前重建依赖图 */
+	public void markDirty() {
+		dirty = true;
+	}
+
+	/** 共享的工作线程池 */
+	public static ForkJoinPool getPool() {
+		return ForkJoinPool.commonPool();
+	}
+
+	// ==========================================
+	// 工作线程上下文 (结构变更守卫)
+	// ==========================================
+
+	/** 当前线程是否正在执行并行任务 (并行系统层 / forEachParallel) */
+	private static final ThreadLocal<Boolean> IN_WORKER = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	/**
+	 * 标记当前线程进入并行任务
+	 * @return 之前的状态，需传给 {@link #exitWorker(boolean)} 恢复
+	 */
+	public static boolean enterWorker() {
+		boolean prev = IN_WORKER.get();
+		if (!prev) IN_WORKER.set(Boolean.TRUE);
+		return prev;
+	}
+
+	public static void exitWorker(boolean prev) {
+		if (!prev) IN_WORKER.set(Boolean.FALSE);
+	}
+
+	public static boolean isInWorker() {
+		return IN_WORKER.get();
+	}
+
+	/**
+	 * 结构变更守卫：在并行任务中直接修改实体结构会破坏共享索引，必须改用命令缓冲
+	 * @throws IllegalStateException 当前处于并行任务中
+	 */
+	public static void checkStructuralChange(String operation) {
+		if (IN_WORKER.get()) {
+			throw new IllegalStateException("并行任务中禁止直接执行 " + operation
+				+ "，请改用 world.getCommandBuffer() (System 内为 commands()) 记录变更");
+		}
+	}
+
+	// ==========================================
+	// 执行
+	// ==========================================
+
+	public void run(float delta) {
+		if (!parallel || getPool().getParallelism() <= 1) {
+			runSequential(delta);
+			return;
+		}
+
+		if (dirty) rebuild();
+		currentDelta = delta;
+
+		for (int s = 0; s < stages.size(); s++) {
+			SystemTask[] stage = stages.get(s);
+			if (stage.length == 1) {
+				// 单系统层直接在当前线程执行，省去线程切换
+				stage[0].execute(delta);
+				continue;
+			}
+			for (SystemTask task : stage) task.reinitialize();
+			ForkJoinTask.invokeAll(stage);
+		}
+	}
+
+	/** 确定性单线程回退：按注册顺序依次执行 */
+	private void runSequential(float delta) {
+		for (int i = 0; i < systems.size(); i++) {
+			BaseSystem sys = systems.get(i);
+			if (sys.isEnabled()) runSystem(sys, delta);
+		}
+	}
+
+	private void runSystem(BaseSystem sys, float delta) {
+		boolean profiling = world.profiler.isEnabled();
+		boolean tracing = TraceRecorder.isRecording();
+		if (!profiling && !tracing) {
+			call.run(sys, delta);
+			return;
+		}
+		// 并行层里每个系统只在一个线程上执行，各自累加互不干扰
+		long begin = System.nanoTime();
+		call.run(sys, delta);
+		long nanos = System.nanoTime() - begin;
+		if (profiling) world.profiler.add(sys.getProfileSection(), nanos);
+		if (tracing) TraceRecorder.complete(name, sys.getSystemName(), begin, nanos);
+	}
+
+	// ==========================================
+	// 依赖图
+	// ==========================================
+
+	/**
+	 * 计算每个系统的层级：level(S) = 1 + max(level(P))，P 为注册在 S 之前且与 S 冲突的系统
+	 */
+	private void rebuild() {
+		int n = systems.size();
+		int[] levels = new int[n];
+		int maxLevel = -1;
+		for (int i = 0; i < n; i++) {
+			int level = 0;
+			for (int j = 0; j < i; j++) {
+				if (levels[j] >= level && systems.get(i).conflictsWith(systems.get(j))) {
+					level = levels[j] + 1;
+				}
+			}
+			levels[i] = level;
+			maxLevel = Math.max(maxLevel, level);
+		}
+
+		stages.clear();
+		for (int level = 0; level <= maxLevel; level++) {
+			List<SystemTask> tasks = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				if (levels[i] == level) tasks.add(new SystemTask(systems.get(i)));
+			}
+			stages.add(tasks.toArray(new SystemTask[0]));
+		}
+		dirty = false;
+		Debug.logT("System", "%s 调度图: %d 个系统 -> %d 层", name, n, stages.size());
+	}
+
+	/** 调试输出分层结果 */
+	public String describe() {
+		if (dirty) rebuild();
+		StringBuilder sb = new StringBuilder(name).append(':');
+		for (int s = 0; s < stages.size(); s++) {
+			sb.append("\n  [").append(s).append("] ");
+			SystemTask[] stage = stages.get(s);
+			for (int i = 0; i < stage.length; i++) {
+				if (i > 0) sb.append(" | ");
+				sb.append(stage[i].system.getSystemName());
+			}
+		}
+		return sb.toString();
+	}
+
+	@SuppressWarnings("serial") // 只在进程内的线程池里执行，从不序列化
+	private final class SystemTask extends RecursiveAction {
+		final BaseSystem system;
+
+		SystemTask(BaseSystem system) {
+			this.system = system;
+		}
+
+		void execute(float delta) {
+			if (system.isEnabled()) runSystem(system, delta);
+		}
+
+		@Override
+		protected void compute() {
+			boolean prev = enterWorker();
+			GameWorld prevWorld = GameWorld.enter(world);
+			try {
+				execute(currentDelta);
+			} finally {
+				GameWorld.exit(prevWorld);
+				exitWorker(prev);
+			}
+		}
+	}
+}
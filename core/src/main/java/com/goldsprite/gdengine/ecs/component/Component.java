@@ -1,6 +1,7 @@
 package com.goldsprite.gdengine.ecs.component;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.goldsprite.gdengine.ecs.ComponentDescriptor;
 import com.goldsprite.gdengine.ecs.ComponentManager;
 import com.goldsprite.gdengine.ecs.EcsObject;
 import com.goldsprite.gdengine.ecs.GameWorld;
@@ -28,6 +29,14 @@ public abstract class Component extends EcsObject {
 	protected transient boolean isAwake = false;
 	protected transient boolean isStarted = false;
 
+	// 类描述符缓存 (纪元变化时重新获取)
+	private transient ComponentDescriptor descriptor;
+	private transient int descriptorEpoch = -1;
+
+	// 在 SceneSystem 分发列表中的下标 (-1 表示不在列表中)
+	private transient int updateSlot = -1;
+	private transient int fixedUpdateSlot = -1;
+
 	// ==========================================
 	// 3. 构造阶段 (Phase 1)
 	// ==========================================
@@ -48,8 +57,8 @@ public abstract class Component extends EcsObject {
 		isAwake = true;
 
 		if (gobject != null) {
+			// registerComponent 已包含父类标记，无需再全量重扫 updateEntityComponentMask
 			ComponentManager.registerComponent(gobject, this.getClass(), this);
-			ComponentManager.updateEntityComponentMask(gobject);
 		}
 
 		onAwake();
@@ -58,12 +67,16 @@ public abstract class Component extends EcsObject {
 		// 只有没 Start 过且启用的组件才需要 Start
 		if (!isStarted) {
 			// 防御性判空：反序列化过程中 GameWorld 可能还没准备好，或者这是一个单纯的数据对象
-			if (GameWorld.inst() != null && GameWorld.inst().sceneSystem != null) {
-				GameWorld.inst().sceneSystem.registerStart(this);
+			GameWorld world = getWorld();
+			if (world != null && world.sceneSystem != null) {
+				world.sceneSystem.registerStart(this);
 			}
 		}
 
-		if (isEnabled) onEnable();
+		if (isEnabled) {
+			registerDispatch();
+			onEnable();
+		}
 	}
 
 	protected void onAwake() {}
@@ -88,6 +101,13 @@ public abstract class Component extends EcsObject {
 	public void onDisable() {} // 当组件禁用时
 	public void onDestroy() {} // 当组件销毁前
 
+	/**
+	 * 对象池回收时调用 (见 {@link com.goldsprite.gdengine.ecs.entity.GObjectPool})
+	 * <p>把运行时状态恢复到 "刚生成" 的样子 (计时器清零、速度归零...)，代替重新构造。
+	 * 回收时先 onDisable 再 onReset；再次取出时会重新 onEnable。</p>
+	 */
+	public void onReset() {}
+
 	// 编辑器/调试绘图接口
 	public void onDrawGizmos() {}
 	
@@ -101,11 +121,23 @@ public abstract class Component extends EcsObject {
 	public final void destroy() {
 		if (isDestroyed) return;
 		isDestroyed = true;
-		if (GameWorld.inst() != null) {
-			GameWorld.inst().addDestroyComponent(this);
+		GameWorld world = getWorld();
+		if (world != null) {
+			world.addDestroyComponent(this);
 		}
 	}
 
+	/**
+	 * [引擎内部] 销毁已经脱离 ComponentManager 的组件 (对象池清理停放实体时调用)
+	 * <p>停放时已回调过 onDisable，这里只回调 onDestroy 并解绑。</p>
+	 */
+	public final void destroyDetached() {
+		isDestroyed = true;
+		onDestroy();
+		gobject = null;
+		transform = null;
+	}
+
 	/** 硬销毁：立即切断所有联系 (系统内部使用) */
 	public final void destroyImmediate() {
 		if (gobject != null) {
@@ -113,9 +145,8 @@ public abstract class Component extends EcsObject {
 			if (isEnabled) onDisable();
 			onDestroy();
 
-			// 物理移除引用
+			// 物理移除引用 (removeComponent 内部会向 ComponentManager 注销)
 			gobject.removeComponent(this);
-			ComponentManager.unregisterComponent(gobject, this.getClass(), this);
 
 			gobject = null;
 			transform = null;
@@ -140,6 +171,11 @@ public abstract class Component extends EcsObject {
 	public void setEnable(boolean enable) {
 		if (isEnabled != enable) {
 			isEnabled = enable;
+			// 同步分发列表 (禁用的组件不参与 Update 遍历)
+			if (isAwake && gobject != null) {
+				if (enable) registerDispatch();
+				else unregisterDispatch();
+			}
 			// 状态切换时触发回调
 			if (enable) onEnable();
 			else onDisable();
@@ -147,6 +183,44 @@ public abstract class Component extends EcsObject {
 	}
 	public boolean isEnable() { return isEnabled; }
 	public boolean isDestroyed() { return isDestroyed; }
+	public boolean isStarted() { return isStarted; }
+
+	/** 加入 SceneSystem 的 update/fixedUpdate 分发列表 (没重写钩子的组件会被忽略) */
+	public void registerDispatch() {
+		GameWorld world = getWorld();
+		if (world != null && world.sceneSystem != null) world.sceneSystem.registerDispatch(this);
+	}
+
+	public void unregisterDispatch() {
+		GameWorld world = getWorld();
+		if (world != null && world.sceneSystem != null) world.sceneSystem.unregisterDispatch(this);
+	}
+
+	/** 组件所属的世界 (即挂载物体的世界；未挂载时为 null) */
+	public GameWorld getWorld() {
+		return gobject != null ? gobject.getWorld() : null;
+	}
+
+	/** [引擎内部] 分发列表槽位，kind: 0 = update, 1 = fixedUpdate */
+	public int getDispatchSlot(int kind) {
+		return kind == 0 ? updateSlot : fixedUpdateSlot;
+	}
+
+	/** [引擎内部] 仅供分发列表维护下标 */
+	public void setDispatchSlot(int kind, int slot) {
+		if (kind == 0) updateSlot = slot;
+		else fixedUpdateSlot = slot;
+	}
+
+	/** 本组件类的描述符 (缓存在实例上，热路径零哈希) */
+	public ComponentDescriptor getDescriptor() {
+		int epoch = ComponentManager.getDescriptorEpoch();
+		if (descriptor == null || descriptorEpoch != epoch) {
+			descriptor = ComponentManager.getDescriptor(getClass());
+			descriptorEpoch = epoch;
+		}
+		return descriptor;
+	}
 
 	// --- 快捷查找 (代理给 GObject) ---
 
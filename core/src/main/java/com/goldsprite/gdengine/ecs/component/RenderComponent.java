@@ -1,6 +1,10 @@
 package com.goldsprite.gdengine.ecs.component;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.math.Rectangle;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.system.RenderLayerManager;
 import com.goldsprite.gdengine.neonbatch.NeonBatch;
 
 /**
@@ -17,6 +21,18 @@ public abstract class RenderComponent extends Component {
 	/** 排序层级 (数值越大越靠前/后覆盖) 层内排序 (微调) */
 	public int orderInLayer = 0;
 
+	// --- 排序键缓存 (sortingLayer / orderInLayer / 层配置变化时才重算) ---
+	// 运行时状态，transient：不写进场景，读档 / 克隆后重新分配插入序号
+	private static long nextRenderSeq = 0;
+	private transient long sortKey;
+	private transient String keyLayer;
+	private transient int keyOrder;
+	private transient int keyLayerVersion = -1;
+	private transient long renderSeq = -1;
+	private transient boolean keyWorldSpace;
+	/** 渲染队列成员标记 (由 RenderQueue 维护) */
+	private transient int renderQueueMark;
+
 	// [新增] 实现基类钩子，桥接到抽象 render 方法
 	@Override
 	public void onRender(NeonBatch batch, Camera camera) {
@@ -39,4 +55,83 @@ public abstract class RenderComponent extends Component {
 	public boolean contains(float x, float y) {
 		return false; // 默认不响应点击
 	}
+
+	/**
+	 * 世界空间轴对齐包围盒 (用于空间索引 / 剔除)
+	 * <p>必须完整覆盖 {@link #contains} 为 true 的区域和实际绘制区域。</p>
+	 * @param out 结果写入这里
+	 * @return 没有可用尺寸时返回 false (空间索引会退化为按位置的点登记，剔除时总是绘制)
+	 */
+	public boolean getWorldBounds(Rectangle out) {
+		return false;
+	}
+
+	/**
+	 * 包围盒因尺寸等非变换数据改变时调用 (例如改精灵宽高、换图)
+	 * <p>通知所属世界的空间索引下一次同步时重算本实体，不必等轮询兜底。</p>
+	 */
+	public void markBoundsDirty() {
+		GameWorld world = getWorld();
+		if (world != null && world.spatialIndex != null) world.spatialIndex.markDirty(gobject);
+	}
+
+	/**
+	 * 包围盒是否会在变换不变时自己改变 (例如骨骼动画)
+	 * <p>返回 true 时空间索引每次同步都会重算它，而不是只在变换版本变化时重算。</p>
+	 */
+	public boolean hasDynamicBounds() {
+		return false;
+	}
+
+	/**
+	 * 本组件绘制时使用的 (唯一) 纹理，供合批重排参考
+	 * <p>纯图形绘制返回 batch 的白点纹理；返回 null 表示未知或多张纹理，此时不参与重排，也不会被越过。</p>
+	 */
+	public Texture getBatchTexture(NeonBatch batch) {
+		return null;
+	}
+
+	// ==========================================
+	// 排序键
+	// ==========================================
+
+	/**
+	 * 打包的排序键，按无符号比较从小到大绘制
+	 * <p>布局 (高位到低位)：层深度 16 位 | orderInLayer 16 位 | 插入序号 32 位。
+	 * 深度和层内顺序按 short 范围截断；插入序号在首次取键时分配，相同层级与顺序时先来的先画。
+	 * 纹理不进排序键：同键内按纹理重排要先确认互不遮挡，由 {@link com.goldsprite.gdengine.ecs.system.TextureBatchSorter} 负责。</p>
+	 */
+	public long getSortKey() {
+		if (sortingLayer != keyLayer || orderInLayer != keyOrder || keyLayerVersion != RenderLayerManager.getVersion()) {
+			rebuildSortKey();
+		}
+		return sortKey;
+	}
+
+	/** 所在层是否为世界空间层 (与排序键一起缓存，避免每帧查表) */
+	public boolean isWorldSpaceLayer() {
+		getSortKey();
+		return keyWorldSpace;
+	}
+
+	private void rebuildSortKey() {
+		keyLayer = sortingLayer;
+		keyOrder = orderInLayer;
+		keyLayerVersion = RenderLayerManager.getVersion();
+		keyWorldSpace = RenderLayerManager.isLayerWorldSpace(sortingLayer);
+		if (renderSeq == -1) renderSeq = nextRenderSeq++;
+		long depth = clampShort(RenderLayerManager.getLayerDepth(sortingLayer)) + 0x8000L;
+		long order = clampShort(orderInLayer) + 0x8000L;
+		sortKey = (depth << 48) | (order << 32) | (renderSeq & 0xFFFFFFFFL);
+	}
+
+	private static int clampShort(int v) {
+		return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, v));
+	}
+
+	/** [引擎内部] 渲染队列成员标记，只由 RenderQueue 读写 */
+	public int getRenderQueueMark() { return renderQueueMark; }
+
+	/** [引擎内部] @see #getRenderQueueMark() */
+	public void setRenderQueueMark(int mark) { this.renderQueueMark = mark; }
 }
@@ -1,6 +1,9 @@
 package com.goldsprite.gdengine.ecs.component;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.math.Rectangle;
+import com.goldsprite.gdengine.ecs.skeleton.NeonGeometrySkin;
 import com.goldsprite.gdengine.ecs.skeleton.NeonSkeleton;
 import com.goldsprite.gdengine.ecs.skeleton.NeonSlot;
 import com.goldsprite.gdengine.neonbatch.NeonBatch;
@@ -29,8 +32,8 @@ public class SkeletonComponent extends RenderComponent {
 			skeleton.rootBone.x = transform.position.x;
 			skeleton.rootBone.y = transform.position.y;
 			skeleton.rootBone.rotation = transform.rotation;
-			skeleton.rootBone.scaleX = transform.worldScale.x;
-			skeleton.rootBone.scaleY = transform.worldScale.y;
+			skeleton.rootBone.scaleX = transform.getWorldScaleX();
+			skeleton.rootBone.scaleY = transform.getWorldScaleY();
 		}
 
 		// 然后触发骨骼矩阵计算
@@ -55,8 +58,42 @@ public class SkeletonComponent extends RenderComponent {
 		// 简单判定：距离中心点 50 像素范围内
 		// 实际上骨骼形状复杂，OBB检测很难，这里用一个经验值
 		float dist = com.badlogic.gdx.math.Vector2.dst(x, y, transform.worldPosition.x, transform.worldPosition.y);
-		float threshold = 50f * Math.max(Math.abs(transform.worldScale.x), Math.abs(transform.worldScale.y));
+		float threshold = 50f * Math.max(Math.abs(transform.getWorldScaleX()), Math.abs(transform.getWorldScaleY()));
 
 		return dist < threshold;
 	}
+
+	/**
+	 * 当前姿态下所有插槽的包围盒 (见 {@link NeonSkeleton#computeWorldBounds})
+	 * <p>没有可绘制插槽时退回与 contains 一致的经验半径，保证仍能点选。</p>
+	 */
+	@Override
+	public boolean getWorldBounds(Rectangle out) {
+		if (transform == null) return false;
+		if (skeleton.computeWorldBounds(out)) {
+			// 点选用的经验圆也要被覆盖
+			float r = 50f * Math.max(Math.abs(transform.getWorldScaleX()), Math.abs(transform.getWorldScaleY()));
+			out.merge(transform.worldPosition.x - r, transform.worldPosition.y - r);
+			out.merge(transform.worldPosition.x + r, transform.worldPosition.y + r);
+			return true;
+		}
+		float r = 50f * Math.max(Math.abs(transform.getWorldScaleX()), Math.abs(transform.getWorldScaleY()));
+		out.set(transform.worldPosition.x - r, transform.worldPosition.y - r, r * 2f, r * 2f);
+		return true;
+	}
+
+	/** 动画会在变换不动时改变骨骼姿态 */
+	@Override
+	public boolean hasDynamicBounds() {
+		return true;
+	}
+
+	/** 全部是几何皮肤时只用白点纹理；有其它皮肤 (可能带贴图) 时未知 */
+	@Override
+	public Texture getBatchTexture(NeonBatch batch) {
+		for (NeonSlot slot : skeleton.getDrawOrder()) {
+			if (slot.skin != null && !(slot.skin instanceof NeonGeometrySkin)) return null;
+		}
+		return batch.getBlankRegion().getTexture();
+	}
 }
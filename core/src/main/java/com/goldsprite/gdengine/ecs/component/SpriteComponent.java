@@ -2,9 +2,12 @@ package com.goldsprite.gdengine.ecs.component;
 
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.goldsprite.gdengine.core.scripting.ScriptResourceTracker;
+import com.goldsprite.gdengine.ecs.GameWorld;
 import com.goldsprite.gdengine.neonbatch.NeonBatch;
 
 // [新增] 命中检测逻辑 (OBB)
@@ -60,18 +63,40 @@ public class SpriteComponent extends RenderComponent {
 			width = region.getRegionWidth();
 			height = region.getRegionHeight();
 		}
+		markBoundsDirty();
 	}
+
+	/** 设置显示尺寸 (会通知空间索引；直接改 width/height 字段要等轮询兜底) */
+	public void setSize(float width, float height) {
+		if (this.width == width && this.height == height) return;
+		this.width = width;
+		this.height = height;
+		markBoundsDirty();
+	}
+
+	public void setWidth(float width) { setSize(width, height); }
+	public void setHeight(float height) { setSize(width, height); }
 	
 	// [新增] 迁移自 SpriteSystem 的绘制逻辑
 	@Override
 	public void render(NeonBatch batch, Camera camera) {
 		if (!isEnable() || region == null || transform == null) return;
 
-		float x = transform.worldPosition.x;
-		float y = transform.worldPosition.y;
-		float rotation = transform.worldRotation;
-		float sx = transform.worldScale.x;
-		float sy = transform.worldScale.y;
+		float x, y, rotation;
+		GameWorld world = getWorld();
+		if (world != null && world.isInterpolation()) {
+			// 在上一个物理步与当前之间混合，物理频率低于刷新率时不顿挫
+			float alpha = world.getFixedAlpha();
+			x = transform.getInterpolatedX(alpha);
+			y = transform.getInterpolatedY(alpha);
+			rotation = transform.getInterpolatedRotation(alpha);
+		} else {
+			x = transform.worldPosition.x;
+			y = transform.worldPosition.y;
+			rotation = transform.getWorldRotation();
+		}
+		float sx = transform.getWorldScaleX();
+		float sy = transform.getWorldScaleY();
 
 		// Offset 逻辑
 		float ox = offsetX * sx;
@@ -105,7 +130,7 @@ public class SpriteComponent extends RenderComponent {
 		float ly = worldY - transform.worldPosition.y;
 
 		// 2. 旋转 (逆旋转)
-		float rot = -transform.worldRotation;
+		float rot = -transform.getWorldRotation();
 		float cos = MathUtils.cosDeg(rot);
 		float sin = MathUtils.sinDeg(rot);
 		float rx = lx * cos - ly * sin;
@@ -115,17 +140,50 @@ public class SpriteComponent extends RenderComponent {
 		// 注意: width/height 是原始大小，包含了 scale 影响的显示大小是 width*scale
 		// 所以如果不除以 scale，我们要比较 rx vs width*scale/2
 		// 这里选择将点除以 scale，比较 rx' vs width/2
-		float sx = Math.abs(transform.worldScale.x);
-		float sy = Math.abs(transform.worldScale.y);
+		float sx = Math.abs(transform.getWorldScaleX());
+		float sy = Math.abs(transform.getWorldScaleY());
 		if (sx == 0 || sy == 0) return false;
 
 		rx /= sx;
 		ry /= sy;
 
+		// 偏移在缩放前的本地空间 (与 render 一致)
+		rx -= offsetX;
+		ry -= offsetY;
+
 		// 4. AABB 判定 (中心点为 0,0)
 		float halfW = width / 2f;
 		float halfH = height / 2f;
 
 		return rx >= -halfW && rx <= halfW && ry >= -halfH && ry <= halfH;
 	}
+
+	@Override
+	public boolean getWorldBounds(Rectangle out) {
+		if (transform == null || (width == 0 && height == 0)) return false;
+
+		float sx = Math.abs(transform.getWorldScaleX());
+		float sy = Math.abs(transform.getWorldScaleY());
+		float rot = transform.getWorldRotation();
+		float cos = MathUtils.cosDeg(rot);
+		float sin = MathUtils.sinDeg(rot);
+
+		// 中心 = 世界位置 + 旋转后的偏移
+		float ox = offsetX * sx, oy = offsetY * sy;
+		float cx = transform.worldPosition.x + ox * cos - oy * sin;
+		float cy = transform.worldPosition.y + ox * sin + oy * cos;
+
+		// 旋转矩形的外接 AABB 半宽高
+		float hw = width * sx / 2f, hh = height * sy / 2f;
+		float ac = Math.abs(cos), as = Math.abs(sin);
+		float ex = ac * hw + as * hh;
+		float ey = as * hw + ac * hh;
+		out.set(cx - ex, cy - ey, ex * 2f, ey * 2f);
+		return true;
+	}
+
+	@Override
+	public Texture getBatchTexture(NeonBatch batch) {
+		return region != null ? region.getTexture() : null;
+	}
 }
@@ -25,9 +25,29 @@ public class TransformComponent extends Component {
 	@Hide public final Affine2 worldTransform = new Affine2();
 
 	// --- 派生数据缓存 (World Cache - 只读) ---
+	// 位移直接取矩阵平移列，随矩阵同步更新
 	public final Vector2 worldPosition = new Vector2();
-	public float worldRotation = 0f;
-	public final Vector2 worldScale = new Vector2(1, 1);
+	// 旋转/缩放需要 atan2 + sqrt 分解，首次读取时才计算 (见 getWorldRotation / getWorldScale)
+	private float worldRotation = 0f;
+	private final Vector2 worldScale = new Vector2(1, 1);
+	private boolean decomposed = true;
+
+	// --- 脏检测快照 (上次计算世界矩阵时的输入) ---
+	private float cachedX, cachedY, cachedRotation, cachedScaleX, cachedScaleY;
+	private TransformComponent cachedParent;
+	private int cachedParentVersion;
+	private boolean worldValid = false;
+	/** 世界矩阵每重算一次 +1，子级据此判断父级是否变化 */
+	private int worldVersion = 0;
+
+	// --- 渲染插值快照 (上一个物理步之前的世界矩阵原始项，见 GameWorld#setInterpolation) ---
+	// 只存矩阵项，旋转等渲染真正要插值时才分解，避免每步对所有物体做 atan2
+	private transient float prevM00 = 1f, prevM10, prevM02, prevM12;
+	private transient float prevWorldRotation;
+	private transient boolean prevRotationValid = false;
+	/** 快照时的 worldVersion：与当前相同说明这一步没动过，直接取当前值 */
+	private transient int snapshotVersion;
+	private transient boolean hasPrevious = false;
 
 	public TransformComponent() {
 		super();
@@ -48,10 +68,110 @@ public class TransformComponent extends Component {
 			worldTransform.set(localTransform);
 		}
 
-		// 3. 立即分解 (Decompose) 更新缓存
-		// 位移
+		// 3. 位移立即更新；旋转/缩放延迟到首次读取时分解
 		worldPosition.set(worldTransform.m02, worldTransform.m12);
+		decomposed = false;
+
+		// 4. 记录输入快照
+		cachedX = position.x;
+		cachedY = position.y;
+		cachedRotation = rotation;
+		cachedScaleX = scale.x;
+		cachedScaleY = scale.y;
+		cachedParent = parentTransform;
+		cachedParentVersion = parentTransform != null ? parentTransform.worldVersion : 0;
+		worldValid = true;
+		worldVersion++;
+	}
+
+	/**
+	 * 世界矩阵是否需要重算
+	 * <p>局部 position/rotation/scale 与上次不同、换了父级、或父级世界矩阵已重算过。</p>
+	 */
+	public boolean isWorldDirty(TransformComponent parentTransform) {
+		if (!worldValid || cachedParent != parentTransform) return true;
+		if (parentTransform != null && parentTransform.worldVersion != cachedParentVersion) return true;
+		return position.x != cachedX || position.y != cachedY || rotation != cachedRotation
+			|| scale.x != cachedScaleX || scale.y != cachedScaleY;
+	}
+
+	/** 仅在脏时重算世界矩阵 (由 TransformSystem 调用)，返回是否真的重算了 */
+	public boolean updateWorldTransformIfDirty(TransformComponent parentTransform) {
+		if (!isWorldDirty(parentTransform)) return false;
+		updateWorldTransform(parentTransform);
+		return true;
+	}
+
+	public int getWorldVersion() { return worldVersion; }
+
+	// --- 派生数据 (World - 惰性分解) ---
+
+	/** 世界旋转 (度)，矩阵变化后首次读取时才做 atan2 */
+	public float getWorldRotation() {
+		if (!decomposed) decompose();
+		return worldRotation;
+	}
+
+	/** 世界缩放 (只读，请勿修改返回的向量)，矩阵变化后首次读取时才做 sqrt */
+	public Vector2 getWorldScale() {
+		if (!decomposed) decompose();
+		return worldScale;
+	}
+
+	public float getWorldScaleX() { return getWorldScale().x; }
+	public float getWorldScaleY() { return getWorldScale().y; }
+
+	/** 世界矩阵的旋转/缩放是否已分解 (调试用) */
+	public boolean isWorldDecomposed() { return decomposed; }
+
+	// --- 渲染插值 ---
+
+	/**
+	 * 记录当前世界变换为 "上一步" 快照 (由 TransformSystem 在物理步之前调用)
+	 * <p>世界矩阵自上次快照后没有重算过时什么也不做 (快照仍然有效)。</p>
+	 */
+	public void snapshotPrevious() {
+		if (hasPrevious && snapshotVersion == worldVersion) return;
+		prevM00 = worldTransform.m00;
+		prevM10 = worldTransform.m10;
+		prevM02 = worldTransform.m02;
+		prevM12 = worldTransform.m12;
+		prevRotationValid = false;
+		snapshotVersion = worldVersion;
+		hasPrevious = true;
+	}
+
+	/** 丢弃快照 (瞬移后调用，避免从旧位置 "滑" 过去) */
+	public void resetInterpolation() {
+		hasPrevious = false;
+	}
+
+	/** 快照之后世界矩阵是否变过 (没变时插值结果就是当前值) */
+	private boolean movedSinceSnapshot() {
+		return hasPrevious && snapshotVersion != worldVersion;
+	}
+
+	/** 插值后的世界 X，alpha 取 GameWorld#getFixedAlpha()；没有快照时返回当前值 */
+	public float getInterpolatedX(float alpha) {
+		return movedSinceSnapshot() ? prevM02 + (worldPosition.x - prevM02) * alpha : worldPosition.x;
+	}
+
+	public float getInterpolatedY(float alpha) {
+		return movedSinceSnapshot() ? prevM12 + (worldPosition.y - prevM12) * alpha : worldPosition.y;
+	}
+
+	/** 插值后的世界旋转 (度，走最短弧)；快照的旋转在第一次用到时才分解 */
+	public float getInterpolatedRotation(float alpha) {
+		float current = getWorldRotation();
+		if (!movedSinceSnapshot()) return current;
+		if (!prevRotationValid) {
+			prevWorldRotation = MathUtils.radiansToDegrees * (float)Math.atan2(prevM10, prevM00);
+			prevRotationValid = true;
+		}
+		return MathUtils.lerpAngleDeg(prevWorldRotation, current, alpha);
+	}
 
+	private void decompose() {
 		// 旋转 (atan2)
 		worldRotation = MathUtils.radiansToDegrees * (float)Math.atan2(worldTransform.m10, worldTransform.m00);
 
@@ -59,6 +179,8 @@ public class TransformComponent extends Component {
 		// sx = len(m00, m10), sy = len(m01, m11)
 		worldScale.x = (float)Math.sqrt(worldTransform.m00 * worldTransform.m00 + worldTransform.m10 * worldTransform.m10);
 		worldScale.y = (float)Math.sqrt(worldTransform.m01 * worldTransform.m01 + worldTransform.m11 * worldTransform.m11);
+		// 先写值再置标记
+		decomposed = true;
 	}
 
 	// --- API (Local) ---
@@ -103,7 +225,7 @@ public class TransformComponent extends Component {
 	public void setWorldRotation(float wRot) {
 		float parentRot = 0;
 		if (gobject != null && gobject.getParent() != null) {
-			parentRot = gobject.getParent().transform.worldRotation;
+			parentRot = gobject.getParent().transform.getWorldRotation();
 		}
 		this.rotation = wRot - parentRot;
 	}
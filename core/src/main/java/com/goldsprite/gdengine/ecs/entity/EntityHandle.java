@@ -0,0 +1,38 @@
+package com.goldsprite.gdengine.ecs.entity;
+
+/**
+ * 实体句柄 (Generational Index)
+ * <p>
+ * 用一个 long 表示对实体的 "弱引用"：低 32 位是实体表下标，高 32 位是代数 (generation)。
+ * 实体销毁后下标会被复用，但代数会 +1，所以旧句柄通过 {@link EntityTable#resolve} 解析时返回 null，
+ * 不会误指向新实体。句柄是纯数值，可以直接存进 long[] 等原始数组，不产生对象引用。
+ * </p>
+ * <p>{@link #NULL} (0) 永远无效：代数从 1 开始计数。</p>
+ */
+public final class EntityHandle {
+
+	/** 空句柄 */
+	public static final long NULL = 0L;
+
+	private EntityHandle() {}
+
+	public static long of(int index, int generation) {
+		return ((long) generation << 32) | (index & 0xFFFFFFFFL);
+	}
+
+	public static int indexOf(long handle) {
+		return (int) handle;
+	}
+
+	public static int generationOf(long handle) {
+		return (int) (handle >>> 32);
+	}
+
+	public static boolean isNull(long handle) {
+		return handle == NULL;
+	}
+
+	public static String toString(long handle) {
+		return handle == NULL ? "Entity(null)" : "Entity(" + indexOf(handle) + "v" + generationOf(handle) + ")";
+	}
+}
@@ -0,0 +1,146 @@
+package com.goldsprite.gdengine.ecs.entity;
+
+import com.goldsprite.gdengine.ecs.GameWorld;
+
+/**
+ * 实体表 (稠密数组)
+ * <p>
+ * 每个 GObject 构造时领取一个下标，销毁时归还。下标紧凑且会被复用，
+ * 因此可以直接作为 ComponentManager 各种索引数组 / {@link com.goldsprite.gdengine.ecs.storage.EntitySet} 的键；
+ * 配合代数即可组成 {@link EntityHandle}，O(1) 解析且能识别已销毁的实体。
+ * </p>
+ * <p>
+ * 归还的下标不会立刻复用：批处理 (ComponentDatabase.beginBatch) 期间，旧下标可能仍作为键留在脏实体集合里，
+ * 所以先进入待回收队列，由 {@link #recycleReleased()} 在批处理结束后统一放入空闲列表。
+ * </p>
+ * <p>
+ * 每个 GameWorld 持有一张表 ({@link GameWorld#getEntityTable()})，
+ * 句柄只在所属世界内有效；{@link #current()} 返回当前线程绑定世界的表。
+ * 单张表只允许其世界的步进线程访问 (实体的创建/销毁本身就禁止在工作线程上进行)。
+ * </p>
+ */
+public final class EntityTable {
+
+	private GObject[] entities = new GObject[1024];
+	private int[] generations = new int[1024];
+	/** 已分配过的最大下标 + 1 */
+	private int highWater = 0;
+	private int liveCount = 0;
+
+	private int[] freeList = new int[256];
+	private int freeCount = 0;
+
+	private int[] releasedList = new int[64];
+	private int releasedCount = 0;
+
+	/** 不属于任何世界的实体使用的表 (例如创建 GameWorld 之前构造的实体) */
+	private static final EntityTable DETACHED = new EntityTable();
+
+	/** 当前线程绑定世界的实体表 (没有世界时为游离表) */
+	public static EntityTable current() {
+		GameWorld world = GameWorld.inst();
+		return world != null ? world.getEntityTable() : DETACHED;
+	}
+
+	/** 游离表 */
+	public static EntityTable detached() {
+		return DETACHED;
+	}
+
+	/** 为新实体分配下标 (由 GObject 构造函数调用) */
+	int allocate(GObject entity) {
+		int index;
+		if (freeCount > 0) {
+			index = freeList[--freeCount];
+		} else {
+			index = highWater++;
+			if (index == entities.length) {
+				GObject[] e = new GObject[entities.length * 2];
+				System.arraycopy(entities, 0, e, 0, entities.length);
+				entities = e;
+				int[] g = new int[generations.length * 2];
+				System.arraycopy(generations, 0, g, 0, generations.length);
+				generations = g;
+			}
+			generations[index] = 1;
+		}
+		entities[index] = entity;
+		liveCount++;
+		return index;
+	}
+
+	/** 归还下标 (由 GObject 销毁时调用)，旧句柄立即失效 */
+	void release(GObject entity) {
+		int index = entity.getEntityIndex();
+		// 防御：表被 reset 过、下标已被新实体占用时不能误删
+		if (index < 0 || index >= highWater || entities[index] != entity) return;
+		entities[index] = null;
+		generations[index]++;
+		liveCount--;
+		if (releasedCount == releasedList.length) releasedList = grow(releasedList);
+		releasedList[releasedCount++] = index;
+	}
+
+	/** 把已归还的下标放回空闲列表 (批处理结束、不再有旧下标作为键时调用) */
+	public void recycleReleased() {
+		for (int i = 0; i < releasedCount; i++) {
+			if (freeCount == freeList.length) freeList = grow(freeList);
+			freeList[freeCount++] = releasedList[i];
+		}
+		releasedCount = 0;
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	/** 解析句柄，实体已销毁或句柄过期时返回 null */
+	public GObject resolve(long handle) {
+		if (handle == EntityHandle.NULL) return null;
+		int index = EntityHandle.indexOf(handle);
+		if (index < 0 || index >= highWater) return null;
+		if (generations[index] != EntityHandle.generationOf(handle)) return null;
+		return entities[index];
+	}
+
+	public boolean isAlive(long handle) {
+		return resolve(handle) != null;
+	}
+
+	/** 按下标直接取实体 (不校验代数，供内部索引使用) */
+	public GObject get(int index) {
+		return index >= 0 && index < highWater ? entities[index] : null;
+	}
+
+	int generationAt(int index) {
+		return generations[index];
+	}
+
+	public int getLiveCount() { return liveCount; }
+	/** 下标上限 (可用于预分配按下标索引的数组) */
+	public int getCapacity() { return highWater; }
+
+	/**
+	 * 重置 (世界销毁时调用)：所有存活实体的句柄失效，下标全部回收
+	 * <p>代数保留并 +1，避免旧世界留下的句柄解析到新世界的实体。</p>
+	 */
+	public void reset() {
+		releasedCount = 0;
+		freeCount = 0;
+		for (int i = highWater - 1; i >= 0; i--) {
+			if (entities[i] != null) {
+				entities[i] = null;
+				generations[i]++;
+			}
+			if (freeCount == freeList.length) freeList = grow(freeList);
+			freeList[freeCount++] = i;
+		}
+		liveCount = 0;
+	}
+
+	private static int[] grow(int[] array) {
+		int[] n = new int[array.length * 2];
+		System.arraycopy(array, 0, n, 0, array.length);
+		return n;
+	}
+}
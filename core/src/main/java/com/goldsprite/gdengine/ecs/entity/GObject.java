@@ -1,16 +1,17 @@
 package com.goldsprite.gdengine.ecs.entity;
 
-import com.goldsprite.gdengine.core.annotations.ExecuteInEditMode;
+import com.goldsprite.gdengine.ecs.ComponentDatabase;
 import com.goldsprite.gdengine.ecs.ComponentManager;
 import com.goldsprite.gdengine.ecs.EcsObject;
 import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemScheduler;
 import com.goldsprite.gdengine.ecs.component.Component;
 import com.goldsprite.gdengine.ecs.component.TransformComponent;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.LinkedHashMap; // [修正1] 使用 LinkedHashMap
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 游戏实体 (对应 Unity.GameObject)
@@ -30,8 +31,27 @@ public class GObject extends EcsObject {
 
 	public final TransformComponent transform;
 
-	// [修正1] 使用 LinkedHashMap 保证遍历顺序与添加顺序一致
-	private final Map<Class<?>, List<Component>> components = new LinkedHashMap<>();
+	// 所属世界 (构造时绑定当前线程的世界，之后不变)：句柄、组件档案、顶层列表都登记在这个世界里
+	private final transient GameWorld world;
+
+	// 实体表句柄 (下标 + 代数)，下标用作各类索引数组的键
+	// 对象池回收/取出时会换新句柄，因此不是 final
+	private long handle;
+	private int entityIndex;
+	// 是否正停放在对象池中
+	private boolean pooled = false;
+	// 停放前的 activeSelf，取出时还原
+	private boolean activeBeforePark;
+
+	// 组件容器：按添加顺序紧凑存放 (通常只有个位数)
+	private Component[] components = new Component[4];
+	private int componentCount = 0;
+	private final ComponentListView componentView = new ComponentListView();
+
+	// 类型索引：类型 ID (含所有父类 ID) -> 第一个匹配的组件，多态 getComponent 为 O(1)
+	// 数组只增长到本实体用到的最大类型 ID；类型 ID 重置 (ComponentManager.dispose) 后按纪元重建
+	private Component[] byTypeId = new Component[8];
+	private int typeIndexEpoch = ComponentManager.getDescriptorEpoch();
 
 	private GObject parent;
 	private final List<GObject> children = new ArrayList<>();
@@ -41,6 +61,12 @@ public class GObject extends EcsObject {
 	// ==========================================
 	public GObject(String name) {
 		super(name);
+		this.world = GameWorld.inst();
+
+		// 领取实体表下标 (必须在注册任何组件之前)
+		EntityTable table = entityTable();
+		this.entityIndex = table.allocate(this);
+		this.handle = EntityHandle.of(entityIndex, table.generationAt(entityIndex));
 
 		// 核心组件初始化
 		this.transform = new TransformComponent();
@@ -61,10 +87,8 @@ public class GObject extends EcsObject {
 
 	public <T extends Component> T addComponent(Class<T> clazz) {
 		try {
-			// [修改后] 获取构造器 -> 强行赋予权限 -> 实例化
-			java.lang.reflect.Constructor<T> constructor = clazz.getDeclaredConstructor();
-			constructor.setAccessible(true); // <--- 关键！告诉 JVM "别管权限，让我用"
-			T comp = constructor.newInstance();
+			// 构造器缓存在类描述符里 (已 setAccessible)，不再每次反射查找
+			T comp = clazz.cast(ComponentManager.getDescriptor(clazz).newInstance());
 
 			return addComponent(comp);
 		} catch (Exception e) {
@@ -78,11 +102,10 @@ public class GObject extends EcsObject {
 	}
 
 	private <T extends Component> T addComponentInternal(T component) {
-		Class<?> type = component.getClass();
-
 		// 1. 存入容器
-		List<Component> list = components.computeIfAbsent(type, k -> new ArrayList<>());
-		list.add(component);
+		if (componentCount == components.length) components = Arrays.copyOf(components, componentCount * 2);
+		components[componentCount++] = component;
+		indexComponent(component);
 
 		// 2. 绑定
 		component.setGObject(this);
@@ -99,72 +122,146 @@ public class GObject extends EcsObject {
 
 	public void removeComponent(Component component) {
 		if (component == null) return;
-		Class<?> type = component.getClass();
 
-		List<Component> list = components.get(type);
-		if (list != null) {
-			list.remove(component);
-			if (list.isEmpty()) components.remove(type);
+		int index = indexOfComponent(component);
+		if (index >= 0) {
+			// 保持添加顺序 (组件数很少，搬移成本可忽略)
+			System.arraycopy(components, index + 1, components, index, componentCount - index - 1);
+			components[--componentCount] = null;
+			unindexComponent(component);
 		}
 
+		component.unregisterDispatch();
+
 		// [修正8] 移除 = 解绑。
 		// 只有调用 destroy() 才会触发 onDestroy 回调。
 		// 这里只是单纯地把组件从物体上剥离。
 		ComponentManager.unregisterComponent(this, component.getClass(), component);
 	}
 
+	/** 是否挂有该类型 (精确类型，不含子类) 的组件 */
 	public boolean hasComponent(Class type) {
-		return components.containsKey(type);
+		for (int i = 0; i < componentCount; i++) {
+			if (components[i].getClass() == type) return true;
+		}
+		return false;
 	}
 
 	public boolean hasComponent(Component component) {
-		if (!hasComponent(component.getClass())) return false;
-		return components.get(component.getClass()).contains(component);
+		return indexOfComponent(component) >= 0;
 	}
 
-	// ==========================================
-	// 查找 (保持不变，省略部分代码以节省篇幅)
-	// ==========================================
-	// ... getComponent(Class), getComponents(Class) 等逻辑 ...
-	// 这里完全沿用之前的实现，逻辑是正确的。
+	private int indexOfComponent(Component component) {
+		for (int i = 0; i < componentCount; i++) {
+			if (components[i] == component) return i;
+		}
+		return -1;
+	}
 
-	public <T extends Component> T getComponent(Class<T> type) {
-		List<Component> list = components.get(type);
-		if (list != null && !list.isEmpty()) return (T) list.get(0);
+	// --- 类型索引维护 ---
 
-		for (List<Component> comps : components.values()) {
-			if (!comps.isEmpty() && type.isAssignableFrom(comps.get(0).getClass())) {
-				return (T) comps.get(0);
-			}
+	private void indexComponent(Component component) {
+		int[] ids = component.getDescriptor().supertypeIds;
+		for (int i = 0; i < ids.length; i++) {
+			int id = ids[i];
+			if (id >= byTypeId.length) byTypeId = Arrays.copyOf(byTypeId, Math.max(id + 1, byTypeId.length * 2));
+			if (byTypeId[id] == null) byTypeId[id] = component;
 		}
-		return null;
 	}
 
-	public <T extends Component> T getComponent(Class<T> type, String name) {
-		for (List<Component> comps : components.values()) {
-			for (Component c : comps) {
-				if (type.isAssignableFrom(c.getClass()) && c.getName().equals(name)) {
-					return (T) c;
+	private void unindexComponent(Component component) {
+		int[] ids = component.getDescriptor().supertypeIds;
+		for (int i = 0; i < ids.length; i++) {
+			int id = ids[i];
+			if (id < byTypeId.length && byTypeId[id] == component) {
+				// 让位给剩下的第一个同类 (按添加顺序)
+				byTypeId[id] = null;
+				Class<? extends Component> type = ComponentManager.getComponentType(id);
+				for (int j = 0; j < componentCount; j++) {
+					if (type != null && type.isInstance(components[j])) {
+						byTypeId[id] = components[j];
+						break;
+					}
 				}
 			}
 		}
+	}
+
+	/** 类型 ID 被重置过 (ComponentManager.dispose / 脚本重载) 时重建索引 */
+	private void ensureTypeIndex() {
+		int epoch = ComponentManager.getDescriptorEpoch();
+		if (typeIndexEpoch == epoch) return;
+		typeIndexEpoch = epoch;
+		Arrays.fill(byTypeId, null);
+		for (int i = 0; i < componentCount; i++) indexComponent(components[i]);
+	}
+
+	// ==========================================
+	// 查找
+	// ==========================================
+
+	/** 获取第一个匹配类型 (含子类) 的组件，O(1) */
+	@SuppressWarnings("unchecked")
+	public <T extends Component> T getComponent(Class<T> type) {
+		ensureTypeIndex();
+		int id = ComponentManager.getComponentId(type);
+		return id < byTypeId.length ? (T) byTypeId[id] : null;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T extends Component> T getComponent(Class<T> type, String name) {
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			if (type.isInstance(c) && c.getName().equals(name)) return (T) c;
+		}
 		return null;
 	}
 
+	@SuppressWarnings("unchecked")
 	public <T extends Component> T getComponent(Class<T> type, int index) {
-		List<T> all = getComponents(type);
-		if (all != null && index >= 0 && index < all.size()) return all.get(index);
+		if (index < 0) return null;
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			if (type.isInstance(c) && index-- == 0) return (T) c;
+		}
 		return null;
 	}
 
+	/** 获取所有匹配类型 (含子类) 的组件 (每次返回新列表；热路径请用 {@link #getComponents(Class, List)}) */
 	public <T extends Component> List<T> getComponents(Class<T> type) {
-		List<T> result = new ArrayList<>();
-		for (List<Component> comps : components.values()) {
-			if (!comps.isEmpty() && type.isAssignableFrom(comps.get(0).getClass())) {
-				for (Component c : comps) result.add((T) c);
-			}
+		return getComponents(type, new ArrayList<>());
+	}
+
+	/**
+	 * 获取所有匹配类型 (含子类) 的组件，写入调用方复用的列表 (不分配)
+	 * @param out 会先被清空
+	 * @return out
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Component> List<T> getComponents(Class<T> type, List<? super T> out) {
+		out.clear();
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			if (type.isInstance(c)) out.add((T) c);
+		}
+		return (List<T>) out;
+	}
+
+	/** 组件数量 */
+	public int getComponentCount() { return componentCount; }
+
+	/** 按添加顺序取第 i 个组件 */
+	public Component getComponentAt(int i) { return components[i]; }
+
+	/** 所有组件的只读实时视图 (按添加顺序，不分配) */
+	public List<Component> getAllComponents() { return componentView; }
+
+	private final class ComponentListView extends AbstractList<Component> {
+		@Override public Component get(int index) {
+			if (index < 0 || index >= componentCount) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + componentCount);
+			return components[index];
 		}
-		return result;
+		@Override public int size() { return componentCount; }
 	}
 
 	// ==========================================
@@ -172,6 +269,7 @@ public class GObject extends EcsObject {
 	// ==========================================
 	public void setParent(GObject newParent) {
 		if (this.parent == newParent) return;
+		SystemScheduler.checkStructuralChange("setParent");
 
 		// 1. 从旧父级移除
 		if (this.parent != null) {
@@ -184,6 +282,7 @@ public class GObject extends EcsObject {
 		}
 
 		this.parent = newParent;
+		if (world != null) world.markHierarchyChanged();
 
 		// 2. 加入新父级
 		if (newParent != null) {
@@ -205,52 +304,43 @@ public class GObject extends EcsObject {
 	// 循环
 	// ==========================================
 
+	/**
+	 * 手动驱动本物体及子树的组件 Update (递归)
+	 * <p>引擎主循环不再走这里：SceneSystem 使用平铺的组件分发列表。保留供独立预览等场景手动调用。</p>
+	 */
 	@Override
 	public void update(float delta) {
 		if (!isActive || isDestroyed) return;
 
-		// [新增] 1. 计算这一帧的变换矩阵
-		// 获取父级的 Transform 组件
-		TransformComponent parentTrans = (parent != null) ? parent.transform : null;
-		// 执行矩阵乘法
-		this.transform.updateWorldTransform(parentTrans);
+		// 1. 世界变换已由 TransformSystem 在本帧提前算好 (只重算脏子树)
 
 		// [新增] 获取当前模式
-		boolean isPlayMode = GameWorld.inst().isPlayMode();
+		boolean isPlayMode = world != null && world.isPlayMode();
 
 		// 2. 更新组件逻辑 (逻辑可能会修改 transform.local，下一帧生效)
-		for (List<Component> list : components.values()) {
-			for (Component c : list) {
-				if (c.isEnable() && !c.isDestroyed()) {
-					// [核心修改] 生命周期过滤
-					// 如果是 PLAY 模式 -> 执行
-					// 如果是 EDIT 模式 -> 只有带 @ExecuteInEditMode 的才执行
-					// TransformComponent 不需要注解，因为它只是数据，且上面已经手动 update 了矩阵
-					// (注意：TransformComponent 的 update 方法是空的，所以调了也没事，但为了严谨...)
-
-					if (isPlayMode || shouldRunInEditor(c)) {
-						c.update(delta);
-					}
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			if (c.isEnable() && !c.isDestroyed()) {
+				// [核心修改] 生命周期过滤
+				// 如果是 PLAY 模式 -> 执行
+				// 如果是 EDIT 模式 -> 只有带 @ExecuteInEditMode 的才执行
+				// TransformComponent 不需要注解，因为它只是数据，矩阵由 TransformSystem 负责
+				// (注意：TransformComponent 的 update 方法是空的，所以调了也没事，但为了严谨...)
+
+				if (isPlayMode || c.getDescriptor().runsInEditMode) {
+					c.update(delta);
 				}
 			}
 		}
 
-		// 3. 递归子物体 (子物体会拿到我刚刚算好的 transform 作为 parentTrans)
+		// 3. 递归子物体
 		for (int i = 0; i < children.size(); i++) {
 			children.get(i).update(delta);
 		}
 	}
 
-	// 辅助判断
-	private boolean shouldRunInEditor(Component c) {
-		// 缓存类的注解检查结果会更快，这里暂用反射
-		return c.getClass().isAnnotationPresent(ExecuteInEditMode.class);
-	}
-
 	public void awake() {
-		for (List<Component> list : components.values()) {
-			for (Component c : list) c.awake();
-		}
+		for (int i = 0; i < componentCount; i++) components[i].awake();
 		for (GObject child : children) child.awake();
 	}
 
@@ -261,35 +351,44 @@ public class GObject extends EcsObject {
 	public void destroy() {
 		if (isDestroyed) return;
 		isDestroyed = true;
-		// 1. 标记自己
-		GameWorld.inst().addDestroyGObject(this);
+		// 1. 标记自己 (交给所属世界帧末处理)
+		if (world != null) world.addDestroyGObject(this);
 		// 2. 标记所有组件 (可选，为了让组件能触发 OnDisable 等)
 		// 但通常 SceneSystem 的 destroyImmediate 会统一处理
 	}
 
 	public void destroyImmediate() {
+		// 批处理：整棵子树的组件注销只在最后统一结算一次掩码/缓存 (开在自己所属世界的数据库上)
+		ComponentDatabase db = ComponentManager.of(this);
+		db.beginBatch();
+		try {
+			destroyImmediateInternal();
+		} finally {
+			db.endBatch();
+		}
+	}
+
+	private void destroyImmediateInternal() {
 		// [新增] 即使没调过 destroy() (比如被父级递归销毁)，这里也要强制标记死亡状态
 		if (!isDestroyed) isDestroyed = true;
 
 		// 1. 先杀孩子 (倒序)
 		for (int i = children.size() - 1; i >= 0; i--) {
-			children.get(i).destroyImmediate();
+			children.get(i).destroyImmediateInternal();
 		}
 		children.clear();
 
-		// 2. 杀组件 (倒序安全)
-		// 需要把 Map 铺平成 List 倒序删，避免 Map 遍历时 remove
-		List<Component> allComps = new ArrayList<>();
-		for (List<Component> list : components.values()) allComps.addAll(list);
-
-		for (int i = allComps.size() - 1; i >= 0; i--) {
-			allComps.get(i).destroyImmediate(); // 这里面会调 removeComponent
+		// 2. 杀组件 (倒序安全：destroyImmediate 内部 removeComponent 只会移除末尾及之后的元素)
+		for (int i = componentCount - 1; i >= 0; i--) {
+			if (i < componentCount) components[i].destroyImmediate(); // 这里面会调 removeComponent
 		}
-		// components.clear(); // removeComponent 里会删，这里不需要了
 
 		// 3. 处理父级关系
 		if (parent != null) {
-			parent.children.remove(this);
+			// 从后往前找：父级递归销毁时自己总在末尾，O(1)
+			int idx = parent.children.lastIndexOf(this);
+			if (idx >= 0) parent.children.remove(idx);
+			if (world != null) world.markHierarchyChanged();
 		} else {
 			// 顶层物体销毁，从世界注销
 			// 旧: GameWorld.manageGObject(this, ManageMode.REMOVE);
@@ -298,8 +397,89 @@ public class GObject extends EcsObject {
 		}
 
 		parent = null;
+
+		// 4. 归还实体表下标，旧句柄从此解析为 null
+		entityTable().release(this);
+	}
+
+	// ==========================================
+	// 对象池 (由 GObjectPool 调用，调用方负责批处理)
+	// ==========================================
+
+	/**
+	 * 停放：回调 onDisable/onReset，从 ComponentManager 摘除档案，旧句柄失效。组件实例原样保留
+	 * <p>只有停放前在层级中处于激活状态的物体才回调 onDisable (已失活的早就收到过了)。</p>
+	 */
+	void parkInPool() {
+		parkSubtree(isActiveInHierarchy());
+	}
+
+	private void parkSubtree(boolean parentActive) {
+		boolean active = parentActive && isActive;
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			c.unregisterDispatch();
+			if (active && c.isEnable()) c.onDisable();
+			c.onReset();
+		}
+		ComponentManager.removeEntity(this);
+		for (int i = 0; i < children.size(); i++) children.get(i).parkSubtree(active);
+
+		entityTable().release(this);
+		// 下标归还后可能被新实体复用，停放期间不能再拿它当键
+		entityIndex = -1;
+		activeBeforePark = isActive;
+		isActive = false;
+		pooled = true;
+	}
+
+	/** 取出：领取新句柄，重新登记组件 (无反射、无 Awake)，还原停放前的激活状态并回调 onEnable */
+	void unparkFromPool() {
+		unparkSubtree(parent == null || parent.isActiveInHierarchy());
+	}
+
+	private void unparkSubtree(boolean parentActive) {
+		EntityTable table = entityTable();
+		entityIndex = table.allocate(this);
+		handle = EntityHandle.of(entityIndex, table.generationAt(entityIndex));
+		isActive = activeBeforePark;
+		pooled = false;
+		boolean active = parentActive && isActive;
+
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			ComponentManager.registerComponent(this, c.getClass(), c);
+			// 停放前还没来得及 Start 的组件，重新报名
+			if (!c.isStarted() && world != null && world.sceneSystem != null) world.sceneSystem.registerStart(c);
+			if (c.isEnable()) {
+				c.registerDispatch();
+				if (active) c.onEnable();
+			}
+		}
+		for (int i = 0; i < children.size(); i++) children.get(i).unparkSubtree(active);
+	}
+
+	/**
+	 * 销毁停放中的实体 (清空对象池时调用)
+	 * <p>停放时组件已摘出 ComponentManager 和分发表、下标已归还，这里只补 onDestroy 并解绑，不再碰数据库。</p>
+	 */
+	void destroyParked() {
+		isDestroyed = true;
+		for (int i = children.size() - 1; i >= 0; i--) children.get(i).destroyParked();
+		children.clear();
+		for (int i = componentCount - 1; i >= 0; i--) {
+			Component c = components[i];
+			components[i] = null;
+			unindexComponent(c);
+			c.destroyDetached();
+		}
+		componentCount = 0;
+		parent = null;
+		pooled = false;
 	}
 
+	public boolean isPooled() { return pooled; }
+
 	// ==========================================
 	// 状态控制 (修正11: SetActive 联动)
 	// ==========================================
@@ -309,13 +489,12 @@ public class GObject extends EcsObject {
 		this.isActive = active;
 
 		// 触发组件的 OnEnable / OnDisable
-		for (List<Component> list : components.values()) {
-			for (Component c : list) {
-				// 只有当组件本身开关是开着的时候，物体的开关才会影响它
-				if (c.isEnable()) {
-					if (active) c.onEnable();
-					else c.onDisable();
-				}
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			// 只有当组件本身开关是开着的时候，物体的开关才会影响它
+			if (c.isEnable()) {
+				if (active) c.onEnable();
+				else c.onDisable();
 			}
 		}
 
@@ -333,12 +512,11 @@ public class GObject extends EcsObject {
 
 	// 内部辅助：仅触发回调，不改 activeSelf 值
 	private void setActiveRecursivelyEffect(boolean active) {
-		for (List<Component> list : components.values()) {
-			for (Component c : list) {
-				if (c.isEnable()) {
-					if (active) c.onEnable();
-					else c.onDisable();
-				}
+		for (int i = 0; i < componentCount; i++) {
+			Component c = components[i];
+			if (c.isEnable()) {
+				if (active) c.onEnable();
+				else c.onDisable();
 			}
 		}
 		for (GObject child : children) {
@@ -356,12 +534,29 @@ public class GObject extends EcsObject {
 	}
 
 	// Getters
+	/** 实体句柄：可长期持有的弱引用，通过所属世界的 {@link EntityTable#resolve} 解析，实体销毁后解析为 null */
+	public long getHandle() { return handle; }
+
+	/** 所属世界 (构造时没有任何世界则为 null) */
+	public GameWorld getWorld() { return world; }
+
+	private EntityTable entityTable() {
+		return world != null ? world.getEntityTable() : EntityTable.detached();
+	}
+	/** 实体表下标 (紧凑、会复用，仅在实体存活期间有意义) */
+	public int getEntityIndex() { return entityIndex; }
 	public boolean isActive() { return isActive; }
+	/** 自身及所有祖先都激活 (等价于旧的递归 Update 能走到这里) */
+	public boolean isActiveInHierarchy() {
+		for (GObject o = this; o != null; o = o.parent) {
+			if (!o.isActive || o.isDestroyed) return false;
+		}
+		return true;
+	}
 	public boolean isDestroyed() { return isDestroyed; }
 	public String getTag() { return tag; }
 	public void setTag(String tag) { this.tag = tag; }
 	public int getLayer() { return layer; }
 	public void setLayer(int layer) { this.layer = layer; }
 
-	public Map<Class<?>, List<Component>> getComponentsMap() { return components; }
 }
@@ -0,0 +1,164 @@
+package com.goldsprite.gdengine.ecs.entity;
+
+import com.goldsprite.gdengine.ecs.ComponentDatabase;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemScheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * 预制体对象池 (子弹、粒子、受击特效等短命实体)
+ * <p>
+ * 回收的 GObject 连同整棵子树和全部组件实例一起停放，不走 destroyImmediate；
+ * 再次取出时只重新登记到 GameWorld / ComponentManager (一次批处理)，
+ * 不再 new GObject、不再反射 addComponent，也不重新 Awake。
+ * 组件通过 {@link com.goldsprite.gdengine.ecs.component.Component#onReset()} 恢复初始状态，
+ * 通过 onEnable 处理每次出场的逻辑。
+ * </p>
+ * <pre>
+ * GObjectPool bullets = new GObjectPool("Bullet", () -> {
+ *     GObject b = new GObject("Bullet");
+ *     b.addComponent(BulletComponent.class);
+ *     return b;
+ * }, 256);
+ *
+ * GObject b = bullets.obtain();
+ * b.transform.setPosition(x, y);
+ * ...
+ * bullets.free(b); // 代替 b.destroy()
+ * </pre>
+ * <p>
+ * 注意：停放期间旧句柄失效，取出后是一个新句柄；Transform 的局部数据不会被重置，取出后请自行设置。
+ * 仅主线程调用 (工作线程请通过命令缓冲)。
+ * </p>
+ */
+public class GObjectPool {
+
+	private final String name;
+	private final Supplier<GObject> factory;
+	private final int maxSize;
+
+	private GObject[] free;
+	private int freeCount = 0;
+
+	// --- 统计 ---
+	private int hits = 0;
+	private int misses = 0;
+	private int frees = 0;
+	private int discards = 0;
+
+	public GObjectPool(String name, Supplier<GObject> factory) {
+		this(name, factory, 64);
+	}
+
+	/**
+	 * @param factory 预制体构造函数 (未命中时调用)
+	 * @param maxSize 最多停放多少个，超出的回收请求直接销毁
+	 */
+	public GObjectPool(String name, Supplier<GObject> factory, int maxSize) {
+		this.name = name;
+		this.factory = factory;
+		this.maxSize = maxSize;
+		this.free = new GObject[Math.min(Math.max(maxSize, 4), 64)];
+	}
+
+	/** 取出一个实体：命中时从池中复用，未命中时调用工厂新建 */
+	public GObject obtain() {
+		if (freeCount == 0) {
+			misses++;
+			return factory.get();
+		}
+		SystemScheduler.checkStructuralChange("GObjectPool.obtain");
+		GObject obj = free[--freeCount];
+		free[freeCount] = null;
+		hits++;
+
+		ComponentDatabase db = ComponentManager.of(obj);
+		db.beginBatch();
+		try {
+			obj.unparkFromPool();
+		} finally {
+			db.endBatch();
+		}
+		GameWorld.registerGObject(obj);
+		return obj;
+	}
+
+	/**
+	 * 回收实体 (代替 destroy)
+	 * <p>有父级时会先脱离父级；已销毁、已在池中的实体忽略；池满时直接销毁。</p>
+	 */
+	public void free(GObject obj) {
+		if (obj == null || obj.isDestroyed() || obj.isPooled()) return;
+		SystemScheduler.checkStructuralChange("GObjectPool.free");
+
+		if (freeCount >= maxSize) {
+			discards++;
+			obj.destroy();
+			return;
+		}
+
+		if (obj.getParent() != null) obj.setParent(null);
+		GameWorld.unregisterGObject(obj);
+
+		ComponentDatabase db = ComponentManager.of(obj);
+		db.beginBatch();
+		try {
+			obj.parkInPool();
+		} finally {
+			db.endBatch();
+		}
+
+		if (freeCount == free.length) {
+			GObject[] n = new GObject[Math.min(free.length * 2, maxSize)];
+			System.arraycopy(free, 0, n, 0, freeCount);
+			free = n;
+		}
+		free[freeCount++] = obj;
+		frees++;
+	}
+
+	/** 预热：提前创建并停放 count 个实体 (加载阶段调用，避免首波生成时卡顿) */
+	public void prewarm(int count) {
+		for (int i = 0; i < count && freeCount < maxSize; i++) {
+			free(factory.get());
+		}
+	}
+
+	/** 销毁池中所有停放的实体 */
+	public void clear() {
+		for (int i = 0; i < freeCount; i++) {
+			free[i].destroyParked();
+			free[i] = null;
+		}
+		freeCount = 0;
+	}
+
+	// ==========================================
+	// 统计
+	// ==========================================
+
+	public String getName() { return name; }
+	public int getFreeCount() { return freeCount; }
+	public int getHits() { return hits; }
+	public int getMisses() { return misses; }
+	public int getFrees() { return frees; }
+	public int getDiscards() { return discards; }
+
+	/** 命中率 (0~1) */
+	public float getHitRate() {
+		int total = hits + misses;
+		return total == 0 ? 0f : (float) hits / total;
+	}
+
+	public void resetStats() {
+		hits = misses = frees = discards = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Pool[%s] free=%d hit=%d miss=%d (%.0f%%) recycled=%d discarded=%d",
+			name, freeCount, hits, misses, getHitRate() * 100f, frees, discards);
+	}
+}
@@ -17,4 +17,12 @@ public interface BoneSkin {
 	 * @param color Slot 传入的叠加颜色（通常用于状态变色，如受击变白）
 	 */
 	void draw(NeonBatch batch, Affine2 transform, float length, Color color);
+
+	/**
+	 * 皮肤超出骨骼线段 (0 -> length) 的最大距离 (骨骼局部单位)
+	 * <p>用于估算包围盒做视锥剔除；宁大勿小，默认 0 表示只覆盖骨骼线段本身。</p>
+	 */
+	default float getBoundsPadding() {
+		return 0f;
+	}
 }
@@ -66,4 +66,10 @@ public class NeonGeometrySkin implements BoneSkin {
 			batch.drawCircle(t.m02, t.m12, width * sx, strokeWidth, color, 16, filled);
 		}
 	}
+
+	/** BOX 向后延伸 width/2、两侧各 width/2；CIRCLE 半径为 width */
+	@Override
+	public float getBoundsPadding() {
+		return shape == Shape.CIRCLE ? width : width / 2f;
+	}
 }
@@ -1,5 +1,7 @@
 package com.goldsprite.gdengine.ecs.skeleton;
 
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
 import java.util.HashMap;
 import java.util.Map;
@@ -64,6 +66,35 @@ public class NeonSkeleton {
 		if (rootBone != null) rootBone.updateWorldTransform();
 	}
 
+	/**
+	 * 按当前姿态计算所有可见插槽的世界包围盒 (需先 {@link #update()})
+	 * <p>每根骨骼取起点与末端两点，再按皮肤的 {@link BoneSkin#getBoundsPadding()} 外扩。</p>
+	 * @return 没有可绘制的插槽时返回 false
+	 */
+	public boolean computeWorldBounds(Rectangle out) {
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+		boolean has = false;
+		for (int i = 0; i < drawOrder.size; i++) {
+			NeonSlot slot = drawOrder.get(i);
+			if (slot.bone == null || slot.skin == null) continue;
+			Affine2 t = slot.bone.worldTransform;
+			float len = slot.bone.length;
+			float tipX = len * t.m00 + t.m02, tipY = len * t.m10 + t.m12;
+			// 局部单位 -> 世界单位 (取两轴中较大的缩放)
+			float sx = (float) Math.sqrt(t.m00 * t.m00 + t.m10 * t.m10);
+			float sy = (float) Math.sqrt(t.m01 * t.m01 + t.m11 * t.m11);
+			float pad = slot.skin.getBoundsPadding() * Math.max(sx, sy);
+			minX = Math.min(minX, Math.min(t.m02, tipX) - pad);
+			minY = Math.min(minY, Math.min(t.m12, tipY) - pad);
+			maxX = Math.max(maxX, Math.max(t.m02, tipX) + pad);
+			maxY = Math.max(maxY, Math.max(t.m12, tipY) + pad);
+			has = true;
+		}
+		if (has) out.set(minX, minY, maxX - minX, maxY - minY);
+		return has;
+	}
+
 	public Array<NeonSlot> getDrawOrder() {
 		return drawOrder;
 	}
@@ -0,0 +1,282 @@
+package com.goldsprite.gdengine.ecs.spatial;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Arrays;
+
+/**
+ * 均匀哈希网格 (2D 空间索引)
+ * <p>
+ * 条目用 int id 标识 (引擎里就是实体下标)，按 AABB 登记到所覆盖的所有格子。
+ * 更新时如果覆盖的格子范围没变 (绝大多数小幅移动)，只改包围盒，不动格子。
+ * 跨越格子太多的大物体 (超过 {@link #MAX_CELLS_PER_ENTRY}) 单独放进 "超大" 列表，每次查询都参与检测。
+ * </p>
+ * <p>
+ * 查询结果写入调用方提供的 IntArray (先清空)，同一条目只出现一次；查询过程不分配。
+ * 非线程安全：查询和更新都应在主线程 (或同一线程) 上进行。
+ * </p>
+ */
+public class SpatialHashGrid {
+
+	/** 单个条目最多登记的格子数，超出视为超大物体 */
+	public static final int MAX_CELLS_PER_ENTRY = 64;
+
+	/** 格子：条目 id 的紧凑数组 (删除时与末尾交换) */
+	private static final class Cell {
+		int[] ids = new int[8];
+		int size;
+
+		void add(int id) {
+			if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+			ids[size++] = id;
+		}
+
+		void remove(int id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					ids[i] = ids[--size];
+					return;
+				}
+			}
+		}
+	}
+
+	private final float cellSize;
+	private final float invCellSize;
+	private final LongMap<Cell> cells = new LongMap<>();
+	/** 空格子回收池，避免反复创建 */
+	private final Cell[] cellPool = new Cell[64];
+	private int cellPoolSize = 0;
+
+	// --- 条目数据 (按 id 下标) ---
+	private boolean[] present = new boolean[64];
+	private float[] minX = new float[64], minY = new float[64], maxX = new float[64], maxY = new float[64];
+	/** 登记的格子范围；超大条目 cellMinX = Integer.MIN_VALUE */
+	private int[] cellMinX = new int[64], cellMinY = new int[64], cellMaxX = new int[64], cellMaxY = new int[64];
+	private int count = 0;
+
+	private final IntArray oversized = new IntArray();
+
+	// 查询去重：每次查询递增 stamp，命中过的条目记下当前 stamp
+	private int[] visited = new int[64];
+	private int stamp = 0;
+
+	public SpatialHashGrid(float cellSize) {
+		if (cellSize <= 0f) throw new IllegalArgumentException("格子尺寸必须大于 0: " + cellSize);
+		this.cellSize = cellSize;
+		this.invCellSize = 1f / cellSize;
+	}
+
+	public float getCellSize() { return cellSize; }
+	/** 条目数 */
+	public int size() { return count; }
+	/** 非空格子数 */
+	public int getCellCount() { return cells.size; }
+	public int getOversizedCount() { return oversized.size; }
+
+	public boolean contains(int id) {
+		return id >= 0 && id < present.length && present[id];
+	}
+
+	// ==========================================
+	// 增删改
+	// ==========================================
+
+	/** 登记或更新条目的包围盒 */
+	public void update(int id, float x0, float y0, float x1, float y1) {
+		ensureCapacity(id + 1);
+		int cx0 = cellOf(x0), cy0 = cellOf(y0), cx1 = cellOf(x1), cy1 = cellOf(y1);
+		boolean big = ((long) cx1 - cx0 + 1) * ((long) cy1 - cy0 + 1) > MAX_CELLS_PER_ENTRY;
+
+		if (present[id]) {
+			boolean wasBig = cellMinX[id] == Integer.MIN_VALUE;
+			if (big && wasBig) {
+				setBounds(id, x0, y0, x1, y1);
+				return;
+			}
+			if (!big && !wasBig && cx0 == cellMinX[id] && cy0 == cellMinY[id] && cx1 == cellMaxX[id] && cy1 == cellMaxY[id]) {
+				// 覆盖范围没变：只改包围盒
+				setBounds(id, x0, y0, x1, y1);
+				return;
+			}
+			unlink(id);
+		} else {
+			present[id] = true;
+			count++;
+		}
+
+		setBounds(id, x0, y0, x1, y1);
+		if (big) {
+			cellMinX[id] = Integer.MIN_VALUE;
+			oversized.add(id);
+			return;
+		}
+		cellMinX[id] = cx0; cellMinY[id] = cy0; cellMaxX[id] = cx1; cellMaxY[id] = cy1;
+		for (int cy = cy0; cy <= cy1; cy++) {
+			for (int cx = cx0; cx <= cx1; cx++) {
+				long key = key(cx, cy);
+				Cell cell = cells.get(key);
+				if (cell == null) {
+					cell = cellPoolSize > 0 ? cellPool[--cellPoolSize] : new Cell();
+					cells.put(key, cell);
+				}
+				cell.add(id);
+			}
+		}
+	}
+
+	public void remove(int id) {
+		if (!contains(id)) return;
+		unlink(id);
+		present[id] = false;
+		count--;
+	}
+
+	public void clear() {
+		for (LongMap.Entry<Cell> e : cells.entries()) recycle(e.value);
+		cells.clear();
+		oversized.clear();
+		Arrays.fill(present, false);
+		count = 0;
+	}
+
+	private void unlink(int id) {
+		if (cellMinX[id] == Integer.MIN_VALUE) {
+			oversized.removeValue(id);
+			return;
+		}
+		for (int cy = cellMinY[id]; cy <= cellMaxY[id]; cy++) {
+			for (int cx = cellMinX[id]; cx <= cellMaxX[id]; cx++) {
+				long key = key(cx, cy);
+				Cell cell = cells.get(key);
+				if (cell == null) continue;
+				cell.remove(id);
+				if (cell.size == 0) {
+					cells.remove(key);
+					recycle(cell);
+				}
+			}
+		}
+	}
+
+	private void recycle(Cell cell) {
+		cell.size = 0;
+		if (cellPoolSize < cellPool.length) cellPool[cellPoolSize++] = cell;
+	}
+
+	private void setBounds(int id, float x0, float y0, float x1, float y1) {
+		minX[id] = x0; minY[id] = y0; maxX[id] = x1; maxY[id] = y1;
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	/** 包围盒与 [x0,x1]×[y0,y1] 相交的条目 */
+	public int queryAabb(float x0, float y0, float x1, float y1, IntArray out) {
+		out.clear();
+		int cx0 = cellOf(x0), cy0 = cellOf(y0), cx1 = cellOf(x1), cy1 = cellOf(y1);
+		nextStamp();
+		long span = ((long) cx1 - cx0 + 1) * ((long) cy1 - cy0 + 1);
+		if (span > cells.size) {
+			// 查询范围比非空格子还多：直接遍历格子表
+			for (LongMap.Entry<Cell> e : cells.entries()) {
+				int cx = (int) (e.key >> 32), cy = (int) e.key;
+				if (cx < cx0 || cx > cx1 || cy < cy0 || cy > cy1) continue;
+				collect(e.value, x0, y0, x1, y1, out);
+			}
+		} else {
+			for (int cy = cy0; cy <= cy1; cy++) {
+				for (int cx = cx0; cx <= cx1; cx++) {
+					Cell cell = cells.get(key(cx, cy));
+					if (cell != null) collect(cell, x0, y0, x1, y1, out);
+				}
+			}
+		}
+		for (int i = 0; i < oversized.size; i++) {
+			int id = oversized.get(i);
+			if (overlaps(id, x0, y0, x1, y1)) out.add(id);
+		}
+		return out.size;
+	}
+
+	/** 包围盒包含点 (x, y) 的条目 */
+	public int queryPoint(float x, float y, IntArray out) {
+		out.clear();
+		nextStamp();
+		Cell cell = cells.get(key(cellOf(x), cellOf(y)));
+		if (cell != null) collect(cell, x, y, x, y, out);
+		for (int i = 0; i < oversized.size; i++) {
+			int id = oversized.get(i);
+			if (overlaps(id, x, y, x, y)) out.add(id);
+		}
+		return out.size;
+	}
+
+	/** 包围盒与圆 (cx, cy, r) 相交的条目 */
+	public int queryRadius(float cx, float cy, float r, IntArray out) {
+		queryAabb(cx - r, cy - r, cx + r, cy + r, out);
+		float r2 = r * r;
+		int w = 0;
+		for (int i = 0; i < out.size; i++) {
+			int id = out.items[i];
+			// 圆心到包围盒的最近点距离
+			float dx = Math.max(minX[id] - cx, Math.max(0f, cx - maxX[id]));
+			float dy = Math.max(minY[id] - cy, Math.max(0f, cy - maxY[id]));
+			if (dx * dx + dy * dy <= r2) out.items[w++] = id;
+		}
+		out.size = w;
+		return w;
+	}
+
+	private void collect(Cell cell, float x0, float y0, float x1, float y1, IntArray out) {
+		int[] ids = cell.ids;
+		for (int i = 0; i < cell.size; i++) {
+			int id = ids[i];
+			if (visited[id] == stamp) continue;
+			visited[id] = stamp;
+			if (overlaps(id, x0, y0, x1, y1)) out.add(id);
+		}
+	}
+
+	private boolean overlaps(int id, float x0, float y0, float x1, float y1) {
+		return minX[id] <= x1 && maxX[id] >= x0 && minY[id] <= y1 && maxY[id] >= y0;
+	}
+
+	private void nextStamp() {
+		if (++stamp == Integer.MAX_VALUE) {
+			Arrays.fill(visited, 0);
+			stamp = 1;
+		}
+	}
+
+	// --- 条目包围盒 ---
+	public float getMinX(int id) { return minX[id]; }
+	public float getMinY(int id) { return minY[id]; }
+	public float getMaxX(int id) { return maxX[id]; }
+	public float getMaxY(int id) { return maxY[id]; }
+
+	// ==========================================
+	// 工具
+	// ==========================================
+
+	private int cellOf(float v) {
+		return (int) Math.floor(v * invCellSize);
+	}
+
+	private static long key(int cx, int cy) {
+		return ((long) cx << 32) | (cy & 0xffffffffL);
+	}
+
+	private void ensureCapacity(int n) {
+		if (n <= present.length) return;
+		int cap = Math.max(n, present.length * 2);
+		present = Arrays.copyOf(present, cap);
+		minX = Arrays.copyOf(minX, cap); minY = Arrays.copyOf(minY, cap);
+		maxX = Arrays.copyOf(maxX, cap); maxY = Arrays.copyOf(maxY, cap);
+		cellMinX = Arrays.copyOf(cellMinX, cap); cellMinY = Arrays.copyOf(cellMinY, cap);
+		cellMaxX = Arrays.copyOf(cellMaxX, cap); cellMaxY = Arrays.copyOf(cellMaxY, cap);
+		visited = Arrays.copyOf(visited, cap);
+	}
+}
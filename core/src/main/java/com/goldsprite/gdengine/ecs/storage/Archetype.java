@@ -0,0 +1,136 @@
+package com.goldsprite.gdengine.ecs.storage;
+
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 原型 (Archetype)
+ * <p>
+ * 一个原型代表一种组件签名 (例如 {Transform, Sprite, Render})。
+ * 所有签名相同的实体存放在该原型的若干 {@link ArchetypeChunk} 中，保持紧凑连续：
+ * 删除时用最后一个实体填补空洞 (Swap-Remove)，所以块内永远没有空洞。
+ * </p>
+ * 实体在原型中的位置使用 "全局下标" 表示：chunk = index / CAPACITY, row = index % CAPACITY。
+ */
+public class Archetype {
+
+	private final ComponentMask signature;
+	private final Class<? extends Component>[] types;
+	/** 组件类型 ID -> 列下标 (不存在为 -1) */
+	private final int[] columnIndex;
+
+	private final List<ArchetypeChunk> chunks = new ArrayList<>();
+	private int entityCount;
+
+	/**
+	 * @param signature 组件签名 (内部会复制一份，防止外部修改)
+	 * @param types 签名中每一位对应的组件类型，按 ID 升序排列
+	 */
+	public Archetype(ComponentMask signature, Class<? extends Component>[] types) {
+		this.signature = signature.copy();
+		this.types = types;
+		this.columnIndex = new int[Math.max(signature.length(), 1)];
+		java.util.Arrays.fill(columnIndex, -1);
+		int col = 0;
+		for (int id = signature.nextSetBit(0); id >= 0; id = signature.nextSetBit(id + 1)) {
+			columnIndex[id] = col++;
+		}
+	}
+
+	public ComponentMask getSignature() { return signature; }
+
+	public Class<? extends Component>[] getTypes() { return types; }
+
+	public List<ArchetypeChunk> getChunks() { return chunks; }
+
+	public int getEntityCount() { return entityCount; }
+
+	/** 组件类型 ID 对应的列下标，不存在返回 -1 */
+	public int columnOf(int componentId) {
+		return componentId >= 0 && componentId < columnIndex.length ? columnIndex[componentId] : -1;
+	}
+
+	// ==========================================
+	// 存储操作 (内部 API，由 ComponentManager 调用)
+	// ==========================================
+
+	/**
+	 * 追加实体到末尾
+	 * @return 实体在该原型中的全局下标
+	 */
+	public int add(GObject entity) {
+		ArchetypeChunk chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+		if (chunk == null || chunk.count == ArchetypeChunk.CAPACITY) {
+			chunk = new ArchetypeChunk(this, types.length);
+			chunks.add(chunk);
+		}
+		int row = chunk.count++;
+		chunk.entities[row] = entity;
+		fillColumns(chunk, row, entity);
+		return entityCount++;
+	}
+
+	/** 重新抓取某实体的组件引用 (签名没变但组件实例被替换时调用) */
+	public void refresh(int index, GObject entity) {
+		ArchetypeChunk chunk = chunks.get(index / ArchetypeChunk.CAPACITY);
+		fillColumns(chunk, index % ArchetypeChunk.CAPACITY, entity);
+	}
+
+	/**
+	 * 移除指定下标的实体 (Swap-Remove)
+	 * @return 被搬运来填补空洞的实体 (它的下标变成了 index)；如果移除的就是最后一个，返回 null
+	 */
+	public GObject remove(int index) {
+		int last = entityCount - 1;
+		ArchetypeChunk holeChunk = chunks.get(index / ArchetypeChunk.CAPACITY);
+		int holeRow = index % ArchetypeChunk.CAPACITY;
+		ArchetypeChunk lastChunk = chunks.get(last / ArchetypeChunk.CAPACITY);
+		int lastRow = last % ArchetypeChunk.CAPACITY;
+
+		GObject moved = null;
+		if (index != last) {
+			moved = lastChunk.entities[lastRow];
+			holeChunk.entities[holeRow] = moved;
+			for (int c = 0; c < types.length; c++) {
+				holeChunk.columns[c][holeRow] = lastChunk.columns[c][lastRow];
+			}
+		}
+
+		// 清空末尾槽位，断开引用利于 GC
+		lastChunk.entities[lastRow] = null;
+		for (int c = 0; c < types.length; c++) lastChunk.columns[c][lastRow] = null;
+		lastChunk.count--;
+		if (lastChunk.count == 0) chunks.remove(chunks.size() - 1);
+
+		entityCount--;
+		return moved;
+	}
+
+	public GObject getEntity(int index) {
+		return chunks.get(index / ArchetypeChunk.CAPACITY).entities[index % ArchetypeChunk.CAPACITY];
+	}
+
+	public void clear() {
+		chunks.clear();
+		entityCount = 0;
+	}
+
+	private void fillColumns(ArchetypeChunk chunk, int row, GObject entity) {
+		for (int c = 0; c < types.length; c++) {
+			chunk.columns[c][row] = entity.getComponent(types[c]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Archetype{");
+		for (int i = 0; i < types.length; i++) {
+			if (i > 0) sb.append(", ");
+			sb.append(types[i].getSimpleName());
+		}
+		return sb.append("} x").append(entityCount).toString();
+	}
+}
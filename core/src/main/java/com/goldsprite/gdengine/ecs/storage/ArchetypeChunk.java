@@ -0,0 +1,67 @@
+package com.goldsprite.gdengine.ecs.storage;
+
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+
+/**
+ * 原型数据块 (Chunk)
+ * <p>
+ * 同一原型 (组件签名完全相同) 的实体被连续存放在固定容量的块中。
+ * 每个块内部按 "列" 存储：一列对应一种组件类型，第 row 行即第 row 个实体的该类型组件。
+ * </p>
+ * <p>
+ * System 遍历时推荐按列取数组，然后用下标循环，避免逐个实体 getComponent 的哈希查找：
+ * <pre>
+ * for (ArchetypeChunk chunk : ComponentManager.getChunksWithComponents(A.class, B.class)) {
+ *     Component[] as = chunk.getColumn(A.class);
+ *     for (int i = 0; i &lt; chunk.size(); i++) { ((A) as[i]).xxx(); }
+ * }
+ * </pre>
+ * 注意：返回的数组是内部存储本身，只读，不要缓存到帧外使用。
+ * </p>
+ */
+public class ArchetypeChunk {
+
+	/** 每个块容纳的实体数量 */
+	public static final int CAPACITY = 128;
+
+	private final Archetype archetype;
+	final GObject[] entities = new GObject[CAPACITY];
+	/** [列][行] */
+	final Component[][] columns;
+	int count;
+
+	ArchetypeChunk(Archetype archetype, int columnCount) {
+		this.archetype = archetype;
+		this.columns = new Component[columnCount][CAPACITY];
+	}
+
+	public Archetype getArchetype() { return archetype; }
+
+	/** 当前块内有效实体数量 */
+	public int size() { return count; }
+
+	public boolean isEmpty() { return count == 0; }
+
+	public GObject getEntity(int row) { return entities[row]; }
+
+	/** 原始实体数组 (有效范围 [0, size())) */
+	public GObject[] getEntities() { return entities; }
+
+	/**
+	 * 获取某组件类型的整列数据 (有效范围 [0, size()))
+	 * @return 该原型不包含此类型时返回 null
+	 */
+	public Component[] getColumn(Class<? extends Component> type) {
+		int col = archetype.columnOf(ComponentManager.getComponentId(type));
+		return col < 0 ? null : columns[col];
+	}
+
+	/** 按类型获取某一行的组件 */
+	@SuppressWarnings("unchecked")
+	public <T extends Component> T get(Class<T> type, int row) {
+		Component[] column = getColumn(type);
+		return column == null ? null : (T) column[row];
+	}
+}
@@ -0,0 +1,69 @@
+package com.goldsprite.gdengine.ecs.storage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 原型查询结果 (按块迭代)
+ * <p>
+ * 持有所有签名满足查询掩码的原型。新原型被创建时由 ComponentManager 增量追加，
+ * 因此同一个查询对象可以在多帧之间复用。迭代时跳过空块。
+ * </p>
+ */
+public class ArchetypeQuery implements Iterable<ArchetypeChunk> {
+
+	private final ComponentMask queryMask;
+	private final List<Archetype> archetypes = new ArrayList<>();
+
+	public ArchetypeQuery(ComponentMask queryMask) {
+		this.queryMask = queryMask.copy();
+	}
+
+	public ComponentMask getQueryMask() { return queryMask; }
+
+	public List<Archetype> getArchetypes() { return archetypes; }
+
+	/** 内部 API：登记一个匹配的原型 */
+	public void addArchetype(Archetype archetype) {
+		archetypes.add(archetype);
+	}
+
+	/** 匹配的实体总数 */
+	public int getEntityCount() {
+		int total = 0;
+		for (int i = 0; i < archetypes.size(); i++) total += archetypes.get(i).getEntityCount();
+		return total;
+	}
+
+	@Override
+	public Iterator<ArchetypeChunk> iterator() {
+		return new ChunkIterator();
+	}
+
+	private class ChunkIterator implements Iterator<ArchetypeChunk> {
+		private int archetypeIndex = 0;
+		private int chunkIndex = 0;
+
+		@Override
+		public boolean hasNext() {
+			while (archetypeIndex < archetypes.size()) {
+				List<ArchetypeChunk> chunks = archetypes.get(archetypeIndex).getChunks();
+				while (chunkIndex < chunks.size()) {
+					if (!chunks.get(chunkIndex).isEmpty()) return true;
+					chunkIndex++;
+				}
+				archetypeIndex++;
+				chunkIndex = 0;
+			}
+			return false;
+		}
+
+		@Override
+		public ArchetypeChunk next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			return archetypes.get(archetypeIndex).getChunks().get(chunkIndex++);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.goldsprite.gdengine.ecs.storage;
+
+import java.util.Arrays;
+
+/**
+ * 组件签名 (紧凑位掩码)
+ * <p>
+ * 替代 {@link java.util.BitSet} 用于实体档案、查询条件和查询缓存 Key。
+ * 内部是定宽 long[] (默认 2 个字 = 128 种组件类型，超出时按需扩容)，
+ * 子集判断 {@link #containsAll} 直接逐字比较，<b>不产生任何临时对象</b>。
+ * </p>
+ * 注意：作为 Map Key 使用期间不要修改它 (ComponentManager 内部只用副本做 Key)。
+ */
+public final class ComponentMask {
+
+	private static final int DEFAULT_WORDS = 2;
+
+	private long[] words;
+
+	public ComponentMask() {
+		this.words = new long[DEFAULT_WORDS];
+	}
+
+	public ComponentMask(ComponentMask other) {
+		this.words = other.words.clone();
+	}
+
+	public ComponentMask copy() {
+		return new ComponentMask(this);
+	}
+
+	// ==========================================
+	// 位操作
+	// ==========================================
+
+	public ComponentMask set(int bit) {
+		int w = bit >>> 6;
+		if (w >= words.length) words = Arrays.copyOf(words, Math.max(w + 1, words.length * 2));
+		words[w] |= 1L << bit;
+		return this;
+	}
+
+	public ComponentMask clear(int bit) {
+		int w = bit >>> 6;
+		if (w < words.length) words[w] &= ~(1L << bit);
+		return this;
+	}
+
+	public boolean get(int bit) {
+		int w = bit >>> 6;
+		return w < words.length && (words[w] & (1L << bit)) != 0;
+	}
+
+	/** 清空所有位 (保留容量，可复用) */
+	public ComponentMask reset() {
+		Arrays.fill(words, 0L);
+		return this;
+	}
+
+	/** 复制 other 的内容到自身 (不分配，除非需要扩容) */
+	public ComponentMask setTo(ComponentMask other) {
+		if (words.length < other.words.length) words = new long[other.words.length];
+		System.arraycopy(other.words, 0, words, 0, other.words.length);
+		if (words.length > other.words.length) Arrays.fill(words, other.words.length, words.length, 0L);
+		return this;
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	/**
+	 * 子集判断：自身是否包含 target 的所有位
+	 * <br>逻辑: (this AND target) == target
+	 */
+	public boolean containsAll(ComponentMask target) {
+		long[] t = target.words;
+		long[] s = words;
+		for (int i = 0; i < t.length; i++) {
+			long tw = t[i];
+			if (tw == 0) continue;
+			if (i >= s.length || (s[i] & tw) != tw) return false;
+		}
+		return true;
+	}
+
+	public boolean isEmpty() {
+		for (long w : words) if (w != 0) return false;
+		return true;
+	}
+
+	public int cardinality() {
+		int n = 0;
+		for (long w : words) n += Long.bitCount(w);
+		return n;
+	}
+
+	/** 最高位 + 1 (与 BitSet.length 语义一致) */
+	public int length() {
+		for (int i = words.length - 1; i >= 0; i--) {
+			if (words[i] != 0) return i * 64 + (64 - Long.numberOfLeadingZeros(words[i]));
+		}
+		return 0;
+	}
+
+	/** 从 from 开始的下一个置位，没有则返回 -1 (与 BitSet.nextSetBit 语义一致) */
+	public int nextSetBit(int from) {
+		int w = from >>> 6;
+		if (w >= words.length) return -1;
+		long word = words[w] & (-1L << from);
+		while (true) {
+			if (word != 0) return w * 64 + Long.numberOfTrailingZeros(word);
+			if (++w == words.length) return -1;
+			word = words[w];
+		}
+	}
+
+	// ==========================================
+	// Key 语义 (忽略末尾的 0 字，保证不同容量的相同掩码相等)
+	// ==========================================
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof ComponentMask)) return false;
+		long[] a = words;
+		long[] b = ((ComponentMask) o).words;
+		int common = Math.min(a.length, b.length);
+		for (int i = 0; i < common; i++) if (a[i] != b[i]) return false;
+		for (int i = common; i < a.length; i++) if (a[i] != 0) return false;
+		for (int i = common; i < b.length; i++) if (b[i] != 0) return false;
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		long h = 1234;
+		for (int i = words.length; --i >= 0; ) {
+			if (words[i] != 0) h ^= words[i] * (i + 1);
+		}
+		return (int) ((h >> 32) ^ h);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+			if (sb.length() > 1) sb.append(", ");
+			sb.append(i);
+		}
+		return sb.append('}').toString();
+	}
+}
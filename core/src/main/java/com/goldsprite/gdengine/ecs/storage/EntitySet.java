@@ -0,0 +1,211 @@
+package com.goldsprite.gdengine.ecs.storage;
+
+import com.goldsprite.gdengine.ecs.entity.GObject;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 实体集合 (稠密数组 + 稀疏索引)
+ * <p>
+ * 用作 ComponentManager 的查询结果。以实体表下标 ({@link GObject#getEntityIndex()}) 为键：
+ * <ul>
+ *     <li><b>dense</b>: 紧凑存放实体，下标遍历无空洞。</li>
+ *     <li><b>sparse</b>: 实体下标 -> dense 下标 + 1 (0 表示不存在)，分页懒分配。
+ *         实体下标紧凑且会复用，稀疏页数量与存活实体数成正比。</li>
+ * </ul>
+ * add / remove / contains 均为 O(1)，删除使用 Swap-Remove (不保证顺序)。
+ * </p>
+ * <p>
+ * <b>迭代稳定性</b>: {@link #iterator()} (即 for-each) 遍历的是一份快照，
+ * 遍历期间集合被修改不会影响本次遍历，也不会抛 ConcurrentModificationException。
+ * 快照只在集合内容变化后的第一次遍历时重建，稳定帧内反复遍历零分配。
+ * 下标遍历 {@link #get(int)} 读取的是实时数据，遍历期间请勿增删。
+ * 并行阶段里多个线程可以同时 for-each (快照的重建加锁、发布后只读)，但不能同时增删。
+ * </p>
+ * <p>
+ * <b>版本号</b>: 每次内容变化 {@link #getGeneration()} 自增，
+ * System 可以缓存上次看到的版本号来判断结果集是否变动。
+ * </p>
+ */
+public class EntitySet extends AbstractList<GObject> {
+
+	private static final int PAGE_BITS = 10;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	private GObject[] dense;
+	private int size;
+	private int[][] sparsePages = new int[16][];
+
+	private int generation;
+
+	/** 迭代快照 (不可变；并行阶段里多个线程可能同时遍历，重建在锁内完成后整体发布) */
+	private volatile Snapshot snapshot = new Snapshot(new GObject[0], -1);
+	private final Object snapshotLock = new Object();
+
+	public EntitySet() {
+		this(64);
+	}
+
+	public EntitySet(int initialCapacity) {
+		dense = new GObject[Math.max(initialCapacity, 4)];
+	}
+
+	// ==========================================
+	// 核心操作 O(1)
+	// ==========================================
+
+	/** 加入实体，已存在则忽略 */
+	@Override
+	public boolean add(GObject entity) {
+		int id = entity.getEntityIndex();
+		int existing = indexOf(id);
+		if (existing >= 0) {
+			if (dense[existing] == entity) return false;
+			// 下标已被复用但旧实体没移除：原位替换，避免同一下标出现两次
+			dense[existing] = entity;
+			generation++;
+			return true;
+		}
+
+		if (size == dense.length) dense = Arrays.copyOf(dense, size * 2);
+		dense[size] = entity;
+		setSparse(id, size + 1);
+		size++;
+		generation++;
+		return true;
+	}
+
+	/** 移除实体 (Swap-Remove)，不存在则忽略 */
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof GObject)) return false;
+		int id = ((GObject) o).getEntityIndex();
+		int index = indexOf(id);
+		// 下标会复用：同一下标上可能是别的 (新) 实体
+		if (index < 0 || dense[index] != o) return false;
+
+		int last = --size;
+		if (index != last) {
+			GObject moved = dense[last];
+			dense[index] = moved;
+			setSparse(moved.getEntityIndex(), index + 1);
+		}
+		dense[last] = null;
+		setSparse(id, 0);
+		generation++;
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof GObject)) return false;
+		int index = indexOf(((GObject) o).getEntityIndex());
+		return index >= 0 && dense[index] == o;
+	}
+
+	@Override
+	public GObject get(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return dense[index];
+	}
+
+	@Override
+	public int size() { return size; }
+
+	@Override
+	public boolean isEmpty() { return size == 0; }
+
+	@Override
+	public void clear() {
+		if (size == 0) return;
+		Arrays.fill(dense, 0, size, null);
+		Arrays.fill(sparsePages, null);
+		size = 0;
+		generation++;
+	}
+
+	/** 内容版本号，每次增删 +1 */
+	public int getGeneration() { return generation; }
+
+	/** 原始稠密数组 (有效范围 [0, size()))，只读 */
+	public GObject[] items() { return dense; }
+
+	// ==========================================
+	// 稳定迭代
+	// ==========================================
+
+	@Override
+	public Iterator<GObject> iterator() {
+		Snapshot snap = snapshot;
+		if (snap.generation != generation) {
+			synchronized (snapshotLock) {
+				snap = snapshot;
+				if (snap.generation != generation) {
+					// 内容变了：另起一份新快照，正在使用旧快照的迭代器不受影响
+					snap = new Snapshot(Arrays.copyOf(dense, size), generation);
+					snapshot = snap;
+				}
+			}
+		}
+		return new SnapshotIterator(snap.items, snap.items.length);
+	}
+
+	private static final class Snapshot {
+		final GObject[] items;
+		final int generation;
+
+		Snapshot(GObject[] items, int generation) {
+			this.items = items;
+			this.generation = generation;
+		}
+	}
+
+	private static final class SnapshotIterator implements Iterator<GObject> {
+		private final GObject[] items;
+		private final int count;
+		private int cursor;
+
+		SnapshotIterator(GObject[] items, int count) {
+			this.items = items;
+			this.count = count;
+		}
+
+		@Override
+		public boolean hasNext() { return cursor < count; }
+
+		@Override
+		public GObject next() {
+			if (cursor >= count) throw new NoSuchElementException();
+			return items[cursor++];
+		}
+	}
+
+	// ==========================================
+	// 稀疏索引 (分页)
+	// ==========================================
+
+	private int indexOf(int id) {
+		int page = id >>> PAGE_BITS;
+		if (page >= sparsePages.length) return -1;
+		int[] p = sparsePages[page];
+		return p == null ? -1 : p[id & PAGE_MASK] - 1;
+	}
+
+	private void setSparse(int id, int value) {
+		int page = id >>> PAGE_BITS;
+		if (page >= sparsePages.length) {
+			if (value == 0) return;
+			sparsePages = Arrays.copyOf(sparsePages, Math.max(page + 1, sparsePages.length * 2));
+		}
+		int[] p = sparsePages[page];
+		if (p == null) {
+			if (value == 0) return;
+			p = sparsePages[page] = new int[PAGE_SIZE];
+		}
+		p[id & PAGE_MASK] = value;
+	}
+}
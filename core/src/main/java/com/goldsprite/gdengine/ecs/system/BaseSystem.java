@@ -1,19 +1,36 @@
 package com.goldsprite.gdengine.ecs.system;
 
 import com.badlogic.gdx.graphics.Camera;
-import com.goldsprite.gdengine.ecs.ComponentManager;
 import com.goldsprite.gdengine.ecs.EcsObject;
+import com.goldsprite.gdengine.ecs.EntityCommandBuffer;
 import com.goldsprite.gdengine.ecs.GameSystemInfo;
 import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemScheduler;
 import com.goldsprite.gdengine.ecs.SystemType;
 import com.goldsprite.gdengine.ecs.component.Component;
 import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.storage.EntitySet;
 import com.goldsprite.gdengine.log.Debug;
 import com.goldsprite.gdengine.neonbatch.NeonBatch;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * 系统基类
+ * <p>
+ * <b>并行实体任务</b>: 对每个实体只做独立计算的系统 (转向、计时器、骨骼姿态...)
+ * 可以用 {@link #forEachParallel} 代替手写 for 循环，实体会被切块分发到工作线程。
+ * 任务内的线程规则：
+ * <ul>
+ *     <li><b>允许</b>: 读写<b>当前实体</b>自己的组件字段；当前实体的 getComponent/getComponents 查询；
+ *         纯数学计算；读取 GameWorld 时间等只读状态；通过 {@link #commands()} 记录结构变更。</li>
+ *     <li><b>禁止</b>: new GObject、addComponent/removeComponent、destroyImmediate、setParent
+ *         (会抛 IllegalStateException，请改用 commands())；修改其他实体的数据；
+ *         任何 GL / 纹理 / SpriteBatch 调用；Debug.log 等非线程安全的全局状态。</li>
+ * </ul>
+ * </p>
  */
 public abstract class BaseSystem extends EcsObject {
 
@@ -23,6 +40,20 @@ public abstract class BaseSystem extends EcsObject {
 
 	// 系统关注的组件类型
 	private Class<? extends Component>[] interestComponents;
+
+	/** 每个并行切块的最小实体数 (太小的块调度开销大于收益) */
+	protected int parallelGrainSize = 64;
+
+	/** 并行任务的实体快照 (复用，避免每帧分配) */
+	private GObject[] parallelBuffer = new GObject[0];
+
+	// 并行调度用的访问声明 (null 表示未声明 -> 独占)
+	private Class<? extends Component>[] readComponents;
+	private Class<? extends Component>[] writeComponents;
+
+	/** 在 FrameProfiler 中的统计项编号 (注册到世界时分配) */
+	private int profileSection = -1;
+	private String systemName;
 	
 	public BaseSystem() {
 		super(); // 分配 ID
@@ -33,6 +64,10 @@ public abstract class BaseSystem extends EcsObject {
 		if (info != null) {
 			this.interestComponents = info.interestComponents();
 			this.systemTypeFlags = info.type();
+			if (info.reads().length > 0 || info.writes().length > 0) {
+				this.readComponents = info.reads();
+				this.writeComponents = info.writes();
+			}
 			// [修改] 使用 SystemType.toString 输出可读类型
 			Debug.logT("System", "Init %s: type=[%s]", 
 						getClass().getSimpleName(), 
@@ -42,23 +77,143 @@ public abstract class BaseSystem extends EcsObject {
 			Debug.logT("System", "Init %s: No Annotation, default to [UPDATE]", getClass().getSimpleName());
 		}
 
-		// 自动注册到世界 (构造即生效)
-		GameWorld.inst().registerSystem(this);
+		// 自动注册到世界 (构造即生效，注册到当前线程绑定的世界)
+		world.registerSystem(this);
+	}
+
+	/** 所属世界 */
+	public GameWorld getWorld() {
+		return world;
 	}
 
 	/**
 	 * 获取当前系统关心的实体列表 (O(1) 高效查询)
-	 * 利用 ComponentManager 的缓存
+	 * 利用所属世界组件数据库的查询缓存
 	 */
 	protected List<GObject> getInterestEntities() {
 		if (interestComponents != null && interestComponents.length > 0) {
-			return ComponentManager.getEntitiesWithComponents(interestComponents);
+			return world.getComponentDatabase().getEntitiesWithComponents(interestComponents);
 		}
 		// 如果没定义感兴趣的组件，默认返回所有(顶层)实体
 		// 注意：这可能不是你想要的，通常建议 System 明确声明 interest
 		return world.getRootEntities();
 	}
 
+	/**
+	 * 兴趣实体集合的版本号 (集合每增删一次 +1)
+	 * <p>System 可缓存上次看到的值，相同则说明结果集没变，派生数据无需重建。</p>
+	 * @return 未声明 interestComponents 时返回 -1
+	 */
+	protected int getInterestGeneration() {
+		List<GObject> entities = getInterestEntities();
+		return entities instanceof EntitySet ? ((EntitySet) entities).getGeneration() : -1;
+	}
+
+	// ==========================================
+	// 并行实体任务 (Data-Parallel)
+	// ==========================================
+
+	/** 单实体任务 (在工作线程上执行，须遵守类注释中的线程规则) */
+	public interface EntityJob {
+		void execute(GObject entity, float delta);
+	}
+
+	/** 对兴趣实体并行执行任务 */
+	protected void forEachParallel(float delta, EntityJob job) {
+		forEachParallel(getInterestEntities(), delta, job);
+	}
+
+	/**
+	 * 对指定实体列表并行执行任务
+	 * <p>列表先被拷贝到复用的快照数组，再按 {@link #parallelGrainSize} 切块分发到 ForkJoin 线程池；
+	 * 调用线程会参与计算，并在所有块完成后返回。实体数量不足两块、线程池只有一个工作线程、
+	 * 或 {@link GameWorld#setParallelEntityJobs} 关闭时，退化为当前线程顺序执行。</p>
+	 */
+	protected void forEachParallel(List<GObject> entities, float delta, EntityJob job) {
+		int n = entities.size();
+		if (n == 0) return;
+
+		if (parallelBuffer.length < n) parallelBuffer = new GObject[Math.max(n, parallelBuffer.length * 2)];
+		GObject[] items = entities instanceof EntitySet
+			? copyInto(((EntitySet) entities).items(), n)
+			: entities.toArray(parallelBuffer);
+
+		ForkJoinPool pool = SystemScheduler.getPool();
+		int workers = pool.getParallelism();
+		// 每个工作线程约分 4 块，便于负载均衡 (work-stealing)
+		int grain = Math.max(parallelGrainSize, (n + workers * 4 - 1) / (workers * 4));
+
+		boolean parallel = world.isParallelEntityJobs() && workers > 1 && n >= grain * 2;
+		boolean prev = SystemScheduler.enterWorker();
+		try {
+			if (parallel) {
+				pool.invoke(new EntityJobTask(world, items, 0, n, grain, delta, job));
+			} else {
+				runRange(items, 0, n, delta, job);
+			}
+		} finally {
+			SystemScheduler.exitWorker(prev);
+			Arrays.fill(items, 0, n, null); // 断开引用，利于 GC
+		}
+	}
+
+	private GObject[] copyInto(GObject[] source, int n) {
+		System.arraycopy(source, 0, parallelBuffer, 0, n);
+		return parallelBuffer;
+	}
+
+	private static void runRange(GObject[] items, int from, int to, float delta, EntityJob job) {
+		for (int i = from; i < to; i++) {
+			job.execute(items[i], delta);
+		}
+	}
+
+	/** 二分切块任务 */
+	@SuppressWarnings("serial") // 只在进程内的线程池里执行，从不序列化
+	private static final class EntityJobTask extends RecursiveAction {
+		private final GameWorld world;
+		private final GObject[] items;
+		private final int from, to, grain;
+		private final float delta;
+		private final EntityJob job;
+
+		EntityJobTask(GameWorld world, GObject[] items, int from, int to, int grain, float delta, EntityJob job) {
+			this.world = world;
+			this.items = items;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.delta = delta;
+			this.job = job;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				boolean prev = SystemScheduler.enterWorker();
+				GameWorld prevWorld = GameWorld.enter(world);
+				try {
+					runRange(items, from, to, delta, job);
+				} finally {
+					GameWorld.exit(prevWorld);
+					SystemScheduler.exitWorker(prev);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new EntityJobTask(world, items, from, mid, grain, delta, job),
+				new EntityJobTask(world, items, mid, to, grain, delta, job));
+		}
+	}
+
+	/**
+	 * 结构变更命令缓冲 (快捷方式)
+	 * <p>在 update 中生成/销毁实体、增删组件时优先使用，变更会在本帧 Update 结束后批量生效。</p>
+	 */
+	protected EntityCommandBuffer commands() {
+		return world.getCommandBuffer();
+	}
+
 	public void awake() {}
 
 	// --- 逻辑管线 ---
@@ -74,11 +229,44 @@ public abstract class BaseSystem extends EcsObject {
 	public boolean isLogicSystem() { return SystemType.isLogic(systemTypeFlags); }
 	public int getSystemType() { return systemTypeFlags; }
 	
+	// --- 并行调度 API ---
+
+	/** 是否声明了组件读写范围 (未声明的系统独占运行) */
+	public boolean hasDeclaredAccess() { return readComponents != null; }
+
+	/**
+	 * 判断与另一个系统是否存在数据冲突 (不能同时运行)
+	 * <p>规则：任一方未声明访问范围 -> 冲突；一方写的类型被另一方读或写 -> 冲突。
+	 * 类型比较支持继承 (写 RenderComponent 与读 SpriteComponent 冲突)。</p>
+	 */
+	public boolean conflictsWith(BaseSystem other) {
+		if (!hasDeclaredAccess() || !other.hasDeclaredAccess()) return true;
+		return overlaps(writeComponents, other.writeComponents)
+			|| overlaps(writeComponents, other.readComponents)
+			|| overlaps(readComponents, other.writeComponents);
+	}
+
+	private static boolean overlaps(Class<?>[] a, Class<?>[] b) {
+		for (Class<?> x : a) {
+			for (Class<?> y : b) {
+				if (x.isAssignableFrom(y) || y.isAssignableFrom(x)) return true;
+			}
+		}
+		return false;
+	}
+
 	public boolean isEnabled() { return isEnabled; }
 	public void setEnabled(boolean enabled) { isEnabled = enabled; }
 
+	public int getProfileSection() { return profileSection; }
+
+	/** [引擎内部] 由 GameWorld 注册系统时分配 */
+	public void setProfileSection(int section) { this.profileSection = section; }
+
 	public String getSystemName() {
-		return this.getClass().getSimpleName();
+		// 缓存：调度器录制 trace 时每帧都会取名字
+		if (systemName == null) systemName = this.getClass().getSimpleName();
+		return systemName;
 	}
 
 	public GameSystemInfo getSystemInfo() {
@@ -0,0 +1,101 @@
+package com.goldsprite.gdengine.ecs.system;
+
+import com.goldsprite.gdengine.ecs.component.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 组件钩子分发列表 (只收录重写了 update / fixedUpdate 的组件)
+ * <p>
+ * 平铺数组，由 SceneSystem 每帧顺序遍历，取代 "遍历顶层 -> 遍历组件 Map -> 递归子物体"。
+ * 组件在数组中的下标记录在组件自身 ({@link Component#getDispatchSlot})，增删均为 O(1)：
+ * 删除只把格子置 null，下次遍历开始前统一压实。
+ * </p>
+ * <p>
+ * 执行顺序与旧的递归遍历一致：按层级先序 (顶层按登记顺序，父级在子级之前，同一物体内按加入顺序)。
+ * 成员或层级变化后由 SceneSystem 在遍历前调用 {@link #sort} 稳定重排一次。
+ * </p>
+ */
+class ComponentDispatchList {
+
+	/** 列表种类 (对应 Component 上的槽位编号) */
+	static final int UPDATE = 0;
+	static final int FIXED_UPDATE = 1;
+
+	private final int kind;
+	private Component[] items = new Component[256];
+	private int size = 0;
+	private int holes = 0;
+	/** 上次排序后有新成员追加 */
+	private boolean orderDirty = false;
+	private int orderedEpoch = -1;
+
+	ComponentDispatchList(int kind) {
+		this.kind = kind;
+	}
+
+	void add(Component c) {
+		int slot = c.getDispatchSlot(kind);
+		if (slot >= 0 && slot < size && items[slot] == c) return;
+		if (size == items.length) items = Arrays.copyOf(items, size * 2);
+		c.setDispatchSlot(kind, size);
+		items[size++] = c;
+		orderDirty = true;
+	}
+
+	void remove(Component c) {
+		int slot = c.getDispatchSlot(kind);
+		if (slot < 0 || slot >= size || items[slot] != c) return;
+		items[slot] = null;
+		c.setDispatchSlot(kind, -1);
+		holes++;
+	}
+
+	/** 压实空洞并返回数组 (遍历前调用；遍历期间新增的组件追加在 size 之后，下一帧生效) */
+	Component[] compact() {
+		if (holes > 0) {
+			int w = 0;
+			for (int r = 0; r < size; r++) {
+				Component c = items[r];
+				if (c == null) continue;
+				if (w != r) {
+					items[w] = c;
+					c.setDispatchSlot(kind, w);
+				}
+				w++;
+			}
+			Arrays.fill(items, w, size, null);
+			size = w;
+			holes = 0;
+		}
+		return items;
+	}
+
+	/**
+	 * 按给定顺序稳定重排 (会先压实)
+	 * @param epoch 排序依据的版本：与上次相同且没有新成员时直接返回
+	 */
+	void sort(Comparator<Component> order, int epoch) {
+		if (!orderDirty && orderedEpoch == epoch) return;
+		compact();
+		Arrays.sort(items, 0, size, order);
+		for (int i = 0; i < size; i++) items[i].setDispatchSlot(kind, i);
+		orderDirty = false;
+		orderedEpoch = epoch;
+	}
+
+	int size() { return size; }
+
+	/** 有效组件数 (不含空洞) */
+	int count() { return size - holes; }
+
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			if (items[i] != null) items[i].setDispatchSlot(kind, -1);
+			items[i] = null;
+		}
+		size = 0;
+		holes = 0;
+	}
+}
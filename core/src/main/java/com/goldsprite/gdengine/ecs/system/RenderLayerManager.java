@@ -12,6 +12,8 @@ public class RenderLayerManager {
 	private static final Map<String, Integer> layerDepths = new ConcurrentHashMap<>();
 	private static final Map<String, RenderLayerConfig> layerConfigs = new ConcurrentHashMap<>();
 	private static boolean needsSort = false;
+	/** 层配置版本号：增删层时递增，渲染组件据此判断缓存的排序键是否过期 */
+	private static volatile int version = 0;
 
 	static {
 		createDefaultGameLayers();
@@ -51,6 +53,7 @@ public class RenderLayerManager {
 			layerConfigs.put(layerName, new RenderLayerConfig(layerName, depth, useWorldSpace));
 			needsSort = true;
 			sortLayersIfNeeded();
+			version++;
 		}
 	}
 
@@ -58,6 +61,11 @@ public class RenderLayerManager {
 		spriteLayers.remove(layerName);
 		layerDepths.remove(layerName);
 		layerConfigs.remove(layerName);
+		version++;
+	}
+
+	public static int getVersion() {
+		return version;
 	}
 
 	public static List<String> getSortedLayers() {
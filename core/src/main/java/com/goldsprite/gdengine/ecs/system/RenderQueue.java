@@ -0,0 +1,192 @@
+package com.goldsprite.gdengine.ecs.system;
+
+import com.goldsprite.gdengine.ecs.component.RenderComponent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 常驻渲染队列 (按 {@link RenderComponent#getSortKey()} 排好序)
+ * <p>
+ * 每帧只做增量维护：{@link #sync(List)} 传入本帧可见的组件，队列保留仍可见的、
+ * 追加新出现的、丢掉不再可见的，其余成员维持上一帧的相对顺序。
+ * 帧间相干性很强 (绝大多数帧顺序不变)，所以：
+ * <ul>
+ *     <li>没有逆序：不排序</li>
+ *     <li>少量逆序 (新增几个 / 改了几个 orderInLayer)：插入排序，最多 O(32n)</li>
+ *     <li>大量变化 (镜头跳转、首帧)：8 位一趟的 LSD 基数排序，跳过全部相同的字节</li>
+ * </ul>
+ * 排序键是缓存的 long，比较时不再查层深度表。
+ * </p>
+ * 非线程安全，只在渲染线程上使用。
+ */
+public class RenderQueue {
+
+	public static final int SORT_NONE = 0;
+	public static final int SORT_INSERTION = 1;
+	public static final int SORT_RADIX = 2;
+
+	/** 相邻逆序对不超过该值时用插入排序 (每个逆序最多移动 n 次) */
+	private static final int INSERTION_LIMIT = 32;
+
+	/** 成员标记生成器：每次 sync 一个新值，多个队列交替使用也不会串 */
+	private static int markCounter = 0;
+
+	private RenderComponent[] items = new RenderComponent[256];
+	private long[] keys = new long[256];
+	private int size = 0;
+
+	// 基数排序的临时缓冲
+	private RenderComponent[] tmpItems = new RenderComponent[0];
+	private long[] tmpKeys = new long[0];
+	private final int[] counts = new int[256];
+
+	private int lastSortKind = SORT_NONE;
+	private int lastAdded, lastRemoved;
+
+	private final List<RenderComponent> view = new AbstractList<RenderComponent>() {
+		@Override public RenderComponent get(int index) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			return items[index];
+		}
+		@Override public int size() { return size; }
+	};
+
+	/**
+	 * 用本帧可见组件更新队列并排序
+	 * @param visible 本帧要绘制的组件 (不要求有序，不能有重复)
+	 */
+	public void sync(List<RenderComponent> visible) {
+		int mark = ++markCounter;
+		if (mark <= 0) mark = markCounter = 1; // 回绕：标记必须为正，取反才有区别
+		for (int i = 0; i < visible.size(); i++) visible.get(i).setRenderQueueMark(mark);
+
+		// 1. 保留仍可见的成员 (标记取反表示 "已在队列中")，同时刷新排序键
+		int w = 0;
+		for (int i = 0; i < size; i++) {
+			RenderComponent c = items[i];
+			if (c.getRenderQueueMark() != mark) continue;
+			c.setRenderQueueMark(-mark);
+			items[w] = c;
+			keys[w] = c.getSortKey();
+			w++;
+		}
+		lastRemoved = size - w;
+		for (int i = w; i < size; i++) items[i] = null;
+		size = w;
+
+		// 2. 追加新成员
+		lastAdded = 0;
+		for (int i = 0; i < visible.size(); i++) {
+			RenderComponent c = visible.get(i);
+			if (c.getRenderQueueMark() != mark) continue;
+			c.setRenderQueueMark(-mark);
+			ensureCapacity(size + 1);
+			items[size] = c;
+			keys[size] = c.getSortKey();
+			size++;
+			lastAdded++;
+		}
+
+		sort();
+	}
+
+	private void sort() {
+		int inversions = 0;
+		for (int i = 1; i < size; i++) {
+			if (Long.compareUnsigned(keys[i - 1], keys[i]) > 0) inversions++;
+		}
+		if (inversions == 0) {
+			lastSortKind = SORT_NONE;
+		} else if (inversions <= INSERTION_LIMIT) {
+			lastSortKind = SORT_INSERTION;
+			insertionSort();
+		} else {
+			lastSortKind = SORT_RADIX;
+			radixSort();
+		}
+	}
+
+	private void insertionSort() {
+		for (int i = 1; i < size; i++) {
+			long key = keys[i];
+			if (Long.compareUnsigned(keys[i - 1], key) <= 0) continue;
+			RenderComponent item = items[i];
+			int j = i - 1;
+			while (j >= 0 && Long.compareUnsigned(keys[j], key) > 0) {
+				keys[j + 1] = keys[j];
+				items[j + 1] = items[j];
+				j--;
+			}
+			keys[j + 1] = key;
+			items[j + 1] = item;
+		}
+	}
+
+	/** LSD 基数排序 (稳定)，8 趟各取 8 位；某一字节全部相同时跳过该趟 */
+	private void radixSort() {
+		if (tmpKeys.length < size) {
+			tmpKeys = new long[items.length];
+			tmpItems = new RenderComponent[items.length];
+		}
+		long[] srcKeys = keys, dstKeys = tmpKeys;
+		RenderComponent[] srcItems = items, dstItems = tmpItems;
+
+		for (int shift = 0; shift < 64; shift += 8) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < size; i++) counts[(int) (srcKeys[i] >>> shift) & 0xFF]++;
+			if (counts[(int) (srcKeys[0] >>> shift) & 0xFF] == size) continue;
+
+			int sum = 0;
+			for (int b = 0; b < 256; b++) {
+				int c = counts[b];
+				counts[b] = sum;
+				sum += c;
+			}
+			for (int i = 0; i < size; i++) {
+				int pos = counts[(int) (srcKeys[i] >>> shift) & 0xFF]++;
+				dstKeys[pos] = srcKeys[i];
+				dstItems[pos] = srcItems[i];
+			}
+			long[] k = srcKeys; srcKeys = dstKeys; dstKeys = k;
+			RenderComponent[] it = srcItems; srcItems = dstItems; dstItems = it;
+		}
+
+		if (srcKeys != keys) {
+			// 结果落在临时缓冲：交换两套数组，不用拷贝
+			tmpKeys = keys; keys = srcKeys;
+			tmpItems = items; items = srcItems;
+		}
+		Arrays.fill(tmpItems, null);
+	}
+
+	private void ensureCapacity(int n) {
+		if (n <= items.length) return;
+		int cap = Math.max(n, items.length * 2);
+		items = Arrays.copyOf(items, cap);
+		keys = Arrays.copyOf(keys, cap);
+	}
+
+	/** 清空队列 */
+	public void clear() {
+		Arrays.fill(items, 0, size, null);
+		size = 0;
+	}
+
+	/** 排好序的只读实时视图 (不分配) */
+	public List<RenderComponent> asList() { return view; }
+
+	public int size() { return size; }
+
+	public RenderComponent get(int index) { return items[index]; }
+
+	/** 上一次 sync 的排序方式 (SORT_NONE / SORT_INSERTION / SORT_RADIX) */
+	public int getLastSortKind() { return lastSortKind; }
+
+	/** 上一次 sync 新加入的组件数 */
+	public int getLastAdded() { return lastAdded; }
+
+	/** 上一次 sync 移出的组件数 */
+	public int getLastRemoved() { return lastRemoved; }
+}
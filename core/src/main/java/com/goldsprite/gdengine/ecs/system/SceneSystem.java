@@ -1,18 +1,27 @@
 package com.goldsprite.gdengine.ecs.system;
 
+import com.goldsprite.gdengine.ecs.ComponentDescriptor;
+import com.goldsprite.gdengine.ecs.ComponentDatabase;
+import com.goldsprite.gdengine.ecs.EcsObject;
 import com.goldsprite.gdengine.ecs.GameSystemInfo;
 import com.goldsprite.gdengine.ecs.SystemType;
 import com.goldsprite.gdengine.ecs.component.Component;
 import com.goldsprite.gdengine.ecs.entity.GObject;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * 场景系统 (对应 Unity 的核心驱动层)
  * 职责：
  * 1. <b>Start 管理</b>: 收集并执行组件的 Start 方法。
- * 2. <b>Update 驱动</b>: 遍历所有 GObject 并调用其 Update。
+ * 2. <b>Update 驱动</b>: 按平铺的分发列表调用组件的 Update / FixedUpdate
+ *    (只收录重写了钩子的组件，增删/启停时增量维护，不再逐物体遍历组件 Map 并递归子物体)。
+ *    顺序保持旧的层级先序 (父级在子级之前)：层级版本变化时重新编号，列表按编号稳定重排。
  * 3. <b>Destroy 管理</b>: 收集并执行销毁任务。
+ * <p>各队列用对象上的标志位去重 ({@link EcsObject#FLAG_START_QUEUED} / {@link EcsObject#FLAG_DESTROY_QUEUED})，
+ * 入队 O(1)，不再 List.contains。</p>
  */
 @GameSystemInfo(type = SystemType.BOTH_UPDATE)
 public class SceneSystem extends BaseSystem {
@@ -21,8 +30,28 @@ public class SceneSystem extends BaseSystem {
 	private final List<GObject> destroyGObjects = new ArrayList<>();
 	private final List<Component> destroyComponents = new ArrayList<>();
 
-	// 待 Start 名单
+	// 待 Start 名单：新报名的先进 pendingStarts，执行时并入按优先级排好序的 startQueue
 	private final List<Component> pendingStarts = new ArrayList<>();
+	private final List<Component> startQueue = new ArrayList<>();
+	/** startQueue 中下一个待执行的位置 (之前的已处理) */
+	private int startCursor = 0;
+	private boolean hasStartPriorities = false;
+
+	/** 每帧 Start 时间预算 (毫秒)，<= 0 表示不限 (一帧内全部执行) */
+	private float startBudgetMs = 0f;
+	private int lastStartedCount = 0;
+
+	// 钩子分发列表
+	private final ComponentDispatchList updateList = new ComponentDispatchList(ComponentDispatchList.UPDATE);
+	private final ComponentDispatchList fixedUpdateList = new ComponentDispatchList(ComponentDispatchList.FIXED_UPDATE);
+
+	// 层级先序编号 (实体下标 -> 编号)，层级版本变化时重建；纪元不匹配的视为未入列 (排在最后)
+	private int[] hierarchyRank = new int[256];
+	private int[] hierarchyRankEpoch = new int[256];
+	private int rankEpoch = 0;
+	private int rankedVersion = Integer.MIN_VALUE;
+	private int nextRank = 0;
+	private final Comparator<Component> hierarchyOrder = (a, b) -> Integer.compare(rankOf(a), rankOf(b));
 
 	// ==========================================
 	// 1. Start 逻辑 (Unity Style)
@@ -30,69 +59,193 @@ public class SceneSystem extends BaseSystem {
 
 	/** 注册需要执行 Start 的组件 (由 Component.awake 调用) */
 	public void registerStart(Component component) {
-		// 简单去重，防止同一个组件 Awake 多次导致多次 Start
-		if (!pendingStarts.contains(component)) {
-			pendingStarts.add(component);
-		}
+		// 去重，防止同一个组件 Awake 多次导致多次 Start
+		if (component.hasEngineFlag(EcsObject.FLAG_START_QUEUED)) return;
+		component.setEngineFlag(EcsObject.FLAG_START_QUEUED);
+		pendingStarts.add(component);
+		if (component.getDescriptor().startPriority != 0) hasStartPriorities = true;
 	}
 
-	/** 统一执行所有注册组件的 Start 方法 */
+	/**
+	 * 执行积压的 Start
+	 * <p>设置了时间预算时，超时即停，剩余的留到下一帧 (每帧至少执行一个，保证推进)；
+	 * 按 {@link com.goldsprite.gdengine.core.annotations.StartPriority} 从小到大执行，同优先级保持报名顺序。</p>
+	 */
 	public void executeStartTask() {
-		if (pendingStarts.isEmpty()) return;
+		runStarts(startBudgetMs);
+	}
 
-		// 拷贝副本，因为 Start() 内部可能会 new 新物体，导致 pendingStarts 变动
-		// 避免 ConcurrentModificationException
-		List<Component> temp = new ArrayList<>(pendingStarts);
-		pendingStarts.clear();
+	/** 忽略预算，一次性执行完所有积压的 Start (测试 / 加载完成后调用) */
+	public void flushStarts() {
+		// Start 内部可能又生成新物体，循环到彻底清空为止
+		while (getStartBacklog() > 0) runStarts(0f);
+	}
+
+	private void runStarts(float budgetMs) {
+		lastStartedCount = 0;
+		mergePendingStarts();
+		if (startCursor >= startQueue.size()) return;
 
-		for (Component c : temp) {
+		// Start() 内部新 new 的物体会进入 pendingStarts，下一轮才执行 (避免 ConcurrentModificationException)
+		long deadline = budgetMs > 0 ? System.nanoTime() + (long) (budgetMs * 1_000_000L) : Long.MAX_VALUE;
+		int n = startQueue.size();
+		while (startCursor < n) {
+			Component c = startQueue.get(startCursor);
+			startQueue.set(startCursor, null);
+			startCursor++;
+			c.clearEngineFlag(EcsObject.FLAG_START_QUEUED);
 			// 防御：组件可能在等待 Start 的过程中被销毁了，或者物体失活了
 			if (!c.isDestroyed() && c.getGObject() != null && c.getGObject().isActive()) {
 				c.start();
+				lastStartedCount++;
+				if (System.nanoTime() >= deadline) break;
 			}
 		}
+
+		if (startCursor >= startQueue.size()) {
+			startQueue.clear();
+			startCursor = 0;
+		}
 	}
 
+	/** 把新报名的并入队列：先丢掉已处理的前缀，有优先级差异时稳定排序 */
+	private void mergePendingStarts() {
+		if (pendingStarts.isEmpty()) return;
+		if (startCursor > 0) {
+			startQueue.subList(0, startCursor).clear();
+			startCursor = 0;
+		}
+		startQueue.addAll(pendingStarts);
+		pendingStarts.clear();
+		if (hasStartPriorities) startQueue.sort(START_ORDER);
+	}
+
+	private static final Comparator<Component> START_ORDER =
+		(a, b) -> Integer.compare(a.getDescriptor().startPriority, b.getDescriptor().startPriority);
+
+	/** 设置每帧 Start 时间预算 (毫秒)，<= 0 关闭分帧 */
+	public void setStartBudgetMs(float ms) { this.startBudgetMs = ms; }
+	public float getStartBudgetMs() { return startBudgetMs; }
+
+	/** 尚未 Start 的积压组件数 */
+	public int getStartBacklog() {
+		return startQueue.size() - startCursor + pendingStarts.size();
+	}
+
+	/** 上一次执行实际 Start 的组件数 */
+	public int getLastStartedCount() { return lastStartedCount; }
+
 	// ==========================================
-	// 2. Update 驱动 (遍历顶层实体)
+	// 2. Update 驱动 (平铺分发列表)
 	// ==========================================
 
+	/** 登记组件到分发列表 (由 Component 在 Awake / 启用时调用) */
+	public void registerDispatch(Component c) {
+		ComponentDescriptor descriptor = c.getDescriptor();
+		if (descriptor.overridesUpdate) updateList.add(c);
+		if (descriptor.overridesFixedUpdate) fixedUpdateList.add(c);
+	}
+
+	/** 从分发列表移除 (由 Component 在禁用 / 移除时调用) */
+	public void unregisterDispatch(Component c) {
+		updateList.remove(c);
+		fixedUpdateList.remove(c);
+	}
+
 	@Override
 	public void fixedUpdate(float fixedDelta) {
-		// 获取所有顶层实体 (子物体由父级递归驱动)
-		List<GObject> roots = world.getRootEntities();
-		for (int i = 0; i < roots.size(); i++) {
-			GObject obj = roots.get(i);
-			// 只有激活且未销毁的物体才执行
-			if (obj.isActive() && !obj.isDestroyed()) {
-				obj.fixedUpdate(fixedDelta);
-			}
-		}
+		dispatch(fixedUpdateList, fixedDelta, true);
 	}
 
 	@Override
 	public void update(float delta) {
+		dispatch(updateList, delta, false);
+	}
+
+	private void dispatch(ComponentDispatchList list, float delta, boolean fixed) {
+		boolean isPlayMode = world.isPlayMode();
+		if (list.count() > 0) {
+			updateHierarchyRanks();
+			list.sort(hierarchyOrder, rankEpoch);
+		}
+		Component[] items = list.compact();
+		// 本帧新加入的组件追加在 n 之后，下一帧才执行 (与旧的 pendingAdds 语义一致)
+		int n = list.size();
+		for (int i = 0; i < n; i++) {
+			Component c = items[i];
+			// 遍历中被移除的格子会被置 null；还在排队等 Start 的 (分帧预算未轮到) 先不 Update
+			if (c == null || !c.isEnable() || c.isDestroyed() || c.hasEngineFlag(EcsObject.FLAG_START_QUEUED)) continue;
+			GObject obj = c.getGObject();
+			// 只有激活且未销毁的物体 (含所有祖先) 才执行
+			if (obj == null || !obj.isActiveInHierarchy()) continue;
+			// EDIT 模式 -> 只有带 @ExecuteInEditMode 的才执行
+			if (!isPlayMode && !c.getDescriptor().runsInEditMode) continue;
+
+			if (fixed) c.fixedUpdate(delta);
+			else c.update(delta);
+		}
+	}
+
+	/** 层级变化后按先序重新编号 (与旧的递归 Update 顺序一致) */
+	private void updateHierarchyRanks() {
+		int version = world.getHierarchyVersion();
+		if (version == rankedVersion) return;
+		rankedVersion = version;
+		rankEpoch++;
+		nextRank = 0;
 		List<GObject> roots = world.getRootEntities();
-		for (int i = 0; i < roots.size(); i++) {
-			GObject obj = roots.get(i);
-			if (obj.isActive() && !obj.isDestroyed()) {
-				obj.update(delta);
-			}
+		for (int i = 0; i < roots.size(); i++) assignRanks(roots.get(i));
+	}
+
+	private void assignRanks(GObject obj) {
+		int index = obj.getEntityIndex();
+		if (index >= hierarchyRank.length) {
+			int cap = Math.max(index + 1, hierarchyRank.length * 2);
+			hierarchyRank = Arrays.copyOf(hierarchyRank, cap);
+			hierarchyRankEpoch = Arrays.copyOf(hierarchyRankEpoch, cap);
 		}
+		hierarchyRank[index] = nextRank++;
+		hierarchyRankEpoch[index] = rankEpoch;
+		List<GObject> children = obj.getChildren();
+		for (int i = 0; i < children.size(); i++) assignRanks(children.get(i));
 	}
 
+	private int rankOf(Component c) {
+		GObject obj = c.getGObject();
+		if (obj == null) return Integer.MAX_VALUE;
+		int index = obj.getEntityIndex();
+		return index >= 0 && index < hierarchyRank.length && hierarchyRankEpoch[index] == rankEpoch
+			? hierarchyRank[index] : Integer.MAX_VALUE;
+	}
+
+	/** 当前分发列表中的组件数 (调试用) */
+	public int getUpdateDispatchCount() { return updateList.count(); }
+	public int getFixedUpdateDispatchCount() { return fixedUpdateList.count(); }
+
 	// ==========================================
 	// 3. 销毁管理 (收尸)
 	// ==========================================
 
-	/** 执行所有销毁请求 */
+	/** 执行所有销毁请求 (批处理中执行，每个实体只结算一次掩码) */
 	public void executeDestroyTask() {
+		if (destroyComponents.isEmpty() && destroyGObjects.isEmpty()) return;
+		ComponentDatabase db = world.getComponentDatabase();
+		db.beginBatch();
+		try {
+			executeDestroyTaskInternal();
+		} finally {
+			db.endBatch();
+		}
+	}
+
+	private void executeDestroyTaskInternal() {
 		// 1. 销毁组件
 		if (!destroyComponents.isEmpty()) {
 			// 倒序遍历，防止索引问题
 			for (int i = destroyComponents.size() - 1; i >= 0; i--) {
 				Component comp = destroyComponents.get(i);
-				if (comp != null) comp.destroyImmediate();
+				comp.clearEngineFlag(EcsObject.FLAG_DESTROY_QUEUED);
+				comp.destroyImmediate();
 			}
 			destroyComponents.clear();
 		}
@@ -101,7 +254,8 @@ public class SceneSystem extends BaseSystem {
 		if (!destroyGObjects.isEmpty()) {
 			for (int i = destroyGObjects.size() - 1; i >= 0; i--) {
 				GObject obj = destroyGObjects.get(i);
-				if (obj != null) obj.destroyImmediate();
+				obj.clearEngineFlag(EcsObject.FLAG_DESTROY_QUEUED);
+				obj.destroyImmediate();
 			}
 			destroyGObjects.clear();
 		}
@@ -110,12 +264,14 @@ public class SceneSystem extends BaseSystem {
 	// --- 接收请求 ---
 
 	public void addDestroyGObject(GObject gobject) {
-		if (!destroyGObjects.contains(gobject))
-			destroyGObjects.add(gobject);
+		if (gobject == null || gobject.hasEngineFlag(EcsObject.FLAG_DESTROY_QUEUED)) return;
+		gobject.setEngineFlag(EcsObject.FLAG_DESTROY_QUEUED);
+		destroyGObjects.add(gobject);
 	}
 
 	public void addDestroyComponent(Component component) {
-		if (!destroyComponents.contains(component))
-			destroyComponents.add(component);
+		if (component == null || component.hasEngineFlag(EcsObject.FLAG_DESTROY_QUEUED)) return;
+		component.setEngineFlag(EcsObject.FLAG_DESTROY_QUEUED);
+		destroyComponents.add(component);
 	}
 }
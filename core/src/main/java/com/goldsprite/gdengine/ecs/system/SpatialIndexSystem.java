@@ -0,0 +1,285 @@
+package com.goldsprite.gdengine.ecs.system;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.goldsprite.gdengine.ecs.GameSystemInfo;
+import com.goldsprite.gdengine.ecs.SystemType;
+import com.goldsprite.gdengine.ecs.component.RenderComponent;
+import com.goldsprite.gdengine.ecs.component.TransformComponent;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.spatial.SpatialHashGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 空间索引系统 (引擎维护的均匀哈希网格)
+ * <p>
+ * 每个实体按包围盒登记到 {@link SpatialHashGrid}：有 RenderComponent 的取所有渲染组件
+ * {@link RenderComponent#getWorldBounds} 的并集，没有的按世界位置登记成一个点。
+ * 增量维护：TransformSystem 的变化戳 ({@link TransformSystem#getChangeStamp}) 或实体集合变了才逐个比较
+ * 世界变换版本号 ({@link TransformComponent#getWorldVersion})，版本变了才重算包围盒；格子范围没变时连格子都不动。
+ * 什么都没变时一次同步只处理动态包围盒和被标脏的实体，渲染前的第二次同步几乎没有开销。
+ * 尺寸类改动不会改变变换版本：经 setter 修改的 (如 {@link com.goldsprite.gdengine.ecs.component.SpriteComponent#setSize})
+ * 会通过 {@link RenderComponent#markBoundsDirty()} 标脏，直接改字段的由每帧少量轮询兜底 ({@link #setRefreshPerFrame})；
+ * 声明了 {@link RenderComponent#hasDynamicBounds()} 的 (骨骼动画) 每次同步都重算。
+ * </p>
+ * <p>
+ * 有渲染组件却给不出包围盒的实体 (自定义绘制) 记为 "无界"，剔除时由 {@link #isUnbounded} 判断后总是绘制。
+ * </p>
+ * <p>
+ * 查询 (AABB / 半径 / 点) 结果写入调用方提供的列表，复杂度约 O(命中数)；
+ * 失活或已销毁的实体不会出现在结果中。查询应在主线程上进行。
+ * </p>
+ * 本系统紧跟 TransformSystem 注册，读取的是本帧刚算好的世界变换。
+ */
+@GameSystemInfo(type = SystemType.UPDATE, interestComponents = {TransformComponent.class},
+	reads = {TransformComponent.class, RenderComponent.class})
+public class SpatialIndexSystem extends BaseSystem {
+
+	/** 默认格子尺寸 (世界单位)，建议与常见物体尺寸同一量级 */
+	public static final float DEFAULT_CELL_SIZE = 128f;
+	/** 每帧轮询刷新的实体数 (兜底直接改字段、没有标脏的尺寸变化)，0 表示关闭 */
+	private int refreshPerFrame = 64;
+
+	private SpatialHashGrid grid = new SpatialHashGrid(DEFAULT_CELL_SIZE);
+
+	/** 实体下标 -> 实体 (与 EntityTable 下标一致) */
+	private GObject[] tracked = new GObject[256];
+	/** 实体下标 -> 上次登记时的世界变换版本 */
+	private int[] seenVersion = new int[256];
+	/** 实体下标 -> 上次登记时的组件数 (增删渲染组件后重算) */
+	private int[] seenComponents = new int[256];
+	/** 实体下标 -> 包围盒随动画变化，每次同步都重算 */
+	private boolean[] dynamic = new boolean[256];
+	/** 实体下标 -> 有渲染组件但给不出包围盒 */
+	private boolean[] unbounded = new boolean[256];
+	private final List<GObject> unboundedList = new ArrayList<>();
+	private final List<GObject> dynamicList = new ArrayList<>();
+	/** 标脏待重算的实体 (markDirty，可能含重复) */
+	private final List<GObject> pendingDirty = new ArrayList<>();
+	private int lastGeneration = Integer.MIN_VALUE;
+	private int lastRenderGeneration = Integer.MIN_VALUE;
+	private int lastTransformStamp = Integer.MIN_VALUE;
+	private int fullScans = 0;
+	private int refreshCursor = 0;
+
+	// 复用缓冲
+	private final IntArray ids = new IntArray();
+	private final Rectangle bounds = new Rectangle();
+	private final Rectangle union = new Rectangle();
+	private final List<RenderComponent> compBuffer = new ArrayList<>();
+
+	@Override
+	public void update(float delta) {
+		sync();
+
+		// 轮询刷新一小批 (尺寸变化兜底)
+		List<GObject> entities = getInterestEntities();
+		int n = Math.min(refreshPerFrame, entities.size());
+		for (int k = 0; k < n; k++) {
+			if (refreshCursor >= entities.size()) refreshCursor = 0;
+			GObject obj = entities.get(refreshCursor++);
+			if (!obj.isDestroyed() && tracked[obj.getEntityIndex()] == obj) updateEntry(obj.getEntityIndex(), obj);
+		}
+	}
+
+	/**
+	 * 立即同步索引：登记新实体、清理已销毁的、重算变换变过、被标脏或包围盒动态的
+	 * <p>每帧 update 自动执行一次；渲染剔除前和编辑器拖拽后也会调用，拿到最新的包围盒。
+	 * 自上次同步以来实体集合与世界变换都没变时不做全量扫描。</p>
+	 */
+	public void sync() {
+		List<GObject> entities = getInterestEntities();
+
+		// 实体集合变过：清掉已销毁 / 下标被复用的旧条目
+		int generation = getInterestGeneration();
+		boolean membershipChanged = generation != lastGeneration || generation == -1;
+		if (membershipChanged) {
+			lastGeneration = generation;
+			for (int i = 0; i < tracked.length; i++) {
+				GObject obj = tracked[i];
+				if (obj != null && (obj.isDestroyed() || obj.getEntityIndex() != i)) untrack(i);
+			}
+		}
+		int renderGeneration = world.getComponentDatabase().getEntitiesWithComponents(RenderComponent.class).getGeneration();
+		int stamp = world.transformSystem != null ? world.transformSystem.getChangeStamp() : lastTransformStamp - 1;
+
+		if (membershipChanged || renderGeneration != lastRenderGeneration || stamp != lastTransformStamp) {
+			lastRenderGeneration = renderGeneration;
+			lastTransformStamp = stamp;
+			fullScans++;
+			for (int i = 0; i < entities.size(); i++) {
+				GObject obj = entities.get(i);
+				if (obj.isDestroyed()) continue;
+				int index = obj.getEntityIndex();
+				ensureCapacity(index + 1);
+				if (tracked[index] != obj) {
+					if (tracked[index] != null) untrack(index);
+					tracked[index] = obj;
+					seenVersion[index] = obj.transform.getWorldVersion() - 1;
+				}
+				int version = obj.transform.getWorldVersion();
+				int components = obj.getComponentCount();
+				if (seenVersion[index] != version || seenComponents[index] != components || dynamic[index]) {
+					seenVersion[index] = version;
+					seenComponents[index] = components;
+					updateEntry(index, obj);
+				}
+			}
+		} else {
+			// 没有结构 / 变换变化：只有动态包围盒需要重算
+			for (int i = 0; i < dynamicList.size(); i++) {
+				GObject obj = dynamicList.get(i);
+				updateEntry(obj.getEntityIndex(), obj);
+			}
+		}
+
+		synchronized (pendingDirty) {
+			for (int i = 0; i < pendingDirty.size(); i++) refresh(pendingDirty.get(i));
+			pendingDirty.clear();
+		}
+	}
+
+	/** 立即重算某个实体的包围盒 (改了精灵尺寸等不影响变换的数据后调用) */
+	public void refresh(GObject obj) {
+		int index = obj.getEntityIndex();
+		if (!obj.isDestroyed() && index >= 0 && index < tracked.length && tracked[index] == obj) updateEntry(index, obj);
+	}
+
+	/** 标记实体包围盒已变 (下一次同步时重算)，由 {@link RenderComponent#markBoundsDirty()} 调用 */
+	public void markDirty(GObject obj) {
+		synchronized (pendingDirty) {
+			pendingDirty.add(obj);
+		}
+	}
+
+	private void updateEntry(int index, GObject obj) {
+		boolean has = false, isDynamic = false, isUnbounded = false;
+		List<RenderComponent> comps = obj.getComponents(RenderComponent.class, compBuffer);
+		for (int i = 0; i < comps.size(); i++) {
+			RenderComponent c = comps.get(i);
+			if (c.hasDynamicBounds()) isDynamic = true;
+			if (!c.getWorldBounds(bounds)) {
+				isUnbounded = true;
+				continue;
+			}
+			if (has) union.merge(bounds);
+			else union.set(bounds);
+			has = true;
+		}
+		setDynamic(index, obj, isDynamic);
+		setUnbounded(index, obj, isUnbounded);
+		if (has) {
+			grid.update(index, union.x, union.y, union.x + union.width, union.y + union.height);
+		} else {
+			float x = obj.transform.worldPosition.x, y = obj.transform.worldPosition.y;
+			grid.update(index, x, y, x, y);
+		}
+	}
+
+	private void setUnbounded(int index, GObject obj, boolean value) {
+		if (unbounded[index] == value) return;
+		unbounded[index] = value;
+		if (value) unboundedList.add(obj);
+		else unboundedList.remove(obj);
+	}
+
+	private void setDynamic(int index, GObject obj, boolean value) {
+		if (dynamic[index] == value) return;
+		dynamic[index] = value;
+		if (value) dynamicList.add(obj);
+		else dynamicList.remove(obj);
+	}
+
+	private void untrack(int index) {
+		setUnbounded(index, tracked[index], false);
+		setDynamic(index, tracked[index], false);
+		tracked[index] = null;
+		grid.remove(index);
+	}
+
+	private void ensureCapacity(int n) {
+		if (n <= tracked.length) return;
+		int cap = Math.max(n, tracked.length * 2);
+		tracked = Arrays.copyOf(tracked, cap);
+		seenVersion = Arrays.copyOf(seenVersion, cap);
+		seenComponents = Arrays.copyOf(seenComponents, cap);
+		dynamic = Arrays.copyOf(dynamic, cap);
+		unbounded = Arrays.copyOf(unbounded, cap);
+	}
+
+	// ==========================================
+	// 查询
+	// ==========================================
+
+	/** 包围盒与矩形 [x0,x1]×[y0,y1] 相交的实体 (out 会先清空) */
+	public int queryAabb(float x0, float y0, float x1, float y1, List<GObject> out) {
+		grid.queryAabb(x0, y0, x1, y1, ids);
+		return resolve(out);
+	}
+
+	/** 包围盒与圆相交的实体 (out 会先清空) */
+	public int queryRadius(float x, float y, float radius, List<GObject> out) {
+		grid.queryRadius(x, y, radius, ids);
+		return resolve(out);
+	}
+
+	/** 包围盒包含该点的实体 (out 会先清空)；精确命中请再用 RenderComponent#contains 过滤 */
+	public int queryPoint(float x, float y, List<GObject> out) {
+		grid.queryPoint(x, y, ids);
+		return resolve(out);
+	}
+
+	/** 该实体是否有给不出包围盒的渲染组件 (剔除时应总是绘制) */
+	public boolean isUnbounded(GObject obj) {
+		int index = obj.getEntityIndex();
+		return index >= 0 && index < tracked.length && tracked[index] == obj && unbounded[index];
+	}
+
+	/** 所有 "无界" 实体 (只读，可能含失活的) */
+	public List<GObject> getUnboundedEntities() {
+		return unboundedList;
+	}
+
+	private int resolve(List<GObject> out) {
+		out.clear();
+		for (int i = 0; i < ids.size; i++) {
+			GObject obj = tracked[ids.items[i]];
+			if (obj != null && !obj.isDestroyed() && obj.isActiveInHierarchy()) out.add(obj);
+		}
+		return out.size();
+	}
+
+	// ==========================================
+	// 配置 / 调试
+	// ==========================================
+
+	/** 修改格子尺寸 (会重建整个索引) */
+	public void setCellSize(float cellSize) {
+		grid = new SpatialHashGrid(cellSize);
+		Arrays.fill(tracked, null);
+		Arrays.fill(dynamic, false);
+		Arrays.fill(unbounded, false);
+		unboundedList.clear();
+		dynamicList.clear();
+		lastGeneration = Integer.MIN_VALUE;
+		sync();
+	}
+
+	public float getCellSize() { return grid.getCellSize(); }
+
+	/** 底层网格 (只读用途：统计、调试绘制) */
+	public SpatialHashGrid getGrid() { return grid; }
+
+	public int getIndexedCount() { return grid.size(); }
+
+	public int getRefreshPerFrame() { return refreshPerFrame; }
+
+	/** 每帧轮询刷新的实体数 (兜底未标脏的尺寸变化)，0 关闭轮询 */
+	public void setRefreshPerFrame(int count) { this.refreshPerFrame = Math.max(0, count); }
+
+	/** 累计全量扫描次数 (调试：静止场景下不应增长) */
+	public int getFullScanCount() { return fullScans; }
+}
@@ -0,0 +1,166 @@
+package com.goldsprite.gdengine.ecs.system;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.goldsprite.gdengine.ecs.component.RenderComponent;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 合批重排 (减少 SpriteBatch 因换纹理导致的 flush)
+ * <p>
+ * 输入是按排序键排好的渲染队列。只在 "层深度 + orderInLayer 都相同" 的连续段内重排，
+ * 段内原本按插入顺序绘制，交换两个互不重叠的物体在视觉上没有区别，所以：
+ * 在一个长度为 {@link #window} 的前瞻窗口里，优先挑和当前纹理相同、且与它前面所有待画物体都不重叠的那个先画。
+ * 找不到就按原顺序画窗口里的第一个 (此时换纹理)。
+ * </p>
+ * <p>
+ * 给不出包围盒或纹理未知 (null) 的组件视为 "屏障"：既不会被提前，也不会被越过。
+ * 复杂度 O(n · window²) 上限，通常接近 O(n)。非线程安全，只在渲染线程上使用。
+ * </p>
+ */
+public class TextureBatchSorter {
+
+	/** 组件 -> 绘制纹理 (一般是 {@link RenderComponent#getBatchTexture})，null 表示未知 */
+	public interface TextureResolver {
+		Object getTexture(RenderComponent component);
+	}
+
+	/** 前瞻窗口大小：越大合批越充分，代价是每个物体最多做 window 次重叠检测 */
+	public int window = 16;
+
+	// --- 每帧缓存 (按输入下标) ---
+	private RenderComponent[] items = new RenderComponent[256];
+	private Object[] textures = new Object[256];
+	private boolean[] bounded = new boolean[256];
+	private float[] minX = new float[256], minY = new float[256], maxX = new float[256], maxY = new float[256];
+	private final Rectangle rect = new Rectangle();
+
+	private RenderComponent[] out = new RenderComponent[256];
+	private int size;
+	private int[] win = new int[16];
+
+	private int textureSwitches, moved;
+
+	private final List<RenderComponent> view = new AbstractList<RenderComponent>() {
+		@Override public RenderComponent get(int index) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			return out[index];
+		}
+		@Override public int size() { return size; }
+	};
+
+	/**
+	 * 对排好序的队列做合批重排
+	 * @return 重排后的只读视图 (下次调用前有效)
+	 */
+	public List<RenderComponent> apply(List<RenderComponent> sorted, TextureResolver resolver) {
+		int n = sorted.size();
+		ensureCapacity(n);
+		if (win.length < window) win = new int[window];
+		for (int i = 0; i < n; i++) {
+			RenderComponent c = sorted.get(i);
+			items[i] = c;
+			textures[i] = resolver.getTexture(c);
+			bounded[i] = c.getWorldBounds(rect);
+			if (bounded[i]) {
+				minX[i] = rect.x; minY[i] = rect.y;
+				maxX[i] = rect.x + rect.width; maxY[i] = rect.y + rect.height;
+			}
+		}
+
+		Arrays.fill(out, n, Math.max(n, size), null);
+		size = 0;
+		moved = 0;
+		textureSwitches = 0;
+		Object current = null;
+		int runStart = 0;
+		while (runStart < n) {
+			// 同一层 + 同一 orderInLayer 的连续段
+			long group = items[runStart].getSortKey() >>> 32;
+			int runEnd = runStart + 1;
+			while (runEnd < n && (items[runEnd].getSortKey() >>> 32) == group) runEnd++;
+			current = emitRun(runStart, runEnd, current);
+			runStart = runEnd;
+		}
+		Arrays.fill(items, 0, n, null);
+		Arrays.fill(textures, 0, n, null);
+		return view;
+	}
+
+	private Object emitRun(int start, int end, Object current) {
+		int w = Math.max(1, window);
+		int count = 0;
+		int next = start;
+		while (count > 0 || next < end) {
+			while (count < w && next < end) win[count++] = next++;
+
+			int pick = 0;
+			if (current != null) {
+				for (int k = 0; k < count; k++) {
+					if (textures[win[k]] == current && canMoveBefore(k)) {
+						pick = k;
+						break;
+					}
+				}
+			}
+			int index = win[pick];
+			if (pick > 0) moved++;
+			System.arraycopy(win, pick + 1, win, pick, count - pick - 1);
+			count--;
+
+			Object tex = textures[index];
+			if (tex != current || tex == null) {
+				if (size > 0) textureSwitches++;
+				current = tex;
+			}
+			out[size++] = items[index];
+		}
+		return current;
+	}
+
+	/** 窗口中第 k 个能否提前到前面所有待画物体之前：都有包围盒、纹理已知且互不重叠 */
+	private boolean canMoveBefore(int k) {
+		int a = win[k];
+		if (!bounded[a]) return false;
+		for (int j = 0; j < k; j++) {
+			int b = win[j];
+			if (!bounded[b] || textures[b] == null) return false;
+			if (minX[a] < maxX[b] && maxX[a] > minX[b] && minY[a] < maxY[b] && maxY[a] > minY[b]) return false;
+		}
+		return true;
+	}
+
+	private void ensureCapacity(int n) {
+		if (n <= items.length) return;
+		int cap = Math.max(n, items.length * 2);
+		items = Arrays.copyOf(items, cap);
+		textures = Arrays.copyOf(textures, cap);
+		bounded = Arrays.copyOf(bounded, cap);
+		minX = Arrays.copyOf(minX, cap); minY = Arrays.copyOf(minY, cap);
+		maxX = Arrays.copyOf(maxX, cap); maxY = Arrays.copyOf(maxY, cap);
+		out = Arrays.copyOf(out, cap);
+	}
+
+	/** 统计给定顺序下的换纹理次数 (未知纹理每次都算一次) */
+	public static int countTextureSwitches(List<RenderComponent> list, TextureResolver resolver) {
+		int switches = 0;
+		Object current = null;
+		for (int i = 0; i < list.size(); i++) {
+			Object tex = resolver.getTexture(list.get(i));
+			if (i > 0 && (tex != current || tex == null)) switches++;
+			current = tex;
+		}
+		return switches;
+	}
+
+	/** 上一次 apply 的换纹理次数 (未知纹理每次都算一次) */
+	public int getTextureSwitches() { return textureSwitches; }
+
+	/** 上一次 apply 中被提前的组件数 */
+	public int getMovedCount() { return moved; }
+
+	/** 上一次 apply 的结果视图 */
+	public List<RenderComponent> asList() { return view; }
+}
@@ -0,0 +1,219 @@
+package com.goldsprite.gdengine.ecs.system;
+
+import com.goldsprite.gdengine.ecs.GameSystemInfo;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemScheduler;
+import com.goldsprite.gdengine.ecs.SystemType;
+import com.goldsprite.gdengine.ecs.component.TransformComponent;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 变换层级系统
+ * <p>
+ * 把整个场景树铺平成 "父级在前、子级在后" 的扁平数组 (DFS 先序)，每帧顺序扫描一遍：
+ * 只有局部数据变了、换了父级、或父级世界矩阵刚重算过的节点才会重算 (见 {@link TransformComponent#isWorldDirty})。
+ * 静止的场景几何每帧只剩 5 次 float 比较，不再付 Affine2 乘法 + atan2 + 2 次 sqrt。
+ * </p>
+ * <p>
+ * 每个顶层实体的子树在数组里是连续区间且互不依赖，节点多时按顶层子树切块并行计算。
+ * 层级结构变化 (注册/注销顶层、setParent、销毁) 会通过 物体所属世界的 {@link GameWorld#markHierarchyChanged()} 触发重建。
+ * </p>
+ * <p>
+ * 本系统在 SceneSystem 之前注册，保证组件 Update 时读到的是本帧的世界变换。
+ * </p>
+ */
+@GameSystemInfo(type = SystemType.UPDATE, writes = {TransformComponent.class})
+public class TransformSystem extends BaseSystem {
+
+	/** 节点总数低于该值时不值得并行 */
+	public static int PARALLEL_THRESHOLD = 2048;
+
+	// --- 扁平层级 (先序) ---
+	private GObject[] nodes = new GObject[256];
+	/** 父节点下标，顶层为 -1 */
+	private int[] parentIndex = new int[256];
+	/** 子树结束位置 (不含)，失活时据此整段跳过 */
+	private int[] subtreeEnd = new int[256];
+	private int nodeCount = 0;
+
+	/** 顶层子树的起点 */
+	private int[] roots = new int[64];
+	private int rootCount = 0;
+
+	private int builtVersion = -1;
+	/** 本次同步顺带记录插值快照 (见 snapshotForInterpolation) */
+	private boolean snapshotting = false;
+
+	// --- 统计 ---
+	private int lastRecomputed = 0;
+	/** 有节点重算或层级重建时 +1 (空间索引据此跳过没有变化的同步) */
+	private int changeStamp = 0;
+
+	@Override
+	public void update(float delta) {
+		syncWorldTransforms();
+	}
+
+	/** 立即同步所有脏节点的世界变换 (编辑器拖拽后需要马上拾取时也可以手动调用) */
+	public void syncWorldTransforms() {
+		if (builtVersion != world.getHierarchyVersion()) {
+			rebuild();
+			changeStamp++;
+		}
+		if (nodeCount == 0) {
+			lastRecomputed = 0;
+			return;
+		}
+
+		ForkJoinPool pool = SystemScheduler.getPool();
+		boolean parallel = world.isParallelEntityJobs() && pool.getParallelism() > 1
+			&& rootCount > 1 && nodeCount >= PARALLEL_THRESHOLD;
+
+		boolean prev = SystemScheduler.enterWorker();
+		try {
+			if (parallel) {
+				// 每块至少约 PARALLEL_THRESHOLD / 4 个节点
+				SubtreeTask task = new SubtreeTask(this, 0, rootCount, Math.max(1, PARALLEL_THRESHOLD / 4));
+				pool.invoke(task);
+				lastRecomputed = task.recomputed;
+			} else {
+				lastRecomputed = computeRange(0, nodeCount);
+			}
+		} finally {
+			SystemScheduler.exitWorker(prev);
+		}
+		if (lastRecomputed > 0) changeStamp++;
+	}
+
+	/**
+	 * 渲染插值：同步世界变换，并在同一遍扫描里为激活节点记录 "上一步" 快照
+	 * <p>由 GameWorld 在每个物理步之前调用 (仅开启插值时)。只拷贝世界矩阵的几个原始项，
+	 * 且上次快照后矩阵没重算过的节点直接跳过 (见 {@link TransformComponent#snapshotPrevious()})。</p>
+	 */
+	public void snapshotForInterpolation() {
+		snapshotting = true;
+		try {
+			syncWorldTransforms();
+		} finally {
+			snapshotting = false;
+		}
+	}
+
+	/** 顺序处理 [from, to) 区间，区间必须由完整的顶层子树组成 */
+	private int computeRange(int from, int to) {
+		int recomputed = 0;
+		int i = from;
+		while (i < to) {
+			GObject obj = nodes[i];
+			// 失活/已销毁：整棵子树跳过 (重新激活时会因父级版本号不同而自动重算)
+			if (!obj.isActive() || obj.isDestroyed()) {
+				i = subtreeEnd[i];
+				continue;
+			}
+			int p = parentIndex[i];
+			TransformComponent parent = p >= 0 ? nodes[p].transform : null;
+			if (obj.transform.updateWorldTransformIfDirty(parent)) recomputed++;
+			if (snapshotting) obj.transform.snapshotPrevious();
+			i++;
+		}
+		return recomputed;
+	}
+
+	// ==========================================
+	// 层级重建
+	// ==========================================
+
+	private void rebuild() {
+		builtVersion = world.getHierarchyVersion();
+		// 清掉旧引用，避免持有已销毁物体
+		for (int i = 0; i < nodeCount; i++) nodes[i] = null;
+		nodeCount = 0;
+		rootCount = 0;
+
+		List<GObject> rootEntities = world.getRootEntities();
+		for (int i = 0; i < rootEntities.size(); i++) {
+			GObject root = rootEntities.get(i);
+			if (root.isDestroyed()) continue;
+			if (rootCount == roots.length) roots = grow(roots);
+			roots[rootCount++] = nodeCount;
+			append(root, -1);
+		}
+	}
+
+	private void append(GObject obj, int parent) {
+		if (nodeCount == nodes.length) {
+			GObject[] n = new GObject[nodes.length * 2];
+			System.arraycopy(nodes, 0, n, 0, nodeCount);
+			nodes = n;
+			parentIndex = grow(parentIndex);
+			subtreeEnd = grow(subtreeEnd);
+		}
+		int index = nodeCount++;
+		nodes[index] = obj;
+		parentIndex[index] = parent;
+
+		List<GObject> children = obj.getChildren();
+		for (int i = 0; i < children.size(); i++) {
+			append(children.get(i), index);
+		}
+		subtreeEnd[index] = nodeCount;
+	}
+
+	private static int[] grow(int[] array) {
+		int[] n = new int[array.length * 2];
+		System.arraycopy(array, 0, n, 0, array.length);
+		return n;
+	}
+
+	// ==========================================
+	// 查询 (调试 / 测试)
+	// ==========================================
+
+	public int getNodeCount() { return nodeCount; }
+	public int getRootCount() { return rootCount; }
+	/** 上一次同步实际重算的节点数 */
+	public int getLastRecomputedCount() { return lastRecomputed; }
+	/** 世界变换变化戳：两次读取之间没变说明没有任何节点的世界矩阵被本系统重算过 */
+	public int getChangeStamp() { return changeStamp; }
+
+	// ==========================================
+	// 并行：按顶层子树二分
+	// ==========================================
+
+	@SuppressWarnings("serial") // 只在进程内的线程池里执行，从不序列化
+	private static final class SubtreeTask extends RecursiveAction {
+		private final TransformSystem system;
+		private final int rootFrom, rootTo, grain;
+		int recomputed;
+
+		SubtreeTask(TransformSystem system, int rootFrom, int rootTo, int grain) {
+			this.system = system;
+			this.rootFrom = rootFrom;
+			this.rootTo = rootTo;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			int from = system.roots[rootFrom];
+			int to = rootTo < system.rootCount ? system.roots[rootTo] : system.nodeCount;
+			if (rootTo - rootFrom <= 1 || to - from <= grain) {
+				boolean prev = SystemScheduler.enterWorker();
+				try {
+					recomputed = system.computeRange(from, to);
+				} finally {
+					SystemScheduler.exitWorker(prev);
+				}
+				return;
+			}
+			int mid = (rootFrom + rootTo) >>> 1;
+			SubtreeTask left = new SubtreeTask(system, rootFrom, mid, grain);
+			SubtreeTask right = new SubtreeTask(system, mid, rootTo, grain);
+			invokeAll(left, right);
+			recomputed = left.recomputed + right.recomputed;
+		}
+	}
+}
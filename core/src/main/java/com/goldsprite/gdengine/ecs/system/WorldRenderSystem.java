@@ -1,6 +1,11 @@
 package com.goldsprite.gdengine.ecs.system;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector3;
+import com.goldsprite.gdengine.core.scripting.RuntimeAtlas;
 import com.goldsprite.gdengine.ecs.GameSystemInfo;
 import com.goldsprite.gdengine.ecs.SystemType;
 import com.goldsprite.gdengine.ecs.component.RenderComponent;
@@ -8,48 +13,91 @@ import com.goldsprite.gdengine.ecs.entity.GObject;
 import com.goldsprite.gdengine.neonbatch.NeonBatch;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
 /**
  * 统一渲染系统
  * 职责：收集所有 RenderComponent，排序，并执行绘制。
+ * <p>
+ * 排序走常驻的 {@link RenderQueue}：每个组件缓存打包好的 long 排序键 ({@link RenderComponent#getSortKey()})，
+ * 队列每帧只增删变化的成员，顺序基本不变时几乎不用排序。
+ * </p>
+ * <p>
+ * 合批重排 (默认开启)：排序后再经 {@link TextureBatchSorter}，在同层同顺序、互不重叠的物体间按纹理归拢，
+ * 减少 SpriteBatch 换纹理 flush。{@link #getRenderCalls()} / {@link #getTextureSwitches()} 报告每帧的提交次数。
+ * 有运行时图集 ({@link RuntimeAtlas}) 时，本帧图形改用图集里的白块绘制，与图集内的精灵共用同一张纹理。
+ * </p>
+ * <p>
+ * 视锥剔除 (默认开启)：先按相机可见矩形向空间索引查询候选实体，再逐个组件用
+ * {@link RenderComponent#getWorldBounds} 精确判定，只对屏幕内的组件排序和绘制。
+ * 给不出包围盒的组件总是绘制。{@link #getDrawnCount()} / {@link #getCulledCount()} 可用来确认剔除效果。
+ * </p>
  */
 // [核心修复] 显式标记为 RENDER 类型
 @GameSystemInfo(type = SystemType.RENDER, interestComponents = {RenderComponent.class})
 public class WorldRenderSystem extends BaseSystem {
 
-	private final List<RenderComponent> renderList = new ArrayList<>();
+	/** 常驻渲染队列 (跨帧保留，增量维护) */
+	private final RenderQueue queue = new RenderQueue();
+	/** 本帧可见组件 (无序，交给 queue 同步) */
+	private final List<RenderComponent> visibleList = new ArrayList<>();
 
-	// 排序器：LayerDepth -> OrderInLayer
-	private final Comparator<RenderComponent> comparator = (c1, c2) -> {
-		// 1. Layer Depth
-		int depth1 = RenderLayerManager.getLayerDepth(c1.sortingLayer);
-		int depth2 = RenderLayerManager.getLayerDepth(c2.sortingLayer);
-		if (depth1 != depth2) return Integer.compare(depth1, depth2);
+	// 排序器：缓存的排序键 (LayerDepth -> OrderInLayer -> 插入顺序)，与渲染队列顺序一致
+	private static final Comparator<RenderComponent> comparator =
+		(c1, c2) -> Long.compareUnsigned(c1.getSortKey(), c2.getSortKey());
 
-		// 2. Order in Layer
-		return Integer.compare(c1.orderInLayer, c2.orderInLayer);
-	};
+	// --- 合批重排 ---
+	private boolean textureBatching = true;
+	private final TextureBatchSorter batchSorter = new TextureBatchSorter();
+	/** 当前帧的 batch (供 resolver 取白点纹理，字段持有避免每帧创建 lambda) */
+	private NeonBatch currentBatch;
+	private final TextureBatchSorter.TextureResolver textureResolver = c -> c.getBatchTexture(currentBatch);
+	private int renderCalls, textureSwitches;
+
+	// --- 视锥剔除 ---
+	private boolean culling = true;
+	/** 相机矩形外扩量 (世界单位)，兜住插值渲染带来的少量偏差 */
+	private float cullMargin = 8f;
+	private final Rectangle viewRect = new Rectangle();
+	private final Rectangle compBounds = new Rectangle();
+	private final List<GObject> visibleBuffer = new ArrayList<>();
+	private int drawnCount, culledCount;
+	/** culledCount 需要扫描全部实体，只在有人读取时才算 */
+	private boolean culledStale;
 
 	public WorldRenderSystem() {}
 	public WorldRenderSystem(NeonBatch batch, Camera camera) {}
 
 	@Override
 	public void render(NeonBatch batch, Camera camera) {
-		// 渲染循环专用：清空并复用成员变量，零GC
-		renderList.clear();
-		collectTo(renderList); // 复用逻辑
+		// 渲染循环专用：增量更新常驻队列，零GC
+		updateQueue(camera);
+
+		// 图形借用图集白块，和图集精灵同纹理
+		TextureRegion atlasWhite = RuntimeAtlas.getWhiteRegion();
+		if (atlasWhite != null) batch.setBlankRegion(atlasWhite);
 
-		Collections.sort(renderList, comparator);
+		currentBatch = batch;
+		List<RenderComponent> drawList;
+		if (textureBatching) {
+			drawList = batchSorter.apply(queue.asList(), textureResolver);
+			textureSwitches = batchSorter.getTextureSwitches();
+		} else {
+			drawList = queue.asList();
+			textureSwitches = TextureBatchSorter.countTextureSwitches(drawList, textureResolver);
+		}
 
 		batch.setProjectionMatrix(camera.combined);
 		batch.begin();
-		for (RenderComponent rc : renderList) {
-			rc.render(batch, camera);
+		for (int i = 0; i < drawList.size(); i++) {
+			drawList.get(i).render(batch, camera);
 		}
 		batch.end();
+		// renderCalls 在 begin 时清零，每次 flush (换纹理 / 缓冲满 / end) 加一
+		renderCalls = batch.renderCalls;
+		currentBatch = null;
+		if (atlasWhite != null) batch.setBlankRegion(null);
 	}
 
 	/**
@@ -63,25 +111,210 @@ public class WorldRenderSystem extends BaseSystem {
 		return result;
 	}
 
+	/**
+	 * 收集本帧相机可见的组件 (排序后)，与 render 走同一个渲染队列
+	 * <p>out 会先清空；关闭剔除或没有空间索引时返回全部。同时刷新绘制 / 剔除统计。</p>
+	 */
+	public List<RenderComponent> queryVisible(Camera camera, List<RenderComponent> out) {
+		updateQueue(camera);
+		out.clear();
+		out.addAll(queue.asList());
+		return out;
+	}
+
+	private void updateQueue(Camera camera) {
+		visibleList.clear();
+		SpatialIndexSystem index = world.spatialIndex;
+		if (culling && index != null) {
+			collectVisible(index, camera, visibleList);
+		} else {
+			collectTo(visibleList); // 复用逻辑
+			drawnCount = countEntities(visibleList);
+			culledCount = 0;
+			culledStale = false;
+		}
+		queue.sync(visibleList);
+		visibleList.clear();
+	}
+
+	private final List<GObject> pickBuffer = new ArrayList<>();
+
+	/**
+	 * 点选查询：只取包围盒覆盖该点的实体 (走空间索引，O(命中数))，结果按渲染顺序排序
+	 * <p>给不出包围盒的实体 (只重写了 contains 的自定义绘制) 总是作为候选，与剔除一致。
+	 * out 会先清空；调用方倒序遍历并用 {@link RenderComponent#contains} 精确判定即可。</p>
+	 */
+	public List<RenderComponent> queryRenderablesAt(float x, float y, List<RenderComponent> out) {
+		out.clear();
+		SpatialIndexSystem index = world.spatialIndex;
+		if (index == null) {
+			collectTo(out);
+		} else {
+			index.queryPoint(x, y, pickBuffer);
+			for (int e = 0; e < pickBuffer.size(); e++) {
+				GObject obj = pickBuffer.get(e);
+				// 无界实体在下面统一处理，避免重复
+				if (!index.isUnbounded(obj)) collectFrom(obj, out);
+			}
+			pickBuffer.clear();
+			List<GObject> unbounded = index.getUnboundedEntities();
+			for (int e = 0; e < unbounded.size(); e++) {
+				GObject obj = unbounded.get(e);
+				if (obj.isActiveInHierarchy()) collectFrom(obj, out);
+			}
+		}
+		out.sort(comparator);
+		return out;
+	}
+
+	/**
+	 * 剔除收集：空间索引粗筛 + 组件包围盒精筛
+	 * <p>先同步一次索引，拿到本帧 (含骨骼姿态) 的最新包围盒。</p>
+	 */
+	private void collectVisible(SpatialIndexSystem index, Camera camera, List<RenderComponent> targetList) {
+		computeViewRect(camera, viewRect);
+		index.sync();
+
+		index.queryAabb(viewRect.x, viewRect.y, viewRect.x + viewRect.width, viewRect.y + viewRect.height, visibleBuffer);
+		for (int e = 0; e < visibleBuffer.size(); e++) {
+			GObject obj = visibleBuffer.get(e);
+			// 无界实体在下面统一处理，避免重复
+			if (index.isUnbounded(obj)) continue;
+			collectInView(obj, targetList);
+		}
+		List<GObject> unbounded = index.getUnboundedEntities();
+		for (int e = 0; e < unbounded.size(); e++) {
+			GObject obj = unbounded.get(e);
+			if (obj.isActiveInHierarchy()) collectInView(obj, targetList);
+		}
+		visibleBuffer.clear();
+
+		// 统计以物体为单位：可见 = 至少有一个组件入选；剔除数在读取时再算 (见 getCulledCount)
+		drawnCount = countEntities(targetList);
+		culledStale = true;
+	}
+
+	/** 收集该实体落在可见矩形内的组件 (给不出包围盒的组件总是收集) */
+	private void collectInView(GObject obj, List<RenderComponent> targetList) {
+		int start = targetList.size();
+		collectFrom(obj, targetList);
+		int w = start;
+		for (int i = start; i < targetList.size(); i++) {
+			RenderComponent c = targetList.get(i);
+			if (c.getWorldBounds(compBounds) && !compBounds.overlaps(viewRect)) continue;
+			targetList.set(w++, c);
+		}
+		for (int i = targetList.size() - 1; i >= w; i--) targetList.remove(i);
+	}
+
+	/** 列表中不同实体的个数 (同一实体的组件在列表里是连续的) */
+	private static int countEntities(List<RenderComponent> list) {
+		int n = 0;
+		GObject last = null;
+		for (int i = 0; i < list.size(); i++) {
+			GObject obj = list.get(i).getGObject();
+			if (obj != last) n++;
+			last = obj;
+		}
+		return n;
+	}
+
+	/**
+	 * 相机在世界空间的可见范围 (外扩 cullMargin)
+	 * <p>正交相机直接由位置、视口、缩放和 up 向量算出 (含旋转)；其它相机取视锥 8 个角点的 XY 外包。</p>
+	 */
+	private void computeViewRect(Camera camera, Rectangle out) {
+		float minX, minY, maxX, maxY;
+		if (camera instanceof OrthographicCamera) {
+			OrthographicCamera ortho = (OrthographicCamera) camera;
+			float hw = ortho.viewportWidth * ortho.zoom / 2f, hh = ortho.viewportHeight * ortho.zoom / 2f;
+			// up 向量在 XY 平面的方向即相机旋转
+			float len = (float) Math.sqrt(camera.up.x * camera.up.x + camera.up.y * camera.up.y);
+			float cos = len > 0f ? Math.abs(camera.up.y / len) : 1f, sin = len > 0f ? Math.abs(camera.up.x / len) : 0f;
+			float ex = cos * hw + sin * hh, ey = sin * hw + cos * hh;
+			minX = camera.position.x - ex; maxX = camera.position.x + ex;
+			minY = camera.position.y - ey; maxY = camera.position.y + ey;
+		} else {
+			minX = minY = Float.POSITIVE_INFINITY;
+			maxX = maxY = Float.NEGATIVE_INFINITY;
+			for (Vector3 p : camera.frustum.planePoints) {
+				minX = Math.min(minX, p.x); minY = Math.min(minY, p.y);
+				maxX = Math.max(maxX, p.x); maxY = Math.max(maxY, p.y);
+			}
+		}
+		out.set(minX - cullMargin, minY - cullMargin, maxX - minX + cullMargin * 2f, maxY - minY + cullMargin * 2f);
+	}
+
+	// ==========================================
+	// 剔除配置 / 统计
+	// ==========================================
+
+	public boolean isCullingEnabled() { return culling; }
+	public void setCullingEnabled(boolean culling) { this.culling = culling; }
+
+	public float getCullMargin() { return cullMargin; }
+	public void setCullMargin(float cullMargin) { this.cullMargin = Math.max(0f, cullMargin); }
+
+	/** 上一次 render 绘制的物体数 (组件数见 {@link #getSortedRenderables()}) */
+	public int getDrawnCount() { return drawnCount; }
+
+	/** 上一次 render 因不在屏幕内被跳过的激活物体数 (首次读取时按当前实体集合计算，不读取就没有开销) */
+	public int getCulledCount() {
+		if (culledStale) {
+			// 剔除 = 其余激活的可渲染物体
+			int candidates = 0;
+			List<GObject> entities = getInterestEntities();
+			for (int i = 0; i < entities.size(); i++) {
+				GObject obj = entities.get(i);
+				if (obj.isActive() && !obj.isDestroyed()) candidates++;
+			}
+			culledCount = Math.max(0, candidates - drawnCount);
+			culledStale = false;
+		}
+		return culledCount;
+	}
+
+	// 复用的组件查询缓冲 (避免每个实体每帧 new ArrayList)
+	private final List<RenderComponent> compBuffer = new ArrayList<>();
+
 	/** 提取出的公共逻辑 */
 	private void collectTo(List<RenderComponent> targetList) {
 		List<GObject> entities = getInterestEntities();
 		for (GObject obj : entities) {
-			if (!obj.isActive() || obj.isDestroyed()) continue;
-
-			List<RenderComponent> comps = obj.getComponents(RenderComponent.class);
-			for (RenderComponent c : comps) {
-				if (c.isEnable() && !c.isDestroyed()) {
-					if (RenderLayerManager.isLayerWorldSpace(c.sortingLayer)) {
-						targetList.add(c);
-					}
+			collectFrom(obj, targetList);
+		}
+	}
+
+	private void collectFrom(GObject obj, List<RenderComponent> targetList) {
+		if (!obj.isActive() || obj.isDestroyed()) return;
+
+		List<RenderComponent> comps = obj.getComponents(RenderComponent.class, compBuffer);
+		for (int i = 0; i < comps.size(); i++) {
+			RenderComponent c = comps.get(i);
+			if (c.isEnable() && !c.isDestroyed()) {
+				if (c.isWorldSpaceLayer()) {
+					targetList.add(c);
 				}
 			}
 		}
 	}
 
-	// 这个方法之前返回的是成员变量，现在为了安全，建议废弃或仅供调试
+	/** 上一帧绘制的组件 (排序后的只读实时视图，仅供调试) */
 	public List<RenderComponent> getSortedRenderables() {
-		return renderList;
+		return queue.asList();
+	}
+
+	public boolean isTextureBatching() { return textureBatching; }
+	public void setTextureBatching(boolean textureBatching) { this.textureBatching = textureBatching; }
+
+	/** 上一次 render 的 draw call 数 (SpriteBatch.renderCalls，即 flush 次数) */
+	public int getRenderCalls() { return renderCalls; }
+
+	/** 上一次 render 绘制顺序中的换纹理次数 (每次都会触发一次 flush) */
+	public int getTextureSwitches() { return textureSwitches; }
+
+	/** 常驻渲染队列 (统计 / 调试) */
+	public RenderQueue getRenderQueue() {
+		return queue;
 	}
 }
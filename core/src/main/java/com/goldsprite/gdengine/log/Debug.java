@@ -7,6 +7,8 @@ import com.badlogic.gdx.utils.viewport.ExtendViewport;
 import com.goldsprite.gdengine.PlatformImpl;
 import com.goldsprite.gdengine.screens.ScreenManager;
 import com.goldsprite.gdengine.BuildConfig;
+import com.goldsprite.gdengine.ecs.FrameProfiler;
+import com.goldsprite.gdengine.ecs.GameWorld;
 
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
@@ -139,6 +141,17 @@ public class Debug {
 		sb.append(BuildConfig.PROJECT_NAME).append(": V").append(BuildConfig.DEV_VERSION);
 		sb.append("\nHeap: ").append(Gdx.app.getJavaHeap() / 1024 / 1024).append("MB");
 		sb.append("\nFPS: ").append(Gdx.graphics.getFramesPerSecond());
+		GameWorld world = GameWorld.inst();
+		if (world != null && world.profiler.isEnabled() && world.profiler.getSampleCount() > 0) {
+			sb.append("\nFrame: ").append(world.profiler.getAvgMs(FrameProfiler.FRAME))
+				.append("ms (p99 ").append(world.profiler.getP99Ms(FrameProfiler.FRAME)).append("ms)");
+		}
+		if (world != null && world.worldRenderSystem != null) {
+			sb.append("\nDraw: ").append(world.worldRenderSystem.getDrawnCount())
+				.append(" (culled ").append(world.worldRenderSystem.getCulledCount()).append(")")
+				.append("\nCalls: ").append(world.worldRenderSystem.getRenderCalls())
+				.append(" (tex switch ").append(world.worldRenderSystem.getTextureSwitches()).append(")");
+		}
 
 		if (!getInstance().logInfos.isEmpty()) {
 			sb.append("\n--- Monitors ---\n");
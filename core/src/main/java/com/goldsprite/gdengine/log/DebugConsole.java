@@ -18,6 +18,7 @@ import com.kotcrab.vis.ui.widget.VisTable;
 import com.kotcrab.vis.ui.widget.VisTextButton;
 import com.goldsprite.gdengine.assets.ColorTextureUtils;
 import com.goldsprite.gdengine.assets.VisUIHelper;
+import com.goldsprite.gdengine.ecs.GameWorld;
 
 /**
  * 调试控制台 (抽屉动画版)
@@ -30,8 +31,8 @@ public class DebugConsole extends Group {
 	// UI 组件
 	private VisTextButton fpsBtn;
 	private VisTable panel; // 滑动面板
-	private VisLabel logLabel, infoLabel, introLabel;
-	private ScrollPane logScroll, infoScroll, introScroll;
+	private VisLabel logLabel, infoLabel, introLabel, profLabel;
+	private ScrollPane logScroll, infoScroll, introScroll, profScroll;
 	private Container<ScrollPane> contentContainer;
 
 	// 布局配置
@@ -47,6 +48,11 @@ public class DebugConsole extends Group {
 	// 数据刷新
 	private float updateTimer = 0;
 	private final float REFRESH_RATE = 1/60f; // UI 刷新频率
+	private float profTimer = 0;
+	private final float PROF_REFRESH_RATE = 0.25f; // 性能表刷新频率 (太快看不清)
+	private final StringBuilder profText = new StringBuilder(1024);
+	/** 由控制台打开分析器的世界 (离开性能页 / 收起面板时关掉，不动别人打开的分析器) */
+	private GameWorld profilingWorld;
 
 	float resizeHandleHeight = 14;
 
@@ -98,6 +104,7 @@ public class DebugConsole extends Group {
 		VisTextButton btnIntro = createTabBtn("INTRO", () -> showTab(introScroll));
 		VisTextButton btnLog = createTabBtn("LOG", () -> showTab(logScroll));
 		VisTextButton btnInfo = createTabBtn("INFO", () -> showTab(infoScroll));
+		VisTextButton btnProf = createTabBtn("PROF", () -> showTab(profScroll));
 		VisTextButton btnClose = new VisTextButton(" X ");
 		btnClose.setColor(Color.RED);
 		btnClose.addListener(new ClickListener() {
@@ -110,6 +117,7 @@ public class DebugConsole extends Group {
 		header.add(btnIntro).width(80).padRight(5);
 		header.add(btnLog).width(80).padRight(5);
 		header.add(btnInfo).width(80).padRight(5);
+		header.add(btnProf).width(80).padRight(5);
 		header.add().expandX();
 		header.add(btnClose).width(50);
 		panel.add(header).growX().height(40).pad(5).row();
@@ -121,6 +129,8 @@ public class DebugConsole extends Group {
 		logScroll = new ScrollPane(logLabel);
 		infoLabel = new VisLabel("", "small");
 		infoScroll = new ScrollPane(infoLabel);
+		profLabel = new VisLabel("", "small");
+		profScroll = new ScrollPane(profLabel);
 
 		contentContainer = new Container<>();
 		contentContainer.fill();
@@ -173,11 +183,28 @@ public class DebugConsole extends Group {
 
 	private void showTab(ScrollPane target) {
 		contentContainer.setActor(target);
+		if (target == profScroll) profTimer = PROF_REFRESH_RATE;
+		updateProfiling();
 		if (target == logScroll) {
 			target.layout(); target.setScrollY(target.getMaxY());
 		}
 	}
 
+	/**
+	 * 性能页展开显示时开启当前世界的分析器，离开性能页或收起面板时关掉
+	 * (分析器关闭时零开销，所以只在有人看的时候开)
+	 */
+	private void updateProfiling() {
+		GameWorld world = currentState == State.EXPANDED && contentContainer.getActor() == profScroll ? GameWorld.inst() : null;
+		if (world == profilingWorld) return;
+		if (profilingWorld != null) profilingWorld.profiler.setEnabled(false);
+		profilingWorld = null;
+		if (world != null && !world.profiler.isEnabled()) {
+			world.profiler.setEnabled(true);
+			profilingWorld = world;
+		}
+	}
+
 	public static void autoSwitchState() {
 		if(inst == null) return;
 		inst.switchState();
@@ -200,6 +227,7 @@ public class DebugConsole extends Group {
 			fpsBtn.setTouchable(Touchable.enabled); // 按钮还在那
 			panel.setTouchable(Touchable.enabled);
 		}
+		updateProfiling();
 	}
 
 	@Override
@@ -244,6 +272,7 @@ public class DebugConsole extends Group {
 
 		// 数据刷新
 		updateTimer += delta;
+		profTimer += delta;
 		if (updateTimer > REFRESH_RATE) {
 			updateTimer = 0;
 			refreshData();
@@ -264,6 +293,11 @@ public class DebugConsole extends Group {
 //				}
 			} else if (contentContainer.getActor() == infoScroll) {
 				infoLabel.setText(Debug.getInfoString());
+			} else if (contentContainer.getActor() == profScroll && profTimer >= PROF_REFRESH_RATE) {
+				profTimer = 0;
+				updateProfiling(); // 世界可能已经切换
+				GameWorld world = GameWorld.inst();
+				if (world != null) profLabel.setText(world.profiler.appendTable(profText));
 			}
 		}
 	}
@@ -273,6 +307,8 @@ public class DebugConsole extends Group {
 	}
 
 	public void dispose() {
+		if (profilingWorld != null) profilingWorld.profiler.setEnabled(false);
+		profilingWorld = null;
 		if (backDrawable.getRegion().getTexture() != null) {
 			backDrawable.getRegion().getTexture().dispose();
 		}
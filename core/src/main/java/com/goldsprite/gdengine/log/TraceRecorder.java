@@ -0,0 +1,295 @@
+package com.goldsprite.gdengine.log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 引擎事件录制器 (Chrome Trace Event 格式)
+ * <p>
+ * 把整段会话的帧、系统 update / fixedUpdate / render、场景加载、脚本编译、纹理加载等事件写入 JSON 文件，
+ * 事后用 chrome://tracing 或 <a href="https://ui.perfetto.dev">Perfetto</a> 打开查看时间轴。
+ * </p>
+ * <p>
+ * 录制端无锁：事件写进预分配的环形槽位 (CAS 抢占写游标，写完字段后发布序号)，
+ * 后台线程负责取出、格式化、写盘，所以录制本身只有一次 nanoTime + 几个数组写入，不会拖慢被测的帧。
+ * 写线程跟不上时新事件直接丢弃并计数 ({@link #getDroppedCount()})，绝不阻塞游戏线程。
+ * </p>
+ * 用法：
+ * <pre>
+ * TraceRecorder.start(new File("trace.json"));
+ * long t = TraceRecorder.now();
+ * ... 被测代码 ...
+ * TraceRecorder.end("script", "Compile", t);
+ * TraceRecorder.stop();
+ * </pre>
+ */
+public class TraceRecorder {
+
+	/** 环形缓冲容量 (2 的幂) */
+	private static final int CAPACITY = 1 << 16;
+	private static final int MASK = CAPACITY - 1;
+
+	private static final byte PHASE_COMPLETE = 0;
+	private static final byte PHASE_INSTANT = 1;
+	private static final byte PHASE_THREAD_NAME = 2;
+
+	// --- 槽位 (并列数组，启动时一次性分配) ---
+	private static String[] categories;
+	private static String[] names;
+	private static String[] details;
+	private static long[] starts;
+	private static long[] durations;
+	private static long[] threadIds;
+	private static byte[] phases;
+	/** 槽位 i 已发布的序号 (= 写入它的 ticket)，-1 表示空 */
+	private static AtomicLongArray published;
+
+	private static final AtomicLong writeCursor = new AtomicLong();
+	private static volatile long readCursor = 0;
+	private static final AtomicLong dropped = new AtomicLong();
+
+	private static volatile boolean recording = false;
+	/** 录制会话编号：每个线程在新会话里首次记录时补发一条线程名事件 */
+	private static volatile int session = 0;
+	private static final ThreadLocal<int[]> threadSession = ThreadLocal.withInitial(() -> new int[]{-1});
+
+	private static long baseNanos;
+	private static Thread writerThread;
+	private static volatile boolean stopRequested;
+	private static File outputFile;
+	private static long writtenCount;
+	private static boolean shutdownHookInstalled;
+
+	// ==========================================
+	// 控制
+	// ==========================================
+
+	/** 开始录制到指定文件 (已在录制时先结束上一段) */
+	public static synchronized void start(File file) {
+		if (recording) stop();
+		if (categories == null) {
+			categories = new String[CAPACITY];
+			names = new String[CAPACITY];
+			details = new String[CAPACITY];
+			starts = new long[CAPACITY];
+			durations = new long[CAPACITY];
+			threadIds = new long[CAPACITY];
+			phases = new byte[CAPACITY];
+			published = new AtomicLongArray(CAPACITY);
+		}
+		if (!shutdownHookInstalled) {
+			// 进程退出时补齐 JSON 结尾，文件仍可打开
+			shutdownHookInstalled = true;
+			Runtime.getRuntime().addShutdownHook(new Thread(TraceRecorder::stop, "TraceShutdown"));
+		}
+		for (int i = 0; i < CAPACITY; i++) published.set(i, -1);
+		writeCursor.set(0);
+		readCursor = 0;
+		dropped.set(0);
+		writtenCount = 0;
+		session++;
+		baseNanos = System.nanoTime();
+		outputFile = file;
+		stopRequested = false;
+
+		writerThread = new Thread(TraceRecorder::writerLoop, "TraceWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+		recording = true;
+		Debug.logT("Trace", "开始录制: %s", file.getAbsolutePath());
+	}
+
+	/** 结束录制：写完缓冲中剩余的事件并关闭文件 */
+	public static synchronized void stop() {
+		if (!recording) return;
+		recording = false;
+		stopRequested = true;
+		LockSupport.unpark(writerThread);
+		try {
+			writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writerThread = null;
+		Debug.logT("Trace", "录制结束: %d 个事件, 丢弃 %d -> %s", writtenCount, dropped.get(), outputFile.getAbsolutePath());
+	}
+
+	public static boolean isRecording() { return recording; }
+
+	/** 因缓冲满被丢弃的事件数 */
+	public static long getDroppedCount() { return dropped.get(); }
+
+	// ==========================================
+	// 录制 (任意线程，无锁)
+	// ==========================================
+
+	/** 事件起点：未录制时返回 0，配合 {@link #end} 使用 */
+	public static long now() {
+		return recording ? System.nanoTime() : 0L;
+	}
+
+	/** 记录一段以 {@link #now()} 为起点的耗时事件 (起点为 0 时忽略) */
+	public static void end(String category, String name, long startNanos) {
+		if (startNanos == 0L || !recording) return;
+		record(PHASE_COMPLETE, category, name, null, startNanos, System.nanoTime() - startNanos);
+	}
+
+	/** 同上，附带说明 (文件名、类名等，显示在 args.detail) */
+	public static void end(String category, String name, long startNanos, String detail) {
+		if (startNanos == 0L || !recording) return;
+		record(PHASE_COMPLETE, category, name, detail, startNanos, System.nanoTime() - startNanos);
+	}
+
+	/** 记录一段已测得的耗时 (调用方自己计时，例如调度器) */
+	public static void complete(String category, String name, long startNanos, long durationNanos) {
+		if (!recording) return;
+		record(PHASE_COMPLETE, category, name, null, startNanos, durationNanos);
+	}
+
+	/** 瞬时标记 */
+	public static void instant(String category, String name) {
+		if (!recording) return;
+		record(PHASE_INSTANT, category, name, null, System.nanoTime(), 0L);
+	}
+
+	private static void record(byte phase, String category, String name, String detail, long start, long duration) {
+		int[] seen = threadSession.get();
+		if (seen[0] != session) {
+			seen[0] = session;
+			publish(PHASE_THREAD_NAME, "__metadata", Thread.currentThread().getName(), null, start, 0L);
+		}
+		publish(phase, category, name, detail, start, duration);
+	}
+
+	private static void publish(byte phase, String category, String name, String detail, long start, long duration) {
+		long ticket;
+		do {
+			ticket = writeCursor.get();
+			if (ticket - readCursor >= CAPACITY) {
+				dropped.incrementAndGet();
+				return;
+			}
+		} while (!writeCursor.compareAndSet(ticket, ticket + 1));
+
+		int slot = (int) (ticket & MASK);
+		phases[slot] = phase;
+		categories[slot] = category;
+		names[slot] = name;
+		details[slot] = detail;
+		starts[slot] = start;
+		durations[slot] = duration;
+		threadIds[slot] = Thread.currentThread().getId();
+		// volatile 写：之前的字段写入对写线程可见
+		published.set(slot, ticket);
+	}
+
+	// ==========================================
+	// 写线程
+	// ==========================================
+
+	private static void writerLoop() {
+		File file = outputFile;
+		if (file.getParentFile() != null) file.getParentFile().mkdirs();
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+			out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+			StringBuilder sb = new StringBuilder(256);
+			boolean first = true;
+			while (true) {
+				boolean drained = true;
+				long read = readCursor;
+				int slot = (int) (read & MASK);
+				while (published.get(slot) == read) {
+					sb.setLength(0);
+					if (!first) sb.append(",\n");
+					first = false;
+					appendEvent(sb, slot);
+					// 先取完字段再释放槽位
+					categories[slot] = names[slot] = details[slot] = null;
+					readCursor = ++read;
+					out.append(sb);
+					writtenCount++;
+					slot = (int) (read & MASK);
+					drained = false;
+				}
+				if (drained) {
+					if (stopRequested && readCursor == writeCursor.get()) break;
+					out.flush();
+					LockSupport.parkNanos(2_000_000L);
+				}
+			}
+			out.write("\n]}\n");
+		} catch (IOException e) {
+			recording = false;
+			Debug.logT("Trace", "❌ 写入失败: %s", e.getMessage());
+		}
+	}
+
+	private static void appendEvent(StringBuilder sb, int slot) {
+		long tid = threadIds[slot];
+		if (phases[slot] == PHASE_THREAD_NAME) {
+			sb.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(tid)
+				.append(",\"args\":{\"name\":");
+			appendString(sb, names[slot]);
+			sb.append("}}");
+			return;
+		}
+		sb.append("{\"name\":");
+		appendString(sb, names[slot]);
+		sb.append(",\"cat\":");
+		appendString(sb, categories[slot]);
+		sb.append(",\"ph\":\"").append(phases[slot] == PHASE_INSTANT ? 'i' : 'X').append('"');
+		sb.append(",\"ts\":");
+		appendMicros(sb, starts[slot] - baseNanos);
+		if (phases[slot] == PHASE_COMPLETE) {
+			sb.append(",\"dur\":");
+			appendMicros(sb, durations[slot]);
+		} else {
+			sb.append(",\"s\":\"t\"");
+		}
+		sb.append(",\"pid\":1,\"tid\":").append(tid);
+		if (details[slot] != null) {
+			sb.append(",\"args\":{\"detail\":");
+			appendString(sb, details[slot]);
+			sb.append('}');
+		}
+		sb.append('}');
+	}
+
+	/** 纳秒 -> 微秒 (保留 3 位小数) */
+	private static void appendMicros(StringBuilder sb, long nanos) {
+		if (nanos < 0) nanos = 0;
+		sb.append(nanos / 1000).append('.');
+		long frac = nanos % 1000;
+		if (frac < 100) sb.append('0');
+		if (frac < 10) sb.append('0');
+		sb.append(frac);
+	}
+
+	private static void appendString(StringBuilder sb, String s) {
+		sb.append('"');
+		if (s != null) {
+			for (int i = 0; i < s.length(); i++) {
+				char c = s.charAt(i);
+				switch (c) {
+					case '"': sb.append("\\\""); break;
+					case '\\': sb.append("\\\\"); break;
+					case '\n': sb.append("\\n"); break;
+					case '\r': sb.append("\\r"); break;
+					case '\t': sb.append("\\t"); break;
+					default:
+						if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+						else sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+}
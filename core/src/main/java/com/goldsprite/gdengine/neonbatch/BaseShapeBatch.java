@@ -15,9 +15,11 @@ import com.badlogic.gdx.math.Vector2;
  * 3. 所有的几何计算（Miter Join）都在这里完成
  */
 public class BaseShapeBatch extends SpriteBatch{
-	protected final TextureRegion blankRegion;
+	protected TextureRegion blankRegion;
 	// 缓存 UV，避免每次绘制调用方法
-	protected final float whiteU, whiteV;
+	protected float whiteU, whiteV;
+	/** 自己生成的 1x1 白点 (换用共享白点后用于恢复) */
+	private final TextureRegion defaultBlankRegion;
 
 	// 顶点缓存 (避免 new)，最大支持 1024 个顶点的路径
 	// [x, y, x, y, ...]
@@ -34,7 +36,8 @@ public class BaseShapeBatch extends SpriteBatch{
 		pixmap.fill();
 		Texture texture = new Texture(pixmap);
 		texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-		blankRegion = new TextureRegion(texture);
+		defaultBlankRegion = new TextureRegion(texture);
+		blankRegion = defaultBlankRegion;
 		whiteU = blankRegion.getU();
 		whiteV = blankRegion.getV();
 		pixmap.dispose();
@@ -46,6 +49,24 @@ public class BaseShapeBatch extends SpriteBatch{
 		return blankRegion;
 	}
 
+	/**
+	 * 换用外部的纯白区域画图形 (例如运行时图集页里的白块)
+	 * <p>图形和精灵共用一张纹理时，交错绘制不会再因换纹理而 flush。
+	 * UV 取区域中心，避免采样到相邻像素。传 null 恢复自带的白点。
+	 * 区域所在纹理被释放前必须恢复。</p>
+	 */
+	public void setBlankRegion(TextureRegion region) {
+		if (region == null) {
+			blankRegion = defaultBlankRegion;
+			whiteU = blankRegion.getU();
+			whiteV = blankRegion.getV();
+			return;
+		}
+		blankRegion = region;
+		whiteU = (region.getU() + region.getU2()) / 2f;
+		whiteV = (region.getV() + region.getV2()) / 2f;
+	}
+
 	// --- 核心算法 1: 填充 (Fill) ---
 
 	/**
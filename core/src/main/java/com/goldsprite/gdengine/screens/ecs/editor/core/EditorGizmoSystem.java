@@ -40,7 +40,7 @@ public class EditorGizmoSystem {
 		// [修改] 直接读缓存
 		float x = t.transform.worldPosition.x;
 		float y = t.transform.worldPosition.y;
-		float rot = t.transform.worldRotation;
+		float rot = t.transform.getWorldRotation();
 
 		// Gizmo 大小随相机缩放，保持屏幕像素大小一致
 		float s = zoom * 1.4f;
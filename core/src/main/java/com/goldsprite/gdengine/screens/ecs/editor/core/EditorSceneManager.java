@@ -2,6 +2,8 @@ package com.goldsprite.gdengine.screens.ecs.editor.core;
 
 import com.goldsprite.gdengine.core.command.CommandManager;
 import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.entity.EntityHandle;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
 import com.goldsprite.gdengine.ecs.entity.GObject;
 import com.goldsprite.gdengine.input.Event;
 
@@ -14,7 +16,8 @@ import java.util.List;
 public class EditorSceneManager {
 
 	private final CommandManager commandManager;
-	private GObject selection;
+	// 选中物体以句柄保存：物体被销毁后自动视为未选中，不会持有悬空引用
+	private long selection = EntityHandle.NULL;
 
 	// 事件
 	public final Event<Object> onStructureChanged = new Event<>();
@@ -38,12 +41,13 @@ public class EditorSceneManager {
 	}
 
 	public GObject getSelection() {
-		return selection;
+		return EntityTable.current().resolve(selection);
 	}
 
 	public void select(GObject obj) {
-		if (this.selection != obj) {
-			this.selection = obj;
+		long handle = obj != null ? obj.getHandle() : EntityHandle.NULL;
+		if (this.selection != handle) {
+			this.selection = handle;
 			onSelectionChanged.invoke(obj);
 		}
 	}
@@ -55,9 +59,10 @@ public class EditorSceneManager {
 	// --- 操作 (将在后续对接 Command) ---
 
 	public void deleteSelection() {
-		if (selection != null) {
+		GObject selected = getSelection();
+		if (selected != null) {
 			// TODO: 接入 DeleteGObjectCommand
-			selection.destroyImmediate(); // 暂时直接删
+			selected.destroyImmediate(); // 暂时直接删
 			select(null);
 		}
 	}
@@ -1,6 +1,8 @@
 package com.goldsprite.gdengine.screens.ecs.editor.mvp.hierarchy;
 
 import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.entity.EntityHandle;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
 import com.goldsprite.gdengine.ecs.entity.GObject;
 import com.goldsprite.gdengine.screens.ecs.editor.core.EditorSceneManager;
 import com.goldsprite.gdengine.screens.ecs.editor.mvp.EditorEvents;
@@ -12,8 +14,8 @@ public class HierarchyPresenter {
 	// [新增] 节流阀状态，防止一帧内多次刷新导致闪烁和性能浪费
 	private boolean isDirty = false;
 	private float timer = 0f;
-	// [新增] 记录当前选中，用于刷新后恢复
-	private GObject currentSelection;
+	// [新增] 记录当前选中，用于刷新后恢复 (句柄：物体销毁后不会再去选中它)
+	private long currentSelection = EntityHandle.NULL;
 
 	public HierarchyPresenter(IHierarchyView view, EditorSceneManager sceneManager) {
 		this.view = view;
@@ -27,7 +29,7 @@ public class HierarchyPresenter {
 		// [新增] 监听选中事件，同步状态
 		EditorEvents.inst().subscribeSelection(obj -> {
 			// 这里需要判断类型, 因为现在检查器支持任何类型
-			if(obj instanceof GObject gObj) this.currentSelection = gObj;
+			if(obj instanceof GObject gObj) this.currentSelection = gObj.getHandle();
 		});
 
 		// 初始强制刷新一次
@@ -50,8 +52,9 @@ public class HierarchyPresenter {
 		// 获取最新的根节点列表并重建树
 		view.showNodes(GameWorld.inst().getRootEntities());
 		// [核心修复] 刷新后尝试恢复选中状态 (Item 2 & 4)
-		if (currentSelection != null) {
-			view.selectNode(currentSelection);
+		GObject selected = EntityTable.current().resolve(currentSelection);
+		if (selected != null) {
+			view.selectNode(selected);
 		}
 	}
 
@@ -67,7 +70,7 @@ public class HierarchyPresenter {
 		if (parent != null) obj.setParent(parent);
 
 		// [核心修复] 立即更新选中状态
-		this.currentSelection = obj;
+		this.currentSelection = obj.getHandle();
 
 		// 发送结构变化事件，这会将 isDirty 设为 true
 		EditorEvents.inst().emitStructureChanged();
@@ -14,7 +14,7 @@ import com.kotcrab.vis.ui.widget.VisLabel;
 import com.kotcrab.vis.ui.widget.VisTable;
 import com.kotcrab.vis.ui.widget.VisTextButton;
 
-import java.util.List;
+import java.util.ArrayList;
 
 public class GObjectInspectorDrawer implements IInspectorDrawer<GObject> {
 
@@ -48,10 +48,9 @@ public class GObjectInspectorDrawer implements IInspectorDrawer<GObject> {
 		container.add(metaContainer).growX().pad(pad).row();
 
 		// 2. Components
-		for (List<Component> comps : selection.getComponentsMap().values()) {
-			for (Component c : comps) {
-				buildComponentUI(c, container);
-			}
+		// 拷贝一份：UI 回调 (移除组件) 可能修改组件列表
+		for (Component c : new ArrayList<>(selection.getAllComponents())) {
+			buildComponentUI(c, container);
 		}
 
 		// 3. Add Component Button
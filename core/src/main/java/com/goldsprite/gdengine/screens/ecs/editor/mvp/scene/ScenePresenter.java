@@ -106,7 +106,7 @@ public class ScenePresenter {
 			float x = sel.transform.worldPosition.x;
 			float y = sel.transform.worldPosition.y;
 			// 绘制黄色选中框
-			neonBatch.drawRect(x-25, y-25, 50, 50, sel.transform.worldRotation, 2, Color.YELLOW, false);
+			neonBatch.drawRect(x-25, y-25, 50, 50, sel.transform.getWorldRotation(), 2, Color.YELLOW, false);
 			// 绘制 Gizmo
 			gizmoSystem.render(neonBatch, camera.zoom);
 		}
@@ -281,7 +281,7 @@ public class ScenePresenter {
 		// --- Logic Helpers (Copied from old EditorController) ---
 
 		private void applyTransform(GObject t, float dx, float dy, Vector2 currPos) {
-			float rot = t.transform.worldRotation;
+			float rot = t.transform.getWorldRotation();
 			float rad = rot * MathUtils.degreesToRadians;
 			float c = MathUtils.cos(rad); float s = MathUtils.sin(rad);
 			float cx = t.transform.worldPosition.x; float cy = t.transform.worldPosition.y;
@@ -320,7 +320,7 @@ public class ScenePresenter {
 			float axisLen = EditorGizmoSystem.AXIS_LEN * zoom;
 			float hitR = 20f * zoom;
 			float tx = t.transform.worldPosition.x; float ty = t.transform.worldPosition.y;
-			float rot = t.transform.worldRotation;
+			float rot = t.transform.getWorldRotation();
 			float rad = rot * MathUtils.degreesToRadians;
 			float c = MathUtils.cos(rad); float s = MathUtils.sin(rad);
 			EditorGizmoSystem.Mode mode = gizmoSystem.mode;
@@ -339,9 +339,11 @@ public class ScenePresenter {
 			return DragMode.NONE;
 		}
 
+		private final List<RenderComponent> pickCandidates = new ArrayList<>();
+
 		private GObject hitTestGObject(Vector2 p) {
-			// [Fix] 调用 RenderSystem 的无副作用查询接口
-			List<RenderComponent> candidates = renderSystem.queryRenderables();
+			// 走空间索引：只取包围盒覆盖点击位置的渲染组件 (已按渲染顺序排好)
+			List<RenderComponent> candidates = renderSystem.queryRenderablesAt(p.x, p.y, pickCandidates);
 
 			// 倒序遍历 (从最上层开始检测)
 			for (int i = candidates.size() - 1; i >= 0; i--) {
@@ -123,7 +123,7 @@ public class EcsVisualTestScreen extends ExampleGScreen {
 		slider.addListener(new ChangeListener() {
 			@Override
 			public void changed(ChangeEvent event, Actor actor) {
-				GameWorld.timeScale = slider.getValue();
+				world.setTimeScale(slider.getValue());
 			}
 		});
 		root.add(slider).width(300).padBottom(20).row();
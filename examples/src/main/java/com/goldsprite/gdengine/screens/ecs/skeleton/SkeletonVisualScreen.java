@@ -114,7 +114,7 @@ public class SkeletonVisualScreen extends ExampleGScreen {
 		dummy.transform.setPosition(800, 0);
 		dummy.transform.rotation = 0;
 		playerAnimator.play("Idle");
-		GameWorld.timeScale = 1.0f;
+		world.setTimeScale(1.0f);
 	}
 
 	@Override
@@ -164,7 +164,7 @@ public class SkeletonVisualScreen extends ExampleGScreen {
 					changeState(State.LAUNCH);
 					playerAnimator.crossFade("Atk_Launcher", 0.1f); // 极快切入
 					// 慢动作特写
-					GameWorld.timeScale = 0.5f;
+					world.setTimeScale(0.5f);
 				}
 				break;
 
@@ -180,7 +180,7 @@ public class SkeletonVisualScreen extends ExampleGScreen {
 					changeState(State.AIR_FIGHT);
 					playerAnimator.crossFade("Atk_Air", 0.1f);
 					// 恢复速度
-					GameWorld.timeScale = 1.0f;
+					world.setTimeScale(1.0f);
 				}
 				break;
 
@@ -200,7 +200,7 @@ public class SkeletonVisualScreen extends ExampleGScreen {
 				if (stateTimer > 1.5f) {
 					changeState(State.SMASH);
 					playerAnimator.crossFade("Atk_Smash", 0.1f);
-					GameWorld.timeScale = 0.2f; // 再次慢动作
+					world.setTimeScale(0.2f); // 再次慢动作
 				}
 				break;
 
@@ -218,7 +218,7 @@ public class SkeletonVisualScreen extends ExampleGScreen {
 					dummy.transform.rotation = 90; // 躺平
 					changeState(State.LAND);
 					playerAnimator.crossFade("Idle", 0.1f); // 落地瞬间切回Idle或Land姿势
-					GameWorld.timeScale = 1.0f;
+					world.setTimeScale(1.0f);
 
 					// 落地大震动
 					getWorldCamera().position.add((MathUtils.random()-0.5f)*20, (MathUtils.random()-0.5f)*20, 0);
@@ -36,16 +36,16 @@ public class ShapeRendererComponent extends Component {
 
 	/**
 	 * 核心验证点：
-	 * 读取 transform.worldPosition 和 transform.worldRotation 来绘图。
+	 * 读取 transform.worldPosition 和 transform.getWorldRotation() 来绘图。
 	 */
 	public void draw(NeonBatch batch) {
 		float x = transform.worldPosition.x;
 		float y = transform.worldPosition.y;
-		float rot = transform.worldRotation;
+		float rot = transform.getWorldRotation();
 
 		// 简单取 X 轴缩放作为整体大小 (暂不支持非等比缩放的可视化)
-		float sx = transform.worldScale.x;
-		float sy = transform.worldScale.y;
+		float sx = transform.getWorldScaleX();
+		float sy = transform.getWorldScaleY();
 
 		// 如果我们没存 worldScale，且有父级，这里其实拿不到父级的缩放叠加。
 		// 但对于验证"位移跟随"和"旋转跟随"已经足够了。
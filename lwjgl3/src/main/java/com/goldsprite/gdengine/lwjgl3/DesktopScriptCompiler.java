@@ -2,6 +2,7 @@ package com.goldsprite.gdengine.lwjgl3;
 
 import com.goldsprite.gdengine.core.scripting.IScriptCompiler;
 import com.goldsprite.gdengine.log.Debug;
+import com.goldsprite.gdengine.log.TraceRecorder;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import java.io.File;
@@ -38,6 +39,15 @@ public class DesktopScriptCompiler implements IScriptCompiler {
 
 	@Override
 	public Class<?> compile(String mainClassName, String projectPath) {
+		long traceStart = TraceRecorder.now();
+		try {
+			return compileProject(mainClassName, projectPath);
+		} finally {
+			TraceRecorder.end("Script", "Compile", traceStart, mainClassName);
+		}
+	}
+
+	private Class<?> compileProject(String mainClassName, String projectPath) {
 		try {
 			File projectDir = new File(projectPath);
 			Debug.logT("Compiler", "=== PC 编译开始: %s ===", projectDir.getName());
@@ -0,0 +1,98 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.component.TransformComponent;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.storage.ArchetypeChunk;
+import com.goldsprite.gdengine.ecs.storage.ArchetypeQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RunWith(GdxTestRunner.class)
+public class ArchetypeStorageTest {
+
+	public static class VelocityComp extends Component {
+		public float vx;
+	}
+
+	public static class HealthComp extends Component {
+		public int hp = 100;
+	}
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		new GameWorld();
+		ComponentManager.setStorageMode(ComponentManager.StorageMode.ARCHETYPE);
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testChunkIterationMatchesEntities() {
+		System.out.println(">>> 验证: 原型存储按块迭代");
+
+		int movers = ArchetypeChunk.CAPACITY + 10; // 跨越两个 Chunk
+		for (int i = 0; i < movers; i++) {
+			GObject obj = new GObject("Mover" + i);
+			obj.addComponent(VelocityComp.class).vx = i;
+		}
+		GObject tank = new GObject("Tank");
+		tank.addComponent(VelocityComp.class);
+		tank.addComponent(HealthComp.class);
+
+		ArchetypeQuery query = ComponentManager.getChunksWithComponents(VelocityComp.class);
+		int visited = 0;
+		Set<GObject> seen = new HashSet<>();
+		for (ArchetypeChunk chunk : query) {
+			Component[] velocities = chunk.getColumn(VelocityComp.class);
+			for (int i = 0; i < chunk.size(); i++) {
+				GObject entity = chunk.getEntity(i);
+				CLogAssert.assertTrue("列数据与 GObject.getComponent 一致", velocities[i] == entity.getComponent(VelocityComp.class));
+				seen.add(entity);
+				visited++;
+			}
+		}
+		CLogAssert.assertEquals("按块遍历覆盖所有实体", movers + 1, visited);
+		CLogAssert.assertEquals("实体不重复", visited, seen.size());
+		CLogAssert.assertEquals("查询计数一致", movers + 1, query.getEntityCount());
+		CLogAssert.assertEquals("与列表查询结果一致", ComponentManager.getEntitiesWithComponents(VelocityComp.class).size(), visited);
+	}
+
+	@Test
+	public void testArchetypeMigration() {
+		System.out.println(">>> 验证: 组件增删时实体在原型间迁移");
+
+		GObject a = new GObject("A");
+		GObject b = new GObject("B");
+		a.addComponent(VelocityComp.class);
+		b.addComponent(VelocityComp.class);
+
+		ArchetypeQuery withHealth = ComponentManager.getChunksWithComponents(HealthComp.class);
+		CLogAssert.assertEquals("初始没有 Health 实体", 0, withHealth.getEntityCount());
+
+		HealthComp hp = a.addComponent(HealthComp.class);
+		CLogAssert.assertEquals("新原型自动登记到已有查询", 1, withHealth.getEntityCount());
+		CLogAssert.assertTrue("A 与 B 处于不同原型", ComponentManager.getArchetype(a) != ComponentManager.getArchetype(b));
+
+		hp.destroyImmediate();
+		CLogAssert.assertEquals("移除组件后离开该原型", 0, withHealth.getEntityCount());
+
+		a.destroyImmediate();
+		int remaining = ComponentManager.getChunksWithComponents(TransformComponent.class).getEntityCount();
+		CLogAssert.assertEquals("销毁实体后从原型中移除 (Swap-Remove)", 1, remaining);
+		CLogAssert.assertTrue("被搬运的实体仍可按块访问", ComponentManager.getArchetype(b) != null);
+	}
+}
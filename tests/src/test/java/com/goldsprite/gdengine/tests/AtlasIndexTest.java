@@ -0,0 +1,116 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.core.scripting.AtlasIndex;
+import com.goldsprite.gdengine.core.scripting.RuntimeAtlas;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(GdxTestRunner.class)
+public class AtlasIndexTest {
+
+	private FileHandle root;
+
+	@Before
+	public void setUp() {
+		root = FileHandle.tempDirectory("atlas-test");
+	}
+
+	@After
+	public void tearDown() {
+		root.deleteDirectory();
+	}
+
+	/** 只有文件头的 PNG (签名 + IHDR 宽高)，足够 readPngSize 使用 */
+	private static byte[] pngHeader(int width, int height) {
+		byte[] b = new byte[33];
+		byte[] sig = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+		System.arraycopy(sig, 0, b, 0, sig.length);
+		for (int i = 0; i < 4; i++) {
+			b[16 + i] = (byte) (width >>> (24 - i * 8));
+			b[20 + i] = (byte) (height >>> (24 - i * 8));
+		}
+		return b;
+	}
+
+	@Test
+	public void testReadPngSize() {
+		System.out.println(">>> 验证: 只读文件头取 PNG 尺寸");
+
+		FileHandle png = root.child("sprites/hero.png");
+		png.writeBytes(pngHeader(64, 300), false);
+		int[] size = new int[2];
+		CLogAssert.assertTrue("合法 PNG", AtlasIndex.readPngSize(png, size));
+		CLogAssert.assertEquals("宽", 64, size[0]);
+		CLogAssert.assertEquals("高", 300, size[1]);
+
+		FileHandle fake = root.child("fake.png");
+		fake.writeString("not a png at all, just text", false);
+		CLogAssert.assertFalse("非 PNG", AtlasIndex.readPngSize(fake, size));
+		CLogAssert.assertEquals("相对路径", "sprites/hero.png", AtlasIndex.relativePath(root, png));
+		CLogAssert.assertEquals("所在目录", "sprites/ui", AtlasIndex.folderOf("sprites/ui/btn.png"));
+		CLogAssert.assertEquals("根目录", "", AtlasIndex.folderOf("hero.png"));
+	}
+
+	@Test
+	public void testSignatureAndRoundTrip() {
+		System.out.println(">>> 验证: 源图变化使签名失效，索引读写一致");
+
+		FileHandle a = root.child("a.png"), b = root.child("b.png");
+		a.writeBytes(pngHeader(16, 16), false);
+		b.writeBytes(pngHeader(32, 32), false);
+		List<FileHandle> sprites = new ArrayList<>();
+		sprites.add(a);
+		sprites.add(b);
+
+		String sig = AtlasIndex.computeSignature(root, sprites, 2048, 512, 2);
+		CLogAssert.assertEquals("签名稳定", sig, AtlasIndex.computeSignature(root, sprites, 2048, 512, 2));
+		CLogAssert.assertFalse("打包参数变化", sig.equals(AtlasIndex.computeSignature(root, sprites, 1024, 512, 2)));
+		b.writeBytes(pngHeader(48, 48), true); // 文件变大
+		CLogAssert.assertFalse("源图变化", sig.equals(AtlasIndex.computeSignature(root, sprites, 2048, 512, 2)));
+		sprites.remove(a);
+		CLogAssert.assertFalse("源图减少", sig.equals(AtlasIndex.computeSignature(root, sprites, 2048, 512, 2)));
+
+		AtlasIndex index = new AtlasIndex();
+		index.signature = sig;
+		index.pageSize = 2048;
+		index.pages.add("page0.png");
+		index.entries.add(new AtlasIndex.Entry("a.png", 0, 6, 0, 16, 16));
+		FileHandle file = root.child("build/atlas/atlas.json");
+		index.save(file);
+
+		AtlasIndex loaded = AtlasIndex.load(file);
+		CLogAssert.assertTrue("读回成功", loaded != null);
+		CLogAssert.assertEquals("签名", sig, loaded.signature);
+		CLogAssert.assertEquals("页", "page0.png", loaded.pages.get(0));
+		AtlasIndex.Entry e = loaded.entries.get(0);
+		CLogAssert.assertTrue("条目", "a.png".equals(e.path) && e.page == 0 && e.x == 6 && e.width == 16);
+
+		file.writeString("{ broken", false);
+		CLogAssert.assertTrue("损坏的索引视为无缓存", AtlasIndex.load(file) == null);
+		CLogAssert.assertTrue("不存在的索引", AtlasIndex.load(root.child("missing.json")) == null);
+	}
+
+	@Test
+	public void testConfigureBeforeBuildOnly() {
+		System.out.println(">>> 验证: 打包参数只能在构建前修改");
+
+		RuntimeAtlas.dispose();
+		int page = RuntimeAtlas.getPageSize(), max = RuntimeAtlas.getMaxSpriteSize(), pad = RuntimeAtlas.getPadding();
+		try {
+			RuntimeAtlas.configure(1024, 256, 1);
+			CLogAssert.assertEquals("页尺寸", 1024, RuntimeAtlas.getPageSize());
+			CLogAssert.assertEquals("单图上限", 256, RuntimeAtlas.getMaxSpriteSize());
+			CLogAssert.assertEquals("还没有任何目录被打包", 0, RuntimeAtlas.getGroupCount());
+		} finally {
+			RuntimeAtlas.configure(page, max, pad);
+		}
+	}
+}
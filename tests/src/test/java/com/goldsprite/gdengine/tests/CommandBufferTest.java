@@ -0,0 +1,103 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.EntityCommandBuffer;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.storage.EntitySet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(GdxTestRunner.class)
+public class CommandBufferTest {
+
+	public static class ProjectileComp extends Component {}
+
+	private GameWorld world;
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		world.update(0.016f); // 跳过首帧
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testDeferredSpawnAndDestroy() {
+		System.out.println(">>> 验证: 命令缓冲延迟生成与销毁");
+
+		EntityCommandBuffer cmd = world.getCommandBuffer();
+		EntitySet projectiles = ComponentManager.getEntitiesWithComponents(ProjectileComp.class);
+
+		for (int i = 0; i < 500; i++) {
+			cmd.spawn("Bullet" + i, b -> b.addComponent(ProjectileComp.class));
+		}
+		CLogAssert.assertEquals("回放前没有任何结构变更", 0, projectiles.size());
+		CLogAssert.assertEquals("命令已记录", 500, cmd.size());
+
+		world.update(0.016f);
+		CLogAssert.assertEquals("回放后全部生成", 500, projectiles.size());
+		CLogAssert.assertTrue("命令缓冲已清空", cmd.isEmpty());
+		CLogAssert.assertEquals("顶层实体已登记", 500, world.getRootEntities().size());
+
+		for (GObject obj : projectiles) cmd.destroy(obj);
+		CLogAssert.assertEquals("销毁命令尚未生效", 500, projectiles.size());
+
+		world.update(0.016f);
+		CLogAssert.assertTrue("全部销毁", projectiles.isEmpty());
+		CLogAssert.assertTrue("顶层列表已清理", world.getRootEntities().isEmpty());
+	}
+
+	@Test
+	public void testBatchedMaskUpdate() {
+		System.out.println(">>> 验证: 批处理期间缓存延迟到 endBatch 结算");
+
+		EntitySet set = ComponentManager.getEntitiesWithComponents(ProjectileComp.class);
+		GObject obj = new GObject("Obj");
+
+		ComponentManager.beginBatch();
+		ProjectileComp comp = obj.addComponent(ProjectileComp.class);
+		CLogAssert.assertFalse("批处理中缓存未更新", set.contains(obj));
+		comp.destroyImmediate();
+		obj.addComponent(ProjectileComp.class);
+		ComponentManager.endBatch();
+
+		CLogAssert.assertTrue("结束批处理后按最终状态结算", set.contains(obj));
+
+		GObject parent = new GObject("Parent");
+		world.getCommandBuffer().setParent(obj, parent);
+		world.update(0.016f);
+		CLogAssert.assertTrue("延迟设置父级", obj.getParent() == parent);
+	}
+
+	@Test
+	public void testRecordDuringPlaybackNotLost() throws Exception {
+		System.out.println(">>> 验证: 回放期间其他线程记录的命令不会在结束时被清掉");
+
+		EntityCommandBuffer cmd = world.getCommandBuffer();
+		final int total = 5000;
+		AtomicInteger executed = new AtomicInteger();
+		Thread recorder = new Thread(() -> {
+			for (int i = 0; i < total; i++) cmd.spawn("R", obj -> executed.incrementAndGet());
+		});
+		recorder.start();
+		while (recorder.isAlive()) cmd.playback();
+		recorder.join();
+		cmd.playback();
+
+		CLogAssert.assertEquals("每条命令都执行了一次", total, executed.get());
+		CLogAssert.assertTrue("命令缓冲已清空", cmd.isEmpty());
+	}
+}
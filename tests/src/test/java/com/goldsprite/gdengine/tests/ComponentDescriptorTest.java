@@ -0,0 +1,156 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.core.annotations.ExecuteInEditMode;
+import com.goldsprite.gdengine.ecs.ComponentDescriptor;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(GdxTestRunner.class)
+public class ComponentDescriptorTest {
+
+	public static class BaseComp extends Component {
+		public int updates;
+		@Override public void update(float delta) { updates++; }
+	}
+
+	@ExecuteInEditMode
+	public static class EditorComp extends BaseComp {}
+
+	public static class FixedComp extends Component {
+		public int fixedUpdates;
+		@Override public void fixedUpdate(float fixedDelta) { fixedUpdates++; }
+	}
+
+	/** 记录 Update 调用顺序 */
+	public static class Recorder extends Component {
+		public static final List<String> log = new ArrayList<>();
+		@Override public void update(float delta) { log.add(getGObject().getName()); }
+	}
+
+	private GameWorld world;
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testDescriptorContents() {
+		System.out.println(">>> 验证: 描述符缓存类型 ID / 父类链 / 编辑模式标记");
+
+		ComponentDescriptor d = ComponentManager.getDescriptor(EditorComp.class);
+		CLogAssert.assertTrue("同一个类只构建一次", d == ComponentManager.getDescriptor(EditorComp.class));
+		CLogAssert.assertEquals("类型 ID 一致", ComponentManager.getComponentId(EditorComp.class), d.typeId);
+		CLogAssert.assertEquals("父类链: EditorComp -> BaseComp -> Component", 3, d.supertypeIds.length);
+		CLogAssert.assertEquals("父类链包含 BaseComp", ComponentManager.getComponentId(BaseComp.class), d.supertypeIds[1]);
+		CLogAssert.assertTrue("带注解 -> 编辑模式运行", d.runsInEditMode);
+		CLogAssert.assertFalse("父类无注解", ComponentManager.getDescriptor(BaseComp.class).runsInEditMode);
+	}
+
+	@Test
+	public void testEditModeFilter() {
+		System.out.println(">>> 验证: 编辑模式只更新带 @ExecuteInEditMode 的组件");
+
+		world.setMode(GameWorld.Mode.EDIT);
+		GObject obj = new GObject("Obj");
+		BaseComp plain = obj.addComponent(BaseComp.class);
+		EditorComp editor = obj.addComponent(EditorComp.class);
+
+		world.update(0.016f); // 首帧
+		world.update(0.016f);
+		CLogAssert.assertEquals("普通组件不跑", 0, plain.updates);
+		CLogAssert.assertEquals("编辑器组件照跑", 1, editor.updates);
+		CLogAssert.assertTrue("多态查询仍然命中父类",
+			ComponentManager.getEntitiesWithComponents(BaseComp.class).size() == 1);
+	}
+
+	@Test
+	public void testInvalidate() {
+		System.out.println(">>> 验证: 脚本类失效后重新获取");
+
+		GObject obj = new GObject("Obj");
+		BaseComp comp = obj.addComponent(BaseComp.class);
+		ComponentDescriptor before = comp.getDescriptor();
+		int epoch = ComponentManager.getDescriptorEpoch();
+
+		ComponentManager.invalidateScriptDescriptors();
+		CLogAssert.assertTrue("纪元递增", ComponentManager.getDescriptorEpoch() != epoch);
+		CLogAssert.assertTrue("同一 ClassLoader 的类仍可取到描述符", comp.getDescriptor().type == before.type);
+	}
+
+	@Test
+	public void testDispatchLists() {
+		System.out.println(">>> 验证: 分发列表只收录重写了钩子的组件");
+
+		world.setMode(GameWorld.Mode.PLAY);
+		GObject parent = new GObject("Parent");
+		GObject child = new GObject("Child");
+		child.setParent(parent);
+		BaseComp comp = child.addComponent(BaseComp.class);
+		FixedComp fixed = parent.addComponent(FixedComp.class);
+
+		CLogAssert.assertEquals("Transform 没重写 update，只有 BaseComp 进列表", 1, world.sceneSystem.getUpdateDispatchCount());
+		CLogAssert.assertEquals("FixedComp 进 fixed 列表", 1, world.sceneSystem.getFixedUpdateDispatchCount());
+
+		world.update(0.016f); // 首帧
+		world.update(0.1f);
+		CLogAssert.assertEquals("子物体组件照常更新", 1, comp.updates);
+		CLogAssert.assertTrue("FixedUpdate 被调用", fixed.fixedUpdates > 0);
+
+		comp.setEnable(false);
+		CLogAssert.assertEquals("禁用后移出列表", 0, world.sceneSystem.getUpdateDispatchCount());
+		comp.setEnable(true);
+
+		parent.setActive(false);
+		world.update(0.016f);
+		CLogAssert.assertEquals("祖先失活 -> 跳过", 1, comp.updates);
+
+		parent.setActive(true);
+		comp.destroy();
+		world.update(0.016f);
+		CLogAssert.assertEquals("销毁后移出列表", 0, world.sceneSystem.getUpdateDispatchCount());
+	}
+
+	@Test
+	public void testHierarchyOrder() {
+		System.out.println(">>> 验证: Update 顺序为层级先序 (父级先于子级)，与加组件的顺序无关");
+
+		world.setMode(GameWorld.Mode.PLAY);
+		GObject a = new GObject("A");
+		GObject b = new GObject("B");
+		GObject a1 = new GObject("A1");
+		a1.setParent(a);
+		// 故意倒序加组件
+		a1.addComponent(Recorder.class);
+		b.addComponent(Recorder.class);
+		a.addComponent(Recorder.class);
+
+		world.update(0.016f); // 首帧
+		Recorder.log.clear();
+		world.update(0.016f);
+		CLogAssert.assertEquals("先序: A, A1, B", "[A, A1, B]", Recorder.log.toString());
+
+		// 换父级后顺序跟着层级走
+		a1.setParent(b);
+		Recorder.log.clear();
+		world.update(0.016f);
+		CLogAssert.assertEquals("先序: A, B, A1", "[A, B, A1]", Recorder.log.toString());
+	}
+}
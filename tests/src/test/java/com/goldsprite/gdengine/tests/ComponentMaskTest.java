@@ -0,0 +1,42 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.ecs.storage.ComponentMask;
+import org.junit.Test;
+
+public class ComponentMaskTest {
+
+	@Test
+	public void testSubsetMatching() {
+		System.out.println(">>> 验证: ComponentMask 子集判断");
+
+		ComponentMask entity = new ComponentMask().set(0).set(2).set(5);
+		CLogAssert.assertTrue("{0,2,5} 包含 {0,5}", entity.containsAll(new ComponentMask().set(0).set(5)));
+		CLogAssert.assertFalse("{0,2,5} 不包含 {0,1}", entity.containsAll(new ComponentMask().set(0).set(1)));
+		CLogAssert.assertTrue("任何掩码都包含空掩码", entity.containsAll(new ComponentMask()));
+
+		// 超出默认宽度 (128) 时自动扩容
+		ComponentMask wide = new ComponentMask().set(3).set(200);
+		CLogAssert.assertFalse("短掩码不包含高位", entity.containsAll(wide));
+		CLogAssert.assertTrue("高位自身匹配", wide.containsAll(new ComponentMask().set(200)));
+		CLogAssert.assertEquals("length 与 BitSet 语义一致", 201, wide.length());
+	}
+
+	@Test
+	public void testKeySemantics() {
+		System.out.println(">>> 验证: ComponentMask 作为 Map Key");
+
+		ComponentMask a = new ComponentMask().set(1).set(7);
+		ComponentMask b = new ComponentMask().set(300).clear(300).set(7).set(1); // 扩容后清掉高位
+		CLogAssert.assertEquals("不同容量的相同掩码相等", a, b);
+		CLogAssert.assertEquals("hashCode 一致", a.hashCode(), b.hashCode());
+
+		ComponentMask copy = a.copy();
+		a.set(9);
+		CLogAssert.assertFalse("副本与原对象互不影响", copy.equals(a));
+
+		int visited = 0;
+		for (int i = a.nextSetBit(0); i >= 0; i = a.nextSetBit(i + 1)) visited++;
+		CLogAssert.assertEquals("nextSetBit 遍历全部置位", a.cardinality(), visited);
+	}
+}
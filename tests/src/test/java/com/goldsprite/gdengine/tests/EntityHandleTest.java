@@ -0,0 +1,69 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.TransformComponent;
+import com.goldsprite.gdengine.ecs.entity.EntityHandle;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class EntityHandleTest {
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		new GameWorld();
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testResolveAndStaleHandle() {
+		System.out.println(">>> 验证: 句柄解析与过期检测");
+
+		GObject a = new GObject("A");
+		long handle = a.getHandle();
+		CLogAssert.assertTrue("句柄非空", !EntityHandle.isNull(handle));
+		CLogAssert.assertTrue("句柄解析回原实体", EntityTable.current().resolve(handle) == a);
+		CLogAssert.assertTrue("空句柄解析为 null", EntityTable.current().resolve(EntityHandle.NULL) == null);
+
+		int index = a.getEntityIndex();
+		a.destroyImmediate();
+		CLogAssert.assertTrue("销毁后旧句柄失效", EntityTable.current().resolve(handle) == null);
+
+		// 下标被复用，但代数不同
+		GObject b = new GObject("B");
+		CLogAssert.assertEquals("下标复用", index, b.getEntityIndex());
+		CLogAssert.assertTrue("代数递增", EntityHandle.generationOf(b.getHandle()) > EntityHandle.generationOf(handle));
+		CLogAssert.assertTrue("旧句柄不会指向新实体", EntityTable.current().resolve(handle) == null);
+		CLogAssert.assertTrue("新句柄有效", EntityTable.current().resolve(b.getHandle()) == b);
+	}
+
+	@Test
+	public void testReusedIndexKeepsQueriesClean() {
+		System.out.println(">>> 验证: 下标复用后查询缓存不串号");
+
+		GObject a = new GObject("A");
+		CLogAssert.assertTrue("A 在 Transform 查询中",
+			ComponentManager.getEntitiesWithComponents(TransformComponent.class).contains(a));
+
+		a.destroyImmediate();
+		GObject b = new GObject("B");
+		CLogAssert.assertFalse("已销毁的 A 不在查询中",
+			ComponentManager.getEntitiesWithComponents(TransformComponent.class).contains(a));
+		CLogAssert.assertTrue("复用下标的 B 在查询中",
+			ComponentManager.getEntitiesWithComponents(TransformComponent.class).contains(b));
+		CLogAssert.assertEquals("查询结果只有 B", 1,
+			ComponentManager.getEntitiesWithComponents(TransformComponent.class).size());
+	}
+}
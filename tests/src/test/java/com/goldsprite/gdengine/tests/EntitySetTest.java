@@ -0,0 +1,98 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.TransformComponent;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.storage.EntitySet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+@RunWith(GdxTestRunner.class)
+public class EntitySetTest {
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		new GameWorld();
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testSwapRemoveAndMembership() {
+		System.out.println(">>> 验证: EntitySet 稠密+稀疏索引");
+
+		EntitySet set = new EntitySet(4);
+		GObject a = new GObject("A"), b = new GObject("B"), c = new GObject("C");
+		set.add(a); set.add(b); set.add(c);
+		CLogAssert.assertFalse("重复添加被忽略", set.add(b));
+		CLogAssert.assertEquals("大小为 3", 3, set.size());
+
+		int gen = set.getGeneration();
+		CLogAssert.assertTrue("移除 A", set.remove(a));
+		CLogAssert.assertFalse("A 已不在集合中", set.contains(a));
+		CLogAssert.assertTrue("C 被搬运到空洞后仍可命中", set.contains(c));
+		CLogAssert.assertTrue("C 搬到了下标 0", set.get(0) == c);
+		CLogAssert.assertTrue("版本号随修改递增", set.getGeneration() > gen);
+	}
+
+	@Test
+	public void testStableIteration() {
+		System.out.println(">>> 验证: 遍历期间修改不影响本次遍历");
+
+		GObject a = new GObject("A");
+		GObject b = new GObject("B");
+		EntitySet set = ComponentManager.getEntitiesWithComponents(TransformComponent.class);
+		CLogAssert.assertEquals("查询结果包含两个实体", 2, set.size());
+
+		int visited = 0;
+		for (GObject obj : set) {
+			visited++;
+			if (obj == a) b.destroyImmediate();
+			if (obj == b) a.destroyImmediate();
+		}
+		CLogAssert.assertEquals("快照遍历访问了全部实体", 2, visited);
+		CLogAssert.assertTrue("遍历结束后集合已清空", set.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentIteration() throws Exception {
+		System.out.println(">>> 验证: 修改后多个线程同时 for-each，都看到完整的快照");
+
+		EntitySet set = new EntitySet(4);
+		for (int i = 0; i < 200; i++) set.add(new GObject("E" + i));
+		for (GObject ignored : set) {} // 先建一份旧快照
+
+		int mismatches = 0;
+		for (int round = 0; round < 20; round++) {
+			set.remove(set.get(0));
+			int expected = set.size();
+			List<Callable<Integer>> readers = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				readers.add(() -> {
+					int n = 0;
+					for (GObject obj : set) if (obj != null) n++;
+					return n;
+				});
+			}
+			for (Future<Integer> f : ForkJoinPool.commonPool().invokeAll(readers)) {
+				if (f.get() != expected) mismatches++;
+			}
+		}
+		CLogAssert.assertEquals("每个线程都遍历到全部实体", 0, mismatches);
+	}
+}
@@ -0,0 +1,131 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.FixedTimestep;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class FixedTimestepTest {
+
+	/** 每个物理步向右移动 10 */
+	public static class Mover extends Component {
+		public int steps;
+		@Override public void fixedUpdate(float fixedDelta) {
+			steps++;
+			transform.position.x += 10f;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testStepsAndAlpha() {
+		System.out.println(">>> 验证: 步数计算与插值系数");
+
+		FixedTimestep clock = new FixedTimestep();
+		clock.setRate(50); // 0.02s
+
+		CLogAssert.assertEquals("不足一步", 0, clock.advance(0.01f));
+		CLogAssert.assertTrue("alpha = 0.5", Math.abs(clock.getAlpha() - 0.5f) < 1e-4f);
+		CLogAssert.assertEquals("累计满一步", 1, clock.advance(0.015f));
+		CLogAssert.assertTrue("alpha = 0.25", Math.abs(clock.getAlpha() - 0.25f) < 1e-3f);
+
+		clock.setMaxStepsPerFrame(3);
+		CLogAssert.assertEquals("步数封顶", 3, clock.advance(0.15f));
+		CLogAssert.assertTrue("超出部分记为丢弃", clock.getDroppedTime() > 0.05f);
+		CLogAssert.assertEquals("统计最大步数", 3, clock.getMaxStepsSeen());
+	}
+
+	@Test
+	public void testRejectsInvalidRate() {
+		System.out.println(">>> 验证: 非法频率 / 步长被拒绝，原设置不变");
+
+		FixedTimestep clock = new FixedTimestep();
+		clock.setRate(50);
+		float[] badRates = {0f, -30f, Float.NaN, Float.POSITIVE_INFINITY};
+		for (float hz : badRates) {
+			boolean thrown = false;
+			try {
+				clock.setRate(hz);
+			} catch (IllegalArgumentException e) {
+				thrown = e.getMessage().contains("频率");
+			}
+			CLogAssert.assertTrue("拒绝频率 " + hz, thrown);
+		}
+		boolean thrown = false;
+		try {
+			clock.setStep(Float.POSITIVE_INFINITY);
+		} catch (IllegalArgumentException e) {
+			thrown = true;
+		}
+		CLogAssert.assertTrue("拒绝无穷大步长", thrown);
+		CLogAssert.assertTrue("步长保持 0.02s", Math.abs(clock.getStep() - 0.02f) < 1e-6f);
+	}
+
+	@Test
+	public void testAdaptiveRate() {
+		System.out.println(">>> 验证: 持续过载时自适应降频，空闲后恢复");
+
+		FixedTimestep clock = new FixedTimestep();
+		clock.setRate(60);
+		clock.setMaxStepsPerFrame(2);
+		clock.setAdaptive(true);
+		clock.setAdaptiveThresholds(5, 10);
+		clock.setMinRate(15);
+
+		for (int i = 0; i < 5; i++) clock.advance(0.1f); // 每帧需要 6 步，只给 2 步
+		CLogAssert.assertTrue("降到 30Hz", Math.abs(clock.getRate() - 30f) < 0.01f);
+		for (int i = 0; i < 20; i++) clock.advance(0.1f);
+		CLogAssert.assertTrue("不低于下限", clock.getRate() >= 15f - 0.01f);
+
+		for (int i = 0; i < 200; i++) clock.advance(1f / 60f);
+		CLogAssert.assertTrue("空闲后恢复设定频率", Math.abs(clock.getRate() - 60f) < 0.01f);
+		CLogAssert.assertTrue("记录频率调整次数", clock.getRateChanges() >= 2);
+	}
+
+	@Test
+	public void testWorldInterpolation() {
+		System.out.println(">>> 验证: 世界固定步长可配置 & 渲染插值");
+
+		GameWorld world = new GameWorld();
+		world.setMode(GameWorld.Mode.PLAY);
+		world.fixedTimestep.setRate(20); // 0.05s
+		world.setInterpolation(true);
+
+		GObject obj = new GObject("Ball");
+		Mover mover = obj.addComponent(Mover.class);
+		GObject wall = new GObject("Wall");
+		wall.transform.setRotation(30f);
+		world.update(0.016f); // 首帧苏醒
+
+		world.update(0.05f);
+		CLogAssert.assertEquals("按 20Hz 跑了一步", 1, mover.steps);
+		world.update(0.075f); // 一步 + 半步剩余
+		CLogAssert.assertEquals("第二步", 2, mover.steps);
+		CLogAssert.assertTrue("alpha = 0.5", Math.abs(world.getFixedAlpha() - 0.5f) < 1e-3f);
+
+		float x = obj.transform.getInterpolatedX(world.getFixedAlpha());
+		CLogAssert.assertTrue("在上一步 (10) 与当前 (20) 之间: " + x, Math.abs(x - 15f) < 1e-3f);
+		CLogAssert.assertEquals("统计本帧步数", 1, world.fixedTimestep.getLastSteps());
+		CLogAssert.assertFalse("快照不强制分解旋转", wall.transform.isWorldDecomposed());
+		CLogAssert.assertTrue("静止物体插值即当前值", wall.transform.getInterpolatedRotation(0.5f) == wall.transform.getWorldRotation());
+
+		obj.transform.resetInterpolation();
+		CLogAssert.assertTrue("瞬移后直接取当前", obj.transform.getInterpolatedX(0.5f) == 20f);
+	}
+}
@@ -0,0 +1,111 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.FrameProfiler;
+import com.goldsprite.gdengine.ecs.GameSystemInfo;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemType;
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class FrameProfilerTest {
+
+	/** 每帧忙等一段时间 (spikeFrame 那一帧额外变慢) */
+	@GameSystemInfo(type = SystemType.UPDATE)
+	static class SlowSystem extends BaseSystem {
+		long busyNanos = 200_000;
+		int frame, spikeFrame = -1;
+		@Override public void update(float delta) {
+			long wait = (frame++ == spikeFrame) ? 8_000_000 : busyNanos;
+			long end = System.nanoTime() + wait;
+			while (System.nanoTime() < end) { /* spin */ }
+		}
+	}
+
+	@GameSystemInfo(type = SystemType.UPDATE)
+	static class FastSystem extends BaseSystem {
+		@Override public void update(float delta) {}
+	}
+
+	private GameWorld world;
+
+	@Before
+	public void setUp() {
+		try { while (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		world.setMode(GameWorld.Mode.PLAY);
+	}
+
+	@After
+	public void tearDown() {
+		while (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testRingStats() {
+		System.out.println(">>> 验证: 环形缓冲统计 min/avg/p99/max");
+
+		FrameProfiler p = new FrameProfiler(10);
+		p.setEnabled(true);
+		// 手动喂 15 帧：只保留最近 10 帧 (第 6~15 帧，值 6ms..15ms)
+		for (int i = 1; i <= 15; i++) {
+			p.beginFrame();
+			p.add(FrameProfiler.UPDATE, i * 1_000_000L);
+		}
+		p.beginFrame(); // 结算第 15 帧
+
+		CLogAssert.assertEquals("样本数封顶", 10, p.getSampleCount());
+		CLogAssert.assertTrue("last", Math.abs(p.getLastMs(FrameProfiler.UPDATE) - 15f) < 1e-3f);
+		CLogAssert.assertTrue("min", Math.abs(p.getMinMs(FrameProfiler.UPDATE) - 6f) < 1e-3f);
+		CLogAssert.assertTrue("max", Math.abs(p.getMaxMs(FrameProfiler.UPDATE) - 15f) < 1e-3f);
+		CLogAssert.assertTrue("avg", Math.abs(p.getAvgMs(FrameProfiler.UPDATE) - 10.5f) < 1e-3f);
+		CLogAssert.assertTrue("p99", Math.abs(p.getP99Ms(FrameProfiler.UPDATE) - 15f) < 1e-3f);
+	}
+
+	@Test
+	public void testSystemSectionsAndSpike() {
+		System.out.println(">>> 验证: 逐系统计时 + 超预算帧定位最慢系统");
+
+		SlowSystem slow = new SlowSystem();
+		FastSystem fast = new FastSystem();
+		world.profiler.setEnabled(true);
+		world.profiler.setBudgetMs(5f);
+
+		world.update(0.016f); // 苏醒帧 (大量日志，不计入)
+		world.profiler.reset();
+		slow.spikeFrame = 25;
+		for (int i = 0; i < 30; i++) world.update(0.016f);
+		world.update(0.016f); // 结算最后一帧
+
+		FrameProfiler p = world.profiler;
+		int slowIdx = p.indexOf(slow);
+		CLogAssert.assertTrue("系统已分配统计项", slowIdx >= FrameProfiler.FIRST_SYSTEM);
+		CLogAssert.assertEquals("按名字查找", slowIdx, p.indexOf("SlowSystem"));
+		CLogAssert.assertTrue("慢系统有耗时", p.getAvgMs(slowIdx) >= 0.2f);
+		CLogAssert.assertTrue("慢系统比快系统慢", p.getAvgMs(slowIdx) > p.getAvgMs(p.indexOf(fast)));
+		CLogAssert.assertTrue("Update 阶段包含系统耗时", p.getAvgMs(FrameProfiler.UPDATE) >= p.getAvgMs(slowIdx));
+		CLogAssert.assertTrue("Frame 不小于 Update", p.getAvgMs(FrameProfiler.FRAME) >= p.getAvgMs(FrameProfiler.UPDATE));
+		CLogAssert.assertTrue("p99 捕获尖峰", p.getP99Ms(slowIdx) >= 8f);
+
+		CLogAssert.assertTrue("记录到超预算帧", p.getSpikeCount() >= 1);
+		CLogAssert.assertEquals("尖峰归因到慢系统", slowIdx, p.getLastSpikeSection());
+
+		String report = p.report();
+		System.out.println(report);
+		CLogAssert.assertTrue("报告包含系统名", report.contains("SlowSystem"));
+	}
+
+	@Test
+	public void testDisabledRecordsNothing() {
+		System.out.println(">>> 验证: 关闭时不记录");
+
+		new SlowSystem().busyNanos = 0;
+		for (int i = 0; i < 5; i++) world.update(0.016f);
+		CLogAssert.assertEquals("无样本", 0, world.profiler.getSampleCount());
+	}
+}
@@ -0,0 +1,83 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(GdxTestRunner.class)
+public class GObjectComponentTest {
+
+	public static class WeaponComp extends Component {}
+	public static class SwordComp extends WeaponComp {}
+	public static class BowComp extends WeaponComp {}
+	public static class UnusedComp extends Component {}
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		new GameWorld();
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testPolymorphicLookup() {
+		System.out.println(">>> 验证: 按类型 ID 的多态查找");
+
+		GObject obj = new GObject("Hero");
+		SwordComp sword = obj.addComponent(SwordComp.class);
+		BowComp bow = obj.addComponent(BowComp.class);
+
+		CLogAssert.assertTrue("精确类型", obj.getComponent(BowComp.class) == bow);
+		CLogAssert.assertTrue("父类查询返回第一个子类实例", obj.getComponent(WeaponComp.class) == sword);
+		CLogAssert.assertTrue("按下标查找", obj.getComponent(WeaponComp.class, 1) == bow);
+		CLogAssert.assertTrue("未挂载的类型返回 null", obj.getComponent(UnusedComp.class) == null);
+
+		obj.removeComponent(sword);
+		CLogAssert.assertTrue("移除后父类查询让位给剩下的实例", obj.getComponent(WeaponComp.class) == bow);
+		CLogAssert.assertTrue("移除后精确查询为 null", obj.getComponent(SwordComp.class) == null);
+		CLogAssert.assertEquals("组件数 (含 Transform)", 2, obj.getComponentCount());
+	}
+
+	@Test
+	public void testNonAllocatingGetComponents() {
+		System.out.println(">>> 验证: getComponents(Class, out) 复用列表");
+
+		GObject obj = new GObject("Hero");
+		obj.addComponent(SwordComp.class);
+		obj.addComponent(BowComp.class);
+
+		List<WeaponComp> out = new ArrayList<>();
+		out.add(null); // 调用前的残留会被清空
+		List<WeaponComp> result = obj.getComponents(WeaponComp.class, out);
+		CLogAssert.assertTrue("返回同一个列表", result == out);
+		CLogAssert.assertEquals("两把武器", 2, out.size());
+		CLogAssert.assertEquals("旧 API 结果一致", 2, obj.getComponents(WeaponComp.class).size());
+	}
+
+	@Test
+	public void testIndexSurvivesIdReset() {
+		System.out.println(">>> 验证: 类型 ID 重置后索引自动重建");
+
+		GObject obj = new GObject("Hero");
+		SwordComp sword = obj.addComponent(SwordComp.class);
+
+		ComponentManager.dispose(); // 类型 ID 归零并重新分配
+		ComponentManager.getComponentId(BowComp.class); // 打乱分配顺序
+		CLogAssert.assertTrue("仍能查到", obj.getComponent(SwordComp.class) == sword);
+		CLogAssert.assertTrue("父类仍能查到", obj.getComponent(WeaponComp.class) == sword);
+	}
+}
@@ -0,0 +1,158 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.entity.GObjectPool;
+import com.goldsprite.gdengine.ecs.storage.Archetype;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class GObjectPoolTest {
+
+	public static class BulletComp extends Component {
+		public float life;
+		public int resets, enables, disables, destroys;
+		@Override public void onReset() { life = 0; resets++; }
+		@Override public void onEnable() { enables++; }
+		@Override public void onDisable() { disables++; }
+		@Override public void onDestroy() { destroys++; }
+	}
+
+	private GameWorld world;
+	private int created;
+	private GObjectPool pool;
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		created = 0;
+		pool = new GObjectPool("Bullet", () -> {
+			created++;
+			GObject b = new GObject("Bullet");
+			b.addComponent(BulletComp.class);
+			new GObject("Trail").setParent(b);
+			return b;
+		}, 4);
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testRecycleReusesInstance() {
+		System.out.println(">>> 验证: 回收后复用同一实例，不重新构造");
+
+		GObject a = pool.obtain();
+		BulletComp comp = a.getComponent(BulletComp.class);
+		comp.life = 3f;
+		long oldHandle = a.getHandle();
+		world.update(0.016f);
+
+		pool.free(a);
+		world.update(0.016f);
+		CLogAssert.assertTrue("停放中", a.isPooled());
+		CLogAssert.assertEquals("Reset 钩子被调用", 1, comp.resets);
+		CLogAssert.assertTrue("状态已重置", comp.life == 0f);
+		CLogAssert.assertFalse("停放的实体不在查询结果中",
+			ComponentManager.getEntitiesWithComponents(BulletComp.class).contains(a));
+		CLogAssert.assertFalse("停放的实体不在顶层列表中", world.getRootEntities().contains(a));
+		CLogAssert.assertTrue("旧句柄失效", EntityTable.current().resolve(oldHandle) == null);
+
+		GObject b = pool.obtain();
+		world.update(0.016f);
+		CLogAssert.assertTrue("取出的是同一实例", a == b);
+		CLogAssert.assertEquals("工厂只调用一次", 1, created);
+		CLogAssert.assertTrue("同一组件实例", b.getComponent(BulletComp.class) == comp);
+		CLogAssert.assertEquals("重新 onEnable", 2, comp.enables);
+		CLogAssert.assertTrue("重新出现在查询中",
+			ComponentManager.getEntitiesWithComponents(BulletComp.class).contains(b));
+		CLogAssert.assertTrue("重新出现在顶层列表中", world.getRootEntities().contains(b));
+		CLogAssert.assertEquals("子物体随行", 1, b.getChildren().size());
+		CLogAssert.assertTrue("新句柄有效", EntityTable.current().resolve(b.getHandle()) == b);
+	}
+
+	@Test
+	public void testStats() {
+		System.out.println(">>> 验证: 命中统计与容量上限");
+
+		pool.prewarm(2);
+		CLogAssert.assertEquals("预热 2 个", 2, pool.getFreeCount());
+
+		GObject[] live = new GObject[6];
+		for (int i = 0; i < live.length; i++) live[i] = pool.obtain();
+		CLogAssert.assertEquals("命中 2 次", 2, pool.getHits());
+		CLogAssert.assertEquals("未命中 4 次", 4, pool.getMisses());
+
+		for (GObject obj : live) pool.free(obj);
+		CLogAssert.assertEquals("池容量上限 4", 4, pool.getFreeCount());
+		CLogAssert.assertEquals("超出部分被丢弃", 2, pool.getDiscards());
+		System.out.println(pool);
+	}
+
+	@Test
+	public void testClearKeepsEntityOnReusedIndex() {
+		System.out.println(">>> 验证: 停放实体归还的下标被新实体复用后，清空池子不影响新实体");
+
+		ComponentManager.setStorageMode(ComponentManager.StorageMode.ARCHETYPE);
+		GObject a = pool.obtain();
+		BulletComp comp = a.getComponent(BulletComp.class);
+		pool.free(a);
+		world.update(0.016f); // 批处理结束，下标进入空闲列表
+
+		GObject live = new GObject("Live");
+		live.addComponent(BulletComp.class);
+		Archetype archetype = ComponentManager.getArchetype(live);
+		CLogAssert.assertTrue("新实体已入原型", archetype != null && archetype.getEntityCount() == 1);
+
+		pool.clear();
+		CLogAssert.assertTrue("新实体仍在原型中", ComponentManager.getArchetype(live) == archetype);
+		CLogAssert.assertEquals("原型实体数不变", 1, archetype.getEntityCount());
+		CLogAssert.assertTrue("新实体仍可查询",
+			ComponentManager.getEntitiesWithComponents(BulletComp.class).contains(live));
+		CLogAssert.assertEquals("停放的组件收到 onDestroy", 1, comp.destroys);
+		CLogAssert.assertEquals("清空时不再重复 onDisable", 1, comp.disables);
+		CLogAssert.assertTrue("停放的实体已销毁", a.isDestroyed());
+	}
+
+	@Test
+	public void testActiveStateSurvivesParking() {
+		System.out.println(">>> 验证: 停放/取出保留子物体原有的激活状态，不重复 onDisable");
+
+		GObjectPool custom = new GObjectPool("Custom", () -> {
+			GObject root = new GObject("Root");
+			root.addComponent(BulletComp.class);
+			GObject child = new GObject("Child");
+			child.addComponent(BulletComp.class);
+			child.setParent(root);
+			return root;
+		}, 4);
+		GObject root = custom.obtain();
+		GObject child = root.getChildren().get(0);
+		BulletComp rootComp = root.getComponent(BulletComp.class);
+		BulletComp childComp = child.getComponent(BulletComp.class);
+		child.setActive(false);
+		CLogAssert.assertEquals("失活时 onDisable 一次", 1, childComp.disables);
+
+		custom.free(root);
+		CLogAssert.assertEquals("已失活的子物体不再 onDisable", 1, childComp.disables);
+		CLogAssert.assertEquals("激活的根物体 onDisable", 1, rootComp.disables);
+
+		int childEnables = childComp.enables;
+		CLogAssert.assertTrue("取出同一实例", custom.obtain() == root);
+		CLogAssert.assertTrue("根物体恢复激活", root.isActive());
+		CLogAssert.assertFalse("子物体保持失活", child.isActive());
+		CLogAssert.assertEquals("失活的子物体不 onEnable", childEnables, childComp.enables);
+		CLogAssert.assertEquals("根物体重新 onEnable", 2, rootComp.enables);
+	}
+}
@@ -0,0 +1,107 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.core.platform.HeadlessEnvironment;
+import com.goldsprite.gdengine.ecs.GameSystemInfo;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.HeadlessRunner;
+import com.goldsprite.gdengine.ecs.SystemType;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+import com.goldsprite.gdengine.neonbatch.NeonBatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class HeadlessRunnerTest {
+
+	public static class Ticker extends Component {
+		public int ticks;
+		@Override public void fixedUpdate(float fixedDelta) { ticks++; }
+	}
+
+	@GameSystemInfo(type = SystemType.UPDATE)
+	static class BusySystem extends BaseSystem {
+		int calls;
+		@Override public void update(float delta) { calls++; }
+	}
+
+	@GameSystemInfo(type = SystemType.RENDER)
+	static class DrawSystem extends BaseSystem {
+		int draws;
+		@Override public void render(NeonBatch batch, Camera camera) { draws++; }
+	}
+
+	private GameWorld world;
+
+	@Before
+	public void setUp() {
+		try { while (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+	}
+
+	@After
+	public void tearDown() {
+		while (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testFixedStepRun() {
+		System.out.println(">>> 验证: 固定步长全速模拟，不执行渲染，输出逐系统耗时");
+
+		Ticker ticker = new GObject("T").addComponent(Ticker.class);
+		BusySystem busy = new BusySystem();
+		DrawSystem draw = new DrawSystem();
+
+		HeadlessRunner.Report report = new HeadlessRunner(world).setRate(60).runFrames(120);
+		System.out.println(report);
+
+		CLogAssert.assertEquals("执行帧数", 120, report.frames);
+		CLogAssert.assertTrue("自动切到运行模式", world.isPlayMode());
+		// 第一帧是苏醒帧，不跑逻辑
+		CLogAssert.assertEquals("每帧恰好一个物理步", 119, ticker.ticks);
+		CLogAssert.assertEquals("逻辑系统执行", 119, busy.calls);
+		CLogAssert.assertEquals("渲染系统不执行", 0, draw.draws);
+		CLogAssert.assertTrue("模拟时长 2 秒", Math.abs(report.simulatedSeconds - 2f) < 1e-3f);
+		CLogAssert.assertTrue("帧率为正", report.getSimulatedFps() > 0);
+
+		boolean found = false;
+		for (HeadlessRunner.SystemTiming t : report.systems) {
+			if (t.name.equals("BusySystem")) {
+				found = true;
+				CLogAssert.assertEquals("计时次数", 119, t.calls);
+			}
+		}
+		CLogAssert.assertTrue("报告包含系统耗时", found);
+		CLogAssert.assertFalse("结束后恢复分析器开关", world.profiler.isEnabled());
+		CLogAssert.assertEquals("报告与分析器累计一致", 119, world.profiler.getTotalCalls(busy.getProfileSection()));
+	}
+
+	@Test
+	public void testStopCondition() {
+		System.out.println(">>> 验证: 结束条件提前停止");
+
+		Ticker ticker = new GObject("T").addComponent(Ticker.class);
+		HeadlessRunner.Report report = new HeadlessRunner(world)
+			.setStopCondition(() -> ticker.ticks >= 30)
+			.runFor(60f);
+
+		CLogAssert.assertEquals("达到条件即停止", 30, ticker.ticks);
+		CLogAssert.assertEquals("帧数 = 苏醒帧 + 30", 31, report.frames);
+	}
+
+	@Test
+	public void testBesideExistingBackend() {
+		System.out.println(">>> 验证: 已有后端时旁路模拟不切换为无窗口模式");
+
+		// 测试运行器已装好 Gdx.app / Gdx.gl，等同于有窗口的进程
+		new HeadlessRunner(world).runFrames(2);
+		CLogAssert.assertFalse("不标记无窗口模式", HeadlessEnvironment.isInstalled());
+		CLogAssert.assertTrue("GL 上下文仍可用", HeadlessEnvironment.hasGlContext());
+	}
+}
@@ -0,0 +1,173 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.ComponentManager;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.EntityTable;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class MultiWorldTest {
+
+	/** 每个物理步累加一次，记录本世界的累计时间 */
+	public static class Counter extends Component {
+		public int ticks;
+		public float seenTime;
+		@Override public void fixedUpdate(float fixedDelta) {
+			ticks++;
+			seenTime = GameWorld.getTotalTime();
+		}
+	}
+
+	private GameWorld main;
+
+	@Before
+	public void setUp() {
+		try { while (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		main = new GameWorld();
+		main.setMode(GameWorld.Mode.PLAY);
+	}
+
+	@After
+	public void tearDown() {
+		while (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testIsolation() {
+		System.out.println(">>> 验证: 两个世界的实体/查询/时间互不干扰");
+
+		GameWorld sim = new GameWorld();
+		CLogAssert.assertTrue("默认世界不变", GameWorld.inst() == main);
+		CLogAssert.assertEquals("存活世界数", 2, GameWorld.getLiveWorldCount());
+
+		new GObject("A").addComponent(Counter.class);
+		GObject[] holder = new GObject[1];
+		sim.runInWorld(() -> {
+			holder[0] = new GObject("B");
+			holder[0].addComponent(Counter.class);
+			new GObject("C").addComponent(Counter.class);
+		});
+
+		CLogAssert.assertTrue("B 属于模拟世界", holder[0].getWorld() == sim);
+		CLogAssert.assertEquals("主世界查询只看到自己的实体", 1, ComponentManager.getEntitiesWithComponents(Counter.class).size());
+		CLogAssert.assertEquals("模拟世界的数据库", 2, sim.getComponentDatabase().getEntitiesWithComponents(Counter.class).size());
+		CLogAssert.assertTrue("句柄在所属世界解析", sim.getEntityTable().resolve(holder[0].getHandle()) == holder[0]);
+		CLogAssert.assertEquals("主世界实体表", 1, EntityTable.current().getLiveCount());
+
+		sim.setTimeScale(2f);
+		main.update(0.1f);
+		sim.update(0.1f);
+		CLogAssert.assertTrue("时间缩放独立", Math.abs(sim.totalTime() - 2 * main.totalTime()) < 1e-5f);
+
+		sim.dispose();
+		CLogAssert.assertEquals("模拟世界销毁不影响主世界", 1, ComponentManager.getEntitiesWithComponents(Counter.class).size());
+		CLogAssert.assertEquals("存活世界数", 1, GameWorld.getLiveWorldCount());
+	}
+
+	@Test
+	public void testCallsOutsideStepGoToOwnerWorld() {
+		System.out.println(">>> 验证: 在默认世界下操作另一个世界的物体，登记到物体所属的世界");
+
+		GameWorld sim = new GameWorld();
+		sim.setMode(GameWorld.Mode.PLAY);
+		GObject[] holder = new GObject[2];
+		sim.runInWorld(() -> {
+			holder[0] = new GObject("Parent");
+			holder[1] = new GObject("Child");
+		});
+		sim.update(0.016f); // 唤醒帧
+
+		// 以下都在 sim 的 update 之外，当前世界是 main
+		int mainVersion = main.getHierarchyVersion();
+		int simVersion = sim.getHierarchyVersion();
+		holder[1].setParent(holder[0]);
+		CLogAssert.assertTrue("模拟世界层级版本变化", sim.getHierarchyVersion() != simVersion);
+		CLogAssert.assertEquals("主世界层级版本不变", mainVersion, main.getHierarchyVersion());
+
+		Counter counter = holder[0].addComponent(Counter.class);
+		sim.update(0.1f);
+		CLogAssert.assertTrue("Start 与 fixedUpdate 在模拟世界执行", counter.isStarted() && counter.ticks > 0);
+
+		counter.destroy();
+		main.update(0.1f);
+		CLogAssert.assertTrue("主世界不处理别人的销毁", holder[0].getComponent(Counter.class) == counter);
+		sim.update(0.1f);
+		CLogAssert.assertTrue("模拟世界帧末移除", holder[0].getComponent(Counter.class) == null);
+		sim.dispose();
+	}
+
+	@Test
+	public void testDestroyFromOtherWorldBatchesOnOwner() {
+		System.out.println(">>> 验证: 在默认世界下销毁另一个世界的物体，批处理开在物体所属的世界");
+
+		GameWorld sim = new GameWorld();
+		GObject[] holder = new GObject[2];
+		sim.runInWorld(() -> {
+			holder[0] = new GObject("Victim");
+			holder[0].addComponent(Counter.class);
+		});
+		int index = holder[0].getEntityIndex();
+
+		holder[0].destroyImmediate(); // 当前世界是 main
+		CLogAssert.assertEquals("模拟世界查询已更新", 0, sim.getComponentDatabase().getEntitiesWithComponents(Counter.class).size());
+		CLogAssert.assertFalse("模拟世界批处理已结束", sim.getComponentDatabase().isBatching());
+		sim.runInWorld(() -> holder[1] = new GObject("Next"));
+		CLogAssert.assertEquals("下标已在所属世界的批处理结束时回收", index, holder[1].getEntityIndex());
+		sim.dispose();
+	}
+
+	@Test
+	public void testConcurrentStepping() throws Exception {
+		System.out.println(">>> 验证: 多个世界在不同线程上同时步进");
+
+		int worldCount = 4;
+		int entities = 200;
+		int frames = 120;
+		GameWorld[] worlds = new GameWorld[worldCount];
+		for (int w = 0; w < worldCount; w++) {
+			GameWorld world = new GameWorld();
+			world.setMode(GameWorld.Mode.PLAY);
+			world.runInWorld(() -> {
+				for (int i = 0; i < entities; i++) new GObject("E" + i).addComponent(Counter.class);
+			});
+			worlds[w] = world;
+		}
+
+		Thread[] threads = new Thread[worldCount];
+		Throwable[] errors = new Throwable[worldCount];
+		for (int w = 0; w < worldCount; w++) {
+			GameWorld world = worlds[w];
+			int id = w;
+			threads[w] = new Thread(() -> {
+				try {
+					for (int f = 0; f < frames; f++) {
+						world.update(1f / 60f);
+						// 每帧生成并销毁一些实体，制造结构变更
+						world.runInWorld(() -> new GObject("Temp").destroy());
+					}
+				} catch (Throwable t) {
+					errors[id] = t;
+				}
+			}, "World-" + w);
+			threads[w].start();
+		}
+		for (Thread t : threads) t.join();
+
+		for (int w = 0; w < worldCount; w++) {
+			CLogAssert.assertTrue("线程无异常: " + errors[w], errors[w] == null);
+			GameWorld world = worlds[w];
+			CLogAssert.assertEquals("实体数一致", entities,
+				world.getComponentDatabase().getEntitiesWithComponents(Counter.class).size());
+			Counter c = world.getComponentDatabase().getEntitiesWithComponents(Counter.class).get(0).getComponent(Counter.class);
+			CLogAssert.assertTrue("每个世界独立计时", c.ticks > 0 && Math.abs(c.seenTime - world.totalTime()) < 0.02f);
+			world.dispose();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.GameSystemInfo;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemType;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class ParallelForTest {
+
+	public static class TimerComp extends Component {
+		public float elapsed;
+	}
+
+	@GameSystemInfo(type = SystemType.UPDATE, interestComponents = {TimerComp.class}, writes = {TimerComp.class})
+	static class TimerSystem extends BaseSystem {
+		java.util.List<GObject> getInterestEntitiesForTest() { return getInterestEntities(); }
+		boolean spawnFromWorker = false;
+		boolean directSpawnFromWorker = false;
+		Exception caught;
+
+		private final EntityJob tick = (entity, delta) -> {
+			entity.getComponent(TimerComp.class).elapsed += delta;
+			if (spawnFromWorker) commands().spawn("Spawned", null);
+			if (directSpawnFromWorker) new GObject("Illegal");
+		};
+
+		@Override
+		public void update(float delta) {
+			try {
+				forEachParallel(delta, tick);
+			} catch (Exception e) {
+				caught = e;
+			}
+		}
+	}
+
+	private GameWorld world;
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testEveryEntityProcessedOnce() {
+		System.out.println(">>> 验证: forEachParallel 覆盖每个实体且仅一次");
+
+		TimerSystem system = new TimerSystem();
+		int count = 2000;
+		for (int i = 0; i < count; i++) new GObject("T" + i).addComponent(TimerComp.class);
+
+		world.update(0.016f); // 首帧
+		world.update(0.5f);
+
+		int wrong = 0;
+		for (GObject obj : system.getInterestEntitiesForTest()) {
+			if (obj.getComponent(TimerComp.class).elapsed != 0.5f) wrong++;
+		}
+		CLogAssert.assertEquals("所有计时器恰好累加一次", 0, wrong);
+	}
+
+	@Test
+	public void testStructuralChangeRules() {
+		System.out.println(">>> 验证: 工作线程结构变更规则");
+
+		TimerSystem system = new TimerSystem();
+		for (int i = 0; i < 300; i++) new GObject("T" + i).addComponent(TimerComp.class);
+		world.update(0.016f);
+		int roots = world.getRootEntities().size();
+
+		system.spawnFromWorker = true;
+		world.update(0.016f);
+		CLogAssert.assertTrue("通过命令缓冲生成是安全的", system.caught == null);
+		world.update(0.016f); // 新实体在 Early Flush 后进入顶层列表
+		CLogAssert.assertTrue("命令缓冲中的实体已生成", world.getRootEntities().size() >= roots + 300);
+
+		system.spawnFromWorker = false;
+		system.directSpawnFromWorker = true;
+		world.update(0.016f);
+		CLogAssert.assertTrue("任务内直接 new GObject 被拒绝", system.caught instanceof IllegalStateException);
+	}
+}
@@ -0,0 +1,125 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.RenderComponent;
+import com.goldsprite.gdengine.ecs.component.SkeletonComponent;
+import com.goldsprite.gdengine.ecs.component.SpriteComponent;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.skeleton.NeonBone;
+import com.goldsprite.gdengine.ecs.skeleton.NeonGeometrySkin;
+import com.goldsprite.gdengine.ecs.system.SkeletonSystem;
+import com.goldsprite.gdengine.ecs.system.WorldRenderSystem;
+import com.goldsprite.gdengine.neonbatch.NeonBatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(GdxTestRunner.class)
+public class RenderCullingTest {
+
+	/** 自定义绘制：给不出包围盒 */
+	public static class CustomDraw extends RenderComponent {
+		@Override public void render(NeonBatch batch, Camera camera) {}
+	}
+
+	private GameWorld world;
+	private WorldRenderSystem render;
+	private OrthographicCamera camera;
+	private final List<RenderComponent> visible = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		try { while (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		new SkeletonSystem();
+		world.update(0.016f); // 苏醒帧
+		render = world.worldRenderSystem;
+		// 剔除只读位置 / 视口 / 缩放，不需要 update (测试环境没有 native 矩阵运算)
+		camera = new OrthographicCamera();
+		camera.viewportWidth = 200;
+		camera.viewportHeight = 200;
+	}
+
+	@After
+	public void tearDown() {
+		while (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testTileFieldCulling() {
+		System.out.println(">>> 验证: 大地图只绘制相机内的瓦片");
+
+		// 20 x 20 个 32 像素瓦片，间距 100，覆盖 2000 x 2000
+		for (int y = 0; y < 20; y++) {
+			for (int x = 0; x < 20; x++) {
+				GObject tile = new GObject("Tile");
+				tile.transform.setPosition(x * 100 - 1000, y * 100 - 1000);
+				SpriteComponent sp = tile.addComponent(SpriteComponent.class);
+				sp.width = 32;
+				sp.height = 32;
+			}
+		}
+		world.update(0.016f);
+
+		render.queryVisible(camera, visible);
+		// 可见范围 [-108, 108]：x、y 各有 -100 / 0 / 100 三列
+		CLogAssert.assertEquals("可见物体", 9, render.getDrawnCount());
+		CLogAssert.assertEquals("被剔除物体", 391, render.getCulledCount());
+		CLogAssert.assertEquals("提交的组件", 9, visible.size());
+
+		camera.position.set(-1000, -1000, 0);
+		render.queryVisible(camera, visible);
+		CLogAssert.assertEquals("移动相机到角落", 4, render.getDrawnCount());
+
+		render.setCullingEnabled(false);
+		render.queryVisible(camera, visible);
+		CLogAssert.assertEquals("关闭剔除后全部提交", 400, visible.size());
+		CLogAssert.assertEquals("关闭剔除后无剔除计数", 0, render.getCulledCount());
+	}
+
+	@Test
+	public void testSkeletonBoundsFollowPose() {
+		System.out.println(">>> 验证: 骨骼包围盒取自骨骼姿态，动画不动变换也能跟上");
+
+		GObject actor = new GObject("Actor");
+		actor.transform.setPosition(-300, 0);
+		SkeletonComponent skel = actor.addComponent(SkeletonComponent.class);
+		NeonBone arm = skel.getSkeleton().createBone("Arm", "root", 300, new NeonGeometrySkin(NeonGeometrySkin.Shape.BOX, 10, true));
+		world.update(0.016f);
+
+		// 根在屏幕外，手臂伸进屏幕
+		render.queryVisible(camera, visible);
+		CLogAssert.assertTrue("手臂可见则绘制", visible.contains(skel));
+
+		// 只改骨骼 (模拟动画)：手臂朝左，整个骨架离开屏幕
+		arm.rotation = 180;
+		world.update(0.016f);
+		render.queryVisible(camera, visible);
+		CLogAssert.assertFalse("手臂移出后被剔除", visible.contains(skel));
+	}
+
+	@Test
+	public void testUnboundedAlwaysDrawn() {
+		System.out.println(">>> 验证: 给不出包围盒的组件不参与剔除");
+
+		GObject far = new GObject("Far");
+		far.transform.setPosition(5000, 5000);
+		CustomDraw custom = far.addComponent(CustomDraw.class);
+		world.update(0.016f);
+
+		render.queryVisible(camera, visible);
+		CLogAssert.assertTrue("远处的自定义绘制仍提交", visible.contains(custom));
+
+		far.setActive(false);
+		render.queryVisible(camera, visible);
+		CLogAssert.assertFalse("失活的不提交", visible.contains(custom));
+	}
+}
@@ -0,0 +1,142 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.core.utils.GdxJsonSetup;
+import com.goldsprite.gdengine.ecs.component.RenderComponent;
+import com.goldsprite.gdengine.ecs.system.RenderLayerManager;
+import com.goldsprite.gdengine.ecs.system.RenderQueue;
+import com.goldsprite.gdengine.neonbatch.NeonBatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(GdxTestRunner.class)
+public class RenderQueueTest {
+
+	static class Quad extends RenderComponent {
+		final int id;
+		Quad(int id, String layer, int order) {
+			this.id = id;
+			this.sortingLayer = layer;
+			this.orderInLayer = order;
+		}
+		@Override public void render(NeonBatch batch, Camera camera) {}
+	}
+
+	private static final String[] LAYERS = {"Default", "Background", "Ground", "Entity", "Effect"};
+
+	/** 参照实现：层深度 -> 层内顺序 -> 创建顺序 */
+	private static boolean isOrdered(List<RenderComponent> list) {
+		for (int i = 1; i < list.size(); i++) {
+			Quad a = (Quad) list.get(i - 1), b = (Quad) list.get(i);
+			int da = RenderLayerManager.getLayerDepth(a.sortingLayer), db = RenderLayerManager.getLayerDepth(b.sortingLayer);
+			if (da != db) { if (da > db) return false; continue; }
+			if (a.orderInLayer != b.orderInLayer) { if (a.orderInLayer > b.orderInLayer) return false; continue; }
+			if (a.id > b.id) return false;
+		}
+		return true;
+	}
+
+	@Test
+	public void testIncrementalSortMatchesFullSort() {
+		System.out.println(">>> 验证: 增量维护的队列与完整排序结果一致");
+
+		Random random = new Random(7);
+		List<Quad> all = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			Quad q = new Quad(i, LAYERS[random.nextInt(LAYERS.length)], random.nextInt(20) - 10);
+			q.getSortKey(); // 按创建顺序分配插入序号
+			all.add(q);
+		}
+		List<RenderComponent> visible = new ArrayList<>();
+		RenderQueue queue = new RenderQueue();
+
+		// 首帧：全部乱序 -> 基数排序
+		visible.addAll(all);
+		queue.sync(visible);
+		CLogAssert.assertEquals("首帧基数排序", RenderQueue.SORT_RADIX, queue.getLastSortKind());
+		CLogAssert.assertTrue("首帧有序", isOrdered(queue.asList()));
+
+		// 静止帧：不排序
+		queue.sync(visible);
+		CLogAssert.assertEquals("无变化不排序", RenderQueue.SORT_NONE, queue.getLastSortKind());
+
+		// 少量改动：插入排序
+		for (int i = 0; i < 5; i++) all.get(random.nextInt(all.size())).orderInLayer = random.nextInt(20) - 10;
+		queue.sync(visible);
+		CLogAssert.assertTrue("少量改动走插入排序", queue.getLastSortKind() != RenderQueue.SORT_RADIX);
+		CLogAssert.assertTrue("改动后有序", isOrdered(queue.asList()));
+
+		// 随机进出屏幕 + 改层
+		for (int frame = 0; frame < 30; frame++) {
+			visible.clear();
+			for (Quad q : all) if (random.nextInt(10) > 1) visible.add(q);
+			for (int i = 0; i < 10; i++) all.get(random.nextInt(all.size())).sortingLayer = LAYERS[random.nextInt(LAYERS.length)];
+			queue.sync(visible);
+			CLogAssert.assertEquals("成员数与可见数一致", visible.size(), queue.size());
+			CLogAssert.assertTrue("第 " + frame + " 帧有序", isOrdered(queue.asList()));
+		}
+	}
+
+	@Test
+	public void testMembershipAcrossQueues() {
+		System.out.println(">>> 验证: 同一组件进出两个队列互不干扰");
+
+		Quad a = new Quad(0, "Default", 0), b = new Quad(1, "Default", 1);
+		RenderQueue q1 = new RenderQueue(), q2 = new RenderQueue();
+		List<RenderComponent> both = new ArrayList<>();
+		both.add(b);
+		both.add(a);
+		List<RenderComponent> onlyA = new ArrayList<>();
+		onlyA.add(a);
+
+		for (int i = 0; i < 3; i++) {
+			q1.sync(both);
+			q2.sync(onlyA);
+		}
+		CLogAssert.assertEquals("队列 1 成员", 2, q1.size());
+		CLogAssert.assertEquals("队列 2 成员", 1, q2.size());
+		CLogAssert.assertTrue("按层内顺序", q1.get(0) == a && q1.get(1) == b);
+
+		q1.sync(onlyA);
+		CLogAssert.assertEquals("移出", 1, q1.getLastRemoved());
+		CLogAssert.assertTrue("剩下 A", q1.size() == 1 && q1.get(0) == a);
+	}
+
+	@Test
+	public void testLayerDepthChangeRebuildsKey() {
+		System.out.println(">>> 验证: 新建层后排序键跟着层深度更新");
+
+		Quad late = new Quad(0, "QueueTestLayer", 0);
+		Quad ground = new Quad(1, "Ground", 0);
+		CLogAssert.assertTrue("未知层按深度 0 排在前面", Long.compareUnsigned(late.getSortKey(), ground.getSortKey()) < 0);
+
+		RenderLayerManager.createLayer("QueueTestLayer", 900, true);
+		try {
+			CLogAssert.assertTrue("建层后排到后面", Long.compareUnsigned(late.getSortKey(), ground.getSortKey()) > 0);
+			CLogAssert.assertTrue("世界空间标记同步", late.isWorldSpaceLayer());
+		} finally {
+			RenderLayerManager.deleteLayer("QueueTestLayer");
+		}
+	}
+
+	@Test
+	public void testSortCacheNotSerialized() {
+		System.out.println(">>> 验证: 排序键缓存与队列标记不写进场景 JSON");
+
+		Quad q = new Quad(0, "Entity", 3);
+		q.getSortKey();
+		q.setRenderQueueMark(5);
+		String json = GdxJsonSetup.create().toJson(q);
+		System.out.println(json);
+		CLogAssert.assertTrue("保存层级", json.contains("orderInLayer"));
+		for (String field : new String[]{"sortKey", "keyLayer", "keyOrder", "keyLayerVersion", "renderSeq", "keyWorldSpace", "renderQueueMark"}) {
+			CLogAssert.assertFalse("不保存 " + field, json.contains(field));
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.core.annotations.StartPriority;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(GdxTestRunner.class)
+public class SceneQueueTest {
+
+	public static class StartCounter extends Component {
+		public int starts, destroys;
+		@Override protected void onStart() { starts++; }
+		@Override public void onDestroy() { destroys++; }
+	}
+
+	/** 模拟耗时的初始化 (每个约 2ms) */
+	public static class SlowStart extends Component {
+		static final List<SlowStart> order = new ArrayList<>();
+		public int updates;
+		@Override protected void onStart() {
+			order.add(this);
+			long end = System.nanoTime() + 2_000_000L;
+			while (System.nanoTime() < end) { /* busy */ }
+		}
+		@Override public void update(float delta) { updates++; }
+	}
+
+	@StartPriority(-10)
+	public static class CriticalStart extends SlowStart {}
+
+	private GameWorld world;
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testRegisterDedupAndRescue() {
+		System.out.println(">>> 验证: 顶层列表登记去重 & 同帧注销后救回");
+
+		GObject a = new GObject("A");
+		GameWorld.registerGObject(a); // 重复登记
+		world.update(0.016f);
+		CLogAssert.assertEquals("只登记一次", 1, world.getRootEntities().size());
+
+		GameWorld.unregisterGObject(a);
+		GameWorld.registerGObject(a); // 同帧救回
+		world.update(0.016f);
+		CLogAssert.assertEquals("救回后仍在列表中", 1, world.getRootEntities().size());
+
+		GameWorld.unregisterGObject(a);
+		world.update(0.016f);
+		CLogAssert.assertEquals("注销后移除", 0, world.getRootEntities().size());
+	}
+
+	@Test
+	public void testMassDestroy() {
+		System.out.println(">>> 验证: 大批量销毁线性完成，重复 destroy 只结算一次");
+
+		int count = 20000;
+		GObject[] objs = new GObject[count];
+		for (int i = 0; i < count; i++) {
+			objs[i] = new GObject("E" + i);
+			objs[i].addComponent(StartCounter.class);
+		}
+		world.update(0.016f);
+		CLogAssert.assertEquals("全部进入顶层列表", count, world.getRootEntities().size());
+		CLogAssert.assertEquals("Start 执行一次", 1, objs[0].getComponent(StartCounter.class).starts);
+
+		StartCounter first = objs[0].getComponent(StartCounter.class);
+		// 保留偶数下标，销毁奇数下标
+		long t0 = System.nanoTime();
+		for (int i = 1; i < count; i += 2) {
+			objs[i].destroy();
+			objs[i].destroy();
+		}
+		first.destroy();
+		first.destroy();
+		world.update(0.016f);
+		long ms = (System.nanoTime() - t0) / 1_000_000;
+		System.out.println("  销毁 " + (count / 2) + " 个实体耗时 " + ms + "ms");
+
+		CLogAssert.assertEquals("剩余一半", count / 2, world.getRootEntities().size());
+		CLogAssert.assertEquals("组件只销毁一次", 1, first.destroys);
+		boolean stale = false;
+		for (GObject obj : world.getRootEntities()) stale |= obj.isDestroyed();
+		CLogAssert.assertFalse("列表中没有残留已销毁实体", stale);
+		CLogAssert.assertTrue("顺序保持", world.getRootEntities().get(1) == objs[2]);
+	}
+
+	@Test
+	public void testStartBudget() {
+		System.out.println(">>> 验证: Start 分帧预算 & 优先级");
+
+		world.setMode(GameWorld.Mode.PLAY);
+		world.update(0.016f); // 首帧苏醒
+		world.sceneSystem.setStartBudgetMs(5f);
+		SlowStart.order.clear();
+
+		int count = 20;
+		List<SlowStart> comps = new ArrayList<>();
+		for (int i = 0; i < count; i++) comps.add(new GObject("S" + i).addComponent(SlowStart.class));
+		CriticalStart critical = new GObject("Player").addComponent(CriticalStart.class);
+
+		world.update(0.016f);
+		int started = SlowStart.order.size();
+		CLogAssert.assertTrue("本帧只启动了一部分", started >= 1 && started < count + 1);
+		CLogAssert.assertTrue("报告积压", world.sceneSystem.getStartBacklog() >= count + 1 - started);
+		CLogAssert.assertTrue("高优先级最先启动", SlowStart.order.get(0) == critical);
+		CLogAssert.assertEquals("未 Start 的组件不 Update", 0, comps.get(count - 1).updates);
+
+		world.sceneSystem.flushStarts();
+		CLogAssert.assertEquals("flush 后积压清空", 0, world.sceneSystem.getStartBacklog());
+		CLogAssert.assertEquals("全部启动且只启动一次", count + 1, SlowStart.order.size());
+		CLogAssert.assertTrue("同优先级保持报名顺序", SlowStart.order.get(1) == comps.get(0)
+			&& SlowStart.order.get(count) == comps.get(count - 1));
+
+		world.update(0.016f);
+		CLogAssert.assertEquals("启动后开始 Update", 1, comps.get(count - 1).updates);
+	}
+}
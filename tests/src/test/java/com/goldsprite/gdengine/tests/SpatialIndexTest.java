@@ -0,0 +1,178 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.RenderComponent;
+import com.goldsprite.gdengine.ecs.component.SpriteComponent;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.spatial.SpatialHashGrid;
+import com.goldsprite.gdengine.neonbatch.NeonBatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(GdxTestRunner.class)
+public class SpatialIndexTest {
+
+	private GameWorld world;
+	private final List<GObject> out = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		try { while (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		world.update(0.016f); // 苏醒帧 (跳过系统)
+	}
+
+	@After
+	public void tearDown() {
+		while (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	/** 只重写 contains 的自定义绘制：给不出包围盒 */
+	public static class Disc extends RenderComponent {
+		@Override public void render(NeonBatch batch, Camera camera) {}
+		@Override public boolean contains(float x, float y) {
+			return Vector2.dst(x, y, transform.worldPosition.x, transform.worldPosition.y) < 30f;
+		}
+	}
+
+	private GObject sprite(String name, float x, float y, float w, float h) {
+		GObject obj = new GObject(name);
+		obj.transform.setPosition(x, y);
+		SpriteComponent sp = obj.addComponent(SpriteComponent.class);
+		sp.width = w;
+		sp.height = h;
+		return obj;
+	}
+
+	@Test
+	public void testGridQueries() {
+		System.out.println(">>> 验证: 哈希网格 AABB / 点 / 半径查询与增量更新");
+
+		SpatialHashGrid grid = new SpatialHashGrid(10f);
+		IntArray ids = new IntArray();
+		grid.update(1, 0, 0, 5, 5);
+		grid.update(2, 12, 12, 14, 14);
+		grid.update(3, -1000, -1000, 1000, 1000); // 超大物体
+
+		CLogAssert.assertEquals("超大条目单独存放", 1, grid.getOversizedCount());
+		CLogAssert.assertEquals("点查询", 2, grid.queryPoint(3, 3, ids));
+		CLogAssert.assertTrue("命中 1", ids.contains(1) && ids.contains(3));
+		CLogAssert.assertEquals("跨格子的 AABB 查询去重", 3, grid.queryAabb(-5, -5, 20, 20, ids));
+		CLogAssert.assertEquals("半径查询排除角落外的盒子", 1, grid.queryRadius(-30, -30, 5, ids));
+
+		grid.update(1, 100, 100, 105, 105);
+		CLogAssert.assertEquals("移动后旧位置不再命中", 1, grid.queryPoint(3, 3, ids));
+		CLogAssert.assertEquals("新位置命中", 2, grid.queryPoint(101, 101, ids));
+
+		grid.remove(3);
+		CLogAssert.assertEquals("删除", 0, grid.queryPoint(3, 3, ids));
+		CLogAssert.assertEquals("条目数", 2, grid.size());
+	}
+
+	@Test
+	public void testEngineMaintainedIndex() {
+		System.out.println(">>> 验证: 引擎随变换自动维护索引");
+
+		GObject a = sprite("A", 0, 0, 20, 20);
+		GObject b = sprite("B", 500, 0, 20, 20);
+		GObject marker = new GObject("Marker"); // 没有渲染组件：按位置登记
+		marker.transform.setPosition(40, 0);
+		world.update(0.016f);
+
+		CLogAssert.assertEquals("点查询命中 A", 1, world.spatialIndex.queryPoint(5, 5, out));
+		CLogAssert.assertTrue("是 A", out.get(0) == a);
+		world.spatialIndex.queryRadius(0, 0, 50, out);
+		CLogAssert.assertTrue("半径内有 A 和 Marker", out.contains(a) && out.contains(marker) && !out.contains(b));
+
+		// 移动 B：下一帧索引跟上
+		b.transform.setPosition(10, 10);
+		world.update(0.016f);
+		world.spatialIndex.queryPoint(5, 5, out);
+		CLogAssert.assertTrue("B 移动后命中", out.contains(b));
+
+		// 失活不返回，销毁后移除
+		a.setActive(false);
+		world.spatialIndex.queryPoint(5, 5, out);
+		CLogAssert.assertFalse("失活不返回", out.contains(a));
+		b.destroy();
+		world.update(0.016f);
+		world.spatialIndex.queryPoint(5, 5, out);
+		CLogAssert.assertFalse("销毁后移除", out.contains(b));
+	}
+
+	@Test
+	public void testPickingUsesIndex() {
+		System.out.println(">>> 验证: 点选只返回覆盖该点的渲染组件，按渲染顺序排序");
+
+		GObject back = sprite("Back", 0, 0, 100, 100);
+		GObject front = sprite("Front", 10, 0, 40, 40);
+		front.getComponent(SpriteComponent.class).orderInLayer = 5;
+		for (int i = 0; i < 200; i++) sprite("Far" + i, 1000 + i * 50, 1000, 10, 10);
+		world.update(0.016f);
+
+		List<RenderComponent> hits = world.worldRenderSystem.queryRenderablesAt(10, 0, new ArrayList<>());
+		CLogAssert.assertEquals("只有两个候选", 2, hits.size());
+		CLogAssert.assertTrue("最上层排在最后", hits.get(1).getGObject() == front);
+
+		// 旋转后的包围盒仍覆盖精确命中区域
+		front.transform.setRotation(45);
+		world.update(0.016f);
+		hits = world.worldRenderSystem.queryRenderablesAt(10, 27, new ArrayList<>());
+		CLogAssert.assertTrue("旋转后的角仍可命中", hits.get(hits.size() - 1).getGObject() == front
+			&& front.getComponent(SpriteComponent.class).contains(10, 27));
+	}
+
+	@Test
+	public void testPickingIncludesUnbounded() {
+		System.out.println(">>> 验证: 没有包围盒的自定义绘制仍能被点选");
+
+		GObject disc = new GObject("Disc");
+		disc.transform.setPosition(300, 300);
+		Disc comp = disc.addComponent(Disc.class);
+		sprite("Other", 0, 0, 20, 20);
+		world.update(0.016f);
+
+		List<RenderComponent> hits = world.worldRenderSystem.queryRenderablesAt(310, 310, new ArrayList<>());
+		CLogAssert.assertTrue("无界组件是候选", hits.contains(comp) && comp.contains(310, 310));
+		CLogAssert.assertEquals("不重复", 1, hits.size());
+
+		disc.setActive(false);
+		hits = world.worldRenderSystem.queryRenderablesAt(310, 310, new ArrayList<>());
+		CLogAssert.assertFalse("失活不返回", hits.contains(comp));
+	}
+
+	@Test
+	public void testSizeChangeWithoutPolling() {
+		System.out.println(">>> 验证: setter 改尺寸立即进索引，静止帧不做全量扫描");
+
+		world.spatialIndex.setRefreshPerFrame(0); // 关闭轮询兜底
+		GObject a = sprite("A", 0, 0, 10, 10);
+		world.update(0.016f);
+		world.spatialIndex.queryPoint(40, 0, out);
+		CLogAssert.assertFalse("尺寸小时不覆盖", out.contains(a));
+
+		a.getComponent(SpriteComponent.class).setSize(100, 100);
+		world.spatialIndex.sync();
+		world.spatialIndex.queryPoint(40, 0, out);
+		CLogAssert.assertTrue("setSize 后立即覆盖", out.contains(a));
+
+		world.update(0.016f);
+		int scans = world.spatialIndex.getFullScanCount();
+		world.update(0.016f);
+		world.spatialIndex.sync();
+		CLogAssert.assertEquals("静止时不再全量扫描", scans, world.spatialIndex.getFullScanCount());
+		a.transform.setPosition(1000, 0);
+		world.update(0.016f);
+		CLogAssert.assertEquals("移动后扫描一次", scans + 1, world.spatialIndex.getFullScanCount());
+	}
+}
@@ -0,0 +1,93 @@
+package com.goldsprite.gdengine.tests;
+
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.GameSystemInfo;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemType;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(GdxTestRunner.class)
+public class SystemSchedulerTest {
+
+	static class PosComp extends Component {}
+	static class VelComp extends Component {}
+	static class AiComp extends Component {}
+
+	static final AtomicInteger counter = new AtomicInteger();
+
+	@GameSystemInfo(type = SystemType.UPDATE, writes = {PosComp.class})
+	static class MoveSystem extends BaseSystem {
+		int order = -1;
+		@Override public void update(float delta) { order = counter.getAndIncrement(); }
+	}
+
+	@GameSystemInfo(type = SystemType.UPDATE, writes = {AiComp.class})
+	static class AiSystem extends BaseSystem {
+		int order = -1;
+		@Override public void update(float delta) { order = counter.getAndIncrement(); }
+	}
+
+	@GameSystemInfo(type = SystemType.UPDATE, reads = {PosComp.class}, writes = {VelComp.class})
+	static class SteerSystem extends BaseSystem {
+		int order = -1;
+		@Override public void update(float delta) { order = counter.getAndIncrement(); }
+	}
+
+	private GameWorld world;
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		counter.set(0);
+	}
+
+	@After
+	public void tearDown() {
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testStageLayout() {
+		System.out.println(">>> 验证: 按读写声明分层");
+
+		MoveSystem move = new MoveSystem();
+		AiSystem ai = new AiSystem();
+		SteerSystem steer = new SteerSystem();
+
+		CLogAssert.assertFalse("Move 与 Ai 不冲突", move.conflictsWith(ai));
+		CLogAssert.assertTrue("Steer 读 Move 写的组件 -> 冲突", steer.conflictsWith(move));
+		CLogAssert.assertTrue("未声明访问的 SceneSystem 与所有系统冲突", world.sceneSystem.conflictsWith(move));
+
+		String layout = world.getUpdateScheduler().describe();
+		System.out.println(layout);
+		CLogAssert.assertTrue("Move 与 Ai 同层", layout.contains("MoveSystem | AiSystem"));
+		CLogAssert.assertTrue("共 5 层 (Transform / SpatialIndex / Scene / Move+Ai / Steer)", layout.contains("[4] SteerSystem"));
+	}
+
+	@Test
+	public void testParallelKeepsDependencyOrder() {
+		System.out.println(">>> 验证: 并行执行仍遵守依赖顺序");
+
+		MoveSystem move = new MoveSystem();
+		AiSystem ai = new AiSystem();
+		SteerSystem steer = new SteerSystem();
+		world.setParallelSystems(true);
+
+		world.update(0.016f); // 首帧
+		for (int frame = 0; frame < 20; frame++) {
+			counter.set(0);
+			world.update(0.016f);
+			CLogAssert.assertTrue("Steer 总在 Move 之后", steer.order > move.order);
+			CLogAssert.assertTrue("Steer 总在 Ai 所在层之后", steer.order > ai.order);
+		}
+	}
+}
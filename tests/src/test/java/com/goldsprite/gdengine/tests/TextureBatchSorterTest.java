@@ -0,0 +1,97 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Rectangle;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.component.RenderComponent;
+import com.goldsprite.gdengine.ecs.system.RenderQueue;
+import com.goldsprite.gdengine.ecs.system.TextureBatchSorter;
+import com.goldsprite.gdengine.neonbatch.NeonBatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(GdxTestRunner.class)
+public class TextureBatchSorterTest {
+
+	static final Object SHAPES = "shapes", HERO = "hero";
+
+	static class Item extends RenderComponent {
+		final Object texture;
+		final Rectangle bounds;
+		Item(Object texture, float x, float y, int order) {
+			this.texture = texture;
+			this.bounds = x == Float.MAX_VALUE ? null : new Rectangle(x, y, 10, 10);
+			this.orderInLayer = order;
+		}
+		@Override public void render(NeonBatch batch, Camera camera) {}
+		@Override public boolean getWorldBounds(Rectangle out) {
+			if (bounds == null) return false;
+			out.set(bounds);
+			return true;
+		}
+	}
+
+	private final TextureBatchSorter.TextureResolver resolver = c -> ((Item) c).texture;
+
+	private List<RenderComponent> sorted(Item... items) {
+		List<RenderComponent> visible = new ArrayList<>();
+		for (Item i : items) visible.add(i);
+		RenderQueue queue = new RenderQueue();
+		queue.sync(visible);
+		return new ArrayList<>(queue.asList());
+	}
+
+	@Test
+	public void testInterleavedGroupedWhenDisjoint() {
+		System.out.println(">>> 验证: 互不重叠的图形/精灵交错时按纹理归拢");
+
+		// 一排互不重叠的物体：图形、精灵交替
+		Item[] items = new Item[20];
+		for (int i = 0; i < items.length; i++) items[i] = new Item(i % 2 == 0 ? SHAPES : HERO, i * 20, 0, 0);
+		List<RenderComponent> input = sorted(items);
+
+		CLogAssert.assertEquals("原顺序换纹理次数", 19, TextureBatchSorter.countTextureSwitches(input, resolver));
+		TextureBatchSorter sorter = new TextureBatchSorter();
+		List<RenderComponent> out = sorter.apply(input, resolver);
+		CLogAssert.assertEquals("数量不变", 20, out.size());
+		CLogAssert.assertTrue("换纹理次数大幅减少", sorter.getTextureSwitches() <= 2);
+		CLogAssert.assertEquals("统计一致", sorter.getTextureSwitches(), TextureBatchSorter.countTextureSwitches(out, resolver));
+	}
+
+	@Test
+	public void testOverlapAndLayersRespected() {
+		System.out.println(">>> 验证: 重叠物体与不同 orderInLayer 之间不重排");
+
+		// A(图形) 与 B(精灵) 重叠：B 不能越过 A；C(精灵) 在更高的 orderInLayer
+		Item a = new Item(SHAPES, 0, 0, 0);
+		Item b = new Item(HERO, 5, 5, 0);
+		Item c = new Item(SHAPES, 100, 0, 0);
+		Item d = new Item(HERO, 200, 0, 1);
+		Item e = new Item(SHAPES, 300, 0, 1);
+		List<RenderComponent> out = new TextureBatchSorter().apply(sorted(a, b, c, d, e), resolver);
+
+		CLogAssert.assertTrue("A 先于重叠的 B", out.indexOf(a) < out.indexOf(b));
+		CLogAssert.assertTrue("C 与 A 同纹理，提前到 B 之前", out.indexOf(c) < out.indexOf(b));
+		CLogAssert.assertTrue("不同 orderInLayer 不交换", out.indexOf(b) < out.indexOf(d) && out.indexOf(d) < out.indexOf(e));
+	}
+
+	@Test
+	public void testUnknownIsBarrier() {
+		System.out.println(">>> 验证: 纹理未知或没有包围盒的组件不被越过");
+
+		Item a = new Item(SHAPES, 0, 0, 0);
+		Item custom = new Item(null, 50, 0, 0);
+		Item unbounded = new Item(HERO, Float.MAX_VALUE, 0, 0);
+		Item b = new Item(SHAPES, 100, 0, 0);
+		for (Item i : new Item[]{a, custom, unbounded, b}) i.getSortKey(); // 插入序号 = 创建顺序
+		List<RenderComponent> out = new TextureBatchSorter().apply(sorted(a, custom, b), resolver);
+		CLogAssert.assertTrue("未知纹理保持原位", out.get(1) == custom && out.get(2) == b);
+
+		out = new TextureBatchSorter().apply(sorted(a, unbounded, b), resolver);
+		CLogAssert.assertTrue("无包围盒保持原位", out.get(1) == unbounded && out.get(2) == b);
+	}
+}
@@ -0,0 +1,104 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.GameSystemInfo;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.SystemType;
+import com.goldsprite.gdengine.ecs.system.BaseSystem;
+import com.goldsprite.gdengine.log.TraceRecorder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+@RunWith(GdxTestRunner.class)
+public class TraceRecorderTest {
+
+	@GameSystemInfo(type = SystemType.UPDATE | SystemType.FIXED_UPDATE)
+	static class TracedSystem extends BaseSystem {
+		@Override public void update(float delta) {}
+		@Override public void fixedUpdate(float delta) {}
+	}
+
+	private GameWorld world;
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		try { while (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		world.setMode(GameWorld.Mode.PLAY);
+		file = File.createTempFile("trace", ".json");
+	}
+
+	@After
+	public void tearDown() {
+		TraceRecorder.stop();
+		file.delete();
+		while (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testFrameAndSystemEvents() {
+		System.out.println(">>> 验证: 帧与系统事件写出为 Chrome Trace JSON");
+
+		new TracedSystem();
+		world.update(1 / 60f); // 苏醒帧
+		TraceRecorder.start(file);
+		for (int i = 0; i < 10; i++) world.update(1 / 60f);
+		TraceRecorder.stop();
+
+		JsonValue events = new JsonReader().parse(new FileHandle(file)).get("traceEvents");
+		int frames = 0, updates = 0, fixed = 0, threadNames = 0;
+		for (JsonValue e = events.child; e != null; e = e.next) {
+			String name = e.getString("name");
+			String cat = e.getString("cat", "");
+			if (name.equals("thread_name")) threadNames++;
+			else if (cat.equals("Frame") && name.equals("Update")) frames++;
+			else if (name.equals("TracedSystem") && cat.equals("Update")) updates++;
+			else if (name.equals("TracedSystem") && cat.equals("Fixed")) fixed++;
+			if (e.getString("ph").equals("X")) {
+				CLogAssert.assertTrue("耗时非负", e.getDouble("dur") >= 0);
+			}
+		}
+		CLogAssert.assertEquals("帧事件", 10, frames);
+		CLogAssert.assertEquals("系统 update 事件", 10, updates);
+		CLogAssert.assertTrue("系统 fixedUpdate 事件", fixed >= 9);
+		CLogAssert.assertTrue("线程名元数据", threadNames >= 1);
+	}
+
+	@Test
+	public void testConcurrentProducers() throws Exception {
+		System.out.println(">>> 验证: 多线程无锁录制不丢不乱");
+
+		TraceRecorder.start(file);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 2000; i++) {
+					long start = TraceRecorder.now();
+					TraceRecorder.end("Test", "Work", start);
+				}
+			}, "Producer-" + t);
+			threads[t].start();
+		}
+		for (Thread t : threads) t.join();
+		TraceRecorder.stop();
+		CLogAssert.assertFalse("已停止", TraceRecorder.isRecording());
+
+		JsonValue events = new JsonReader().parse(new FileHandle(file)).get("traceEvents");
+		int work = 0, names = 0;
+		for (JsonValue e = events.child; e != null; e = e.next) {
+			if (e.getString("name").equals("Work")) work++;
+			else if (e.getString("name").equals("thread_name")) names++;
+		}
+		CLogAssert.assertEquals("事件总数 = 写入 + 丢弃", 8000L, work + TraceRecorder.getDroppedCount());
+		CLogAssert.assertEquals("每个线程一条线程名", 4, names);
+	}
+}
@@ -28,8 +28,8 @@ public class TransformMatrixTest {
 		// 验证缓存值
 		CLogAssert.assertTrue("WorldX 应该是 100", MathUtils.isEqual(t.worldPosition.x, 100, EPSILON));
 		CLogAssert.assertTrue("WorldY 应该是 50", MathUtils.isEqual(t.worldPosition.y, 50, EPSILON));
-		CLogAssert.assertTrue("WorldRot 应该是 90", MathUtils.isEqual(t.worldRotation, 90, EPSILON));
-		CLogAssert.assertTrue("WorldScaleX 应该是 2", MathUtils.isEqual(t.worldScale.x, 2, EPSILON));
+		CLogAssert.assertTrue("WorldRot 应该是 90", MathUtils.isEqual(t.getWorldRotation(), 90, EPSILON));
+		CLogAssert.assertTrue("WorldScaleX 应该是 2", MathUtils.isEqual(t.getWorldScaleX(), 2, EPSILON));
 	}
 
 	@Test
@@ -59,7 +59,7 @@ public class TransformMatrixTest {
 
 		CLogAssert.assertTrue("Child World X 应接近 0", MathUtils.isEqual(wx, 0, EPSILON));
 		CLogAssert.assertTrue("Child World Y 应接近 100", MathUtils.isEqual(wy, 100, EPSILON));
-		CLogAssert.assertTrue("Child World Rot 应叠加为 90", MathUtils.isEqual(child.transform.worldRotation, 90, EPSILON));
+		CLogAssert.assertTrue("Child World Rot 应叠加为 90", MathUtils.isEqual(child.transform.getWorldRotation(), 90, EPSILON));
 	}
 
 	@Test
@@ -85,7 +85,7 @@ public class TransformMatrixTest {
 		CLogAssert.assertTrue("Child World X 应被放大为 100", MathUtils.isEqual(wx, 100, EPSILON));
 
 		// 验证缩放: 1 * 2 = 2
-		float ws = child.transform.worldScale.x;
+		float ws = child.transform.getWorldScaleX();
 		CLogAssert.assertTrue("Child World Scale 应为 2", MathUtils.isEqual(ws, 2, EPSILON));
 	}
 
@@ -132,4 +132,27 @@ public class TransformMatrixTest {
 
 		CLogAssert.assertTrue("Local Rot 应为 -90", MathUtils.isEqual(child.transform.rotation, -90, EPSILON));
 	}
+
+	@Test
+	public void testDirtyTrackingAndLazyDecompose() {
+		System.out.println(">>> 验证: 脏检测 + 惰性分解");
+		TransformComponent t = new TransformComponent();
+		t.setPosition(10, 0);
+		t.setRotation(30);
+		t.updateWorldTransform(null);
+
+		CLogAssert.assertFalse("矩阵更新后旋转/缩放尚未分解", t.isWorldDecomposed());
+		CLogAssert.assertTrue("位移立即可用", MathUtils.isEqual(t.worldPosition.x, 10, EPSILON));
+		CLogAssert.assertTrue("读取时分解旋转", MathUtils.isEqual(t.getWorldRotation(), 30, EPSILON));
+		CLogAssert.assertTrue("读取后已缓存", t.isWorldDecomposed());
+
+		CLogAssert.assertFalse("未改动 -> 不脏", t.isWorldDirty(null));
+		t.position.x = 11; // 直接写字段也能检测到
+		CLogAssert.assertTrue("直接改字段 -> 脏", t.isWorldDirty(null));
+
+		int version = t.getWorldVersion();
+		t.updateWorldTransformIfDirty(null);
+		CLogAssert.assertEquals("重算后版本号 +1", version + 1, t.getWorldVersion());
+		CLogAssert.assertFalse("重算后不脏", t.updateWorldTransformIfDirty(null));
+	}
 }
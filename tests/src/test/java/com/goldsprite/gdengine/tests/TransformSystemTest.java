@@ -0,0 +1,135 @@
+package com.goldsprite.gdengine.tests;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.goldsprite.gdengine.CLogAssert;
+import com.goldsprite.gdengine.GdxTestRunner;
+import com.goldsprite.gdengine.ecs.GameWorld;
+import com.goldsprite.gdengine.ecs.component.Component;
+import com.goldsprite.gdengine.ecs.entity.GObject;
+import com.goldsprite.gdengine.ecs.system.TransformSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(GdxTestRunner.class)
+public class TransformSystemTest {
+
+	private static final float EPSILON = 0.01f;
+
+	/** 第一个物理步里生成一个顶层物体 */
+	public static class Spawner extends Component {
+		public GObject spawned;
+		@Override public void fixedUpdate(float fixedDelta) {
+			if (spawned != null) return;
+			spawned = new GObject("Spawned");
+			spawned.transform.setPosition(7, 3);
+		}
+	}
+
+	private GameWorld world;
+	private TransformSystem transforms;
+
+	@Before
+	public void setUp() {
+		try { if (GameWorld.inst() != null) GameWorld.inst().dispose(); } catch (Exception ignored) {}
+		world = new GameWorld();
+		transforms = world.transformSystem;
+	}
+
+	@After
+	public void tearDown() {
+		TransformSystem.PARALLEL_THRESHOLD = 2048;
+		if (GameWorld.inst() != null) GameWorld.inst().dispose();
+	}
+
+	@Test
+	public void testDirtySubtreeOnly() {
+		System.out.println(">>> 验证: 只重算脏子树");
+
+		GObject parent = new GObject("Parent");
+		GObject child = new GObject("Child");
+		child.setParent(parent);
+		GObject still = new GObject("Static");
+		parent.transform.setPosition(10, 0);
+		child.transform.setPosition(5, 0);
+
+		world.update(0.016f); // 首帧
+		world.update(0.016f);
+		CLogAssert.assertEquals("扁平层级包含 3 个节点", 3, transforms.getNodeCount());
+		CLogAssert.assertTrue("子级世界坐标 = 15", MathUtils.isEqual(child.transform.worldPosition.x, 15, EPSILON));
+
+		world.update(0.016f);
+		CLogAssert.assertEquals("静止场景不重算", 0, transforms.getLastRecomputedCount());
+
+		parent.transform.setRotation(90);
+		world.update(0.016f);
+		CLogAssert.assertEquals("父级变化带动子级重算 (静态物体不动)", 2, transforms.getLastRecomputedCount());
+		CLogAssert.assertTrue("子级随父级旋转", MathUtils.isEqual(child.transform.worldPosition.y, 5, EPSILON));
+	}
+
+	@Test
+	public void testReparent() {
+		System.out.println(">>> 验证: 换父级后世界坐标跟随新父级");
+
+		GObject a = new GObject("A");
+		GObject b = new GObject("B");
+		GObject child = new GObject("Child");
+		a.transform.setPosition(100, 0);
+		b.transform.setPosition(0, 200);
+		child.setParent(a);
+
+		world.update(0.016f);
+		world.update(0.016f);
+		CLogAssert.assertTrue("挂在 A 下", MathUtils.isEqual(child.transform.worldPosition.x, 100, EPSILON));
+
+		child.setParent(b);
+		world.update(0.016f);
+		CLogAssert.assertTrue("挂在 B 下", MathUtils.isEqual(child.transform.worldPosition.y, 200, EPSILON));
+		CLogAssert.assertTrue("离开 A", MathUtils.isEqual(child.transform.worldPosition.x, 0, EPSILON));
+	}
+
+	@Test
+	public void testParallelRoots() {
+		System.out.println(">>> 验证: 多顶层子树并行计算结果正确");
+		TransformSystem.PARALLEL_THRESHOLD = 64;
+
+		int rootCount = 200;
+		GObject[] leaves = new GObject[rootCount];
+		for (int i = 0; i < rootCount; i++) {
+			GObject root = new GObject("Root" + i);
+			root.transform.setPosition(i, 0);
+			GObject mid = new GObject("Mid" + i);
+			mid.setParent(root);
+			mid.transform.setPosition(0, 10);
+			leaves[i] = new GObject("Leaf" + i);
+			leaves[i].setParent(mid);
+			leaves[i].transform.setPosition(0, 1);
+		}
+
+		world.update(0.016f);
+		world.update(0.016f);
+		CLogAssert.assertEquals("节点数", rootCount * 3, transforms.getNodeCount());
+
+		int wrong = 0;
+		for (int i = 0; i < rootCount; i++) {
+			if (!MathUtils.isEqual(leaves[i].transform.worldPosition.x, i, EPSILON)
+				|| !MathUtils.isEqual(leaves[i].transform.worldPosition.y, 11, EPSILON)) wrong++;
+		}
+		CLogAssert.assertEquals("所有叶子世界坐标正确", 0, wrong);
+	}
+
+	@Test
+	public void testRootSpawnedMidFrame() {
+		System.out.println(">>> 验证: 帧中生成的顶层物体在入列后进入扁平层级");
+
+		world.setMode(GameWorld.Mode.PLAY);
+		Spawner spawner = new GObject("Spawner").addComponent(Spawner.class);
+		world.update(0.016f); // 首帧
+		for (int i = 0; i < 5; i++) world.update(1f / 60f);
+
+		CLogAssert.assertTrue("已生成", spawner.spawned != null);
+		CLogAssert.assertEquals("扁平层级包含新物体", 2, transforms.getNodeCount());
+		CLogAssert.assertTrue("世界坐标已计算", MathUtils.isEqual(spawner.spawned.transform.worldPosition.x, 7, EPSILON));
+	}
+}